@@ -0,0 +1,175 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.benchmark.interceptor;
+
+import de.terrestris.shogun.interceptor.enumeration.HttpEnum;
+import de.terrestris.shogun.interceptor.enumeration.InterceptorEnum;
+import de.terrestris.shogun.interceptor.enumeration.OgcEnum;
+import de.terrestris.shogun.interceptor.index.InterceptorRuleIndex;
+import de.terrestris.shogun.interceptor.model.InterceptorRule;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compares the resolution of the most specific {@link InterceptorRule} via the
+ * {@link InterceptorRuleIndex} with the former scoring loop over all rules of the requested
+ * service and event (excluding the database/query cache round trip the loop needed in addition).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterceptorRuleIndexBenchmark {
+
+    private static final int LOOKUP_COUNT = 1024;
+
+    @Param({"10000"})
+    private int ruleCount;
+
+    private Map<String, List<InterceptorRule>> rulesByServiceAndEvent;
+
+    private InterceptorRuleIndex ruleIndex;
+
+    private Lookup[] lookups;
+
+    private int lookupIdx;
+
+    private record Lookup(HttpEnum.EventType event, OgcEnum.ServiceType service, OgcEnum.OperationType operation,
+                          String endPoint) { }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<InterceptorRule> rules = new ArrayList<>(ruleCount);
+        OgcEnum.ServiceType[] services = {OgcEnum.ServiceType.WMS, OgcEnum.ServiceType.WFS, OgcEnum.ServiceType.WCS};
+        int endPointCount = ruleCount / 10;
+
+        // the basic rules (ALLOW everything) per service and event
+        for (HttpEnum.EventType event : HttpEnum.EventType.values()) {
+            for (OgcEnum.ServiceType service : services) {
+                rules.add(new InterceptorRule(event, InterceptorEnum.RuleType.ALLOW, service, null, null));
+            }
+        }
+
+        while (rules.size() < ruleCount) {
+            HttpEnum.EventType event = HttpEnum.EventType.values()[random.nextInt(HttpEnum.EventType.values().length)];
+            OgcEnum.ServiceType service = services[random.nextInt(services.length)];
+            OgcEnum.OperationType operation = random.nextInt(4) == 0 ? null : randomOperation(random, service);
+            InterceptorEnum.RuleType ruleType = InterceptorEnum.RuleType.values()[random.nextInt(InterceptorEnum.RuleType.values().length)];
+
+            rules.add(new InterceptorRule(event, ruleType, service, operation, "shogun:layer" + random.nextInt(endPointCount)));
+        }
+
+        rulesByServiceAndEvent = new HashMap<>();
+        for (InterceptorRule rule : rules) {
+            rulesByServiceAndEvent.computeIfAbsent(rule.getService() + "_" + rule.getEvent(), key -> new ArrayList<>()).add(rule);
+        }
+
+        ruleIndex = InterceptorRuleIndex.of(rules);
+
+        lookups = new Lookup[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            OgcEnum.ServiceType service = services[random.nextInt(services.length)];
+            lookups[i] = new Lookup(
+                HttpEnum.EventType.values()[random.nextInt(HttpEnum.EventType.values().length)],
+                service,
+                randomOperation(random, service),
+                "shogun:layer" + random.nextInt(endPointCount * 2)
+            );
+        }
+    }
+
+    @Benchmark
+    public InterceptorRule index() {
+        Lookup lookup = nextLookup();
+
+        return ruleIndex.getMostSpecificRule(lookup.event(), lookup.service(), lookup.operation(), lookup.endPoint());
+    }
+
+    @Benchmark
+    public InterceptorRule scoringLoop() {
+        Lookup lookup = nextLookup();
+
+        return getMostSpecificRuleByScore(rulesByServiceAndEvent.get(lookup.service() + "_" + lookup.event()),
+            lookup.service(), lookup.operation(), lookup.endPoint());
+    }
+
+    private Lookup nextLookup() {
+        lookupIdx = (lookupIdx + 1) & (LOOKUP_COUNT - 1);
+
+        return lookups[lookupIdx];
+    }
+
+    private static OgcEnum.OperationType randomOperation(Random random, OgcEnum.ServiceType service) {
+        List<OgcEnum.OperationType> operations = new ArrayList<>(OgcEnum.OPERATIONS_BY_SERVICETYPE.get(service));
+
+        return operations.get(random.nextInt(operations.size()));
+    }
+
+    /**
+     * The former implementation of GeoServerInterceptorService#getMostSpecificRule (without
+     * fetching the rules).
+     */
+    private static InterceptorRule getMostSpecificRuleByScore(List<InterceptorRule> interceptorRules,
+                                                              OgcEnum.ServiceType service,
+                                                              OgcEnum.OperationType operation,
+                                                              String endPoint) {
+        HashMap<InterceptorRule, Integer> ruleMap = new HashMap<>();
+        interceptorRules.stream().forEach((rule) -> {
+            int score = 0;
+
+            if (!StringUtils.isEmpty(rule.getEndPoint()) && !StringUtils.isEmpty(endPoint) && !StringUtils.equalsIgnoreCase(rule.getEndPoint(), endPoint)) {
+                return;
+            }
+            if (rule.getService() != null && !Objects.equals(rule.getService(), service) && service != null) {
+                return;
+            }
+            if (rule.getOperation() != null && !Objects.equals(rule.getOperation(), operation) && operation != null) {
+                return;
+            }
+            if (endPoint != null && Objects.equals(rule.getEndPoint(), endPoint)) {
+                ++score;
+            }
+            if (operation != null && Objects.equals(rule.getOperation(), operation)) {
+                ++score;
+            }
+            if (service != null && Objects.equals(rule.getService(), service)) {
+                ++score;
+            }
+            ruleMap.put(rule, score);
+        });
+
+        AtomicReference<Integer> biggestScore = new AtomicReference<>(0);
+        AtomicReference<InterceptorRule> mostSpecific = new AtomicReference<>();
+
+        ruleMap.entrySet().stream().forEach((entry) -> {
+            if (entry.getValue() > biggestScore.get()) {
+                mostSpecific.set(entry.getKey());
+                biggestScore.set(entry.getValue());
+            }
+        });
+
+        return mostSpecific.get();
+    }
+
+}
@@ -0,0 +1,178 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.benchmark.security;
+
+import de.terrestris.shogun.lib.model.Application;
+import de.terrestris.shogun.lib.model.BaseEntity;
+import de.terrestris.shogun.lib.model.File;
+import de.terrestris.shogun.lib.model.Group;
+import de.terrestris.shogun.lib.model.ImageFile;
+import de.terrestris.shogun.lib.model.Layer;
+import de.terrestris.shogun.lib.model.User;
+import de.terrestris.shogun.lib.repository.*;
+import de.terrestris.shogun.lib.security.access.BasePermissionEvaluator;
+import de.terrestris.shogun.lib.security.access.entity.BaseEntityPermissionEvaluator;
+import de.terrestris.shogun.lib.security.access.entity.DefaultPermissionEvaluator;
+import de.terrestris.shogun.lib.security.access.entity.GroupPermissionEvaluator;
+import de.terrestris.shogun.lib.security.access.entity.UserPermissionEvaluator;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.core.GenericTypeResolver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-check overhead of resolving the permission evaluator and the repository of an
+ * entity class via the class-keyed maps built at startup with the former scans over all evaluators
+ * and repositories (which resolved the generic type arguments on every call).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PermissionEvaluatorDispatchBenchmark {
+
+    private static final int LOOKUP_COUNT = 1024;
+
+    private static final Class<?>[] ENTITY_CLASSES = {Application.class, Layer.class, ImageFile.class, User.class,
+        Group.class, File.class};
+
+    private static final Class<?>[] REPOSITORY_INTERFACES = {ApplicationRepository.class, LayerRepository.class,
+        FileRepository.class, ImageFileRepository.class, UserRepository.class, GroupRepository.class};
+
+    private DispatchingPermissionEvaluator permissionEvaluator;
+
+    private RepositoryLookupPermissionEvaluator repositoryLookup;
+
+    private String[] lookups;
+
+    private int lookupIdx;
+
+    @Setup
+    public void setUp() {
+        List<BaseEntityPermissionEvaluator<?>> evaluators = List.of(new UserPermissionEvaluator(),
+            new GroupPermissionEvaluator(), new ApplicationPermissionEvaluator(), new LayerPermissionEvaluator(),
+            new ImageFilePermissionEvaluator());
+
+        permissionEvaluator = new DispatchingPermissionEvaluator(evaluators, new DefaultPermissionEvaluator());
+        permissionEvaluator.init();
+
+        List<BaseCrudRepository> repositories = Arrays.stream(REPOSITORY_INTERFACES)
+            .map(repositoryInterface -> (BaseCrudRepository) ProxyFactory.getProxy(repositoryInterface,
+                (MethodInterceptor) invocation -> null))
+            .toList();
+
+        repositoryLookup = new RepositoryLookupPermissionEvaluator(repositories);
+        repositoryLookup.initRepositories();
+
+        lookups = new String[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            lookups[i] = ENTITY_CLASSES[i % ENTITY_CLASSES.length].getCanonicalName();
+        }
+    }
+
+    @Benchmark
+    public BaseEntityPermissionEvaluator evaluatorByMap() {
+        return permissionEvaluator.getPermissionEvaluator(nextLookup());
+    }
+
+    @Benchmark
+    public BaseEntityPermissionEvaluator evaluatorByScan() {
+        return permissionEvaluator.getPermissionEvaluatorByScan(nextLookup());
+    }
+
+    @Benchmark
+    public Optional<BaseCrudRepository> repositoryByMap() {
+        return repositoryLookup.getRepository(nextLookup());
+    }
+
+    @Benchmark
+    public Optional<BaseCrudRepository> repositoryByScan() {
+        return repositoryLookup.getRepositoryByScan(nextLookup());
+    }
+
+    private String nextLookup() {
+        lookupIdx = (lookupIdx + 1) & (LOOKUP_COUNT - 1);
+
+        return lookups[lookupIdx];
+    }
+
+    static class DispatchingPermissionEvaluator extends BasePermissionEvaluator {
+
+        DispatchingPermissionEvaluator(List<BaseEntityPermissionEvaluator<?>> permissionEvaluators,
+                                       DefaultPermissionEvaluator defaultPermissionEvaluator) {
+            this.permissionEvaluators = permissionEvaluators;
+            this.defaultPermissionEvaluator = defaultPermissionEvaluator;
+        }
+
+        BaseEntityPermissionEvaluator getPermissionEvaluator(String persistentObjectClass) {
+            return getPermissionEvaluatorForClass(persistentObjectClass);
+        }
+
+        /**
+         * The former implementation of BasePermissionEvaluator#getPermissionEvaluatorForClass.
+         */
+        BaseEntityPermissionEvaluator getPermissionEvaluatorByScan(String persistentObjectClass) {
+            return permissionEvaluators.stream()
+                .filter(permissionEvaluator -> persistentObjectClass.equals(
+                    ((Class<?>) GenericTypeResolver.resolveTypeArgument(permissionEvaluator.getClass(),
+                        BaseEntityPermissionEvaluator.class)).getCanonicalName()))
+                .findAny()
+                .orElse(defaultPermissionEvaluator);
+        }
+    }
+
+    static class RepositoryLookupPermissionEvaluator extends BaseEntityPermissionEvaluator<BaseEntity> {
+
+        RepositoryLookupPermissionEvaluator(List<BaseCrudRepository> baseCrudRepositories) {
+            this.baseCrudRepositories = baseCrudRepositories;
+        }
+
+        Optional<BaseCrudRepository> getRepository(String targetDomainType) {
+            return getRepositoryForClass(targetDomainType);
+        }
+
+        /**
+         * The former repository lookup of BaseEntityPermissionEvaluator#hasPermission(User, Long, String, PermissionType).
+         */
+        Optional<BaseCrudRepository> getRepositoryByScan(String targetDomainType) {
+            return baseCrudRepositories.stream()
+                .filter(repository -> Arrays.stream(AopProxyUtils.proxiedUserInterfaces(repository))
+                    .anyMatch(clazz -> {
+                        Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(
+                            clazz, BaseCrudRepository.class);
+                        return typeArguments != null &&
+                            typeArguments[0].getCanonicalName().equalsIgnoreCase(targetDomainType);
+                    }))
+                .findFirst();
+        }
+    }
+
+    static class ApplicationPermissionEvaluator extends BaseEntityPermissionEvaluator<Application> { }
+
+    static class LayerPermissionEvaluator extends BaseEntityPermissionEvaluator<Layer> { }
+
+    static class ImageFilePermissionEvaluator extends BaseEntityPermissionEvaluator<ImageFile> { }
+
+}
@@ -0,0 +1,307 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.benchmark.security;
+
+import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
+import de.terrestris.shogun.lib.model.Application;
+import de.terrestris.shogun.lib.model.Layer;
+import de.terrestris.shogun.lib.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the latency of the permission queries issued by SHOGun (the instance permission lookup of
+ * `findByUserIdAndEntityId`, the EXISTS subqueries of the paged `BaseCrudRepository.findAll` and the class
+ * permission lookup) against a local PostgreSQL, once without and once with the indexes added by
+ * `V0.15.0__Add_permission_indexes.sql`.
+ *
+ * The benchmark seeds the permission tables (1M user instance permissions by default) into the separate schema
+ * `shogun_benchmark`, which is dropped afterwards. The seed is fixed, so the data is the same for every run. The
+ * database can be configured via the system properties `shogun.benchmark.jdbcUrl`, `shogun.benchmark.user` and
+ * `shogun.benchmark.password`, e.g.:
+ *
+ *   java -Dshogun.benchmark.jdbcUrl=jdbc:postgresql://localhost:5432/shogun -jar shogun-benchmark/target/benchmarks.jar PermissionQueryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PermissionQueryBenchmark {
+
+    private static final String SCHEMA = "shogun_benchmark";
+
+    private static final int LOOKUP_COUNT = 1024;
+
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * The indexes of `V0.15.0__Add_permission_indexes.sql`.
+     */
+    private static final String[] INDEXES = {
+        "CREATE INDEX userinstancepermissions_user_id_entity_id_idx ON " + SCHEMA +
+            ".userinstancepermissions (user_id, entity_id) INCLUDE (permission_id)",
+        "CREATE INDEX userinstancepermissions_entity_id_idx ON " + SCHEMA + ".userinstancepermissions (entity_id)",
+        "CREATE INDEX groupinstancepermissions_group_id_entity_id_idx ON " + SCHEMA +
+            ".groupinstancepermissions (group_id, entity_id) INCLUDE (permission_id)",
+        "CREATE INDEX groupinstancepermissions_entity_id_idx ON " + SCHEMA + ".groupinstancepermissions (entity_id)",
+        "CREATE INDEX userclasspermissions_user_id_class_name_idx ON " + SCHEMA +
+            ".userclasspermissions (user_id, class_name) INCLUDE (permission_id)",
+        "CREATE INDEX groupclasspermissions_group_id_class_name_idx ON " + SCHEMA +
+            ".groupclasspermissions (group_id, class_name) INCLUDE (permission_id)"
+    };
+
+    private static final String[] CLASS_NAMES = {Application.class.getCanonicalName(),
+        Layer.class.getCanonicalName(), User.class.getCanonicalName()};
+
+    @Param({"1000000"})
+    private int permissionCount;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private Connection connection;
+
+    private PreparedStatement findByUserIdAndEntityId;
+
+    private PreparedStatement findPageByUserAndGroups;
+
+    private PreparedStatement findClassPermission;
+
+    private long[][] instanceLookups;
+
+    private long[] userLookups;
+
+    private Array[] groupLookups;
+
+    private int lookupIdx;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+            System.getProperty("shogun.benchmark.jdbcUrl", "jdbc:postgresql://localhost:5432/shogun"),
+            System.getProperty("shogun.benchmark.user", "shogun"),
+            System.getProperty("shogun.benchmark.password", "shogun")
+        );
+
+        int userCount = Math.max(1, permissionCount / 100);
+        int groupCount = Math.max(1, userCount / 20);
+        int entityCount = Math.max(1, permissionCount / 5);
+
+        try (Statement statement = connection.createStatement()) {
+            createSchema(statement);
+            seed(statement, userCount, groupCount, entityCount);
+
+            if (indexed) {
+                for (String index : INDEXES) {
+                    statement.execute(index);
+                }
+            }
+
+            statement.execute("VACUUM ANALYZE " + SCHEMA + ".userinstancepermissions");
+            statement.execute("VACUUM ANALYZE " + SCHEMA + ".groupinstancepermissions");
+            statement.execute("VACUUM ANALYZE " + SCHEMA + ".userclasspermissions");
+            statement.execute("VACUUM ANALYZE " + SCHEMA + ".groupclasspermissions");
+            statement.execute("VACUUM ANALYZE " + SCHEMA + ".layers");
+        }
+
+        // the read check of BaseCrudRepository, i.e. the READ or the ADMIN bit has to be set
+        int readMask = PermissionType.READ.getGrantingMask();
+
+        findByUserIdAndEntityId = connection.prepareStatement(
+            "SELECT uip.id, uip.permission_id FROM " + SCHEMA + ".userinstancepermissions uip " +
+            "WHERE uip.user_id = ? AND uip.entity_id = ?");
+        findPageByUserAndGroups = connection.prepareStatement(
+            "SELECT m.id, m.name FROM " + SCHEMA + ".layers m " +
+            "WHERE EXISTS (" +
+            "  SELECT 1 FROM " + SCHEMA + ".userinstancepermissions uip " +
+            "  JOIN " + SCHEMA + ".permissions p ON p.id = uip.permission_id " +
+            "  WHERE uip.user_id = ? AND uip.entity_id = m.id AND (p.permission_mask & " + readMask + ") <> 0" +
+            ") OR EXISTS (" +
+            "  SELECT 1 FROM " + SCHEMA + ".groupinstancepermissions gip " +
+            "  JOIN " + SCHEMA + ".permissions p ON p.id = gip.permission_id " +
+            "  WHERE gip.group_id = ANY (?) AND gip.entity_id = m.id AND (p.permission_mask & " + readMask + ") <> 0" +
+            ") ORDER BY m.id LIMIT " + PAGE_SIZE);
+        findClassPermission = connection.prepareStatement(
+            "SELECT ucp.permission_id FROM " + SCHEMA + ".userclasspermissions ucp " +
+            "WHERE ucp.user_id = ? AND ucp.class_name = ?");
+
+        prepareLookups(userCount, groupCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int findUserInstancePermission() throws SQLException {
+        long[] lookup = instanceLookups[nextLookup()];
+
+        findByUserIdAndEntityId.setLong(1, lookup[0]);
+        findByUserIdAndEntityId.setLong(2, lookup[1]);
+
+        return count(findByUserIdAndEntityId);
+    }
+
+    @Benchmark
+    public int findPageByUserAndGroupInstancePermissions() throws SQLException {
+        int idx = nextLookup();
+
+        findPageByUserAndGroups.setLong(1, userLookups[idx]);
+        findPageByUserAndGroups.setArray(2, groupLookups[idx]);
+
+        return count(findPageByUserAndGroups);
+    }
+
+    @Benchmark
+    public int findUserClassPermission() throws SQLException {
+        int idx = nextLookup();
+
+        findClassPermission.setLong(1, userLookups[idx]);
+        findClassPermission.setString(2, CLASS_NAMES[idx % CLASS_NAMES.length]);
+
+        return count(findClassPermission);
+    }
+
+    private void createSchema(Statement statement) throws SQLException {
+        statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        statement.execute("CREATE SCHEMA " + SCHEMA);
+
+        // the relevant parts of the shogun schema (see V0.1.0__Baseline.sql and the following migrations)
+        statement.execute("CREATE TABLE " + SCHEMA + ".permissions (id bigint PRIMARY KEY, name text NOT NULL UNIQUE, " +
+            "permission_mask integer NOT NULL)");
+        statement.execute("CREATE TABLE " + SCHEMA + ".users (id bigint PRIMARY KEY)");
+        statement.execute("CREATE TABLE " + SCHEMA + ".groups (id bigint PRIMARY KEY)");
+        statement.execute("CREATE TABLE " + SCHEMA + ".layers (id bigint PRIMARY KEY, name text NOT NULL)");
+        for (String owner : new String[] {"user", "group"}) {
+            statement.execute("CREATE TABLE " + SCHEMA + "." + owner + "instancepermissions (" +
+                "id bigint PRIMARY KEY, " +
+                "created timestamp without time zone, " +
+                "modified timestamp without time zone, " +
+                "entity_id bigint NOT NULL, " +
+                "permission_id bigint NOT NULL REFERENCES " + SCHEMA + ".permissions (id), " +
+                owner + "_id bigint NOT NULL REFERENCES " + SCHEMA + "." + owner + "s (id))");
+            statement.execute("CREATE TABLE " + SCHEMA + "." + owner + "classpermissions (" +
+                "id bigint PRIMARY KEY, " +
+                "created timestamp without time zone, " +
+                "modified timestamp without time zone, " +
+                "class_name text, " +
+                "permission_id bigint NOT NULL REFERENCES " + SCHEMA + ".permissions (id), " +
+                owner + "_id bigint NOT NULL REFERENCES " + SCHEMA + "." + owner + "s (id))");
+        }
+    }
+
+    private void seed(Statement statement, int userCount, int groupCount, int entityCount) throws SQLException {
+        PermissionCollectionType[] types = PermissionCollectionType.values();
+        String classNames = Arrays.stream(CLASS_NAMES)
+            .map(className -> "'" + className + "'")
+            .collect(Collectors.joining(", "));
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + SCHEMA + ".permissions (id, name, permission_mask) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < types.length; i++) {
+                insert.setLong(1, i + 1);
+                insert.setString(2, types[i].name());
+                insert.setInt(3, types[i].getMask());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        // the same (pseudo) random data for every run
+        statement.execute("SELECT setseed(0.42)");
+
+        statement.execute("INSERT INTO " + SCHEMA + ".users SELECT generate_series(1, " + userCount + ")");
+        statement.execute("INSERT INTO " + SCHEMA + ".groups SELECT generate_series(1, " + groupCount + ")");
+        statement.execute("INSERT INTO " + SCHEMA + ".layers SELECT i, 'Layer ' || i " +
+            "FROM generate_series(1, " + entityCount + ") i");
+        statement.execute("INSERT INTO " + SCHEMA + ".userinstancepermissions " +
+            "SELECT i, now(), now(), " +
+            "1 + floor(random() * " + entityCount + "), " +
+            "1 + floor(random() * " + types.length + "), " +
+            "1 + floor(random() * " + userCount + ") " +
+            "FROM generate_series(1, " + permissionCount + ") i");
+        statement.execute("INSERT INTO " + SCHEMA + ".groupinstancepermissions " +
+            "SELECT i, now(), now(), " +
+            "1 + floor(random() * " + entityCount + "), " +
+            "1 + floor(random() * " + types.length + "), " +
+            "1 + floor(random() * " + groupCount + ") " +
+            "FROM generate_series(1, " + permissionCount / 4 + ") i");
+        statement.execute("INSERT INTO " + SCHEMA + ".userclasspermissions " +
+            "SELECT row_number() OVER (), now(), now(), c, 1 + floor(random() * " + types.length + "), u " +
+            "FROM generate_series(1, " + userCount + ") u, unnest(ARRAY[" + classNames + "]) c");
+        statement.execute("INSERT INTO " + SCHEMA + ".groupclasspermissions " +
+            "SELECT row_number() OVER (), now(), now(), c, 1 + floor(random() * " + types.length + "), g " +
+            "FROM generate_series(1, " + groupCount + ") g, unnest(ARRAY[" + classNames + "]) c");
+    }
+
+    private void prepareLookups(int userCount, int groupCount) throws SQLException {
+        Random random = new Random(42);
+
+        // existing user instance permissions, spread over the whole table
+        instanceLookups = new long[LOOKUP_COUNT][];
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT user_id, entity_id FROM " + SCHEMA +
+                 ".userinstancepermissions WHERE id % " + Math.max(1, permissionCount / LOOKUP_COUNT) + " = 0 " +
+                 "ORDER BY id LIMIT " + LOOKUP_COUNT)) {
+            int found = 0;
+            while (resultSet.next()) {
+                instanceLookups[found++] = new long[] {resultSet.getLong(1), resultSet.getLong(2)};
+            }
+            for (int i = found; i < LOOKUP_COUNT; i++) {
+                instanceLookups[i] = instanceLookups[i % found];
+            }
+        }
+
+        userLookups = new long[LOOKUP_COUNT];
+        groupLookups = new Array[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            userLookups[i] = 1 + random.nextInt(userCount);
+            groupLookups[i] = connection.createArrayOf("bigint", new Long[] {
+                1L + random.nextInt(groupCount),
+                1L + random.nextInt(groupCount)
+            });
+        }
+    }
+
+    private int nextLookup() {
+        lookupIdx = (lookupIdx + 1) & (LOOKUP_COUNT - 1);
+        return lookupIdx;
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,9 @@
+ALTER TABLE shogun.imagefiles ADD COLUMN IF NOT EXISTS thumbnail_status text;
+UPDATE shogun.imagefiles SET thumbnail_status = 'READY' WHERE thumbnail_status IS NULL AND thumbnail IS NOT NULL;
+
+CREATE TABLE IF NOT EXISTS shogun.imagefile_thumbnails (
+    imagefile_id bigint NOT NULL REFERENCES shogun.imagefiles (id) ON DELETE CASCADE,
+    size integer NOT NULL,
+    thumbnail bytea,
+    PRIMARY KEY (imagefile_id, size)
+);
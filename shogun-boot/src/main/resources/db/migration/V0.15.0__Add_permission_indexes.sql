@@ -0,0 +1,15 @@
+CREATE INDEX IF NOT EXISTS userinstancepermissions_user_id_entity_id_idx
+    ON shogun.userinstancepermissions (user_id, entity_id) INCLUDE (permission_id);
+CREATE INDEX IF NOT EXISTS userinstancepermissions_entity_id_idx
+    ON shogun.userinstancepermissions (entity_id);
+
+CREATE INDEX IF NOT EXISTS groupinstancepermissions_group_id_entity_id_idx
+    ON shogun.groupinstancepermissions (group_id, entity_id) INCLUDE (permission_id);
+CREATE INDEX IF NOT EXISTS groupinstancepermissions_entity_id_idx
+    ON shogun.groupinstancepermissions (entity_id);
+
+CREATE INDEX IF NOT EXISTS userclasspermissions_user_id_class_name_idx
+    ON shogun.userclasspermissions (user_id, class_name) INCLUDE (permission_id);
+
+CREATE INDEX IF NOT EXISTS groupclasspermissions_group_id_class_name_idx
+    ON shogun.groupclasspermissions (group_id, class_name) INCLUDE (permission_id);
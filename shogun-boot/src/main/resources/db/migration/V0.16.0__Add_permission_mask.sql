@@ -0,0 +1,16 @@
+ALTER TABLE shogun.permissions ADD COLUMN IF NOT EXISTS permission_mask integer;
+
+UPDATE shogun.permissions p SET permission_mask = (
+    SELECT COALESCE(BIT_OR(
+        CASE pp.permissions
+            WHEN 'ADMIN' THEN 1
+            WHEN 'CREATE' THEN 2
+            WHEN 'DELETE' THEN 4
+            WHEN 'UPDATE' THEN 8
+            WHEN 'READ' THEN 16
+            ELSE 0
+        END
+    ), 0)
+    FROM shogun.permission pp
+    WHERE pp.permissions_id = p.id
+);
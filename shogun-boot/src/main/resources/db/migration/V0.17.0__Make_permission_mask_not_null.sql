@@ -0,0 +1,17 @@
+UPDATE shogun.permissions p SET permission_mask = (
+    SELECT COALESCE(BIT_OR(
+        CASE pp.permissions
+            WHEN 'ADMIN' THEN 1
+            WHEN 'CREATE' THEN 2
+            WHEN 'DELETE' THEN 4
+            WHEN 'UPDATE' THEN 8
+            WHEN 'READ' THEN 16
+            ELSE 0
+        END
+    ), 0)
+    FROM shogun.permission pp
+    WHERE pp.permissions_id = p.id
+)
+WHERE p.permission_mask IS NULL;
+
+ALTER TABLE shogun.permissions ALTER COLUMN permission_mask SET NOT NULL;
@@ -0,0 +1,21 @@
+-- Keep the most recent permission of duplicated user/group and entity pairs only.
+DELETE FROM shogun.userinstancepermissions p
+USING shogun.userinstancepermissions newer
+WHERE p.user_id = newer.user_id
+    AND p.entity_id = newer.entity_id
+    AND p.id < newer.id;
+
+DELETE FROM shogun.groupinstancepermissions p
+USING shogun.groupinstancepermissions newer
+WHERE p.group_id = newer.group_id
+    AND p.entity_id = newer.entity_id
+    AND p.id < newer.id;
+
+-- The unique keys replace the covering indexes on the same columns.
+ALTER TABLE shogun.userinstancepermissions
+    ADD CONSTRAINT userinstancepermissions_user_id_entity_id_key UNIQUE (user_id, entity_id) INCLUDE (permission_id);
+DROP INDEX IF EXISTS shogun.userinstancepermissions_user_id_entity_id_idx;
+
+ALTER TABLE shogun.groupinstancepermissions
+    ADD CONSTRAINT groupinstancepermissions_group_id_entity_id_key UNIQUE (group_id, entity_id) INCLUDE (permission_id);
+DROP INDEX IF EXISTS shogun.groupinstancepermissions_group_id_entity_id_idx;
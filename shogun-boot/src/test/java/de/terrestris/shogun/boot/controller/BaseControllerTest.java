@@ -581,4 +581,118 @@ public abstract class BaseControllerTest<U extends BaseController, R extends Bas
         assertEquals(2, persistedEntities.size());
     }
 
+    @Test
+    public void addAll_shouldDenyUnpermittedItemsForRoleUser() throws Exception {
+        JsonNode insertNode = objectMapper.valueToTree(testData.get(0));
+        List<String> fieldsToRemove = List.of("id", "created", "modified");
+        insertNode = ((ObjectNode) insertNode).remove(fieldsToRemove);
+
+        int count = repository.findAll().size();
+
+        this.mockMvc
+            .perform(
+                MockMvcRequestBuilders
+                    .post(String.format("%s/bulk", basePath))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding(Encoding.DEFAULT_CHARSET.toString())
+                    .content(objectMapper.writeValueAsString(List.of(insertNode, insertNode)))
+                    .with(authentication(getMockAuthentication(this.user)))
+                    .with(csrf())
+            )
+            .andExpect(MockMvcResultMatchers.status().isMultiStatus())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].index").value(0))
+            .andExpect(jsonPath("$[0].status").value(403))
+            .andExpect(jsonPath("$[1].index").value(1))
+            .andExpect(jsonPath("$[1].status").value(403));
+
+        List<S> persistedEntities = repository.findAll();
+        assertEquals(count, persistedEntities.size());
+    }
+
+    @Test
+    public void addAll_shouldCreateTheEntitiesForRoleAdmin() throws Exception {
+        JsonNode insertNode = objectMapper.valueToTree(testData.get(0));
+        List<String> fieldsToRemove = List.of("id", "created", "modified");
+        insertNode = ((ObjectNode) insertNode).remove(fieldsToRemove);
+
+        int count = repository.findAll().size();
+
+        this.mockMvc
+            .perform(
+                MockMvcRequestBuilders
+                    .post(String.format("%s/bulk", basePath))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding(Encoding.DEFAULT_CHARSET.toString())
+                    .content(objectMapper.writeValueAsString(List.of(insertNode, insertNode)))
+                    .with(authentication(getMockAuthentication(this.adminUser)))
+                    .with(csrf())
+            )
+            .andExpect(MockMvcResultMatchers.status().isMultiStatus())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].status").value(201))
+            .andExpect(jsonPath("$[0].id").isNumber())
+            .andExpect(jsonPath("$[1].status").value(201))
+            .andExpect(jsonPath("$[1].id").isNumber());
+
+        List<S> persistedEntities = repository.findAll();
+        assertEquals(count + 2, persistedEntities.size());
+    }
+
+    @Test
+    public void updatePartialAll_shouldReportTheResultOfEachItemForRoleUser() throws Exception {
+
+        userInstancePermissionService.setPermission(testData.get(0), this.user, PermissionCollectionType.READ_UPDATE);
+
+        List<Map<String, Object>> patches = List.of(
+            Map.of("id", testData.get(0).getId()),
+            Map.of("id", testData.get(1).getId()),
+            Map.of()
+        );
+
+        this.mockMvc
+            .perform(
+                MockMvcRequestBuilders
+                    .patch(String.format("%s/bulk", basePath))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding(Encoding.DEFAULT_CHARSET.toString())
+                    .content(objectMapper.writeValueAsString(patches))
+                    .with(authentication(getMockAuthentication(this.user)))
+                    .with(csrf())
+            )
+            .andExpect(MockMvcResultMatchers.status().isMultiStatus())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[0].status").value(200))
+            .andExpect(jsonPath("$[0].id").value(testData.get(0).getId()))
+            .andExpect(jsonPath("$[1].status").value(404))
+            .andExpect(jsonPath("$[1].id").value(testData.get(1).getId()))
+            .andExpect(jsonPath("$[2].status").value(400));
+    }
+
+    @Test
+    public void deleteAll_shouldReportTheResultOfEachItemForRoleUser() throws Exception {
+
+        userInstancePermissionService.setPermission(testData.get(0), this.user, PermissionCollectionType.READ_DELETE);
+
+        int count = repository.findAll().size();
+
+        this.mockMvc
+            .perform(
+                MockMvcRequestBuilders
+                    .delete(String.format("%s/bulk", basePath))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding(Encoding.DEFAULT_CHARSET.toString())
+                    .content(objectMapper.writeValueAsString(List.of(testData.get(0).getId(), testData.get(1).getId())))
+                    .with(authentication(getMockAuthentication(this.user)))
+                    .with(csrf())
+            )
+            .andExpect(MockMvcResultMatchers.status().isMultiStatus())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].status").value(204))
+            .andExpect(jsonPath("$[1].status").value(404));
+
+        List<S> persistedEntities = repository.findAll();
+        assertEquals(count - 1, persistedEntities.size());
+    }
+
 }
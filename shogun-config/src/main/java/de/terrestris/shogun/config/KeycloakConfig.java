@@ -42,6 +42,7 @@ public abstract class KeycloakConfig {
     public Keycloak keycloakAdminClient() {
         Client restClient = ((ResteasyClientBuilder) ClientBuilder.newBuilder())
             .hostnameVerification(ResteasyClientBuilder.HostnameVerificationPolicy.ANY)
+            .connectionPoolSize(keycloakProperties.getConnectionPoolSize())
             .build();
 
         return KeycloakBuilder.builder()
@@ -62,7 +62,8 @@ public class KeycloakWebSecurityConfig implements DefaultWebSecurityConfig {
 
         KeycloakJwtAuthenticationConverter authConverter = new KeycloakJwtAuthenticationConverter(
             keycloakProperties.getClientId(),
-            keycloakProperties.getPrincipalAttribute()
+            keycloakProperties.getPrincipalAttribute(),
+            keycloakProperties.getGroupsClaim()
         );
 
         http
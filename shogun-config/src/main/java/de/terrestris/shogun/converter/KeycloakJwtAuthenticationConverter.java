@@ -22,43 +22,90 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.util.StringUtils;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Converts a Keycloak access token to an authentication holding the client roles (and optionally the groups) of the
+ * user. Malformed roles are ignored, i.e. they don't grant any role. A malformed groups claim is handled like a missing
+ * one, i.e. the groups of the user will be requested from Keycloak.
+ */
 public class KeycloakJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    private static final String RESOURCE_ACCESS_CLAIM = "resource_access";
+
+    private static final String ROLES_CLAIM = "roles";
+
     private final String resourceId;
 
     private final String principalClaimName;
 
+    private final String groupsClaimName;
+
     public KeycloakJwtAuthenticationConverter(String resourceId, String principalClaimName) {
+        this(resourceId, principalClaimName, null);
+    }
+
+    /**
+     * @param resourceId The ID of the client to read the roles of the user from.
+     * @param principalClaimName The name of the claim to use as name of the principal.
+     * @param groupsClaimName The name of the claim containing the groups of the user. If set, a
+     *                        {@link KeycloakJwtAuthenticationToken} holding these groups is returned.
+     */
+    public KeycloakJwtAuthenticationConverter(String resourceId, String principalClaimName, String groupsClaimName) {
         this.resourceId = resourceId;
         this.principalClaimName = principalClaimName;
+        this.groupsClaimName = groupsClaimName;
     }
 
     @Override
     public AbstractAuthenticationToken convert(final Jwt jwt) {
-        Collection<GrantedAuthority> authorities = (Collection<GrantedAuthority>) extractResourceRoles(jwt, resourceId);
+        Collection<GrantedAuthority> authorities = extractResourceRoles(jwt, resourceId);
 
         String principalClaimValue = jwt.getClaimAsString(this.principalClaimName);
 
+        if (StringUtils.hasLength(groupsClaimName)) {
+            List<String> groups = extractGroups(jwt, groupsClaimName);
+
+            return new KeycloakJwtAuthenticationToken(jwt, authorities, principalClaimValue, groups);
+        }
+
         return new JwtAuthenticationToken(jwt, authorities, principalClaimValue);
     }
 
-    private Collection<? extends GrantedAuthority> extractResourceRoles(final Jwt jwt, final String resourceId) {
-        Map<String, Object> resourceAccess = jwt.getClaim("resource_access");
-
-        if (resourceAccess == null || resourceAccess.get(resourceId) == null ||
-            ((Map<String, Object>) resourceAccess.get(resourceId)).get("roles") == null) {
+    private Collection<GrantedAuthority> extractResourceRoles(final Jwt jwt, final String resourceId) {
+        if (!(jwt.getClaims().get(RESOURCE_ACCESS_CLAIM) instanceof Map<?, ?> resourceAccess) ||
+            !(resourceAccess.get(resourceId) instanceof Map<?, ?> resource) ||
+            !(resource.get(ROLES_CLAIM) instanceof Collection<?> resourceRoles)) {
             return Collections.emptySet();
         }
 
-        Collection<String> resourceRoles = (Collection<String>) ((Map<String, Object>) resourceAccess.get(resourceId)).get("roles");
-
         return resourceRoles.stream()
+            .filter(String.class::isInstance)
             .map(role -> new SimpleGrantedAuthority(String.format("ROLE_%s", role).toUpperCase()))
             .collect(Collectors.toSet());
     }
+
+    private List<String> extractGroups(final Jwt jwt, final String groupsClaimName) {
+        Object groups = jwt.getClaims().get(groupsClaimName);
+
+        // a single group if the claim isn't configured as multivalued
+        if (groups instanceof String group) {
+            return List.of(group);
+        }
+
+        if (groups instanceof Collection<?> groupCollection) {
+            return groupCollection.stream()
+                .filter(String.class::isInstance)
+                .map(String.class::cast)
+                .toList();
+        }
+
+        return null;
+    }
 }
@@ -0,0 +1,68 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.converter;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link JwtAuthenticationToken} carrying the groups of the user as contained in the groups claim of the token
+ * (see `keycloak.groupsClaim`).
+ *
+ * The groups are resolved to the IDs of the matching SHOGun groups lazily and kept on the token, so this happens at
+ * most once per request.
+ */
+public class KeycloakJwtAuthenticationToken extends JwtAuthenticationToken {
+
+    private final List<String> groups;
+
+    private List<Long> groupIds;
+
+    public KeycloakJwtAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities, String name,
+                                          List<String> groups) {
+        super(jwt, authorities, name);
+
+        this.groups = groups == null ? null : List.copyOf(groups);
+    }
+
+    /**
+     * Returns the values of the groups claim (Keycloak IDs or paths of the groups).
+     *
+     * @return The groups or null, if the token doesn't contain the groups claim.
+     */
+    public List<String> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Returns the IDs of the SHOGun groups matching the groups claim.
+     *
+     * @return The group IDs or null, if they haven't been resolved yet.
+     */
+    public List<Long> getGroupIds() {
+        return groupIds;
+    }
+
+    public void setGroupIds(List<Long> groupIds) {
+        this.groupIds = groupIds == null ? null : List.copyOf(groupIds);
+    }
+
+}
@@ -0,0 +1,67 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.properties;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class CacheInvalidationProperties {
+
+    public enum Bus {
+        /**
+         * Invalidations are only applied on the local node (single node deployments and tests).
+         */
+        LOCAL,
+        /**
+         * Invalidations are broadcast to all nodes sharing the database via PostgreSQL LISTEN/NOTIFY.
+         */
+        POSTGRES
+    }
+
+    /**
+     * The bus used to broadcast cache invalidations to the other nodes of the cluster.
+     */
+    private Bus bus = Bus.LOCAL;
+
+    /**
+     * The ID of this node, a random ID will be generated on startup if not set.
+     */
+    private String nodeId;
+
+    /**
+     * The name of the PostgreSQL notification channel.
+     */
+    private String channel = "shogun_cache_invalidation";
+
+    /**
+     * The maximum time to wait for notifications before checking the listening connection again.
+     */
+    private Duration pollTimeout = Duration.ofSeconds(1);
+
+    /**
+     * The delay before reconnecting after the listening connection has been lost.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    /**
+     * The maximum number of invalidation messages waiting to be sent.
+     */
+    private Integer queueCapacity = 1000;
+
+}
@@ -0,0 +1,53 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    /**
+     * The cache for the users resolved from the session (keyed by the subject of the JWT).
+     */
+    @NestedConfigurationProperty
+    private CacheSpecProperties user = new CacheSpecProperties();
+
+    /**
+     * The cache for the effective (instance and class) permissions of a user.
+     */
+    @NestedConfigurationProperty
+    private CacheSpecProperties permission = new CacheSpecProperties();
+
+    /**
+     * The cache for the (SHOGun) group IDs of a user (keyed by the Keycloak ID of the user).
+     */
+    @NestedConfigurationProperty
+    private CacheSpecProperties groupMembership = new CacheSpecProperties();
+
+    /**
+     * The propagation of (second-level) cache invalidations to the other nodes of the cluster.
+     */
+    @NestedConfigurationProperty
+    private CacheInvalidationProperties invalidation = new CacheInvalidationProperties();
+
+}
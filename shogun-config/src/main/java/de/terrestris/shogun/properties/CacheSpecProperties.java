@@ -0,0 +1,38 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.properties;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class CacheSpecProperties {
+
+    private Boolean enabled = true;
+
+    private Duration ttl = Duration.ofSeconds(60);
+
+    private Long maximumSize = 10000L;
+
+    /**
+     * If set, entries will be reloaded in the background once they are older than this duration (and accessed),
+     * while the current value is still served. Only supported by caches with a fixed loader.
+     */
+    private Duration refresh;
+
+}
@@ -0,0 +1,68 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The connection pool of the shared HTTP client used for all outgoing HTTP connections
+ * (see {@code de.terrestris.shogun.lib.util.HttpUtil}).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "http.pool")
+public class HttpPoolProperties {
+
+    /**
+     * The maximum number of connections in total.
+     */
+    private Integer maxTotal = 200;
+
+    /**
+     * The maximum number of connections per route (i.e. per target host).
+     */
+    private Integer maxPerRoute = 20;
+
+    /**
+     * The maximum number of connections for specific hosts (e.g. https://geoserver:8443), overriding
+     * {@link #maxPerRoute}.
+     */
+    private Map<String, Integer> maxPerHost = new HashMap<>();
+
+    /**
+     * Connections being idle for longer than this will be evicted from the pool.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    /**
+     * The maximum duration idle connections will be kept alive. Shorter durations sent by the server (via the
+     * Keep-Alive header) take precedence.
+     */
+    private Duration keepAlive = Duration.ofSeconds(60);
+
+    /**
+     * Pooled connections being inactive for longer than this will be validated before being leased.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+}
@@ -20,6 +20,7 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -31,4 +32,21 @@ public class ImageFileUploadProperties {
 
     private Integer thumbnailSize;
 
+    /**
+     * Additional thumbnail sizes (the maximum width/height in pixels) to generate besides the default
+     * {@link #thumbnailSize}.
+     */
+    private List<Integer> additionalThumbnailSizes = new ArrayList<>();
+
+    /**
+     * The number of threads generating thumbnails in the background.
+     */
+    private Integer thumbnailThreads = 2;
+
+    /**
+     * The maximum number of uploads waiting for their thumbnails to be generated. If the queue is full, the thumbnail
+     * is generated on the uploading thread.
+     */
+    private Integer thumbnailQueueCapacity = 100;
+
 }
@@ -49,4 +49,60 @@ public class KeycloakProperties {
 
     private String internalServerUrl;
 
+    /**
+     * The maximum number of pooled connections of the Keycloak admin client.
+     */
+    private Integer connectionPoolSize = 10;
+
+    /**
+     * The number of representations requested per page when hydrating lists of users or groups.
+     */
+    private Integer representationPageSize = 100;
+
+    /**
+     * The maximum number of concurrent requests when single representations are fetched.
+     */
+    private Integer representationParallelism = 4;
+
+    /**
+     * The maximum time (in seconds) to wait for concurrently fetched representations. Representations not fetched
+     * within this time are skipped.
+     */
+    private Integer representationTimeout = 30;
+
+    /**
+     * The number of threads synchronizing the groups of users after their login.
+     */
+    private Integer groupSyncParallelism = 2;
+
+    /**
+     * The maximum number of pending group synchronizations. Synchronizations exceeding this limit are skipped (and
+     * will be repeated on the next login of the user).
+     */
+    private Integer groupSyncQueueCapacity = 1000;
+
+    /**
+     * The name of the token claim containing the groups of the user (e.g. `groups`). If set, the group memberships
+     * of the authenticated user are read from the access token instead of being requested from Keycloak. Tokens
+     * without this claim fall back to the Keycloak admin API.
+     */
+    private String groupsClaim;
+
+    /**
+     * The format of the values of the groups claim, see {@link GroupsClaimFormat}.
+     */
+    private GroupsClaimFormat groupsClaimFormat = GroupsClaimFormat.PATH;
+
+    public enum GroupsClaimFormat {
+        /**
+         * The claim contains the Keycloak IDs of the groups.
+         */
+        ID,
+        /**
+         * The claim contains the full paths of the groups (e.g. `/parent/child`), which is the default of the
+         * Keycloak group membership mapper.
+         */
+        PATH
+    }
+
 }
@@ -0,0 +1,72 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.interceptor.config;
+
+import de.terrestris.shogun.interceptor.config.properties.InterceptorProperties;
+import de.terrestris.shogun.interceptor.config.properties.NamespaceProperties;
+import de.terrestris.shogun.lib.util.HttpUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+
+/**
+ * Sets the maximum number of pooled connections to the GeoServer hosts of the interceptor
+ * (the default OWS url and the namespace urls).
+ */
+@Log4j2
+@Configuration
+public class InterceptorHttpClientConfig {
+
+    @Autowired
+    private InterceptorProperties interceptorProperties;
+
+    @PostConstruct
+    public void configureMaxConnectionsPerHost() {
+        Integer defaultMaxConnections = interceptorProperties.getMaxConnections();
+
+        setMaxConnections(interceptorProperties.getDefaultOwsUrl(), defaultMaxConnections);
+
+        if (interceptorProperties.getNamespaces() == null) {
+            return;
+        }
+
+        for (NamespaceProperties namespace : interceptorProperties.getNamespaces()) {
+            Integer maxConnections = namespace.getMaxConnections() != null ?
+                namespace.getMaxConnections() : defaultMaxConnections;
+
+            setMaxConnections(namespace.getUrl(), maxConnections);
+        }
+    }
+
+    private void setMaxConnections(String url, Integer maxConnections) {
+        if (StringUtils.isEmpty(url) || maxConnections == null) {
+            return;
+        }
+
+        try {
+            HttpUtil.setMaxConnectionsPerHost(URI.create(url), maxConnections);
+        } catch (IllegalArgumentException e) {
+            log.error("Could not set the maximum number of connections for url {}: {}", url, e.getMessage());
+            log.trace("Full stack trace: ", e);
+        }
+    }
+
+}
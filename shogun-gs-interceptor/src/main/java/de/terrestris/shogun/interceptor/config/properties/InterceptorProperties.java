@@ -32,6 +32,12 @@ public class InterceptorProperties {
 
     private String defaultOwsUrl;
 
+    /**
+     * The maximum number of pooled connections to each of the GeoServer hosts (the
+     * defaultOwsUrl and the namespace urls). If not set, `http.pool.maxPerRoute` applies.
+     */
+    private Integer maxConnections;
+
     @NestedConfigurationProperty
     private List<NamespaceProperties> namespaces;
 }
@@ -28,4 +28,10 @@ public class NamespaceProperties {
     private String namespace;
 
     private String url;
+
+    /**
+     * The maximum number of pooled connections to the host of the url, falls back
+     * to `interceptor.maxConnections` if not set.
+     */
+    private Integer maxConnections;
 }
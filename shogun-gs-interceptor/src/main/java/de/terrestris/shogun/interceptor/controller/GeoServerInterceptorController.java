@@ -19,6 +19,7 @@ package de.terrestris.shogun.interceptor.controller;
 import de.terrestris.shogun.interceptor.exception.InterceptorException;
 import de.terrestris.shogun.interceptor.service.GeoServerInterceptorService;
 import de.terrestris.shogun.lib.dto.HttpResponse;
+import de.terrestris.shogun.lib.dto.StreamingHttpResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.log4j.Log4j2;
 import org.apache.hc.core5.http.HttpException;
@@ -31,6 +32,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -59,6 +61,12 @@ public class GeoServerInterceptorController {
             responseHeaders = httpResponse.getHeaders();
 
             log.trace("Successfully intercepted a GeoServer resource.");
+
+            if (httpResponse instanceof StreamingHttpResponse streamingResponse) {
+                StreamingResponseBody streamingBody = streamingResponse.toResponseBody(request);
+                return new ResponseEntity<>(streamingBody, responseHeaders, responseStatus);
+            }
+
             return new ResponseEntity<>(responseBody, responseHeaders, responseStatus);
         } catch (NullPointerException | IOException | InterceptorException | HttpException | URISyntaxException e) {
             log.error(ERROR_MESSAGE + e.getMessage());
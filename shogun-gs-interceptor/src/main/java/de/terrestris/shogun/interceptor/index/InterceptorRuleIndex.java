@@ -0,0 +1,195 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.interceptor.index;
+
+import de.terrestris.shogun.interceptor.enumeration.HttpEnum;
+import de.terrestris.shogun.interceptor.enumeration.InterceptorEnum;
+import de.terrestris.shogun.interceptor.enumeration.OgcEnum;
+import de.terrestris.shogun.interceptor.model.InterceptorRule;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+/**
+ * An immutable, in-memory index of {@link InterceptorRule}s to resolve the most specific rule
+ * for a given event, service, operation and endPoint without querying the database.
+ *
+ * Rules are keyed by (event, service, operation, endPoint), where an empty operation or endPoint
+ * of a rule acts as wildcard. A lookup checks the following keys in descending specificity and
+ * returns the first hit:
+ *
+ * 1. (event, service, operation, endPoint)
+ * 2. (event, service, *, endPoint)
+ * 3. (event, service, operation, *)
+ * 4. (event, service, *, *)
+ *
+ * If the request doesn't contain an operation or endPoint (e.g. a GetMap request without LAYERS),
+ * the rules for any operation or endPoint match it, too. In this case the lookup checks the
+ * remaining key parts only, e.g. (event, service, operation, any) before (event, service, *, any)
+ * for a request without endPoint.
+ *
+ * EndPoints are compared case-insensitively. If multiple rules match on the same level, the
+ * most restrictive one (DENY before MODIFY before ALLOW) wins.
+ */
+public final class InterceptorRuleIndex {
+
+    private static final List<InterceptorEnum.RuleType> RULE_PRECEDENCE = List.of(
+        InterceptorEnum.RuleType.DENY,
+        InterceptorEnum.RuleType.MODIFY,
+        InterceptorEnum.RuleType.ALLOW
+    );
+
+    private final Map<RuleKey, InterceptorRule> rules;
+
+    /**
+     * The most restrictive rules per (event, service, operation), regardless of their endPoint.
+     */
+    private final Map<RuleKey, InterceptorRule> anyEndPointRules;
+
+    /**
+     * The most restrictive rules per (event, service, endPoint), regardless of their operation.
+     */
+    private final Map<RuleKey, InterceptorRule> anyOperationRules;
+
+    /**
+     * The most restrictive rules per (event, service).
+     */
+    private final Map<ServiceKey, InterceptorRule> services;
+
+    private InterceptorRuleIndex(Map<RuleKey, InterceptorRule> rules, Map<RuleKey, InterceptorRule> anyEndPointRules,
+                                 Map<RuleKey, InterceptorRule> anyOperationRules,
+                                 Map<ServiceKey, InterceptorRule> services) {
+        this.rules = rules;
+        this.anyEndPointRules = anyEndPointRules;
+        this.anyOperationRules = anyOperationRules;
+        this.services = services;
+    }
+
+    /**
+     * Builds the index for the given rules.
+     *
+     * @param interceptorRules The rules to index.
+     * @return The index.
+     */
+    public static InterceptorRuleIndex of(Collection<InterceptorRule> interceptorRules) {
+        Map<RuleKey, InterceptorRule> rules = new HashMap<>();
+        Map<RuleKey, InterceptorRule> anyEndPointRules = new HashMap<>();
+        Map<RuleKey, InterceptorRule> anyOperationRules = new HashMap<>();
+        Map<ServiceKey, InterceptorRule> services = new HashMap<>();
+
+        for (InterceptorRule rule : interceptorRules) {
+            if (rule.getEvent() == null || rule.getService() == null) {
+                continue;
+            }
+
+            String endPoint = normalizeEndPoint(rule.getEndPoint());
+
+            rules.merge(new RuleKey(rule.getEvent(), rule.getService(), rule.getOperation(), endPoint), rule,
+                InterceptorRuleIndex::mostRestrictive);
+            anyEndPointRules.merge(new RuleKey(rule.getEvent(), rule.getService(), rule.getOperation(), null), rule,
+                InterceptorRuleIndex::mostRestrictive);
+            anyOperationRules.merge(new RuleKey(rule.getEvent(), rule.getService(), null, endPoint), rule,
+                InterceptorRuleIndex::mostRestrictive);
+            services.merge(new ServiceKey(rule.getEvent(), rule.getService()), rule,
+                InterceptorRuleIndex::mostRestrictive);
+        }
+
+        return new InterceptorRuleIndex(Map.copyOf(rules), Map.copyOf(anyEndPointRules),
+            Map.copyOf(anyOperationRules), Map.copyOf(services));
+    }
+
+    /**
+     * Returns whether any rule exists for the given event and service.
+     *
+     * @param event   The event.
+     * @param service The service.
+     * @return true if at least one rule is defined.
+     */
+    public boolean hasRules(HttpEnum.EventType event, OgcEnum.ServiceType service) {
+        return event != null && service != null && services.containsKey(new ServiceKey(event, service));
+    }
+
+    /**
+     * Returns the most specific rule for the given parameters.
+     *
+     * @param event     The event, e.g. REQUEST.
+     * @param service   The service, e.g. WMS.
+     * @param operation The operation, e.g. GetMap (may be null).
+     * @param endPoint  The endPoint, e.g. the qualified layer name (may be null).
+     * @return The most specific rule or null if no rule matches.
+     */
+    public InterceptorRule getMostSpecificRule(HttpEnum.EventType event, OgcEnum.ServiceType service,
+                                               OgcEnum.OperationType operation, String endPoint) {
+        if (!hasRules(event, service)) {
+            return null;
+        }
+
+        String normalizedEndPoint = normalizeEndPoint(endPoint);
+
+        if (normalizedEndPoint == null && operation == null) {
+            return services.get(new ServiceKey(event, service));
+        }
+
+        if (normalizedEndPoint == null) {
+            InterceptorRule rule = anyEndPointRules.get(new RuleKey(event, service, operation, null));
+
+            return rule != null ? rule : anyEndPointRules.get(new RuleKey(event, service, null, null));
+        }
+
+        if (operation == null) {
+            InterceptorRule rule = anyOperationRules.get(new RuleKey(event, service, null, normalizedEndPoint));
+
+            return rule != null ? rule : anyOperationRules.get(new RuleKey(event, service, null, null));
+        }
+
+        InterceptorRule rule = rules.get(new RuleKey(event, service, operation, normalizedEndPoint));
+
+        if (rule == null) {
+            rule = rules.get(new RuleKey(event, service, null, normalizedEndPoint));
+        }
+        if (rule == null) {
+            rule = rules.get(new RuleKey(event, service, operation, null));
+        }
+        if (rule == null) {
+            rule = rules.get(new RuleKey(event, service, null, null));
+        }
+
+        return rule;
+    }
+
+    /**
+     * @return The number of indexed (distinct) rules.
+     */
+    public int size() {
+        return rules.size();
+    }
+
+    private static String normalizeEndPoint(String endPoint) {
+        return StringUtils.isEmpty(endPoint) ? null : endPoint.toLowerCase(Locale.ROOT);
+    }
+
+    private static InterceptorRule mostRestrictive(InterceptorRule rule, InterceptorRule otherRule) {
+        return RULE_PRECEDENCE.indexOf(otherRule.getRule()) < RULE_PRECEDENCE.indexOf(rule.getRule()) ?
+            otherRule : rule;
+    }
+
+    private record ServiceKey(HttpEnum.EventType event, OgcEnum.ServiceType service) { }
+
+    private record RuleKey(HttpEnum.EventType event, OgcEnum.ServiceType service,
+                           OgcEnum.OperationType operation, String endPoint) { }
+
+}
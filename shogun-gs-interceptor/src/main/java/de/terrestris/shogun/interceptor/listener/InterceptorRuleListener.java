@@ -0,0 +1,49 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.interceptor.listener;
+
+import de.terrestris.shogun.interceptor.event.InterceptorRuleChangedEvent;
+import de.terrestris.shogun.interceptor.model.InterceptorRule;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes an {@link InterceptorRuleChangedEvent} for every change of an {@link InterceptorRule},
+ * regardless of the way it has been changed.
+ */
+@Component
+public class InterceptorRuleListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(InterceptorRule rule) {
+        // the publisher is only available if the listener is managed by Spring
+        if (eventPublisher == null) {
+            return;
+        }
+
+        eventPublisher.publishEvent(new InterceptorRuleChangedEvent(this, rule));
+    }
+}
@@ -19,6 +19,7 @@ package de.terrestris.shogun.interceptor.model;
 import de.terrestris.shogun.interceptor.enumeration.HttpEnum;
 import de.terrestris.shogun.interceptor.enumeration.InterceptorEnum;
 import de.terrestris.shogun.interceptor.enumeration.OgcEnum;
+import de.terrestris.shogun.interceptor.listener.InterceptorRuleListener;
 import de.terrestris.shogun.lib.model.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
@@ -36,6 +37,7 @@ import java.util.Objects;
 @ToString
 @Cacheable
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region="interceptorrules")
+@EntityListeners(InterceptorRuleListener.class)
 public class InterceptorRule extends BaseEntity {
 
     /**
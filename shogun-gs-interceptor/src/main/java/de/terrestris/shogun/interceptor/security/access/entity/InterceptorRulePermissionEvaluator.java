@@ -24,6 +24,10 @@ import de.terrestris.shogun.lib.security.access.entity.BaseEntityPermissionEvalu
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Permission evaluator for {@link InterceptorRule}s
  */
@@ -43,6 +47,16 @@ public class InterceptorRulePermissionEvaluator extends BaseEntityPermissionEval
         return super.hasPermission(user, entity, permission);
     }
 
+    @Override
+    public List<InterceptorRule> filterPermitted(User user, Collection<InterceptorRule> entities, PermissionType permission) {
+
+        if (securityContextUtil.isInterceptorAdmin()) {
+            return new ArrayList<>(entities);
+        }
+
+        return super.filterPermitted(user, entities, permission);
+    }
+
 }
 
 
@@ -21,12 +21,14 @@ import de.terrestris.shogun.interceptor.config.properties.NamespaceProperties;
 import de.terrestris.shogun.interceptor.enumeration.HttpEnum;
 import de.terrestris.shogun.interceptor.enumeration.OgcEnum;
 import de.terrestris.shogun.interceptor.exception.InterceptorException;
+import de.terrestris.shogun.interceptor.index.InterceptorRuleIndex;
 import de.terrestris.shogun.interceptor.message.OgcMessage;
 import de.terrestris.shogun.interceptor.message.OgcMessageDistributor;
 import de.terrestris.shogun.interceptor.model.InterceptorRule;
 import de.terrestris.shogun.interceptor.servlet.MutableHttpServletRequest;
 import de.terrestris.shogun.interceptor.util.OgcXmlUtil;
 import de.terrestris.shogun.lib.dto.HttpResponse;
+import de.terrestris.shogun.lib.dto.StreamingHttpResponse;
 import de.terrestris.shogun.lib.util.HttpUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.log4j.Log4j2;
@@ -48,7 +50,6 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -129,7 +130,29 @@ public class GeoServerInterceptorService {
      * @throws HttpException
      */
     public static HttpResponse sendRequest(MutableHttpServletRequest request) throws InterceptorException, HttpException {
-        HttpResponse httpResponse = new HttpResponse();
+        return sendRequest(request, false);
+    }
+
+    /**
+     * Sends the request without reading the response body into memory, the body has to be
+     * written to the client via {@link StreamingHttpResponse#writeTo(java.io.OutputStream)}.
+     *
+     * @param request
+     * @throws InterceptorException
+     * @throws HttpException
+     */
+    public static StreamingHttpResponse streamRequest(MutableHttpServletRequest request) throws InterceptorException, HttpException {
+        return (StreamingHttpResponse) sendRequest(request, true);
+    }
+
+    /**
+     * @param request
+     * @param streaming Whether the response body should be streamed instead of being read into memory.
+     * @throws InterceptorException
+     * @throws HttpException
+     */
+    private static HttpResponse sendRequest(MutableHttpServletRequest request, boolean streaming) throws InterceptorException, HttpException {
+        HttpResponse httpResponse = streaming ? null : new HttpResponse();
         String requestMethod = request.getMethod();
         boolean getRequest = "GET".equalsIgnoreCase(requestMethod);
         boolean postRequest = "POST".equalsIgnoreCase(requestMethod);
@@ -150,7 +173,9 @@ public class GeoServerInterceptorService {
             if (getRequest) {
                 // if we're called via GET method
                 // perform the request with the given parameters
-                httpResponse = HttpUtil.get(fullRequestUri, requestHeaders);
+                httpResponse = streaming ?
+                    HttpUtil.getStreaming(fullRequestUri, requestHeaders) :
+                    HttpUtil.get(fullRequestUri, requestHeaders);
 
             } else if (postRequest) {
                 // if we're called via POST method
@@ -175,10 +200,14 @@ public class GeoServerInterceptorService {
                     }
 
                     // perform the POST request to the URI with queryString and with the given body
-                    httpResponse = HttpUtil.post(requestUri, body, contentType, requestHeaders, false);
+                    httpResponse = streaming ?
+                        HttpUtil.postStreaming(requestUri, body, contentType, requestHeaders, false) :
+                        HttpUtil.post(requestUri, body, contentType, requestHeaders, false);
                 } else {
                     // perform the POST request with the given name value pairs,
-                    httpResponse = HttpUtil.post(requestUri, allQueryParams, requestHeaders);
+                    httpResponse = streaming ?
+                        HttpUtil.postStreaming(requestUri, allQueryParams, requestHeaders) :
+                        HttpUtil.post(requestUri, allQueryParams, requestHeaders);
                 }
 
             } else {
@@ -188,6 +217,10 @@ public class GeoServerInterceptorService {
 
         } catch (URISyntaxException | UnsupportedEncodingException e) {
             log.error("Error while sending request: " + e.getMessage());
+
+            if (streaming) {
+                throw new HttpException("Error while sending request: " + e.getMessage());
+            }
         }
 
         return httpResponse;
@@ -338,13 +371,19 @@ public class GeoServerInterceptorService {
         mutableRequest = ogcMessageDistributor
             .distributeToRequestInterceptor(mutableRequest, message);
 
-        // send the request
-        // TODO: Move to global proxy class
-        HttpResponse response = sendRequest(mutableRequest);
+        HttpResponse interceptedResponse;
+        if (message.isResponseAllowed()) {
+            // the response won't be modified, pass the body through without buffering it
+            interceptedResponse = streamRequest(mutableRequest);
+        } else {
+            // send the request
+            // TODO: Move to global proxy class
+            HttpResponse response = sendRequest(mutableRequest);
 
-        // intercept the response (if needed)
-        HttpResponse interceptedResponse = ogcMessageDistributor
-            .distributeToResponseInterceptor(mutableRequest, response, message);
+            // intercept the response (if needed)
+            interceptedResponse = ogcMessageDistributor
+                .distributeToResponseInterceptor(mutableRequest, response, message);
+        }
 
         // finally filter the white-listed response headers
         // TODO: Move to global proxy class
@@ -483,61 +522,12 @@ public class GeoServerInterceptorService {
             ruleEvent, service, operation, endPoint
         );
 
-        // get all persisted rules for the given service and event
-        List<InterceptorRule> interceptorRules = this.interceptorRuleService.findAllRulesForServiceAndEvent(service, HttpEnum.EventType.fromString(ruleEvent));
+        final HttpEnum.EventType event = HttpEnum.EventType.fromString(ruleEvent);
 
-        log.trace("Got " + interceptorRules.size() + " rule(s) from database.");
+        // resolve the rule from the in-memory index of all persisted rules
+        InterceptorRuleIndex ruleIndex = this.interceptorRuleService.getRuleIndex();
 
-        if (log.isTraceEnabled()) {
-            for (InterceptorRule interceptorRule : interceptorRules) {
-                log.trace("Returned rule is: " + interceptorRule);
-            }
-        }
-
-        log.trace("Evaluating the given rules for the most specific one:");
-
-        // create the predicate for finding the most specific rule out of
-        // the given rules (conditions in descending specific order).
-        // note: we don't need to check for request event (request/response)
-        // and the service type at all as the rule candidates are filtered by
-        // the DAO method already. the last check for service specificity found
-        // here is a fallback only.
-        HashMap<InterceptorRule, Integer> ruleMap = new HashMap<>();
-        interceptorRules.stream().forEach((rule) -> {
-            int score = 0;
-
-            if (!StringUtils.isEmpty(rule.getEndPoint()) && !StringUtils.isEmpty(endPoint) && !StringUtils.equalsIgnoreCase(rule.getEndPoint(), endPoint)) {
-                return;
-            }
-            if (rule.getService() != null && !Objects.equals(rule.getService(), service) && service != null) {
-                return;
-            }
-            if (rule.getOperation() != null && !Objects.equals(rule.getOperation(), operation) && operation != null) {
-                return;
-            }
-            if (endPoint != null && Objects.equals(rule.getEndPoint(), endPoint)) {
-                ++score;
-            }
-            if (operation != null && Objects.equals(rule.getOperation(), operation)) {
-                ++score;
-            }
-            if (service != null && Objects.equals(rule.getService(), service)) {
-                ++score;
-            }
-            ruleMap.put(rule, score);
-        });
-
-        AtomicReference<Integer> biggestScore = new AtomicReference<>(0);
-        AtomicReference<InterceptorRule> mostSpecific = new AtomicReference<>();
-
-        ruleMap.entrySet().stream().forEach((entry) -> {
-            if (entry.getValue() > biggestScore.get()) {
-                mostSpecific.set(entry.getKey());
-                biggestScore.set(entry.getValue());
-            }
-        });
-
-        if (interceptorRules.size() == 0) {
+        if (!ruleIndex.hasRules(event, service)) {
             log.error("""
                 Got no interceptor rules for this request/response.
                 Usually this should not happen as one has to define at
@@ -546,12 +536,16 @@ public class GeoServerInterceptorService {
                 """);
 
             throw new InterceptorException("No interceptor rule found.");
-        } else if (log.isTraceEnabled()) {
+        }
+
+        InterceptorRule mostSpecific = ruleIndex.getMostSpecificRule(event, service, operation, endPoint);
+
+        if (log.isTraceEnabled()) {
             log.trace("Identified the following rule as most the specific " +
-                "one: " + mostSpecific.get());
+                "one: " + mostSpecific);
         }
 
-        return mostSpecific.get();
+        return mostSpecific;
     }
 
     /**
@@ -17,21 +17,98 @@
 package de.terrestris.shogun.interceptor.service;
 
 import de.terrestris.shogun.interceptor.enumeration.HttpEnum;
+import de.terrestris.shogun.interceptor.event.InterceptorRuleChangedEvent;
+import de.terrestris.shogun.interceptor.index.InterceptorRuleIndex;
 import de.terrestris.shogun.interceptor.enumeration.InterceptorEnum;
 import de.terrestris.shogun.interceptor.enumeration.OgcEnum;
 import de.terrestris.shogun.interceptor.model.InterceptorRule;
 import de.terrestris.shogun.interceptor.repository.InterceptorRuleRepository;
+import de.terrestris.shogun.lib.event.CacheInvalidationEvent;
 import de.terrestris.shogun.lib.service.BaseService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+@Log4j2
 @Service
 public class InterceptorRuleService extends BaseService<InterceptorRuleRepository, InterceptorRule> {
 
+    /**
+     * The index of all rules, (re-)built on first access after a change of any rule.
+     */
+    private volatile InterceptorRuleIndex ruleIndex;
+
+    private final AtomicBoolean ruleIndexStale = new AtomicBoolean(true);
+
+    /**
+     * Returns the in-memory index of all interceptor rules. The index will be rebuilt (and
+     * replaced atomically) if any rule has changed since it was built.
+     *
+     * @return The index.
+     */
+    public InterceptorRuleIndex getRuleIndex() {
+        if (ruleIndexStale.compareAndSet(true, false)) {
+            try {
+                rebuildRuleIndex();
+            } catch (RuntimeException e) {
+                ruleIndexStale.set(true);
+                throw e;
+            }
+        }
+
+        // another thread might still be building the initial index
+        if (ruleIndex == null) {
+            synchronized (this) {
+                if (ruleIndex == null) {
+                    rebuildRuleIndex();
+                }
+            }
+        }
+
+        return ruleIndex;
+    }
+
+    /**
+     * Marks the rule index as stale once the transaction changing the rule has been committed.
+     *
+     * @param event The event.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInterceptorRuleChanged(InterceptorRuleChangedEvent event) {
+        log.trace("Interceptor rule {} has changed, the rule index will be rebuilt", event.getRule().getId());
+
+        ruleIndexStale.set(true);
+    }
+
+    /**
+     * Marks the rule index as stale if the rules have been changed on another node of the cluster.
+     *
+     * @param event The event.
+     */
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.affects(InterceptorRule.class)) {
+            log.trace("Interceptor rules have been invalidated, the rule index will be rebuilt");
+
+            ruleIndexStale.set(true);
+        }
+    }
+
+    private synchronized void rebuildRuleIndex() {
+        // use the repository directly, the index must contain all rules regardless of the
+        // permissions of the current user
+        ruleIndex = InterceptorRuleIndex.of(repository.findAll());
+
+        log.debug("Built the interceptor rule index with {} rule(s)", ruleIndex.size());
+    }
+
     @Transactional(readOnly = true)
     public List<InterceptorRule> findAllRulesForServiceAndEvent(OgcEnum.ServiceType service, HttpEnum.EventType event) {
         return repository.findAllByServiceAndEvent(service, event);
@@ -18,6 +18,7 @@ package de.terrestris.shogun.interceptor.servlet;
 
 import de.terrestris.shogun.interceptor.enumeration.OgcEnum;
 import de.terrestris.shogun.interceptor.exception.InterceptorException;
+import de.terrestris.shogun.interceptor.util.OgcXmlParameters;
 import de.terrestris.shogun.interceptor.util.OgcXmlUtil;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,7 +26,6 @@ import jakarta.servlet.http.HttpServletRequestWrapper;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.w3c.dom.Document;
 
 import java.io.*;
 import java.net.URI;
@@ -65,6 +65,11 @@ public class MutableHttpServletRequest extends HttpServletRequestWrapper {
 
     private String queryString;
 
+    /**
+     * Holds the OGC parameters read from the (XML) body, reset as soon as the body changes.
+     */
+    private OgcXmlParameters ogcXmlParameters;
+
     /**
      * @param request
      */
@@ -152,20 +157,15 @@ public class MutableHttpServletRequest extends HttpServletRequestWrapper {
             String xml = OgcXmlUtil.getRequestBody(httpServletRequest);
             if (!StringUtils.isEmpty(xml)) {
                 log.trace("The request contains a POST body.");
-                Document document = OgcXmlUtil.getDocumentFromString(xml);
+                OgcXmlParameters ogcParameters = httpServletRequest instanceof MutableHttpServletRequest mutableRequest ?
+                    mutableRequest.getOgcXmlParameters(xml) : OgcXmlUtil.getOgcParameters(xml);
 
                 if (parameter.equalsIgnoreCase(OgcEnum.Service.SERVICE.toString())) {
-                    value = OgcXmlUtil.getPathInDocument(document, "/*/@service");
+                    value = ogcParameters.getService();
                 } else if (parameter.equalsIgnoreCase(OgcEnum.Operation.OPERATION.toString())) {
-                    value = OgcXmlUtil.getPathInDocument(document, "name(/*)");
-                    if (value.contains(":")) {
-                        value = value.split(":")[1];
-                    }
+                    value = ogcParameters.getOperation();
                 } else if (Arrays.asList(OgcEnum.EndPoint.getAllValues()).contains(parameter)) {
-                    value = OgcXmlUtil.getPathInDocument(document, "//TypeName/text() | //TypeNames/text() | //GetCoverage/Identifier/text()");
-                    if (StringUtils.isEmpty(value)) {
-                        value = OgcXmlUtil.getPathInDocument(document, "//@typeName | //@typeNames");
-                    }
+                    value = ogcParameters.getEndPoint();
                 }
             } else {
                 log.error("No body found in the request.");
@@ -176,6 +176,22 @@ public class MutableHttpServletRequest extends HttpServletRequestWrapper {
         return value;
     }
 
+    /**
+     * Returns the OGC parameters of the given (XML) body of this request. The body is parsed only once and the
+     * result is cached until the body is changed via {@link #setInputStream(String)} or
+     * {@link #setInputStream(InputStream)}.
+     *
+     * @param xml The body of this request.
+     * @return The OGC parameters.
+     * @throws IOException If the body can't be parsed.
+     */
+    public OgcXmlParameters getOgcXmlParameters(String xml) throws IOException {
+        if (ogcXmlParameters == null) {
+            ogcXmlParameters = OgcXmlUtil.getOgcParameters(xml);
+        }
+        return ogcXmlParameters;
+    }
+
     /**
      *
      */
@@ -325,6 +341,7 @@ public class MutableHttpServletRequest extends HttpServletRequestWrapper {
         try (
             ByteArrayInputStream stream = new ByteArrayInputStream(body.getBytes(DEFAULT_CHARSET))
         ) {
+            ogcXmlParameters = null;
             cachedInputStream = new ByteArrayOutputStream();
             IOUtils.copy(stream, cachedInputStream);
         } catch (IOException e) {
@@ -339,6 +356,7 @@ public class MutableHttpServletRequest extends HttpServletRequestWrapper {
      */
     public void setInputStream(InputStream stream) {
         try {
+            ogcXmlParameters = null;
             cachedInputStream = new ByteArrayOutputStream();
             IOUtils.copy(stream, cachedInputStream);
         } catch (IOException e) {
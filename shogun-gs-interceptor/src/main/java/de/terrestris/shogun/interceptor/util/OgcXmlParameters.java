@@ -0,0 +1,51 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.interceptor.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The OGC parameters (service, operation and endPoint) of an XML (POST) request body, see
+ * {@link OgcXmlUtil#getOgcParameters(String)}. Values not contained in the body are empty.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class OgcXmlParameters {
+
+    /**
+     * The value of the service attribute of the root element, e.g. WFS.
+     */
+    private String service = StringUtils.EMPTY;
+
+    /**
+     * The (local) name of the root element, e.g. GetFeature.
+     */
+    private String operation = StringUtils.EMPTY;
+
+    /**
+     * The first TypeName(s) or GetCoverage/Identifier element text or, if not available, the
+     * first typeName(s) attribute value.
+     */
+    private String endPoint = StringUtils.EMPTY;
+
+}
@@ -33,6 +33,10 @@ import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.TransformerException;
@@ -42,6 +46,8 @@ import javax.xml.transform.stream.StreamResult;
 import javax.xml.xpath.*;
 import java.io.*;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 @Log4j2
 public class OgcXmlUtil {
@@ -51,6 +57,22 @@ public class OgcXmlUtil {
      */
     private static final String DEFAULT_CHARSET = "UTF-8";
 
+    private static final String SERVICE_ATTRIBUTE = "service";
+
+    private static final String TYPE_NAME = "TypeName";
+
+    private static final String TYPE_NAMES = "TypeNames";
+
+    private static final String TYPE_NAME_ATTRIBUTE = "typeName";
+
+    private static final String TYPE_NAMES_ATTRIBUTE = "typeNames";
+
+    private static final String GET_COVERAGE = "GetCoverage";
+
+    private static final String IDENTIFIER = "Identifier";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
     /**
      * @param request
      * @return
@@ -98,6 +120,127 @@ public class OgcXmlUtil {
         return document;
     }
 
+    /**
+     * Reads the OGC parameters (service, operation and endPoint) from the given XML request body
+     * in a single (streaming) pass without building a DOM. Reading stops as soon as all values
+     * are known.
+     *
+     * The values are resolved like the following XPath expressions on a non-namespace-aware
+     * document (i.e. element and attribute names are compared including their prefix):
+     *
+     * * service: `/*&#47;@service`
+     * * operation: `name(/*)` (without prefix)
+     * * endPoint: `//TypeName/text() | //TypeNames/text() | //GetCoverage/Identifier/text()`,
+     *   falling back to `//@typeName | //@typeNames`
+     *
+     * @param xml The XML body.
+     * @return The parameters.
+     * @throws IOException If the body can't be parsed.
+     */
+    public static OgcXmlParameters getOgcParameters(String xml) throws IOException {
+        OgcXmlParameters parameters = new OgcXmlParameters();
+        XMLStreamReader reader = null;
+
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(xml));
+
+            Deque<String> elements = new ArrayDeque<>();
+            String endPointAttribute = null;
+            StringBuilder endPointText = null;
+            boolean endPointFound = false;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = getQualifiedName(reader.getPrefix(), reader.getLocalName());
+
+                    if (elements.isEmpty()) {
+                        String service = reader.getAttributeValue(XMLConstants.NULL_NS_URI, SERVICE_ATTRIBUTE);
+                        parameters.setService(StringUtils.defaultString(service));
+                        parameters.setOperation(reader.getLocalName());
+                    }
+
+                    if (endPointFound) {
+                        // the text of the current endPoint element has ended
+                        break;
+                    }
+                    endPointText = null;
+
+                    if (TYPE_NAME.equals(name) || TYPE_NAMES.equals(name) ||
+                        (IDENTIFIER.equals(name) && GET_COVERAGE.equals(elements.peek()))) {
+                        endPointText = new StringBuilder();
+                    } else if (endPointAttribute == null) {
+                        endPointAttribute = getEndPointAttribute(reader);
+                    }
+
+                    elements.push(name);
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA ||
+                    event == XMLStreamConstants.SPACE) {
+                    if (endPointText != null) {
+                        endPointText.append(reader.getText());
+                        endPointFound = true;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    elements.pop();
+
+                    if (endPointFound) {
+                        break;
+                    }
+
+                    // an empty endPoint element, keep searching
+                    endPointText = null;
+                }
+            }
+
+            if (endPointFound) {
+                parameters.setEndPoint(endPointText.toString());
+            } else if (endPointAttribute != null) {
+                parameters.setEndPoint(endPointAttribute);
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not parse input body " +
+                "as XML: " + e.getMessage());
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    log.trace("Could not close the XML reader: ", e);
+                }
+            }
+        }
+
+        return parameters;
+    }
+
+    private static String getEndPointAttribute(XMLStreamReader reader) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String name = getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+
+            if (TYPE_NAME_ATTRIBUTE.equals(name) || TYPE_NAMES_ATTRIBUTE.equals(name)) {
+                return reader.getAttributeValue(i);
+            }
+        }
+
+        return null;
+    }
+
+    private static String getQualifiedName(String prefix, String localName) {
+        return StringUtils.isEmpty(prefix) ? localName : prefix + ":" + localName;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+
+        // disable DTDs and external entities, see https://rules.sonarsource.com/c/type/Vulnerability/RSPEC-2755
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        return factory;
+    }
+
     /**
      * @param document
      * @param path
@@ -0,0 +1 @@
+ALTER TABLE interceptor_rule ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,121 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.interceptor.controller;
+
+import de.terrestris.shogun.interceptor.service.GeoServerInterceptorService;
+import de.terrestris.shogun.lib.dto.StreamingHttpResponse;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class GeoServerInterceptorControllerTest {
+
+    private GeoServerInterceptorController controller;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private CloseableHttpResponse upstreamResponse;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        response = new MockHttpServletResponse();
+
+        upstreamResponse = mock(CloseableHttpResponse.class);
+        when(upstreamResponse.getEntity()).thenReturn(new StringEntity("GeoServer"));
+
+        GeoServerInterceptorService service = mock(GeoServerInterceptorService.class);
+        when(service.interceptGeoServerRequest(request, Optional.empty()))
+            .thenReturn(new StreamingHttpResponse(HttpStatus.OK, new HttpHeaders(), upstreamResponse));
+
+        controller = new GeoServerInterceptorController();
+        controller.service = service;
+    }
+
+    @Test
+    public void interceptGeoServerRequest_closesTheUpstreamResponseIfTheBodyIsNeverWritten() throws Exception {
+        ResponseEntity<?> responseEntity = controller.interceptGeoServerRequest(request, Optional.empty());
+
+        assertInstanceOf(StreamingResponseBody.class, responseEntity.getBody());
+        verify(upstreamResponse, never()).close();
+
+        // the client disconnects (or the request times out) before the body gets written
+        processAsync(() -> {
+            throw new IOException("Broken pipe");
+        });
+
+        verify(upstreamResponse, never()).getEntity();
+        verify(upstreamResponse).close();
+    }
+
+    @Test
+    public void interceptGeoServerRequest_closesTheUpstreamResponseOnceIfTheBodyIsWritten() throws Exception {
+        ResponseEntity<?> responseEntity = controller.interceptGeoServerRequest(request, Optional.empty());
+        StreamingResponseBody body = (StreamingResponseBody) responseEntity.getBody();
+        assertNotNull(body);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        processAsync(() -> body.writeTo(outputStream));
+
+        assertEquals("GeoServer", outputStream.toString());
+        verify(upstreamResponse, times(1)).close();
+    }
+
+    /**
+     * Runs the given task the way Spring MVC processes a {@link StreamingResponseBody} and
+     * completes the asynchronous request afterwards.
+     */
+    private void processAsync(StreamingTask task) throws Exception {
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setTaskExecutor(new TaskExecutorAdapter(new SyncTaskExecutor()));
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        asyncManager.startCallableProcessing(() -> {
+            task.run();
+            return null;
+        });
+
+        request.getAsyncContext().complete();
+    }
+
+    @FunctionalInterface
+    private interface StreamingTask {
+        void run() throws IOException;
+    }
+
+}
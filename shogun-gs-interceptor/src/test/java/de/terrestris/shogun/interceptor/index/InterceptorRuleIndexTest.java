@@ -0,0 +1,113 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.interceptor.index;
+
+import de.terrestris.shogun.interceptor.enumeration.HttpEnum;
+import de.terrestris.shogun.interceptor.enumeration.InterceptorEnum;
+import de.terrestris.shogun.interceptor.enumeration.OgcEnum;
+import de.terrestris.shogun.interceptor.model.InterceptorRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static de.terrestris.shogun.interceptor.enumeration.HttpEnum.EventType.REQUEST;
+import static de.terrestris.shogun.interceptor.enumeration.HttpEnum.EventType.RESPONSE;
+import static de.terrestris.shogun.interceptor.enumeration.InterceptorEnum.RuleType.*;
+import static de.terrestris.shogun.interceptor.enumeration.OgcEnum.OperationType.GET_FEATURE_INFO;
+import static de.terrestris.shogun.interceptor.enumeration.OgcEnum.OperationType.GET_MAP;
+import static de.terrestris.shogun.interceptor.enumeration.OgcEnum.ServiceType.WFS;
+import static de.terrestris.shogun.interceptor.enumeration.OgcEnum.ServiceType.WMS;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterceptorRuleIndexTest {
+
+    private static final InterceptorRule ALLOW_ALL_WMS = rule(REQUEST, ALLOW, WMS, null, null);
+    private static final InterceptorRule MODIFY_GET_MAP = rule(REQUEST, MODIFY, WMS, GET_MAP, null);
+    private static final InterceptorRule DENY_LAYER = rule(REQUEST, DENY, WMS, null, "shogun:secret");
+    private static final InterceptorRule ALLOW_LAYER_GET_MAP = rule(REQUEST, ALLOW, WMS, GET_MAP, "shogun:secret");
+
+    private static InterceptorRule rule(HttpEnum.EventType event, InterceptorEnum.RuleType ruleType,
+                                        OgcEnum.ServiceType service, OgcEnum.OperationType operation,
+                                        String endPoint) {
+        return new InterceptorRule(event, ruleType, service, operation, endPoint);
+    }
+
+    @Test
+    public void getMostSpecificRule_prefersOperationAndEndPoint() {
+        InterceptorRuleIndex index = InterceptorRuleIndex.of(List.of(ALLOW_ALL_WMS, MODIFY_GET_MAP, DENY_LAYER,
+            ALLOW_LAYER_GET_MAP));
+
+        assertSame(ALLOW_LAYER_GET_MAP, index.getMostSpecificRule(REQUEST, WMS, GET_MAP, "shogun:secret"));
+        assertSame(ALLOW_LAYER_GET_MAP, index.getMostSpecificRule(REQUEST, WMS, GET_MAP, "SHOGUN:Secret"));
+        assertSame(DENY_LAYER, index.getMostSpecificRule(REQUEST, WMS, GET_FEATURE_INFO, "shogun:secret"));
+        assertSame(MODIFY_GET_MAP, index.getMostSpecificRule(REQUEST, WMS, GET_MAP, "shogun:public"));
+        assertSame(ALLOW_ALL_WMS, index.getMostSpecificRule(REQUEST, WMS, GET_FEATURE_INFO, "shogun:public"));
+    }
+
+    @Test
+    public void getMostSpecificRule_matchesAnyEndPointIfRequestHasNone() {
+        InterceptorRuleIndex index = InterceptorRuleIndex.of(List.of(ALLOW_ALL_WMS, DENY_LAYER));
+
+        // e.g. a GetMap request without LAYERS must not bypass the layer specific DENY rule
+        assertSame(DENY_LAYER, index.getMostSpecificRule(REQUEST, WMS, GET_MAP, null));
+        assertSame(DENY_LAYER, index.getMostSpecificRule(REQUEST, WMS, GET_MAP, ""));
+        assertSame(DENY_LAYER, index.getMostSpecificRule(REQUEST, WMS, null, null));
+    }
+
+    @Test
+    public void getMostSpecificRule_prefersOperationIfRequestHasNoEndPoint() {
+        InterceptorRuleIndex index = InterceptorRuleIndex.of(List.of(ALLOW_ALL_WMS, MODIFY_GET_MAP, DENY_LAYER,
+            ALLOW_LAYER_GET_MAP));
+
+        assertSame(MODIFY_GET_MAP, index.getMostSpecificRule(REQUEST, WMS, GET_MAP, null));
+        assertSame(DENY_LAYER, index.getMostSpecificRule(REQUEST, WMS, GET_FEATURE_INFO, null));
+    }
+
+    @Test
+    public void getMostSpecificRule_matchesAnyOperationIfRequestHasNone() {
+        InterceptorRule allowLayer = rule(REQUEST, ALLOW, WMS, null, "shogun:public");
+        InterceptorRuleIndex index = InterceptorRuleIndex.of(List.of(ALLOW_ALL_WMS, MODIFY_GET_MAP,
+            ALLOW_LAYER_GET_MAP, allowLayer));
+
+        assertSame(ALLOW_LAYER_GET_MAP, index.getMostSpecificRule(REQUEST, WMS, null, "shogun:secret"));
+        assertSame(allowLayer, index.getMostSpecificRule(REQUEST, WMS, null, "shogun:public"));
+        assertSame(MODIFY_GET_MAP, index.getMostSpecificRule(REQUEST, WMS, null, "shogun:other"));
+    }
+
+    @Test
+    public void getMostSpecificRule_respectsEventAndService() {
+        InterceptorRuleIndex index = InterceptorRuleIndex.of(List.of(ALLOW_ALL_WMS));
+
+        assertTrue(index.hasRules(REQUEST, WMS));
+        assertFalse(index.hasRules(RESPONSE, WMS));
+        assertFalse(index.hasRules(REQUEST, WFS));
+        assertNull(index.getMostSpecificRule(RESPONSE, WMS, GET_MAP, "shogun:public"));
+        assertNull(index.getMostSpecificRule(REQUEST, WFS, null, "shogun:public"));
+    }
+
+    @Test
+    public void getMostSpecificRule_prefersMostRestrictiveRuleForSameKey() {
+        InterceptorRule allow = rule(RESPONSE, ALLOW, WMS, GET_MAP, "shogun:layer");
+        InterceptorRule modify = rule(RESPONSE, MODIFY, WMS, GET_MAP, "shogun:layer");
+
+        InterceptorRuleIndex index = InterceptorRuleIndex.of(List.of(allow, modify));
+
+        assertSame(modify, index.getMostSpecificRule(RESPONSE, WMS, GET_MAP, "shogun:layer"));
+        assertEquals(1, index.size());
+    }
+
+}
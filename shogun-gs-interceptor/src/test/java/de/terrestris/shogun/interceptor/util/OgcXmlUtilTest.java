@@ -0,0 +1,102 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.interceptor.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OgcXmlUtilTest {
+
+    @Test
+    public void getOgcParameters_readsTypeNameElement() throws IOException {
+        String xml = """
+            <wfs:GetFeature service="WFS" version="1.1.0" xmlns:wfs="http://www.opengis.net/wfs">
+              <wfs:Query typeName="shogun:ignored">
+                <TypeName>shogun:roads</TypeName>
+              </wfs:Query>
+              <TypeName>shogun:rivers</TypeName>
+            </wfs:GetFeature>
+            """;
+
+        OgcXmlParameters parameters = OgcXmlUtil.getOgcParameters(xml);
+
+        assertEquals("WFS", parameters.getService());
+        assertEquals("GetFeature", parameters.getOperation());
+        assertEquals("shogun:roads", parameters.getEndPoint());
+    }
+
+    @Test
+    public void getOgcParameters_fallsBackToTypeNamesAttribute() throws IOException {
+        String xml = """
+            <GetFeature service="WFS" version="2.0.0" xmlns:fes="http://www.opengis.net/fes/2.0">
+              <Query typeNames="shogun:roads">
+                <fes:Filter/>
+              </Query>
+            </GetFeature>
+            """;
+
+        OgcXmlParameters parameters = OgcXmlUtil.getOgcParameters(xml);
+
+        assertEquals("WFS", parameters.getService());
+        assertEquals("GetFeature", parameters.getOperation());
+        assertEquals("shogun:roads", parameters.getEndPoint());
+    }
+
+    @Test
+    public void getOgcParameters_readsGetCoverageIdentifier() throws IOException {
+        String xml = """
+            <GetCoverage service="WCS" version="1.1.1">
+              <Identifier>shogun:dem</Identifier>
+            </GetCoverage>
+            """;
+
+        OgcXmlParameters parameters = OgcXmlUtil.getOgcParameters(xml);
+
+        assertEquals("WCS", parameters.getService());
+        assertEquals("GetCoverage", parameters.getOperation());
+        assertEquals("shogun:dem", parameters.getEndPoint());
+    }
+
+    @Test
+    public void getOgcParameters_returnsEmptyValuesIfMissing() throws IOException {
+        OgcXmlParameters parameters = OgcXmlUtil.getOgcParameters("<GetCapabilities/>");
+
+        assertEquals("", parameters.getService());
+        assertEquals("GetCapabilities", parameters.getOperation());
+        assertEquals("", parameters.getEndPoint());
+    }
+
+    @Test
+    public void getOgcParameters_rejectsDoctype() {
+        String xml = """
+            <?xml version="1.0"?>
+            <!DOCTYPE GetFeature [<!ENTITY xxe SYSTEM "file:///etc/passwd">]>
+            <GetFeature service="WFS"><TypeName>&xxe;</TypeName></GetFeature>
+            """;
+
+        assertThrows(IOException.class, () -> OgcXmlUtil.getOgcParameters(xml));
+    }
+
+    @Test
+    public void getOgcParameters_throwsOnInvalidXml() {
+        assertThrows(IOException.class, () -> OgcXmlUtil.getOgcParameters("<GetFeature"));
+    }
+
+}
@@ -0,0 +1,60 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.actuator;
+
+import de.terrestris.shogun.lib.util.HttpUtil;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the statistics of the connection pool used for all outgoing HTTP connections, in total
+ * and per route (i.e. per target host).
+ */
+@Component
+@Endpoint(id = "httpconnectionpool")
+public class HttpConnectionPoolEndpoint {
+
+    @ReadOperation
+    public Map<String, Object> getStats() {
+        Map<String, Object> routes = new LinkedHashMap<>();
+        for (Map.Entry<HttpRoute, PoolStats> routeStats : HttpUtil.getConnectionPoolRouteStats().entrySet()) {
+            routes.put(routeStats.getKey().getTargetHost().toURI(), toMap(routeStats.getValue()));
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>(toMap(HttpUtil.getConnectionPoolStats()));
+        stats.put("routes", routes);
+
+        return stats;
+    }
+
+    private Map<String, Integer> toMap(PoolStats poolStats) {
+        Map<String, Integer> stats = new LinkedHashMap<>();
+        stats.put("leased", poolStats.getLeased());
+        stats.put("pending", poolStats.getPending());
+        stats.put("available", poolStats.getAvailable());
+        stats.put("max", poolStats.getMax());
+
+        return stats;
+    }
+
+}
@@ -0,0 +1,291 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import de.terrestris.shogun.lib.event.CacheInvalidationEvent;
+import de.terrestris.shogun.lib.event.KeycloakEvent;
+import de.terrestris.shogun.lib.model.Group;
+import de.terrestris.shogun.lib.repository.GroupRepository;
+import de.terrestris.shogun.lib.util.KeycloakUtil;
+import de.terrestris.shogun.properties.CacheProperties;
+import de.terrestris.shogun.properties.CacheSpecProperties;
+import de.terrestris.shogun.properties.KeycloakProperties.GroupsClaimFormat;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.keycloak.representations.idm.GroupRepresentation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caches the IDs of the SHOGun groups a user is member of, keyed by the Keycloak ID of the user.
+ *
+ * The memberships of a user are resolved by a single request against Keycloak and a single query for the matching
+ * SHOGun groups. If enabled via `cache.groupMembership.enabled`, the result is kept for `cache.groupMembership.ttl`
+ * and reloaded in the background after `cache.groupMembership.refresh`, so permission checks don't have to wait for
+ * Keycloak. Entries are invalidated as soon as a Keycloak event regarding the group memberships is received.
+ *
+ * Additionally, the SHOGun groups matching the values of the groups claim of access tokens (see
+ * `keycloak.groupsClaim`) are cached.
+ */
+@ConditionalOnExpression("${keycloak.enabled:true}")
+@Log4j2
+@Component
+public class GroupMembershipCache {
+
+    public static final String CACHE_NAME = "shogun.groups.membership";
+
+    public static final String CLAIM_CACHE_NAME = "shogun.groups.claims";
+
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private KeycloakUtil keycloakUtil;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    private LoadingCache<String, List<Long>> cache;
+
+    /**
+     * Maps the values of the groups claim (Keycloak IDs or paths of the groups) to the IDs of the SHOGun groups.
+     */
+    private Cache<String, Long> claimCache;
+
+    @PostConstruct
+    public void init() {
+        CacheSpecProperties groupMembershipCacheProperties = cacheProperties.getGroupMembership();
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .expireAfterWrite(groupMembershipCacheProperties.getTtl())
+            .maximumSize(groupMembershipCacheProperties.getMaximumSize())
+            .recordStats();
+
+        if (groupMembershipCacheProperties.getRefresh() != null) {
+            builder.refreshAfterWrite(groupMembershipCacheProperties.getRefresh());
+        }
+
+        cache = builder.build(this::loadGroupIds);
+
+        claimCache = Caffeine.newBuilder()
+            .expireAfterWrite(groupMembershipCacheProperties.getTtl())
+            .maximumSize(groupMembershipCacheProperties.getMaximumSize())
+            .recordStats()
+            .build();
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+            CaffeineCacheMetrics.monitor(meterRegistry, claimCache, CLAIM_CACHE_NAME);
+        }
+    }
+
+    /**
+     * Returns the IDs of the SHOGun groups the user with the given Keycloak ID is member of. Groups that don't exist
+     * in SHOGun (yet) are ignored. If the memberships can't be resolved, an empty list is returned (and not cached).
+     *
+     * @param keycloakUserId The Keycloak ID of the user.
+     * @return The (unmodifiable) list of group IDs.
+     */
+    public List<Long> getGroupIds(String keycloakUserId) {
+        if (StringUtils.isEmpty(keycloakUserId)) {
+            return List.of();
+        }
+
+        try {
+            if (isEnabled()) {
+                return cache.get(keycloakUserId);
+            }
+
+            return loadGroupIds(keycloakUserId);
+        } catch (Exception e) {
+            log.warn("Could not get the groups of user with Keycloak ID {}. This may happen if the user is not " +
+                "available in Keycloak.", keycloakUserId);
+            log.trace("Full stack trace: ", e);
+
+            return List.of();
+        }
+    }
+
+    /**
+     * Returns the IDs of the SHOGun groups matching the given values of the groups claim of an access token. Only
+     * groups not resolved before are looked up (with a single query), so neither Keycloak nor the database is
+     * queried if all groups are cached. Groups that don't exist in SHOGun (yet) are ignored.
+     *
+     * @param claims The values of the groups claim.
+     * @param format The format of the values.
+     * @return The (unmodifiable) list of group IDs.
+     */
+    public List<Long> getGroupIdsForClaims(Collection<String> claims, GroupsClaimFormat format) {
+        if (claims == null || claims.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> groupIds = new LinkedHashSet<>();
+        Set<String> missingClaims = new LinkedHashSet<>();
+
+        for (String claim : claims) {
+            Long groupId = isEnabled() ? claimCache.getIfPresent(claim) : null;
+
+            if (groupId != null) {
+                groupIds.add(groupId);
+            } else {
+                missingClaims.add(claim);
+            }
+        }
+
+        if (!missingClaims.isEmpty()) {
+            Map<String, Long> loadedGroupIds = loadGroupIdsForClaims(missingClaims, format);
+
+            for (String claim : missingClaims) {
+                Long groupId = loadedGroupIds.get(claim);
+
+                if (groupId == null) {
+                    continue;
+                }
+
+                if (isEnabled()) {
+                    claimCache.put(claim, groupId);
+                }
+                groupIds.add(groupId);
+            }
+        }
+
+        return List.copyOf(groupIds);
+    }
+
+    /**
+     * Removes the group memberships of the user with the given Keycloak ID from the cache.
+     *
+     * @param keycloakUserId The Keycloak ID of the user.
+     */
+    public void invalidate(String keycloakUserId) {
+        if (StringUtils.isEmpty(keycloakUserId)) {
+            return;
+        }
+
+        log.debug("Invalidating the cached group memberships of user with Keycloak ID {}", keycloakUserId);
+
+        cache.invalidate(keycloakUserId);
+    }
+
+    /**
+     * Removes the group memberships of all users from the cache.
+     */
+    public void invalidateAll() {
+        log.debug("Invalidating all cached group memberships");
+
+        cache.invalidateAll();
+        claimCache.invalidateAll();
+    }
+
+    /**
+     * Returns the hit/miss statistics of the cache.
+     *
+     * @return The statistics.
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    @EventListener
+    public void onKeycloakEvent(KeycloakEvent event) {
+        switch (event.getEventType()) {
+            case USER_DELETED, USER_GROUP_MEMBERSHIP_CHANGED -> invalidate(event.getKeycloakId());
+            // the members of the deleted group are not known anymore
+            case GROUP_DELETED -> invalidateAll();
+        }
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.affects(Group.class)) {
+            invalidateAll();
+        }
+    }
+
+    private boolean isEnabled() {
+        return Boolean.TRUE.equals(cacheProperties.getGroupMembership().getEnabled());
+    }
+
+    private Map<String, Long> loadGroupIdsForClaims(Set<String> claims, GroupsClaimFormat format) {
+        log.trace("Resolving the SHOGun groups of the group claims {}", claims);
+
+        // Maps the Keycloak IDs of the groups to the claim values
+        Map<String, String> claimsByKeycloakId = new HashMap<>();
+
+        for (String claim : claims) {
+            if (format == GroupsClaimFormat.ID) {
+                claimsByKeycloakId.put(claim, claim);
+                continue;
+            }
+
+            try {
+                claimsByKeycloakId.put(keycloakUtil.getGroupByPath(claim).getId(), claim);
+            } catch (Exception e) {
+                log.warn("Could not get the group with path {} from Keycloak.", claim);
+                log.trace("Full stack trace: ", e);
+            }
+        }
+
+        if (claimsByKeycloakId.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Long> groupIds = new HashMap<>();
+        for (Group<?> group : groupRepository.findAllByAuthProviderIdIn(claimsByKeycloakId.keySet())) {
+            groupIds.put(claimsByKeycloakId.get(group.getAuthProviderId()), group.getId());
+        }
+
+        return groupIds;
+    }
+
+    private List<Long> loadGroupIds(String keycloakUserId) {
+        log.trace("Loading the group memberships of user with Keycloak ID {}", keycloakUserId);
+
+        List<String> keycloakGroupIds = keycloakUtil.getUserResource(keycloakUserId).groups().stream()
+            .map(GroupRepresentation::getId)
+            .toList();
+
+        if (keycloakGroupIds.isEmpty()) {
+            return List.of();
+        }
+
+        return groupRepository.findAllByAuthProviderIdIn(keycloakGroupIds).stream()
+            .map(Group::getId)
+            .toList();
+    }
+
+}
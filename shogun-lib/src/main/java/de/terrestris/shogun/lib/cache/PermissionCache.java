@@ -0,0 +1,412 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
+import de.terrestris.shogun.lib.event.CacheInvalidationEvent;
+import de.terrestris.shogun.lib.event.KeycloakEvent;
+import de.terrestris.shogun.lib.event.KeycloakEventType;
+import de.terrestris.shogun.lib.model.User;
+import de.terrestris.shogun.lib.model.security.permission.GroupClassPermission;
+import de.terrestris.shogun.lib.model.security.permission.GroupInstancePermission;
+import de.terrestris.shogun.lib.model.security.permission.PermissionCollection;
+import de.terrestris.shogun.lib.model.security.permission.UserClassPermission;
+import de.terrestris.shogun.lib.model.security.permission.UserInstancePermission;
+import de.terrestris.shogun.lib.repository.UserRepository;
+import de.terrestris.shogun.properties.CacheProperties;
+import de.terrestris.shogun.properties.CacheSpecProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caches the permission decisions of the permission evaluators and the effective class permissions of a user, i.e.
+ * the merged permission types of the user and all of its groups.
+ *
+ * The decisions are cached per (user ID, entity ID) and permission type, the class permissions per
+ * (user ID, entity class). Both caches are bounded by `cache.permission.maximumSize` and `cache.permission.ttl`.
+ * Entries are invalidated by the permission services whenever a permission is set or deleted (immediately and once
+ * more after the surrounding transaction has been committed) and if the group membership of a user changes.
+ *
+ * Invalidations which can't be mapped to single cache keys (e.g. all users on an entity, or all entities of a class)
+ * don't scan the caches. Instead, the time of the invalidation is recorded per entity, user and class (for the
+ * lifetime of the cache entries) and all entries loaded before are considered stale when they're read.
+ */
+@Log4j2
+@Component
+public class PermissionCache {
+
+    public static final String INSTANCE_CACHE_NAME = "shogun.permissions.instance";
+
+    public static final String CLASS_CACHE_NAME = "shogun.permissions.class";
+
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private Cache<InstanceKey, InstanceEntry> instancePermissions;
+
+    private Cache<ClassKey, ClassEntry> classPermissions;
+
+    /**
+     * The logical clock used to order the loading and the invalidation of entries.
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    private volatile long allInvalidated;
+
+    private Cache<Long, Long> entityInvalidations;
+
+    private Cache<InstanceKey, Long> userEntityInvalidations;
+
+    private Cache<Long, Long> userInvalidations;
+
+    private Cache<String, Long> classInvalidations;
+
+    private Cache<ClassKey, Long> userClassInvalidations;
+
+    @PostConstruct
+    public void init() {
+        CacheSpecProperties permissionCacheProperties = cacheProperties.getPermission();
+
+        instancePermissions = Caffeine.newBuilder()
+            .expireAfterWrite(permissionCacheProperties.getTtl())
+            .maximumSize(permissionCacheProperties.getMaximumSize())
+            .recordStats()
+            .build();
+
+        classPermissions = Caffeine.newBuilder()
+            .expireAfterWrite(permissionCacheProperties.getTtl())
+            .maximumSize(permissionCacheProperties.getMaximumSize())
+            .recordStats()
+            .build();
+
+        // an invalidation must be kept as long as entries loaded before it may exist, i.e. at least for the TTL of
+        // the entries (plus the time it takes to load them)
+        Duration invalidationTtl = permissionCacheProperties.getTtl().multipliedBy(2);
+
+        entityInvalidations = buildInvalidationCache(invalidationTtl);
+        userEntityInvalidations = buildInvalidationCache(invalidationTtl);
+        userInvalidations = buildInvalidationCache(invalidationTtl);
+        classInvalidations = buildInvalidationCache(invalidationTtl);
+        userClassInvalidations = buildInvalidationCache(invalidationTtl);
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, instancePermissions, INSTANCE_CACHE_NAME);
+            CaffeineCacheMetrics.monitor(meterRegistry, classPermissions, CLASS_CACHE_NAME);
+        }
+    }
+
+    /**
+     * Checks if the cache is enabled via `cache.permission.enabled`.
+     *
+     * @return true if so, false otherwise.
+     */
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(cacheProperties.getPermission().getEnabled());
+    }
+
+    /**
+     * Returns the (cached) decision whether the given user has the given permission on the given entity. If it's not
+     * cached yet, the given evaluation will be called.
+     *
+     * @param userId The ID of the user.
+     * @param className The (canonical) class name of the entity.
+     * @param entityId The ID of the entity.
+     * @param permission The permission to check.
+     * @param evaluation The function to evaluate the permission if it's not cached yet.
+     * @return true if the user has the permission, false otherwise.
+     */
+    public boolean hasInstancePermission(Long userId, String className, Long entityId, PermissionType permission,
+            BooleanSupplier evaluation) {
+        InstanceKey key = new InstanceKey(userId, entityId);
+        InstanceEntry entry = instancePermissions.getIfPresent(key);
+
+        if (entry == null || isStale(key, entry)) {
+            entry = new InstanceEntry(className, clock.get(), new ConcurrentHashMap<>());
+            instancePermissions.put(key, entry);
+        }
+
+        Boolean decision = entry.decisions().get(permission);
+
+        if (decision == null) {
+            // note: not using computeIfAbsent() since the evaluation may check further permissions on the entity
+            decision = evaluation.getAsBoolean();
+            entry.decisions().put(permission, decision);
+        }
+
+        return decision;
+    }
+
+    /**
+     * Returns the effective class permissions of the given user on the given class. If they're not cached yet,
+     * the given loader will be called.
+     *
+     * @param userId The ID of the user.
+     * @param className The (canonical) class name.
+     * @param loader The function to resolve the permissions if they're not cached yet.
+     * @return The (unmodifiable) permission types.
+     */
+    public Set<PermissionType> getClassPermissions(Long userId, String className,
+            Supplier<Set<PermissionType>> loader) {
+        ClassKey key = new ClassKey(userId, className);
+        ClassEntry entry = classPermissions.getIfPresent(key);
+
+        if (entry == null || isStale(key, entry.loaded())) {
+            long loaded = clock.get();
+
+            entry = new ClassEntry(loaded, copyOf(loader.get()));
+            classPermissions.put(key, entry);
+        }
+
+        return entry.permissions();
+    }
+
+    /**
+     * Removes the cached permissions of all users on the entity with the given ID.
+     *
+     * @param entityId The ID of the entity.
+     */
+    public void invalidateEntity(Long entityId) {
+        if (entityId == null) {
+            return;
+        }
+
+        invalidateEntities(null, Set.of(entityId));
+    }
+
+    /**
+     * Removes the cached permissions on the entities with the given IDs.
+     *
+     * @param userId The ID of the user to remove the permissions for, null to remove them for all users.
+     * @param entityIds The IDs of the entities.
+     */
+    public void invalidateEntities(Long userId, Collection<Long> entityIds) {
+        if (entityIds == null || entityIds.isEmpty()) {
+            return;
+        }
+
+        Set<Long> ids = new HashSet<>(entityIds);
+
+        invalidate(() -> {
+            log.trace("Invalidating the cached permissions of user {} on {} entities",
+                userId == null ? "(all)" : userId, ids.size());
+
+            long invalidated = clock.incrementAndGet();
+
+            for (Long id : ids) {
+                if (userId == null) {
+                    entityInvalidations.put(id, invalidated);
+                } else {
+                    InstanceKey key = new InstanceKey(userId, id);
+
+                    userEntityInvalidations.put(key, invalidated);
+                    instancePermissions.invalidate(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes the cached permissions on the given class and its entities.
+     *
+     * @param userId The ID of the user to remove the permissions for, null to remove them for all users.
+     * @param className The (canonical) class name.
+     */
+    public void invalidateClass(Long userId, String className) {
+        if (className == null) {
+            return;
+        }
+
+        invalidate(() -> {
+            log.trace("Invalidating the cached permissions of user {} on class {}",
+                userId == null ? "(all)" : userId, className);
+
+            long invalidated = clock.incrementAndGet();
+
+            if (userId == null) {
+                classInvalidations.put(className, invalidated);
+            } else {
+                ClassKey key = new ClassKey(userId, className);
+
+                userClassInvalidations.put(key, invalidated);
+                classPermissions.invalidate(key);
+            }
+        });
+    }
+
+    /**
+     * Removes all cached permissions of the user with the given ID.
+     *
+     * @param userId The ID of the user.
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+
+        invalidate(() -> {
+            log.trace("Invalidating the cached permissions of user with ID {}", userId);
+
+            userInvalidations.put(userId, clock.incrementAndGet());
+        });
+    }
+
+    /**
+     * Removes all cached permissions, e.g. if the permissions of a group have been changed (as the members of the
+     * group are not known locally).
+     */
+    public void invalidateAll() {
+        invalidate(() -> {
+            log.trace("Invalidating all cached permissions");
+
+            allInvalidated = clock.incrementAndGet();
+
+            instancePermissions.invalidateAll();
+            classPermissions.invalidateAll();
+        });
+    }
+
+    /**
+     * Returns the hit/miss statistics of the instance permission cache.
+     *
+     * @return The statistics.
+     */
+    public CacheStats getInstanceStats() {
+        return instancePermissions.stats();
+    }
+
+    /**
+     * Returns the hit/miss statistics of the class permission cache.
+     *
+     * @return The statistics.
+     */
+    public CacheStats getClassStats() {
+        return classPermissions.stats();
+    }
+
+    @EventListener
+    public void onKeycloakEvent(KeycloakEvent event) {
+        if (event.getEventType() != KeycloakEventType.USER_GROUP_MEMBERSHIP_CHANGED) {
+            return;
+        }
+
+        userRepository.findByAuthProviderId(event.getKeycloakId())
+            .map(User::getId)
+            .ifPresent(this::invalidateUser);
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.affects(UserInstancePermission.class, GroupInstancePermission.class, UserClassPermission.class,
+            GroupClassPermission.class, PermissionCollection.class)) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Runs the given invalidation immediately and, if a transaction is active, once more after it has been
+     * committed. This prevents concurrent requests from caching the permissions of the not yet committed state.
+     */
+    private void invalidate(Runnable invalidation) {
+        invalidation.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private boolean isStale(InstanceKey key, InstanceEntry entry) {
+        long loaded = entry.loaded();
+
+        return allInvalidated > loaded ||
+            isInvalidatedAfter(userInvalidations, key.userId(), loaded) ||
+            isInvalidatedAfter(entityInvalidations, key.entityId(), loaded) ||
+            isInvalidatedAfter(userEntityInvalidations, key, loaded) ||
+            isInvalidatedAfter(classInvalidations, entry.className(), loaded) ||
+            isInvalidatedAfter(userClassInvalidations, new ClassKey(key.userId(), entry.className()), loaded);
+    }
+
+    private boolean isStale(ClassKey key, long loaded) {
+        return allInvalidated > loaded ||
+            isInvalidatedAfter(userInvalidations, key.userId(), loaded) ||
+            isInvalidatedAfter(classInvalidations, key.className(), loaded) ||
+            isInvalidatedAfter(userClassInvalidations, key, loaded);
+    }
+
+    private static <K> boolean isInvalidatedAfter(Cache<K, Long> invalidations, K key, long loaded) {
+        Long invalidated = invalidations.getIfPresent(key);
+
+        return invalidated != null && invalidated > loaded;
+    }
+
+    private static <K> Cache<K, Long> buildInvalidationCache(Duration ttl) {
+        return Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    private Set<PermissionType> copyOf(Set<PermissionType> permissions) {
+        if (permissions == null || permissions.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        return PermissionType.fromMask(PermissionType.toMask(permissions));
+    }
+
+    /**
+     * Note: The entity ID is unique across all entity classes (just like for the instance permissions).
+     */
+    private record InstanceKey(Long userId, Long entityId) {}
+
+    private record ClassKey(Long userId, String className) {}
+
+    private record InstanceEntry(String className, long loaded, Map<PermissionType, Boolean> decisions) {}
+
+    private record ClassEntry(long loaded, Set<PermissionType> permissions) {}
+
+}
@@ -0,0 +1,210 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import de.terrestris.shogun.lib.event.CacheInvalidationEvent;
+import de.terrestris.shogun.lib.event.KeycloakEvent;
+import de.terrestris.shogun.lib.model.User;
+import de.terrestris.shogun.properties.CacheProperties;
+import de.terrestris.shogun.properties.CacheSpecProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Caches the {@link User}s resolved for the subject of the current session (the `sub` claim of the JWT).
+ *
+ * Lookups are deduplicated within a single HTTP request (by storing the user as request attribute) and, if enabled
+ * via `cache.user.enabled`, shared across requests for `cache.user.ttl`. Entries of a user are invalidated as soon as
+ * a Keycloak event regarding this user is received.
+ *
+ * NOTE: The cached users are detached from the persistence context and shared between requests. They must be treated
+ * as read-only, reload the user via the repository if it needs to be modified.
+ */
+@Log4j2
+@Component
+public class SessionUserCache {
+
+    public static final String CACHE_NAME = "shogun.session.users";
+
+    private static final String REQUEST_ATTRIBUTE_PREFIX = SessionUserCache.class.getName() + ".";
+
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, User<?>> cache;
+
+    @PostConstruct
+    public void init() {
+        CacheSpecProperties userCacheProperties = cacheProperties.getUser();
+
+        cache = Caffeine.newBuilder()
+            .expireAfterWrite(userCacheProperties.getTtl())
+            .maximumSize(userCacheProperties.getMaximumSize())
+            .recordStats()
+            .build();
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        }
+    }
+
+    /**
+     * Returns the user for the given subject. If the user is neither cached for the current request nor in the
+     * (cross request) cache, the given loader will be called. Empty results of the loader won't be cached.
+     *
+     * @param subject The subject (Keycloak ID) of the user.
+     * @param loader The function to resolve the user if it's not cached yet.
+     * @return The (optional) user.
+     */
+    public <T> Optional<User<T>> get(String subject, Function<String, Optional<User<T>>> loader) {
+        if (StringUtils.isEmpty(subject)) {
+            return Optional.empty();
+        }
+
+        Optional<User<T>> requestUser = getFromRequest(subject);
+        if (requestUser.isPresent()) {
+            log.trace("Found user with subject {} in the request cache", subject);
+            return requestUser;
+        }
+
+        User<T> user;
+        if (isEnabled()) {
+            user = (User<T>) cache.get(subject, key -> loader.apply(key).orElse(null));
+        } else {
+            user = loader.apply(subject).orElse(null);
+        }
+
+        if (user != null) {
+            putToRequest(subject, user);
+        }
+
+        return Optional.ofNullable(user);
+    }
+
+    /**
+     * Returns the user for the given subject if it's already cached, without resolving it otherwise.
+     *
+     * @param subject The subject (Keycloak ID) of the user.
+     * @return The (optional) user.
+     */
+    public <T> Optional<User<T>> getIfPresent(String subject) {
+        if (StringUtils.isEmpty(subject)) {
+            return Optional.empty();
+        }
+
+        Optional<User<T>> requestUser = getFromRequest(subject);
+        if (requestUser.isPresent() || !isEnabled()) {
+            return requestUser;
+        }
+
+        return Optional.ofNullable((User<T>) cache.getIfPresent(subject));
+    }
+
+    /**
+     * Removes the user with the given subject from the cache.
+     *
+     * @param subject The subject (Keycloak ID) of the user.
+     */
+    public void invalidate(String subject) {
+        if (StringUtils.isEmpty(subject)) {
+            return;
+        }
+
+        log.debug("Invalidating the cached user with subject {}", subject);
+
+        cache.invalidate(subject);
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.removeAttribute(REQUEST_ATTRIBUTE_PREFIX + subject, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Removes all users from the cache.
+     */
+    public void invalidateAll() {
+        log.debug("Invalidating all cached users");
+
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the hit/miss statistics of the (cross request) cache.
+     *
+     * @return The statistics.
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    @EventListener
+    public void onKeycloakEvent(KeycloakEvent event) {
+        switch (event.getEventType()) {
+            case USER_CREATED, USER_DELETED, USER_ROLES_CHANGED, USER_GROUP_MEMBERSHIP_CHANGED ->
+                invalidate(event.getKeycloakId());
+        }
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.affects(User.class)) {
+            invalidateAll();
+        }
+    }
+
+    private boolean isEnabled() {
+        return Boolean.TRUE.equals(cacheProperties.getUser().getEnabled());
+    }
+
+    private <T> Optional<User<T>> getFromRequest(String subject) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        if (requestAttributes == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable((User<T>) requestAttributes.getAttribute(REQUEST_ATTRIBUTE_PREFIX + subject,
+            RequestAttributes.SCOPE_REQUEST));
+    }
+
+    private void putToRequest(String subject, User<?> user) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(REQUEST_ATTRIBUTE_PREFIX + subject, user, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+}
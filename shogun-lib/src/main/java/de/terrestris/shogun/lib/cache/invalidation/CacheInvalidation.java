@@ -0,0 +1,61 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.cache.invalidation;
+
+import de.terrestris.shogun.lib.enumeration.CacheInvalidationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single invalidation of the second-level cache to be applied on all nodes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+
+    private CacheInvalidationType type;
+
+    /**
+     * The name of the region (REGION), the entity (ENTITY) or the role of the collection (COLLECTION).
+     */
+    private String name;
+
+    /**
+     * The ID of the entity (ENTITY) or of the owner of the collection (COLLECTION).
+     */
+    private String id;
+
+    public static CacheInvalidation all() {
+        return new CacheInvalidation(CacheInvalidationType.ALL, null, null);
+    }
+
+    public static CacheInvalidation region(String region) {
+        return new CacheInvalidation(CacheInvalidationType.REGION, region, null);
+    }
+
+    public static CacheInvalidation entity(String entityName, Object id) {
+        return new CacheInvalidation(CacheInvalidationType.ENTITY, entityName, id == null ? null : id.toString());
+    }
+
+    public static CacheInvalidation collection(String role, Object ownerId) {
+        return new CacheInvalidation(CacheInvalidationType.COLLECTION, role,
+            ownerId == null ? null : ownerId.toString());
+    }
+
+}
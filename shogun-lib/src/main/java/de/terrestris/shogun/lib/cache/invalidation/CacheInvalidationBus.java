@@ -0,0 +1,44 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.cache.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts {@link CacheInvalidationMessage}s to all nodes of a cluster.
+ *
+ * Implementations deliver every published message to the subscribers of all nodes, including the
+ * subscribers of the publishing node. Subscribers are expected to skip their own messages (see
+ * {@link CacheInvalidationMessage#getOrigin()}).
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Broadcasts the given message. Implementations may send the message asynchronously.
+     *
+     * @param message The message.
+     */
+    void publish(CacheInvalidationMessage message);
+
+    /**
+     * Registers a subscriber for the messages of all nodes.
+     *
+     * @param subscriber The subscriber.
+     */
+    void subscribe(Consumer<CacheInvalidationMessage> subscriber);
+
+}
@@ -0,0 +1,286 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.cache.invalidation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.terrestris.shogun.properties.CacheInvalidationProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link CacheInvalidationBus} based on PostgreSQL LISTEN/NOTIFY, i.e. all nodes sharing the same database
+ * receive the messages of each other.
+ *
+ * Messages are serialized as JSON and sent asynchronously (in order) by a single sender thread. Messages exceeding
+ * the maximum payload size of a notification are split (using a connection of the pooled {@link DataSource} per
+ * message). The notifications are received by a dedicated listener thread, which holds one connection of the
+ * listener {@link DataSource} permanently. The latter should not be pooled, as the connection is never returned
+ * while the application is running and would keep listening to the channel if it was reused. If this connection
+ * gets lost, the subscribers will receive an invalidation of all regions after reconnecting, as the notifications
+ * sent in the meantime are lost.
+ */
+@Log4j2
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus {
+
+    /**
+     * The maximum size of a notification payload (in bytes, exclusive), see
+     * https://www.postgresql.org/docs/current/sql-notify.html.
+     */
+    static final int MAX_PAYLOAD_SIZE = 8000;
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final DataSource dataSource;
+
+    private final DataSource listenerDataSource;
+
+    private final ObjectMapper objectMapper;
+
+    private final CacheInvalidationProperties properties;
+
+    private final List<Consumer<CacheInvalidationMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    private ThreadPoolExecutor sender;
+
+    private Thread listener;
+
+    private volatile Connection listenerConnection;
+
+    private volatile boolean running;
+
+    public PostgresCacheInvalidationBus(DataSource dataSource, DataSource listenerDataSource, ObjectMapper objectMapper,
+                                        CacheInvalidationProperties properties) {
+        if (properties.getChannel() == null || !CHANNEL_PATTERN.matcher(properties.getChannel()).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + properties.getChannel());
+        }
+
+        this.dataSource = dataSource;
+        this.listenerDataSource = listenerDataSource;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+
+        // the caller sends the message itself if the queue is full, invalidations must not get lost
+        sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+            new CustomizableThreadFactory("shogun-cache-invalidation-sender-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+        listener = new CustomizableThreadFactory("shogun-cache-invalidation-listener-").newThread(this::listen);
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+
+        sender.shutdown();
+        if (!sender.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Could not send all pending cache invalidation messages before shutdown.");
+            sender.shutdownNow();
+        }
+
+        listener.interrupt();
+
+        // ends a pending poll for notifications immediately
+        Connection connection = listenerConnection;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Could not close the connection listening for cache invalidations: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void publish(CacheInvalidationMessage message) {
+        if (sender == null || sender.isShutdown()) {
+            send(message);
+            return;
+        }
+
+        sender.execute(() -> send(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    private void send(CacheInvalidationMessage message) {
+        try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")
+        ) {
+            for (String payload : toPayloads(message)) {
+                statement.setString(1, properties.getChannel());
+                statement.setString(2, payload);
+                statement.execute();
+            }
+
+            // notifications are delivered on commit only
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+
+            log.trace("Sent {} cache invalidation(s) to channel {}", message.getInvalidations().size(),
+                properties.getChannel());
+        } catch (SQLException | JsonProcessingException e) {
+            log.error("Could not send {} cache invalidation(s) to the other nodes: {}",
+                message.getInvalidations().size(), e.getMessage());
+            log.trace("Full stack trace: ", e);
+        }
+    }
+
+    /**
+     * Serializes the given message, splitting it into multiple payloads if it exceeds the maximum payload size.
+     *
+     * @param message The message.
+     * @return The payloads.
+     * @throws JsonProcessingException If the message can't be serialized.
+     */
+    List<String> toPayloads(CacheInvalidationMessage message) throws JsonProcessingException {
+        String payload = objectMapper.writeValueAsString(message);
+
+        if (payload.getBytes(StandardCharsets.UTF_8).length < MAX_PAYLOAD_SIZE) {
+            return List.of(payload);
+        }
+
+        List<CacheInvalidation> invalidations = message.getInvalidations();
+
+        if (invalidations.size() < 2) {
+            // can't be split any further, invalidate everything instead
+            return List.of(objectMapper.writeValueAsString(new CacheInvalidationMessage(message.getOrigin(),
+                List.of(CacheInvalidation.all()))));
+        }
+
+        int half = invalidations.size() / 2;
+
+        List<String> payloads = new ArrayList<>(toPayloads(new CacheInvalidationMessage(message.getOrigin(),
+            invalidations.subList(0, half))));
+        payloads.addAll(toPayloads(new CacheInvalidationMessage(message.getOrigin(),
+            invalidations.subList(half, invalidations.size()))));
+
+        return payloads;
+    }
+
+    private void listen() {
+        boolean reconnected = false;
+
+        while (running) {
+            try (Connection connection = listenerDataSource.getConnection()) {
+                listenerConnection = connection;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+
+                log.info("Listening for cache invalidations on channel {}", properties.getChannel());
+
+                if (reconnected) {
+                    deliver(new CacheInvalidationMessage(null, List.of(CacheInvalidation.all())));
+                }
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(
+                        (int) properties.getPollTimeout().toMillis());
+
+                    if (notifications == null) {
+                        continue;
+                    }
+
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+
+                log.warn("Lost the connection listening for cache invalidations, reconnecting in {}: {}",
+                    properties.getReconnectDelay(), e.getMessage());
+                log.trace("Full stack trace: ", e);
+
+                reconnected = true;
+
+                try {
+                    Thread.sleep(properties.getReconnectDelay().toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                listenerConnection = null;
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            deliver(objectMapper.readValue(payload, CacheInvalidationMessage.class));
+        } catch (JsonProcessingException e) {
+            log.error("Could not read the cache invalidation message {}: {}", payload, e.getMessage());
+            log.trace("Full stack trace: ", e);
+        }
+    }
+
+    private void deliver(CacheInvalidationMessage message) {
+        for (Consumer<CacheInvalidationMessage> subscriber : subscribers) {
+            try {
+                subscriber.accept(message);
+            } catch (Exception e) {
+                log.error("Could not apply the cache invalidation message of node {}: {}",
+                    message.getOrigin(), e.getMessage());
+                log.trace("Full stack trace: ", e);
+            }
+        }
+    }
+
+}
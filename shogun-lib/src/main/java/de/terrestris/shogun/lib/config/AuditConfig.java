@@ -16,11 +16,15 @@
  */
 package de.terrestris.shogun.lib.config;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 
 @Configuration
 public class AuditConfig {
@@ -31,8 +35,54 @@ public class AuditConfig {
         this.entityManagerFactory = entityManagerFactory;
     }
 
+    /**
+     * Returns a (thread-safe) proxy of the {@link AuditReader}, which delegates every call to an audit reader bound
+     * to the {@link EntityManager} of the current transaction (or of the current request, if the EntityManager is
+     * kept open in view). Calls without such an EntityManager will fail with an {@link IllegalStateException}.
+     *
+     * @return The audit reader.
+     */
     @Bean
     AuditReader auditReader() {
-        return AuditReaderFactory.get(entityManagerFactory.createEntityManager());
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.addInterface(AuditReader.class);
+        proxyFactory.setTargetSource(new TransactionalAuditReaderTargetSource(entityManagerFactory));
+
+        return (AuditReader) proxyFactory.getProxy(getClass().getClassLoader());
+    }
+
+    static class TransactionalAuditReaderTargetSource implements TargetSource {
+
+        private final EntityManagerFactory entityManagerFactory;
+
+        TransactionalAuditReaderTargetSource(EntityManagerFactory entityManagerFactory) {
+            this.entityManagerFactory = entityManagerFactory;
+        }
+
+        @Override
+        public Class<?> getTargetClass() {
+            return AuditReader.class;
+        }
+
+        @Override
+        public boolean isStatic() {
+            return false;
+        }
+
+        @Override
+        public Object getTarget() {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+
+            if (entityManager == null) {
+                throw new IllegalStateException("No transactional EntityManager available, the AuditReader must " +
+                    "be used within a transaction.");
+            }
+
+            return AuditReaderFactory.get(entityManager);
+        }
+
+        @Override
+        public void releaseTarget(Object target) {
+        }
     }
 }
@@ -0,0 +1,72 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.terrestris.shogun.lib.cache.invalidation.CacheInvalidationBus;
+import de.terrestris.shogun.lib.cache.invalidation.InMemoryCacheInvalidationBus;
+import de.terrestris.shogun.lib.cache.invalidation.PostgresCacheInvalidationBus;
+import de.terrestris.shogun.properties.CacheInvalidationProperties;
+import de.terrestris.shogun.properties.CacheProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Provides the {@link CacheInvalidationBus} configured by `cache.invalidation.bus`. Projects may provide
+ * a custom implementation by declaring their own bean of this type.
+ */
+@Configuration
+public class CacheInvalidationConfig {
+
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    @Bean
+    @ConditionalOnMissingBean(CacheInvalidationBus.class)
+    public CacheInvalidationBus cacheInvalidationBus(ObjectProvider<DataSource> dataSource,
+                                                     ObjectProvider<DataSourceProperties> dataSourceProperties,
+                                                     ObjectMapper objectMapper) {
+        CacheInvalidationProperties invalidationProperties = cacheProperties.getInvalidation();
+
+        return switch (invalidationProperties.getBus()) {
+            case POSTGRES -> new PostgresCacheInvalidationBus(dataSource.getObject(),
+                createListenerDataSource(dataSourceProperties.getObject()), objectMapper, invalidationProperties);
+            case LOCAL -> new InMemoryCacheInvalidationBus();
+        };
+    }
+
+    /**
+     * Creates an unpooled data source for the same database as the (pooled) application data source, as the
+     * listener of the bus holds its connection permanently.
+     *
+     * @param dataSourceProperties The properties of the application data source.
+     * @return The data source.
+     */
+    private DataSource createListenerDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+            .type(SimpleDriverDataSource.class)
+            .build();
+    }
+
+}
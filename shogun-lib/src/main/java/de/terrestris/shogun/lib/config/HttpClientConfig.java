@@ -0,0 +1,70 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.config;
+
+import de.terrestris.shogun.lib.util.HttpUtil;
+import de.terrestris.shogun.properties.HttpPoolProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Configures the connection pool of the shared HTTP client in {@link HttpUtil} and exposes its
+ * statistics as metrics (`http.client.pool.*`).
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Autowired
+    private HttpPoolProperties httpPoolProperties;
+
+    @PostConstruct
+    public void configureConnectionPool() {
+        HttpUtil.configureConnectionPool(httpPoolProperties);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        HttpUtil.closeConnectionPool();
+    }
+
+    @Bean
+    public MeterBinder httpConnectionPoolMetrics() {
+        return registry -> {
+            registerGauge(registry, "leased", "The number of connections currently in use", PoolStats::getLeased);
+            registerGauge(registry, "pending", "The number of requests waiting for a connection", PoolStats::getPending);
+            registerGauge(registry, "available", "The number of idle connections", PoolStats::getAvailable);
+            registerGauge(registry, "max", "The maximum number of connections", PoolStats::getMax);
+        };
+    }
+
+    private void registerGauge(MeterRegistry registry, String name, String description,
+                               ToIntFunction<PoolStats> value) {
+        Gauge.builder("http.client.pool." + name, () -> value.applyAsInt(HttpUtil.getConnectionPoolStats()))
+            .description(description)
+            .register(registry);
+    }
+
+}
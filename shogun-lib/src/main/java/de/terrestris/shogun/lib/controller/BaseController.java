@@ -16,40 +16,65 @@
  */
 package de.terrestris.shogun.lib.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jsonpatch.mergepatch.JsonMergePatch;
 import de.terrestris.shogun.lib.controller.security.permission.BasePermissionController;
+import de.terrestris.shogun.lib.dto.BulkItemResult;
+import de.terrestris.shogun.lib.dto.KeysetPage;
+import de.terrestris.shogun.lib.exception.BulkSizeExceededException;
 import de.terrestris.shogun.lib.model.BaseEntity;
 import de.terrestris.shogun.lib.service.BaseService;
+import de.terrestris.shogun.lib.util.ETagUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.GenericTypeResolver;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.history.Revision;
 import org.springframework.data.history.Revisions;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 // TODO Specify and type extension of BaseService
 @Log4j2
 public abstract class BaseController<T extends BaseService<?, S>, S extends BaseEntity> extends BasePermissionController<T, S> {
 
+    public static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+    /**
+     * The number of revisions returned per page if no size is requested.
+     */
+    public static final int DEFAULT_REVISION_PAGE_SIZE = 20;
+
+    /**
+     * The maximum number of revisions returned per page.
+     */
+    public static final int MAX_REVISION_PAGE_SIZE = 1000;
+
     @Autowired
     protected T service;
 
@@ -124,6 +149,129 @@ public abstract class BaseController<T extends BaseService<?, S>, S extends Base
         }
     }
 
+    @GetMapping(
+        params = "after",
+        produces = { "application/json" }
+    )
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Returns a page of entities via keyset pagination",
+        description = "Returns the entities following the given cursor (ordered by ID). Pass an empty cursor to " +
+            "request the first page and the `next` cursor of the response to request the following page.",
+        security = { @SecurityRequirement(name = "bearer-key") }
+    )
+    public KeysetPage<S> findAllAfter(
+        @RequestParam("after") String after,
+        @RequestParam(value = "size", required = false) Integer size
+    ) {
+        log.trace("Requested to return entities of type {} after cursor {}", getGenericClassName(), after);
+
+        try {
+            KeysetPage<S> persistedEntities = service.findAllAfter(after, size);
+
+            log.trace("Successfully got entities of type {} after cursor {} (count: {})",
+                getGenericClassName(), after, persistedEntities.getContent().size());
+
+            return persistedEntities;
+        } catch (IllegalArgumentException iae) {
+            log.warn("Invalid cursor {} for entities of type {}", after, getGenericClassName());
+
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                messageSource.getMessage(
+                    "BaseController.INVALID_CURSOR",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                iae
+            );
+        } catch (AccessDeniedException ade) {
+            log.warn("Access to entity of type {} is denied", getGenericClassName());
+
+            throw new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                messageSource.getMessage(
+                    "BaseController.NOT_FOUND",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                ade
+            );
+        } catch (ResponseStatusException rse) {
+            throw rse;
+        } catch (Exception e) {
+            log.error("Error while requesting entities of type {} after cursor {}: \n {}",
+                getGenericClassName(), after, e.getMessage());
+            log.trace("Full stack trace: ", e);
+
+            throw new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                messageSource.getMessage(
+                    "BaseController.INTERNAL_SERVER_ERROR",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                e
+            );
+        }
+    }
+
+    @GetMapping(
+        value = "/export",
+        produces = { BaseController.NDJSON_CONTENT_TYPE }
+    )
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Exports all entities as newline delimited JSON",
+        description = "Streams all readable entities (ordered by ID) as newline delimited JSON, one entity per line.",
+        security = { @SecurityRequirement(name = "bearer-key") }
+    )
+    public void exportAll(HttpServletResponse response) {
+        log.trace("Requested to export all entities of type {}", getGenericClassName());
+
+        try {
+            response.setContentType(NDJSON_CONTENT_TYPE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+            long count = service.exportAll(response.getOutputStream());
+
+            log.trace("Successfully exported all entities of type {} (count: {})", getGenericClassName(), count);
+        } catch (AccessDeniedException ade) {
+            log.warn("Access to entity of type {} is denied", getGenericClassName());
+
+            throw new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                messageSource.getMessage(
+                    "BaseController.NOT_FOUND",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                ade
+            );
+        } catch (ResponseStatusException rse) {
+            throw rse;
+        } catch (Exception e) {
+            log.error("Error while exporting all entities of type {}: \n {}",
+                getGenericClassName(), e.getMessage());
+            log.trace("Full stack trace: ", e);
+
+            // the status can't be changed anymore if parts of the export have already been sent
+            if (response.isCommitted()) {
+                return;
+            }
+
+            throw new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                messageSource.getMessage(
+                    "BaseController.INTERNAL_SERVER_ERROR",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                e
+            );
+        }
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     @Operation(security = { @SecurityRequirement(name = "bearer-key") })
@@ -248,6 +396,96 @@ public abstract class BaseController<T extends BaseService<?, S>, S extends Base
         }
     }
 
+    @GetMapping(
+        value = "/{id}/rev",
+        params = "page"
+    )
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Returns a page of the revisions of the entity",
+        description = "Returns the revisions of the entity (ordered by revision number) page by page. Only the " +
+            "entity snapshots of the requested page are loaded.",
+        security = { @SecurityRequirement(name = "bearer-key") }
+    )
+    public Page<Revision<Integer, S>> findRevisions(
+        @PathVariable("id") Long entityId,
+        @RequestParam("page") Integer page,
+        @RequestParam(value = "size", required = false) Integer size
+    ) {
+        log.trace("Requested to return page {} of the revisions for entity of type {} with ID {}",
+            page, getGenericClassName(), entityId);
+
+        try {
+            Pageable pageable = PageRequest.of(page, size == null ? DEFAULT_REVISION_PAGE_SIZE :
+                Math.min(size, MAX_REVISION_PAGE_SIZE));
+
+            Optional<S> entity = service.findOne(entityId);
+
+            if (entity.isPresent()) {
+                Page<Revision<Integer, S>> revisions = service.findRevisions(entity.get(), pageable);
+
+                log.trace("Successfully got page {} of the revisions for entity of type {} with ID {} (count: {})",
+                    page, getGenericClassName(), entityId, revisions.getNumberOfElements());
+
+                return revisions;
+            } else {
+                log.error("Could not find entity of type {} with ID {}",
+                    getGenericClassName(), entityId);
+
+                throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    messageSource.getMessage(
+                        "BaseController.NOT_FOUND",
+                        null,
+                        LocaleContextHolder.getLocale()
+                    )
+                );
+            }
+        } catch (IllegalArgumentException iae) {
+            log.warn("Invalid page {} (size {}) of the revisions for entity of type {} with ID {}",
+                page, size, getGenericClassName(), entityId);
+
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                messageSource.getMessage(
+                    "BaseController.INVALID_PAGE",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                iae
+            );
+        } catch (AccessDeniedException ade) {
+            log.warn("Access to entity of type {} with ID {} is denied",
+                getGenericClassName(), entityId);
+
+            throw new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                messageSource.getMessage(
+                    "BaseController.NOT_FOUND",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                ade
+            );
+        } catch (ResponseStatusException rse) {
+            throw rse;
+        } catch (Exception e) {
+            log.error("Error while requesting the revisions for entity of type {} with ID {}: \n {}",
+                getGenericClassName(), entityId, e.getMessage());
+            log.trace("Full stack trace: ", e);
+
+            throw new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                messageSource.getMessage(
+                    "BaseController.INTERNAL_SERVER_ERROR",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                e
+            );
+        }
+    }
+
     @GetMapping("/{id}/rev/{rev}")
     @ResponseStatus(HttpStatus.OK)
     @Operation(security = { @SecurityRequirement(name = "bearer-key") })
@@ -508,10 +746,56 @@ public abstract class BaseController<T extends BaseService<?, S>, S extends Base
         }
     }
 
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.MULTI_STATUS)
+    @Operation(
+        summary = "Creates the given entities",
+        description = "The items are processed in chunks, each chunk within its own transaction. The response " +
+            "contains the result (status and ID) of each item in the order of the request.",
+        security = { @SecurityRequirement(name = "bearer-key") }
+    )
+    public List<BulkItemResult> addAll(@RequestBody List<S> items) {
+        log.trace("Requested to create {} entities of type {}", items.size(), getGenericClassName());
+
+        return processBulkRequest(items, service::createAll);
+    }
+
+    @PatchMapping("/bulk")
+    @ResponseStatus(HttpStatus.MULTI_STATUS)
+    @Operation(
+        summary = "Partially updates the entities by applying the given JSON merge patches (each containing the ID)",
+        description = "The items are processed in chunks, each chunk within its own transaction. The response " +
+            "contains the result (status and ID) of each item in the order of the request.",
+        security = { @SecurityRequirement(name = "bearer-key") }
+    )
+    public List<BulkItemResult> updatePartialAll(@RequestBody List<JsonNode> items) {
+        log.trace("Requested to update {} entities of type {}", items.size(), getGenericClassName());
+
+        return processBulkRequest(items, service::updatePartialAll);
+    }
+
+    @DeleteMapping("/bulk")
+    @ResponseStatus(HttpStatus.MULTI_STATUS)
+    @Operation(
+        summary = "Deletes the entities with the given IDs",
+        description = "The items are processed in chunks, each chunk within its own transaction. The response " +
+            "contains the result (status and ID) of each item in the order of the request.",
+        security = { @SecurityRequirement(name = "bearer-key") }
+    )
+    public List<BulkItemResult> deleteAll(@RequestBody List<Long> items) {
+        log.trace("Requested to delete {} entities of type {}", items.size(), getGenericClassName());
+
+        return processBulkRequest(items, service::deleteAll);
+    }
+
     @PutMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     @Operation(security = { @SecurityRequirement(name = "bearer-key") })
-    public S update(@RequestBody S entity, @PathVariable("id") Long entityId) {
+    public S update(
+        @RequestBody S entity,
+        @PathVariable("id") Long entityId,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         log.trace("Requested to update entity of type {} with ID {} ({})",
             getGenericClassName(), entityId, entity);
 
@@ -526,6 +810,13 @@ public abstract class BaseController<T extends BaseService<?, S>, S extends Base
             Optional<S> persistedEntity = service.findOne(entityId);
 
             if (persistedEntity.isPresent()) {
+                checkIfMatch(ifMatch, persistedEntity.get());
+
+                if (StringUtils.isNotBlank(ifMatch)) {
+                    // the version of the If-Match header takes precedence over the one of the body
+                    entity.setVersion(persistedEntity.get().getVersion());
+                }
+
                 S updatedEntity = service.update(entityId, entity);
 
                 log.trace("Successfully updated entity of type {} with ID {}",
@@ -558,6 +849,18 @@ public abstract class BaseController<T extends BaseService<?, S>, S extends Base
                     ),
                     ade
             );
+        } catch (OptimisticLockingFailureException olfe) {
+            log.warn("Entity of type {} with ID {} has been modified concurrently", getGenericClassName(), entityId);
+
+            throw new ResponseStatusException(
+                HttpStatus.PRECONDITION_FAILED,
+                messageSource.getMessage(
+                    "BaseController.PRECONDITION_FAILED",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                olfe
+            );
         } catch (ResponseStatusException rse) {
             throw rse;
         } catch (Exception e) {
@@ -580,12 +883,18 @@ public abstract class BaseController<T extends BaseService<?, S>, S extends Base
     @PatchMapping(value = "/{id}")
     @ResponseStatus(HttpStatus.OK)
     @Operation(security = { @SecurityRequirement(name = "bearer-key") })
-    public S updatePartial(@RequestBody JsonMergePatch patch, @PathVariable("id") Long entityId) {
+    public S updatePartial(
+        @RequestBody JsonMergePatch patch,
+        @PathVariable("id") Long entityId,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         log.trace("Requested to partially update entity of type {} with ID {} ({})", getGenericClassName(), entityId, patch);
 
         try {
             S persistedEntity = service.findOne(entityId).orElseThrow();
             if (persistedEntity != null) {
+                checkIfMatch(ifMatch, persistedEntity);
+
                 S updatedEntity = service.updatePartial(persistedEntity, patch);
 
                 log.trace("Successfully updated values for entity of type {} with ID {}",
@@ -622,6 +931,18 @@ public abstract class BaseController<T extends BaseService<?, S>, S extends Base
             log.error("Can't parse 'id' field ({}) from values ({}). It has to be an Integer.: {}",
                 patch, entityId, nfe.getMessage());
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+        } catch (OptimisticLockingFailureException olfe) {
+            log.warn("Entity of type {} with ID {} has been modified concurrently", getGenericClassName(), entityId);
+
+            throw new ResponseStatusException(
+                HttpStatus.PRECONDITION_FAILED,
+                messageSource.getMessage(
+                    "BaseController.PRECONDITION_FAILED",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                olfe
+            );
         } catch (ResponseStatusException rse) {
             throw rse;
         } catch (Exception e) {
@@ -731,6 +1052,55 @@ public abstract class BaseController<T extends BaseService<?, S>, S extends Base
         }
     }
 
+    /**
+     * Processes the given items of a bulk request by the given service operation and maps the errors of the request
+     * (but not the ones of its single items) to the according HTTP status.
+     *
+     * @param items The items of the bulk request.
+     * @param operation The service operation to process the items with.
+     * @return The results per item (in the order of the given items).
+     */
+    protected <I> List<BulkItemResult> processBulkRequest(List<I> items,
+            Function<List<I>, List<BulkItemResult>> operation) {
+        try {
+            List<BulkItemResult> results = operation.apply(items);
+
+            log.trace("Successfully processed the bulk request for {} entities of type {}",
+                results.size(), getGenericClassName());
+
+            return results;
+        } catch (BulkSizeExceededException bsee) {
+            log.warn("Rejected the bulk request for {} entities of type {}: {}", items.size(),
+                getGenericClassName(), bsee.getMessage());
+
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                messageSource.getMessage(
+                    "BaseController.BULK_SIZE_EXCEEDED",
+                    new Object[] { bsee.getMaxSize() },
+                    LocaleContextHolder.getLocale()
+                ),
+                bsee
+            );
+        } catch (ResponseStatusException rse) {
+            throw rse;
+        } catch (Exception e) {
+            log.error("Error while processing the bulk request for entities of type {}: \n {}",
+                getGenericClassName(), e.getMessage());
+            log.trace("Full stack trace: ", e);
+
+            throw new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                messageSource.getMessage(
+                    "BaseController.INTERNAL_SERVER_ERROR",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                e
+            );
+        }
+    }
+
     protected String getGenericClassName() {
         Class<?>[] resolvedTypeArguments = GenericTypeResolver.resolveTypeArguments(getClass(),
             BaseController.class);
@@ -741,4 +1111,29 @@ public abstract class BaseController<T extends BaseService<?, S>, S extends Base
             return null;
         }
     }
+
+    /**
+     * Checks if the given If-Match header matches the current version of the given entity.
+     *
+     * @param ifMatch The value of the If-Match header (may be null).
+     * @param persistedEntity The current state of the entity.
+     * @throws ResponseStatusException (412) If the header doesn't match.
+     */
+    protected void checkIfMatch(String ifMatch, S persistedEntity) {
+        if (ETagUtil.matches(ifMatch, persistedEntity)) {
+            return;
+        }
+
+        log.warn("The If-Match header {} doesn't match the version {} of the entity of type {} with ID {}",
+            ifMatch, persistedEntity.getVersion(), getGenericClassName(), persistedEntity.getId());
+
+        throw new ResponseStatusException(
+            HttpStatus.PRECONDITION_FAILED,
+            messageSource.getMessage(
+                "BaseController.PRECONDITION_FAILED",
+                null,
+                LocaleContextHolder.getLocale()
+            )
+        );
+    }
 }
@@ -17,8 +17,11 @@
 package de.terrestris.shogun.lib.controller;
 
 import de.terrestris.shogun.lib.controller.security.permission.BasePermissionController;
+import de.terrestris.shogun.lib.dto.KeysetPage;
 import de.terrestris.shogun.lib.model.File;
 import de.terrestris.shogun.lib.service.BaseFileService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.log4j.Log4j2;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,21 +29,45 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.*;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.UUID;
 
 @Log4j2
 public abstract class BaseFileController<T extends BaseFileService<?, S>, S extends File> extends BasePermissionController<T, S> {
 
+    /**
+     * The default page size of file listings (if not requested explicitly via the `size` parameter).
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * The minimal file size (in bytes) to let the servlet container send a file via sendfile, smaller files are
+     * copied (see `sendfileSize` of Tomcat's DefaultServlet).
+     */
+    protected static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
     @Value("${upload.basePath}")
     protected String uploadBasePath;
 
@@ -52,7 +79,7 @@ public abstract class BaseFileController<T extends BaseFileService<?, S>, S exte
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public Page<S> findAll(@PageableDefault(Integer.MAX_VALUE) @ParameterObject Pageable pageable) {
+    public Page<S> findAll(@PageableDefault(DEFAULT_PAGE_SIZE) @ParameterObject Pageable pageable) {
         log.trace("Requested to return all entities of type {}", getGenericClassName());
 
         try {
@@ -93,6 +120,116 @@ public abstract class BaseFileController<T extends BaseFileService<?, S>, S exte
         }
     }
 
+    @GetMapping(
+        params = "after",
+        produces = { "application/json" }
+    )
+    @ResponseStatus(HttpStatus.OK)
+    public KeysetPage<S> findAllAfter(
+        @RequestParam("after") String after,
+        @RequestParam(value = "size", required = false) Integer size
+    ) {
+        log.trace("Requested to return entities of type {} after cursor {}", getGenericClassName(), after);
+
+        try {
+            KeysetPage<S> persistedEntities = service.findAllAfter(after, size);
+
+            log.trace("Successfully got entities of type {} after cursor {} (count: {})",
+                getGenericClassName(), after, persistedEntities.getContent().size());
+
+            return persistedEntities;
+        } catch (IllegalArgumentException iae) {
+            log.warn("Invalid cursor {} for entities of type {}", after, getGenericClassName());
+
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                messageSource.getMessage(
+                    "BaseController.INVALID_CURSOR",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                iae
+            );
+        } catch (AccessDeniedException ade) {
+            log.warn("Access to entity of type {} is denied", getGenericClassName());
+
+            throw new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                messageSource.getMessage(
+                    "BaseController.NOT_FOUND",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                ade
+            );
+        } catch (ResponseStatusException rse) {
+            throw rse;
+        } catch (Exception e) {
+            log.error("Error while requesting entities of type {} after cursor {}: \n {}",
+                getGenericClassName(), after, e.getMessage());
+            log.trace("Full stack trace: ", e);
+
+            throw new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                messageSource.getMessage(
+                    "BaseController.INTERNAL_SERVER_ERROR",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                e
+            );
+        }
+    }
+
+    @GetMapping(
+        value = "/export",
+        produces = { BaseController.NDJSON_CONTENT_TYPE }
+    )
+    @ResponseStatus(HttpStatus.OK)
+    public void exportAll(HttpServletResponse response) {
+        log.trace("Requested to export all entities of type {}", getGenericClassName());
+
+        try {
+            response.setContentType(BaseController.NDJSON_CONTENT_TYPE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+            long count = service.exportAll(response.getOutputStream());
+
+            log.trace("Successfully exported all entities of type {} (count: {})", getGenericClassName(), count);
+        } catch (AccessDeniedException ade) {
+            log.warn("Access to entity of type {} is denied", getGenericClassName());
+
+            throw new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                messageSource.getMessage(
+                    "BaseController.NOT_FOUND",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                ade
+            );
+        } catch (Exception e) {
+            log.error("Error while exporting all entities of type {}: \n {}",
+                getGenericClassName(), e.getMessage());
+            log.trace("Full stack trace: ", e);
+
+            // the status can't be changed anymore if parts of the export have already been sent
+            if (response.isCommitted()) {
+                return;
+            }
+
+            throw new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                messageSource.getMessage(
+                    "BaseController.INTERNAL_SERVER_ERROR",
+                    null,
+                    LocaleContextHolder.getLocale()
+                ),
+                e
+            );
+        }
+    }
+
     @GetMapping("/{fileUuid}")
     @ResponseStatus(HttpStatus.OK)
     public ResponseEntity<?> findOne(@PathVariable("fileUuid") UUID fileUuid) {
@@ -103,14 +240,27 @@ public abstract class BaseFileController<T extends BaseFileService<?, S>, S exte
 
             if (entity.isPresent()) {
                 S file = entity.get();
+                Resource fileResource = service.getFileResource(file);
+                long lastModified = fileResource.lastModified();
+
                 final HttpHeaders responseHeaders = new HttpHeaders();
                 responseHeaders.setContentType(MediaType.parseMediaType(file.getFileType()));
                 responseHeaders.setContentDisposition(ContentDisposition.parse(
                     String.format("inline; filename=\"%s\"", file.getFileName())));
+                responseHeaders.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+                responseHeaders.setETag(getETag(file, lastModified));
+                if (lastModified > 0) {
+                    responseHeaders.setLastModified(lastModified);
+                }
                 log.trace("Successfully got file with UUID {}", fileUuid);
 
-                byte[] fileData = service.getFileData(file);
-                return new ResponseEntity<>(fileData, responseHeaders, HttpStatus.OK);
+                if (sendFile(fileResource)) {
+                    responseHeaders.setContentLength(fileResource.contentLength());
+                    return new ResponseEntity<>(responseHeaders, HttpStatus.OK);
+                }
+
+                // conditional (304) and range (206) requests are handled by the HttpEntityMethodProcessor
+                return new ResponseEntity<>(fileResource, responseHeaders, HttpStatus.OK);
             }
 
             log.error("Could not find entity of type {} with UUID {}", getGenericClassName(), fileUuid);
@@ -298,6 +448,56 @@ public abstract class BaseFileController<T extends BaseFileService<?, S>, S exte
         }
     }
 
+    /**
+     * Returns the (strong) ETag of the given file, derived from its UUID and its last modification.
+     *
+     * @param file The file.
+     * @param lastModified The last modification timestamp (in milliseconds) of the file content.
+     * @return The ETag.
+     */
+    protected String getETag(S file, long lastModified) {
+        return String.format("\"%s-%d\"", file.getFileUuid(), lastModified);
+    }
+
+    /**
+     * Hands the given resource over to the servlet container to be sent via sendfile (zero-copy) if possible, i.e.
+     * if the resource is a file on disk of at least {@link #SENDFILE_MIN_SIZE} bytes, the container supports sendfile
+     * and the request is an unconditional GET request without a Range header (those are handled by Spring).
+     *
+     * @param fileResource The resource to send.
+     * @return true if the container will send the resource, false otherwise.
+     * @throws IOException If the file can't be resolved.
+     */
+    protected boolean sendFile(Resource fileResource) throws IOException {
+        if (!fileResource.isFile() ||
+            !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes requestAttributes)) {
+            return false;
+        }
+
+        HttpServletRequest request = requestAttributes.getRequest();
+
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE)) ||
+            !HttpMethod.GET.matches(request.getMethod()) ||
+            request.getHeader(HttpHeaders.RANGE) != null ||
+            request.getHeader(HttpHeaders.IF_MATCH) != null ||
+            request.getHeader(HttpHeaders.IF_NONE_MATCH) != null ||
+            request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null ||
+            request.getHeader(HttpHeaders.IF_UNMODIFIED_SINCE) != null) {
+            return false;
+        }
+
+        long contentLength = fileResource.contentLength();
+        if (contentLength < SENDFILE_MIN_SIZE) {
+            return false;
+        }
+
+        request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, fileResource.getFile().getCanonicalPath());
+        request.setAttribute(SENDFILE_START_ATTRIBUTE, 0L);
+        request.setAttribute(SENDFILE_END_ATTRIBUTE, contentLength);
+
+        return true;
+    }
+
     protected String getGenericClassName() {
         Class<?>[] resolvedTypeArguments = GenericTypeResolver.resolveTypeArguments(getClass(),
             BaseFileController.class);
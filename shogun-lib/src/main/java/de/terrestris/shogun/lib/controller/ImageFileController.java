@@ -44,7 +44,10 @@ public class ImageFileController extends BaseFileController<ImageFileService, Im
 
     @GetMapping("/{fileUuid}/thumbnail")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<?> findOneThumbnail(@PathVariable("fileUuid") UUID fileUuid) {
+    public ResponseEntity<?> findOneThumbnail(
+        @PathVariable("fileUuid") UUID fileUuid,
+        @RequestParam(value = "size", required = false) Integer size
+    ) {
 
         log.debug("Requested to return thumbnail for image file with UUID {}", fileUuid);
 
@@ -53,6 +56,21 @@ public class ImageFileController extends BaseFileController<ImageFileService, Im
 
             if (entity.isPresent()) {
                 ImageFile file = entity.get();
+                byte[] thumbnail = service.getThumbnail(file, size);
+
+                if (thumbnail == null) {
+                    log.info("No thumbnail of size {} available for image file with UUID {} (status: {})",
+                        size, fileUuid, file.getThumbnailStatus());
+
+                    throw new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        messageSource.getMessage(
+                            "BaseController.NOT_FOUND",
+                            null,
+                            LocaleContextHolder.getLocale()
+                        )
+                    );
+                }
 
                 log.info("Successfully got thumbnail for image file with UUID {}", fileUuid);
 
@@ -62,7 +80,7 @@ public class ImageFileController extends BaseFileController<ImageFileService, Im
                 responseHeaders.setContentDisposition(ContentDisposition.parse(
                     String.format("inline; filename=\"%s\"", thumbnailFileName)));
 
-                return new ResponseEntity<>(file.getThumbnail(), responseHeaders, HttpStatus.OK);
+                return new ResponseEntity<>(thumbnail, responseHeaders, HttpStatus.OK);
             } else {
                 log.error("Could not find entity of type {} with UUID {}",
                     getGenericClassName(), fileUuid);
@@ -34,6 +34,8 @@ import de.terrestris.shogun.lib.service.security.permission.GroupClassPermission
 import de.terrestris.shogun.lib.service.security.permission.GroupInstancePermissionServiceSecured;
 import de.terrestris.shogun.lib.service.security.permission.UserClassPermissionServiceSecured;
 import de.terrestris.shogun.lib.service.security.permission.UserInstancePermissionServiceSecured;
+import de.terrestris.shogun.lib.service.security.provider.GroupProviderService;
+import de.terrestris.shogun.lib.service.security.provider.UserProviderService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
@@ -43,8 +45,11 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Log4j2
 public abstract class BasePermissionController<T extends BaseService<?, S>, S extends BaseEntity> {
@@ -73,6 +78,12 @@ public abstract class BasePermissionController<T extends BaseService<?, S>, S ex
     @Autowired
     protected GroupClassPermissionServiceSecured groupClassPermissionService;
 
+    @Autowired
+    protected UserProviderService userProviderService;
+
+    @Autowired
+    protected GroupProviderService groupProviderService;
+
     @GetMapping("/{id}/permissions/instance/user")
     @ResponseStatus(HttpStatus.OK)
     public List<UserInstancePermission> getUserInstancePermissions(@PathVariable("id") Long entityId) {
@@ -89,6 +100,8 @@ public abstract class BasePermissionController<T extends BaseService<?, S>, S ex
             List<UserInstancePermission> permissions = userInstancePermissionService
                 .findFor(entity.get());
 
+            setUserRepresentations(permissions, UserInstancePermission::getUser);
+
             log.trace("Successfully got all user instance permissions for entity " +
                 "of type {} with ID {} (count: {})", getGenericClassName(), entityId,
                 permissions.size());
@@ -119,6 +132,8 @@ public abstract class BasePermissionController<T extends BaseService<?, S>, S ex
             List<GroupInstancePermission> permissions = groupInstancePermissionService
                 .findFor(entity.get());
 
+            setGroupRepresentations(permissions, GroupInstancePermission::getGroup);
+
             log.trace("Successfully got all group instance permissions for entity " +
                 "of type {} with ID {} (count: {})", getGenericClassName(), entityId,
                 permissions.size());
@@ -149,6 +164,8 @@ public abstract class BasePermissionController<T extends BaseService<?, S>, S ex
             List<UserClassPermission> permissions = userClassPermissionService
                 .findFor(entity.get());
 
+            setUserRepresentations(permissions, UserClassPermission::getUser);
+
             log.trace("Successfully got all user class permissions for entity " +
                 "of type {} with ID {} (count: {})", getGenericClassName(), entityId,
                 permissions.size());
@@ -179,6 +196,8 @@ public abstract class BasePermissionController<T extends BaseService<?, S>, S ex
             List<GroupClassPermission> permissions = groupClassPermissionService
                 .findFor(entity.get());
 
+            setGroupRepresentations(permissions, GroupClassPermission::getGroup);
+
             log.trace("Successfully got all group class permissions for entity " +
                 "of type {} with ID {} (count: {})", getGenericClassName(), entityId,
                 permissions.size());
@@ -224,6 +243,8 @@ public abstract class BasePermissionController<T extends BaseService<?, S>, S ex
             log.trace("Successfully got the user instance permission for entity " +
                 "of type {} with ID {} for user with ID {}", getGenericClassName(), entityId, userId);
 
+            setUserRepresentations(List.of(permission.get()), UserInstancePermission::getUser);
+
             return permission.get();
         } catch (AccessDeniedException ade) {
             throw new EntityAccessDeniedException(entityId, getGenericClassName(), messageSource);
@@ -265,6 +286,8 @@ public abstract class BasePermissionController<T extends BaseService<?, S>, S ex
             log.trace("Successfully got the group instance permission for entity " +
                 "of type {} with ID {} for group with ID {}", getGenericClassName(), entityId, groupId);
 
+            setGroupRepresentations(List.of(permission.get()), GroupInstancePermission::getGroup);
+
             return permission.get();
         } catch (AccessDeniedException ade) {
             throw new EntityAccessDeniedException(entityId, getGenericClassName(), messageSource);
@@ -306,6 +329,8 @@ public abstract class BasePermissionController<T extends BaseService<?, S>, S ex
             log.trace("Successfully got the user class permission for entity of " +
                 "type {} with ID {} for user with ID {}", getGenericClassName(), entityId, userId);
 
+            setUserRepresentations(List.of(permission.get()), UserClassPermission::getUser);
+
             return permission.get();
         } catch (AccessDeniedException ade) {
             throw new EntityAccessDeniedException(entityId, getGenericClassName(), messageSource);
@@ -347,6 +372,8 @@ public abstract class BasePermissionController<T extends BaseService<?, S>, S ex
             log.trace("Successfully got the group class permission for entity of " +
                 "type {} with ID {} for group with ID {}", getGenericClassName(), entityId, groupId);
 
+            setGroupRepresentations(List.of(permission.get()), GroupClassPermission::getGroup);
+
             return permission.get();
         } catch (AccessDeniedException ade) {
             throw new EntityAccessDeniedException(entityId, getGenericClassName(), messageSource);
@@ -753,6 +780,47 @@ public abstract class BasePermissionController<T extends BaseService<?, S>, S ex
         }
     }
 
+    /**
+     * Sets the transient representations of the users of the given permissions. The permission services
+     * don't set these to keep the permission checks free of requests to the auth provider, so they're
+     * requested here (in bulk) for the response only.
+     *
+     * @param permissions The permissions to set the user representations for.
+     * @param userGetter  The function returning the user of a permission.
+     */
+    protected <P> void setUserRepresentations(Collection<P> permissions, Function<P, User> userGetter) {
+        List<User> users = permissions.stream()
+            .map(userGetter)
+            .filter(Objects::nonNull)
+            .filter(user -> user.getProviderDetails() == null)
+            .distinct()
+            .toList();
+
+        if (!users.isEmpty()) {
+            userProviderService.setTransientRepresentations(users);
+        }
+    }
+
+    /**
+     * Sets the transient representations of the groups of the given permissions (in bulk), see
+     * {@link #setUserRepresentations(Collection, Function)}.
+     *
+     * @param permissions The permissions to set the group representations for.
+     * @param groupGetter The function returning the group of a permission.
+     */
+    protected <P> void setGroupRepresentations(Collection<P> permissions, Function<P, Group> groupGetter) {
+        List<Group> groups = permissions.stream()
+            .map(groupGetter)
+            .filter(Objects::nonNull)
+            .filter(group -> group.getProviderDetails() == null)
+            .distinct()
+            .toList();
+
+        if (!groups.isEmpty()) {
+            groupProviderService.setTransientRepresentations(groups);
+        }
+    }
+
     protected String getGenericClassName() {
         Class<?>[] resolvedTypeArguments = GenericTypeResolver.resolveTypeArguments(getClass(),
                 BasePermissionController.class);
@@ -0,0 +1,62 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.http.HttpStatus;
+
+/**
+ * The result of a single item of a bulk request. The items are identified by their index in the
+ * request, the status corresponds to the HTTP status the single item request would have returned.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class BulkItemResult {
+
+    /**
+     * The index of the item in the bulk request.
+     */
+    private int index;
+
+    /**
+     * The HTTP status code of the item.
+     */
+    private int status;
+
+    /**
+     * The ID of the affected entity or null, if it's not available (e.g. if the creation failed).
+     */
+    private Long id;
+
+    /**
+     * The reason phrase of the status or null, if the item was processed successfully.
+     */
+    private String message;
+
+    public static BulkItemResult success(int index, HttpStatus status, Long id) {
+        return new BulkItemResult(index, status.value(), id, null);
+    }
+
+    public static BulkItemResult failure(int index, HttpStatus status, Long id) {
+        return new BulkItemResult(index, status.value(), id, status.getReasonPhrase());
+    }
+}
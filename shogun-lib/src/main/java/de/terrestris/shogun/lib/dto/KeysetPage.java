@@ -0,0 +1,87 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A page of entities requested via keyset pagination, i.e. the entities with an ID greater than the
+ * cursor, ordered by their ID. Other than a {@link org.springframework.data.domain.Page} it doesn't
+ * contain the total number of elements, as this would require an additional count query.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class KeysetPage<T> {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private List<T> content;
+
+    /**
+     * The (maximum) number of entities requested.
+     */
+    private int size;
+
+    /**
+     * The opaque cursor to request the next page with or null, if this is the last page.
+     */
+    private String next;
+
+    /**
+     * Encodes the given ID of the last entity of a page as cursor.
+     *
+     * @param id The ID.
+     * @return The cursor.
+     */
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the given cursor to the ID of the last entity of the previous page. An empty cursor
+     * denotes the first page.
+     *
+     * @param cursor The cursor.
+     * @return The ID (0 for the first page).
+     * @throws IllegalArgumentException If the cursor is invalid.
+     */
+    public static Long decodeCursor(String cursor) {
+        if (StringUtils.isEmpty(cursor)) {
+            return 0L;
+        }
+
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+        if (!decoded.startsWith(CURSOR_PREFIX)) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+
+        return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+    }
+
+}
@@ -0,0 +1,128 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.dto;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.log4j.Log4j2;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link HttpResponse} whose body hasn't been read into memory (i.e. {@link #getBody()} is
+ * {@code null}), but will be piped from the still open upstream connection to a target stream
+ * via {@link #writeTo(OutputStream)}.
+ *
+ * The response must be closed after usage (this is done by {@link #writeTo(OutputStream)}
+ * already) to release the connection. If the body is returned from a controller, use
+ * {@link #toResponseBody(HttpServletRequest)} to close the response on completion of the
+ * request, even if the body has never been written (e.g. on errors or timeouts).
+ */
+@Log4j2
+public class StreamingHttpResponse extends HttpResponse implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final CloseableHttpResponse httpResponse;
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    public StreamingHttpResponse(HttpStatus statusCode, HttpHeaders headers, CloseableHttpResponse httpResponse) {
+        super(statusCode, headers, null);
+
+        this.httpResponse = httpResponse;
+    }
+
+    /**
+     * Copies the body of the upstream response to the given stream (using a buffer of fixed
+     * size) and closes the response afterwards.
+     *
+     * @param outputStream The stream to write to.
+     * @throws IOException If reading or writing the body fails.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        try {
+            HttpEntity entity = httpResponse.getEntity();
+
+            if (entity == null) {
+                return;
+            }
+
+            try (InputStream inputStream = entity.getContent()) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int length;
+                while ((length = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, length);
+                }
+            }
+
+            outputStream.flush();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Returns a {@link StreamingResponseBody} writing this response and registers a callback
+     * closing it once the asynchronous processing of the given request has been completed
+     * (successfully, with an error or by a timeout). The body is written asynchronously, so the whole transfer
+     * is limited by the asynchronous request timeout (see `spring.mvc.async.request-timeout`).
+     *
+     * @param request The current request.
+     * @return The body to return from a controller.
+     */
+    public StreamingResponseBody toResponseBody(HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(this, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                try {
+                    close();
+                } catch (IOException e) {
+                    log.error("Could not close the upstream response: {}", e.getMessage());
+                    log.trace("Full stack trace: ", e);
+                }
+            }
+        });
+
+        return this::writeTo;
+    }
+
+    /**
+     * Closes the upstream response. Subsequent calls have no effect.
+     *
+     * @throws IOException If closing the response fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed.compareAndSet(false, true)) {
+            httpResponse.close();
+        }
+    }
+
+}
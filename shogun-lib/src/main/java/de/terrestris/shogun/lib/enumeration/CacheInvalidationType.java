@@ -0,0 +1,38 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.enumeration;
+
+public enum CacheInvalidationType {
+    /**
+     * All regions of the second-level cache.
+     */
+    ALL,
+    /**
+     * A single (entity, collection or query) region, identified by its name.
+     */
+    REGION,
+    /**
+     * A single entity, identified by the entity name and its ID. This invalidates the cached queries
+     * over the tables of the entity as well.
+     */
+    ENTITY,
+    /**
+     * A single collection, identified by the collection role and the ID of its owner. This invalidates
+     * the cached queries over the tables of the collection as well.
+     */
+    COLLECTION
+}
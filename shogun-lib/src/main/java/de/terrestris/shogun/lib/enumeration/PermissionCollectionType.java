@@ -16,6 +16,13 @@
  */
 package de.terrestris.shogun.lib.enumeration;
 
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The permission collections, named by the {@link PermissionType}s they contain. The permission types and their
+ * bitmask are resolved once when the enum is initialized.
+ */
 public enum PermissionCollectionType {
     CREATE("CREATE"),
     READ("READ"),
@@ -38,7 +45,40 @@ public enum PermissionCollectionType {
 
     private final String type;
 
+    private final int mask;
+
     private PermissionCollectionType(String type) {
         this.type = type;
+        this.mask = PermissionType.toMask(Arrays.stream(type.split("_"))
+            .map(PermissionType::valueOf)
+            .toList());
+    }
+
+    /**
+     * Returns the bitmask of the permission types contained in this collection.
+     *
+     * @return The bitmask.
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Returns the permission types contained in this collection.
+     *
+     * @return The (unmodifiable) permission types.
+     */
+    public Set<PermissionType> getPermissions() {
+        return PermissionType.fromMask(mask);
+    }
+
+    /**
+     * Checks if this collection grants the given permission (explicitly or by the ADMIN permission).
+     *
+     * @param permission The permission to check.
+     * @return true if the permission is granted, false otherwise.
+     */
+    public boolean grants(PermissionType permission) {
+        return permission.isGrantedBy(mask);
     }
 }
@@ -16,16 +16,110 @@
  */
 package de.terrestris.shogun.lib.enumeration;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The permission types. Each type is represented by a single bit, a set of permission types can therefore be stored
+ * as int bitmask (see `permissions.permission_mask`) and checked without any allocation.
+ *
+ * NOTE: The bits are persisted, don't change them.
+ */
 public enum PermissionType {
-    ADMIN("ADMIN"),
-    CREATE("CREATE"),
-    DELETE("DELETE"),
-    UPDATE("UPDATE"),
-    READ("READ");
+    ADMIN("ADMIN", 1),
+    CREATE("CREATE", 1 << 1),
+    DELETE("DELETE", 1 << 2),
+    UPDATE("UPDATE", 1 << 3),
+    READ("READ", 1 << 4);
+
+    /**
+     * The (unmodifiable) sets of permission types for every possible bitmask.
+     */
+    private static final List<Set<PermissionType>> SETS_BY_MASK;
+
+    static {
+        List<Set<PermissionType>> setsByMask = new ArrayList<>(1 << values().length);
+        for (int mask = 0; mask < 1 << values().length; mask++) {
+            Set<PermissionType> permissions = EnumSet.noneOf(PermissionType.class);
+            for (PermissionType permission : values()) {
+                if ((mask & permission.mask) != 0) {
+                    permissions.add(permission);
+                }
+            }
+            setsByMask.add(Collections.unmodifiableSet(permissions));
+        }
+        SETS_BY_MASK = List.copyOf(setsByMask);
+    }
 
     private final String type;
 
-    PermissionType(String type) {
+    private final int mask;
+
+    PermissionType(String type, int mask) {
         this.type = type;
+        this.mask = mask;
+    }
+
+    /**
+     * Returns the bit representing this permission type.
+     *
+     * @return The bit.
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Returns the bits granting this permission type, i.e. the bit of this permission type and the bit of the ADMIN
+     * permission. A bitmask grants this permission if it contains any of them (see the permission checks of
+     * `BaseCrudRepository`).
+     *
+     * @return The bits.
+     */
+    public int getGrantingMask() {
+        return mask | ADMIN.mask;
+    }
+
+    /**
+     * Checks if this permission is granted by the given bitmask, i.e. if the bitmask contains this permission or the
+     * ADMIN permission.
+     *
+     * @param permissionMask The bitmask to check.
+     * @return true if the permission is granted, false otherwise.
+     */
+    public boolean isGrantedBy(int permissionMask) {
+        return (permissionMask & getGrantingMask()) != 0;
+    }
+
+    /**
+     * Returns the bitmask of the given permission types.
+     *
+     * @param permissions The permission types (may be null).
+     * @return The bitmask.
+     */
+    public static int toMask(Collection<PermissionType> permissions) {
+        int permissionMask = 0;
+
+        if (permissions != null) {
+            for (PermissionType permission : permissions) {
+                permissionMask |= permission.mask;
+            }
+        }
+
+        return permissionMask;
+    }
+
+    /**
+     * Returns the permission types of the given bitmask. The returned sets are shared, they must not be modified.
+     *
+     * @param permissionMask The bitmask.
+     * @return The (unmodifiable) permission types.
+     */
+    public static Set<PermissionType> fromMask(int permissionMask) {
+        return SETS_BY_MASK.get(permissionMask & (SETS_BY_MASK.size() - 1));
     }
 }
@@ -0,0 +1,68 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.event;
+
+import de.terrestris.shogun.lib.cache.invalidation.CacheInvalidation;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Published once the given invalidations of the second-level cache have been applied, either requested
+ * on this node or received from another node. Allows application level caches to drop entries derived
+ * from the invalidated entities.
+ */
+public class CacheInvalidationEvent extends ApplicationEvent {
+
+    @Getter
+    private final List<CacheInvalidation> invalidations;
+
+    public CacheInvalidationEvent(Object source, List<CacheInvalidation> invalidations) {
+        super(source);
+        this.invalidations = invalidations;
+    }
+
+    /**
+     * Checks if any entity of the given classes might be affected by the invalidations. As the entities
+     * of a region are unknown here, region invalidations affect all entities.
+     *
+     * @param entityClasses The entity classes.
+     * @return True if the entities might be affected.
+     */
+    public boolean affects(Class<?>... entityClasses) {
+        for (CacheInvalidation invalidation : invalidations) {
+            switch (invalidation.getType()) {
+                case ALL, REGION -> {
+                    return true;
+                }
+                case ENTITY -> {
+                    for (Class<?> entityClass : entityClasses) {
+                        if (entityClass.getName().equals(invalidation.getName())) {
+                            return true;
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,34 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown if a bulk request contains more items than allowed by `shogun.bulk.maxSize`.
+ */
+@Getter
+public final class BulkSizeExceededException extends RuntimeException {
+
+    private final int maxSize;
+
+    public BulkSizeExceededException(int maxSize) {
+        super("A bulk request may contain at most " + maxSize + " items");
+
+        this.maxSize = maxSize;
+    }
+}
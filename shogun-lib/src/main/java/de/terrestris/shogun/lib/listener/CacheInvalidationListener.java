@@ -0,0 +1,202 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.listener;
+
+import de.terrestris.shogun.lib.cache.invalidation.CacheInvalidation;
+import de.terrestris.shogun.lib.service.CacheService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.metamodel.RepresentationMode;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Broadcasts the changes of entities and collections to the other nodes of the cluster (see
+ * {@link CacheService}), so they can evict them from their second-level cache and invalidate their cached
+ * queries over the changed tables.
+ *
+ * The invalidations of a transaction are collected and published once after it has been committed. Otherwise, the
+ * other nodes could reload (and cache) the previous state before the commit.
+ */
+@Log4j2
+@Component
+public class CacheInvalidationListener implements PostInsertEventListener, PostUpdateEventListener,
+    PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+    PostCollectionRemoveEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheService cacheService;
+
+    private boolean queryCacheEnabled;
+
+    @PostConstruct
+    public void register() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+
+        queryCacheEnabled = sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled();
+
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onEntityChange(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onEntityChange(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onEntityChange(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void onEntityChange(EntityPersister persister, Object id) {
+        // uncached entities are only relevant for the cached queries, which never include the (dynamic) audit
+        // entities
+        if (!persister.canWriteToCache() &&
+            (!queryCacheEnabled || persister.getRepresentationStrategy().getMode() == RepresentationMode.MAP)) {
+            return;
+        }
+
+        add(CacheInvalidation.entity(persister.getEntityName(), id));
+    }
+
+    private void onCollectionChange(AbstractCollectionEvent event) {
+        PersistentCollection<?> collection = event.getCollection();
+        CollectionPersister persister = event.getSession().getFactory().getMappingMetamodel()
+            .getCollectionDescriptor(collection.getRole());
+
+        if (!persister.hasCache() && !queryCacheEnabled) {
+            return;
+        }
+
+        Object key = collection.getKey() != null ? collection.getKey() : event.getAffectedOwnerIdOrNull();
+
+        add(CacheInvalidation.collection(collection.getRole(), key));
+    }
+
+    private void add(CacheInvalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cacheService.publish(List.of(invalidation));
+            return;
+        }
+
+        Set<CacheInvalidation> pending = (Set<CacheInvalidation>) TransactionSynchronizationManager.getResource(this);
+
+        if (pending == null) {
+            pending = new LinkedHashSet<>();
+
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new PendingInvalidationsSynchronization(pending));
+        }
+
+        pending.add(invalidation);
+    }
+
+    /**
+     * Publishes the invalidations collected within a transaction after it has been committed. The collected
+     * invalidations are unbound while the transaction is suspended (e.g. by a nested `REQUIRES_NEW` transaction),
+     * so the nested transaction collects (and publishes) its own invalidations.
+     */
+    private class PendingInvalidationsSynchronization implements TransactionSynchronization {
+
+        private final Set<CacheInvalidation> invalidations;
+
+        PendingInvalidationsSynchronization(Set<CacheInvalidation> invalidations) {
+            this.invalidations = invalidations;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationListener.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(CacheInvalidationListener.this, invalidations);
+        }
+
+        @Override
+        public void afterCommit() {
+            cacheService.publish(invalidations);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationListener.this);
+        }
+    }
+
+}
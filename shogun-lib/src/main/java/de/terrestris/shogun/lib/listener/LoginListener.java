@@ -16,17 +16,36 @@
  */
 package de.terrestris.shogun.lib.listener;
 
+import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.service.security.provider.UserProviderService;
 import de.terrestris.shogun.lib.util.KeycloakUtil;
+import de.terrestris.shogun.properties.KeycloakProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.authentication.event.InteractiveAuthenticationSuccessEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the user (and its groups) in the SHOGun DB on login.
+ *
+ * Logins are not serialized: the creation of a user is guarded by a lock per user ID only (see
+ * {@link UserProviderService#findOrCreateUserByProviderId(String)}) and the groups of the user are synchronized
+ * asynchronously by a bounded executor (see `keycloak.groupSyncParallelism` and `keycloak.groupSyncQueueCapacity`),
+ * as they're not needed to complete the login. Pending synchronizations are deduplicated per user.
+ */
 @Component
 @Log4j2
 public class LoginListener implements ApplicationListener<InteractiveAuthenticationSuccessEvent> {
@@ -34,9 +53,30 @@ public class LoginListener implements ApplicationListener<InteractiveAuthenticat
     @Autowired
     private UserProviderService userProviderService;
 
+    @Autowired
+    private KeycloakProperties keycloakProperties;
+
+    private final Set<String> pendingGroupSyncs = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor groupSyncExecutor;
+
+    @PostConstruct
+    public void init() {
+        int parallelism = Math.max(1, keycloakProperties.getGroupSyncParallelism());
+        int queueCapacity = Math.max(1, keycloakProperties.getGroupSyncQueueCapacity());
+
+        groupSyncExecutor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("shogun-group-sync-"));
+        groupSyncExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        groupSyncExecutor.shutdownNow();
+    }
+
     @Override
-    @Transactional
-    public synchronized void onApplicationEvent(InteractiveAuthenticationSuccessEvent event) {
+    public void onApplicationEvent(InteractiveAuthenticationSuccessEvent event) {
         Authentication authentication = event.getAuthentication();
 
         if (!(authentication instanceof JwtAuthenticationToken)) {
@@ -47,6 +87,36 @@ public class LoginListener implements ApplicationListener<InteractiveAuthenticat
         String keycloakUserId = KeycloakUtil.getKeycloakUserIdFromAuthentication(authentication);
 
         // Add missing user to shogun db
-        userProviderService.findOrCreateByProviderId(keycloakUserId);
+        User<?> user = userProviderService.findOrCreateUserByProviderId(keycloakUserId);
+
+        // Add missing groups to shogun db
+        scheduleGroupSync(user);
+    }
+
+    private void scheduleGroupSync(User<?> user) {
+        String keycloakUserId = user.getAuthProviderId();
+
+        if (!pendingGroupSyncs.add(keycloakUserId)) {
+            log.trace("The groups of user with keycloak id {} are already being synchronized", keycloakUserId);
+            return;
+        }
+
+        try {
+            groupSyncExecutor.execute(() -> {
+                try {
+                    pendingGroupSyncs.remove(keycloakUserId);
+                    userProviderService.synchronizeGroups(user);
+                } catch (Exception e) {
+                    log.warn("Could not synchronize the groups of user with keycloak id {}: {}", keycloakUserId,
+                        e.getMessage());
+                    log.trace("Full stack trace: ", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingGroupSyncs.remove(keycloakUserId);
+
+            log.warn("Skipping the synchronization of the groups of user with keycloak id {}, too many " +
+                "synchronizations are pending.", keycloakUserId);
+        }
     }
 }
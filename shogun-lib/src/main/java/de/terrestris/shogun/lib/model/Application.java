@@ -67,7 +67,6 @@ public class Application extends BaseEntity {
 
     @Column(columnDefinition = "jsonb", name = "client_config")
     @Type(JsonBinaryType.class)
-    @Basic(fetch = FetchType.LAZY)
     @ToString.Exclude
     @Schema(
         description = "The configuration to be considered by the client/application which may include all specific " +
@@ -77,7 +76,6 @@ public class Application extends BaseEntity {
 
     @Column(columnDefinition = "jsonb", name = "layer_tree")
     @Type(JsonBinaryType.class)
-    @Basic(fetch = FetchType.LAZY)
     @ToString.Exclude
     @Schema(
         description = "The tree shaped configuration entry of the applications table of contents."
@@ -86,7 +84,6 @@ public class Application extends BaseEntity {
 
     @Column(columnDefinition = "jsonb", name = "layer_config")
     @Type(JsonBinaryType.class)
-    @Basic(fetch = FetchType.LAZY)
     @ToString.Exclude
     @Schema(
         description = "The definition of layer configurations. This may be used to set application specific " +
@@ -96,7 +93,6 @@ public class Application extends BaseEntity {
 
     @Column(columnDefinition = "jsonb", name = "tool_config")
     @Type(JsonBinaryType.class)
-    @Basic(fetch = FetchType.LAZY)
     @ToString.Exclude
     @Schema(
         description = "The definition of tool configurations. This may be used to set application specific " +
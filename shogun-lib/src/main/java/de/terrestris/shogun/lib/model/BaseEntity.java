@@ -67,6 +67,15 @@ public abstract class BaseEntity implements Serializable {
     )
     private OffsetDateTime modified;
 
+    @Version
+    @Column(nullable = false)
+    @Getter @Setter
+    @Schema(
+        description = "The version of the entity, used to detect concurrent modifications. Has to be sent " +
+            "unchanged with updates (or as ETag in the If-Match header)."
+    )
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
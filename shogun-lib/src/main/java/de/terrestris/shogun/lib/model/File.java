@@ -24,6 +24,7 @@ import org.hibernate.Hibernate;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.LazyGroup;
 
 import java.util.Objects;
 import java.util.UUID;
@@ -74,6 +75,8 @@ public class File extends BaseEntity {
     @JsonIgnore
     @ToString.Exclude
     @Column(length = Integer.MAX_VALUE)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("file")
     @Getter @Setter
     private byte[] file;
 
@@ -17,15 +17,16 @@
 package de.terrestris.shogun.lib.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.terrestris.shogun.lib.enumeration.ThumbnailStatus;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.persistence.Cacheable;
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.Table;
+import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.Hibernate;
 import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.LazyGroup;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 @Entity(name = "imagefiles")
@@ -56,8 +57,31 @@ public class ImageFile extends File {
     @JsonIgnore
     @ToString.Exclude
     @Column(length = Integer.MAX_VALUE)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("thumbnail")
     private byte[] thumbnail;
 
+    @Column
+    @Enumerated(EnumType.STRING)
+    @Schema(
+        description = "The status of the thumbnail generation.",
+        accessMode = Schema.AccessMode.READ_ONLY,
+        example = "READY"
+    )
+    private ThumbnailStatus thumbnailStatus;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(
+        name = "imagefile_thumbnails",
+        schema = "shogun",
+        joinColumns = @JoinColumn(name = "imagefile_id")
+    )
+    @MapKeyColumn(name = "size")
+    @Column(name = "thumbnail", length = Integer.MAX_VALUE)
+    private Map<Integer, byte[]> additionalThumbnails = new HashMap<>();
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -57,7 +57,6 @@ public class Layer extends BaseEntity {
 
     @Column(columnDefinition = "jsonb", name = "client_config")
     @Type(JsonBinaryType.class)
-    @Basic(fetch = FetchType.LAZY)
     @ToString.Exclude
     @Schema(
         description = "The configuration of the layer which should be used to define client specific aspects of " +
@@ -67,7 +66,6 @@ public class Layer extends BaseEntity {
 
     @Column(columnDefinition = "jsonb", name = "source_config")
     @Type(JsonBinaryType.class)
-    @Basic(fetch = FetchType.LAZY)
     @ToString.Exclude
     @Schema(
         description = "The configuration of the datasource of the layer, e.g. the URL of the server, the name or " +
@@ -78,7 +76,6 @@ public class Layer extends BaseEntity {
 
     @Column(columnDefinition = "jsonb", name = "features")
     @Type(JsonBinaryType.class)
-    @Basic(fetch = FetchType.LAZY)
     @ToString.Exclude
     @Schema(
         description = "Custom features for the layers that aren't available in the datasource. This might be used " +
@@ -62,7 +62,6 @@ public class User<T> extends BaseEntity {
 
     @Column(columnDefinition = "jsonb", name = "details")
     @Type(JsonBinaryType.class)
-    @Basic(fetch = FetchType.LAZY)
     @ToString.Exclude
     @Schema(
         description = "Custom user details that aren't stored inside the provider."
@@ -71,7 +70,6 @@ public class User<T> extends BaseEntity {
 
     @Column(columnDefinition = "jsonb", name = "client_config")
     @Type(JsonBinaryType.class)
-    @Basic(fetch = FetchType.LAZY)
     @ToString.Exclude
     @Schema(
         description = "The configuration of the user which should be used to define client specific aspects of " +
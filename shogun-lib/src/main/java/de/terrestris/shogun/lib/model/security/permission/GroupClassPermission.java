@@ -19,6 +19,7 @@ package de.terrestris.shogun.lib.model.security.permission;
 import de.terrestris.shogun.lib.model.Group;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.*;
@@ -32,7 +33,12 @@ import org.hibernate.envers.Audited;
 import java.util.Objects;
 
 @Entity(name = "groupclasspermissions")
-@Table(schema = "shogun")
+@Table(
+    schema = "shogun",
+    indexes = {
+        @Index(name = "groupclasspermissions_group_id_class_name_idx", columnList = "group_id, class_name")
+    }
+)
 @DynamicUpdate
 @Audited
 @AuditTable(value = "groupclasspermissions_rev", schema = "shogun_rev")
@@ -19,8 +19,10 @@ package de.terrestris.shogun.lib.model.security.permission;
 import de.terrestris.shogun.lib.model.Group;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.*;
 import org.hibernate.Hibernate;
 import org.hibernate.annotations.Cache;
@@ -32,7 +34,14 @@ import org.hibernate.envers.Audited;
 import java.util.Objects;
 
 @Entity(name = "groupinstancepermissions")
-@Table(schema = "shogun")
+@Table(
+    schema = "shogun",
+    uniqueConstraints = @UniqueConstraint(
+        name = "groupinstancepermissions_group_id_entity_id_key",
+        columnNames = {"group_id", "entity_id"}
+    ),
+    indexes = @Index(name = "groupinstancepermissions_entity_id_idx", columnList = "entity_id")
+)
 @DynamicUpdate
 @Audited
 @AuditTable(value = "groupinstancepermissions_rev", schema = "shogun_rev")
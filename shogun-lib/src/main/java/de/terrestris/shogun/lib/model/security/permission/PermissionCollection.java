@@ -17,6 +17,7 @@
 package de.terrestris.shogun.lib.model.security.permission;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
 import de.terrestris.shogun.lib.enumeration.PermissionType;
@@ -40,7 +41,6 @@ import java.util.Set;
 @Getter
 @Setter
 @ToString
-@AllArgsConstructor
 @NoArgsConstructor
 @JsonIdentityInfo(generator = ObjectIdGenerators.None.class)
 public class PermissionCollection extends BaseEntity {
@@ -56,6 +56,47 @@ public class PermissionCollection extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private PermissionCollectionType name;
 
+    /**
+     * The bitmask of the {@link PermissionType}s (see {@link PermissionType#getMask()}), used to check the permissions
+     * without loading the permission types.
+     */
+    @Column(name = "permission_mask", nullable = false)
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private Integer permissionMask;
+
+    public PermissionCollection(Set<PermissionType> permissions, PermissionCollectionType name) {
+        this.permissions = permissions;
+        this.name = name;
+        this.permissionMask = PermissionType.toMask(permissions);
+    }
+
+    /**
+     * Returns the bitmask of the {@link PermissionType}s of this collection.
+     *
+     * @return The bitmask.
+     */
+    @JsonIgnore
+    public int getPermissionMask() {
+        return permissionMask != null ? permissionMask : PermissionType.toMask(permissions);
+    }
+
+    /**
+     * Checks if this collection grants the given permission (explicitly or by the ADMIN permission).
+     *
+     * @param permission The permission to check.
+     * @return true if the permission is granted, false otherwise.
+     */
+    public boolean grants(PermissionType permission) {
+        return permission.isGrantedBy(getPermissionMask());
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void updatePermissionMask() {
+        permissionMask = PermissionType.toMask(permissions);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -28,13 +28,24 @@ import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.history.RevisionRepository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * The queries checking the instance permissions grant read access if the permission mask of the permission collection
+ * contains the READ or the ADMIN permission, i.e. if it intersects with the granting mask of the READ permission (see
+ * {@link de.terrestris.shogun.lib.enumeration.PermissionType#getGrantingMask()}), which is bound via SpEL.
+ */
 @NoRepositoryBean
 public interface BaseCrudRepository<T, ID> extends
     RevisionRepository<T, ID, Integer>, CrudRepository<T, ID>,
     ShogunRevisionRepository<T, ID, Integer>,
     PagingAndSortingRepository<T, ID> {
 
+    /**
+     * The number of rows fetched from the database at once by the streaming queries.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<T> findAll();
 
@@ -51,7 +62,7 @@ public interface BaseCrudRepository<T, ID> extends
             SELECT 1 FROM userinstancepermissions uip
             WHERE uip.user.id = :userId
             AND uip.entityId = m.id
-            AND uip.permission.name IN ('ADMIN', 'READ', 'CREATE_READ', 'CREATE_READ_UPDATE', 'CREATE_READ_DELETE', 'READ_UPDATE', 'READ_DELETE', 'READ_UPDATE_DELETE')
+            AND bitand(uip.permission.permissionMask, :#{T(de.terrestris.shogun.lib.enumeration.PermissionType).READ.grantingMask}) <> 0
         )
     """)
     @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
@@ -71,12 +82,12 @@ public interface BaseCrudRepository<T, ID> extends
             SELECT 1 FROM userinstancepermissions uip
             WHERE uip.user.id = :userId
             AND uip.entityId = m.id
-            AND uip.permission.name IN ('ADMIN', 'READ', 'CREATE_READ', 'CREATE_READ_UPDATE', 'CREATE_READ_DELETE', 'READ_UPDATE', 'READ_DELETE', 'READ_UPDATE_DELETE')
+            AND bitand(uip.permission.permissionMask, :#{T(de.terrestris.shogun.lib.enumeration.PermissionType).READ.grantingMask}) <> 0
         ) OR EXISTS (
             SELECT 1 FROM groupinstancepermissions gip
             WHERE gip.group.id IN :groupIds
             AND gip.entityId = m.id
-            AND gip.permission.name IN ('ADMIN', 'READ', 'CREATE_READ', 'CREATE_READ_UPDATE', 'CREATE_READ_DELETE', 'READ_UPDATE', 'READ_DELETE', 'READ_UPDATE_DELETE')
+            AND bitand(gip.permission.permissionMask, :#{T(de.terrestris.shogun.lib.enumeration.PermissionType).READ.grantingMask}) <> 0
         )
     """)
     @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
@@ -92,4 +103,140 @@ public interface BaseCrudRepository<T, ID> extends
     @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     Page<T> findAll(Pageable pageable);
 
+    /**
+     * Returns the entities with an ID greater than the given one (ordered by ID) without checking any permissions.
+     * No count query will be executed.
+     *
+     * @param after The ID to start after (exclusive).
+     * @param pageable The pageable to limit the result with, should not be sorted.
+     * @return The entities.
+     */
+    @Query("""
+        FROM #{#entityName} m
+        WHERE m.id > :after
+        ORDER BY m.id
+    """)
+    List<T> findAllAfter(Long after, Pageable pageable);
+
+    /**
+     * Returns the entities with an ID greater than the given one (ordered by ID) for which the user with userId has
+     * permission via UserInstancePermission. No count query will be executed.
+     *
+     * @param after The ID to start after (exclusive).
+     * @param pageable The pageable to limit the result with, should not be sorted.
+     * @param userId ID of the authenticated user.
+     * @return The entities.
+     */
+    @Query("""
+        FROM #{#entityName} m
+        WHERE m.id > :after
+        AND EXISTS (
+            SELECT 1 FROM userinstancepermissions uip
+            WHERE uip.user.id = :userId
+            AND uip.entityId = m.id
+            AND bitand(uip.permission.permissionMask, :#{T(de.terrestris.shogun.lib.enumeration.PermissionType).READ.grantingMask}) <> 0
+        )
+        ORDER BY m.id
+    """)
+    List<T> findAllAfter(Long after, Pageable pageable, Long userId);
+
+    /**
+     * Returns the entities with an ID greater than the given one (ordered by ID) for which the user with userId has
+     * permission via UserInstancePermission or GroupInstancePermission. No count query will be executed.
+     *
+     * @param after The ID to start after (exclusive).
+     * @param pageable The pageable to limit the result with, should not be sorted.
+     * @param userId ID of the authenticated user.
+     * @param groupIds All IDs of the groups of the authenticated user.
+     * @return The entities.
+     */
+    @Query("""
+        FROM #{#entityName} m
+        WHERE m.id > :after
+        AND (
+            EXISTS (
+                SELECT 1 FROM userinstancepermissions uip
+                WHERE uip.user.id = :userId
+                AND uip.entityId = m.id
+                AND bitand(uip.permission.permissionMask, :#{T(de.terrestris.shogun.lib.enumeration.PermissionType).READ.grantingMask}) <> 0
+            ) OR EXISTS (
+                SELECT 1 FROM groupinstancepermissions gip
+                WHERE gip.group.id IN :groupIds
+                AND gip.entityId = m.id
+                AND bitand(gip.permission.permissionMask, :#{T(de.terrestris.shogun.lib.enumeration.PermissionType).READ.grantingMask}) <> 0
+            )
+        )
+        ORDER BY m.id
+    """)
+    List<T> findAllAfter(Long after, Pageable pageable, Long userId, List<Long> groupIds);
+
+    /**
+     * Returns a forward-only {@link Stream} of all entities (ordered by ID) without checking any permissions. The
+     * rows are fetched from the database in chunks while the stream is consumed. Must be called within a
+     * transaction and the stream must be closed after usage.
+     *
+     * @return The stream of entities.
+     */
+    @Query("""
+        FROM #{#entityName} m
+        ORDER BY m.id
+    """)
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<T> streamAll();
+
+    /**
+     * Returns a forward-only {@link Stream} of all entities (ordered by ID) for which the user with userId has
+     * permission via UserInstancePermission. See {@link #streamAll()}.
+     *
+     * @param userId ID of the authenticated user.
+     * @return The stream of entities.
+     */
+    @Query("""
+        FROM #{#entityName} m
+        WHERE EXISTS (
+            SELECT 1 FROM userinstancepermissions uip
+            WHERE uip.user.id = :userId
+            AND uip.entityId = m.id
+            AND bitand(uip.permission.permissionMask, :#{T(de.terrestris.shogun.lib.enumeration.PermissionType).READ.grantingMask}) <> 0
+        )
+        ORDER BY m.id
+    """)
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<T> streamAll(Long userId);
+
+    /**
+     * Returns a forward-only {@link Stream} of all entities (ordered by ID) for which the user with userId has
+     * permission via UserInstancePermission or GroupInstancePermission. See {@link #streamAll()}.
+     *
+     * @param userId ID of the authenticated user.
+     * @param groupIds All IDs of the groups of the authenticated user.
+     * @return The stream of entities.
+     */
+    @Query("""
+        FROM #{#entityName} m
+        WHERE EXISTS (
+            SELECT 1 FROM userinstancepermissions uip
+            WHERE uip.user.id = :userId
+            AND uip.entityId = m.id
+            AND bitand(uip.permission.permissionMask, :#{T(de.terrestris.shogun.lib.enumeration.PermissionType).READ.grantingMask}) <> 0
+        ) OR EXISTS (
+            SELECT 1 FROM groupinstancepermissions gip
+            WHERE gip.group.id IN :groupIds
+            AND gip.entityId = m.id
+            AND bitand(gip.permission.permissionMask, :#{T(de.terrestris.shogun.lib.enumeration.PermissionType).READ.grantingMask}) <> 0
+        )
+        ORDER BY m.id
+    """)
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<T> streamAll(Long userId, List<Long> groupIds);
+
 }
@@ -23,6 +23,8 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -31,4 +33,6 @@ public interface GroupRepository extends BaseCrudRepository<Group, Long>, JpaSpe
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Group> findByAuthProviderId(String authProviderId);
 
+    List<Group> findAllByAuthProviderIdIn(Collection<String> authProviderIds);
+
 }
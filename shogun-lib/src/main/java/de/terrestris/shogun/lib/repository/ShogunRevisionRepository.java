@@ -16,6 +16,9 @@
  */
 package de.terrestris.shogun.lib.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.history.Revision;
 import org.springframework.data.history.Revisions;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.history.RevisionRepository;
@@ -23,4 +26,14 @@ import org.springframework.data.repository.history.RevisionRepository;
 @NoRepositoryBean
 public interface ShogunRevisionRepository<T, ID, N extends Number & Comparable<N>> extends RevisionRepository<T, ID, N> {
     Revisions<N, T> findRevisions(ID id);
+
+    /**
+     * Returns a page of the revisions of the entity with the given ID. Only the entity snapshots of the requested
+     * page will be loaded.
+     *
+     * @param id The ID of the entity.
+     * @param pageable The page to return.
+     * @return The page of revisions.
+     */
+    Page<Revision<N, T>> findRevisions(ID id, Pageable pageable);
 }
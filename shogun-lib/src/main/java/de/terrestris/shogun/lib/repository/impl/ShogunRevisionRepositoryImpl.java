@@ -22,9 +22,13 @@ import de.terrestris.shogun.lib.repository.ShogunRevisionRepository;
 import jakarta.persistence.EntityManager;
 import org.hibernate.envers.*;
 import org.hibernate.envers.query.AuditEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.envers.repository.support.EnversRevisionRepositoryImpl;
 import org.springframework.data.history.Revision;
 import org.springframework.data.history.RevisionMetadata;
+import org.springframework.data.history.RevisionSort;
 import org.springframework.data.history.Revisions;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.repository.core.EntityInformation;
@@ -69,6 +73,57 @@ public class ShogunRevisionRepositoryImpl<T, ID, N extends Number & Comparable<N
         return Revisions.of(revisionList);
     }
 
+    /**
+     * Returns a page of the revisions of the entity with the given ID. In contrast to {@link #findRevisions(Object)}
+     * only the revision numbers of the page are queried first, the entity snapshots (and changed fields) are loaded
+     * for the revisions of the requested page only.
+     *
+     * @param id The ID of the entity.
+     * @param pageable The page to return, may be sorted by {@link RevisionSort} (ascending by default).
+     * @return The page of revisions.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<Revision<N, T>> findRevisions(ID id, Pageable pageable) {
+        Class<T> type = entityInformation.getJavaType();
+        AuditReader reader = AuditReaderFactory.get(entityManager);
+        boolean descending = RevisionSort.getRevisionDirection(pageable.getSort()).isDescending();
+
+        Long total = (Long) reader.createQuery()
+            .forRevisionsOfEntity(type, false, true)
+            .addProjection(AuditEntity.revisionNumber().count())
+            .add(AuditEntity.id().eq(id))
+            .getSingleResult();
+
+        if (total == null || total == 0 || pageable.getOffset() >= total) {
+            return new PageImpl<>(List.of(), pageable, total == null ? 0 : total);
+        }
+
+        List<Number> revisionNumbers = reader.createQuery()
+            .forRevisionsOfEntity(type, false, true)
+            .addProjection(AuditEntity.revisionNumber())
+            .add(AuditEntity.id().eq(id))
+            .addOrder(descending ? AuditEntity.revisionNumber().desc() : AuditEntity.revisionNumber().asc())
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+
+        List<Object[]> resultList = reader.createQuery()
+            .forRevisionsOfEntityWithChanges(type, true)
+            .add(AuditEntity.id().eq(id))
+            .add(AuditEntity.revisionNumber().in(revisionNumbers))
+            .addOrder(descending ? AuditEntity.revisionNumber().desc() : AuditEntity.revisionNumber().asc())
+            .getResultList();
+
+        List<Revision<N, T>> revisionList = new ArrayList<>(resultList.size());
+
+        for (Object[] objects : resultList) {
+            revisionList.add(createShogunRevision(new QueryResult<>(objects)));
+        }
+
+        return new PageImpl<>(revisionList, pageable, total);
+    }
+
     @SuppressWarnings("unchecked")
     private Revision<N, T> createShogunRevision(QueryResult<T> queryResult) {
         return Revision.of((RevisionMetadata<N>) queryResult.createRevisionMetadata(), queryResult.entity);
@@ -16,6 +16,7 @@
  */
 package de.terrestris.shogun.lib.repository.security.permission;
 
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.Group;
 import de.terrestris.shogun.lib.model.security.permission.GroupClassPermission;
 import jakarta.persistence.QueryHint;
@@ -25,6 +26,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +38,11 @@ public interface GroupClassPermissionRepository extends BasePermissionRepository
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<GroupClassPermission> findByGroupIdAndClassName(Long groupId, String className);
 
+    @Query("Select distinct p from groupclasspermissions gcp join gcp.permission pc join pc.permissions p " +
+        "where gcp.group.id in ?1 and gcp.className = ?2")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<PermissionType> findPermissionTypesByGroupIdInAndClassName(Collection<Long> groupIds, String className);
+
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<GroupClassPermission> findAllByGroup(Group group);
 
@@ -16,6 +16,8 @@
  */
 package de.terrestris.shogun.lib.repository.security.permission;
 
+import de.terrestris.shogun.lib.dto.EntityPermissionTypeDto;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.Group;
 import de.terrestris.shogun.lib.model.security.permission.GroupInstancePermission;
 import jakarta.persistence.QueryHint;
@@ -25,6 +27,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,9 +39,40 @@ public interface GroupInstancePermissionRepository extends BasePermissionReposit
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<GroupInstancePermission> findByGroupIdAndEntityId(Long groupId, Long entityId);
 
+    @Query("Select gip from groupinstancepermissions gip where gip.group.id in ?1 and gip.entityId = ?2")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<GroupInstancePermission> findAllByGroupIdInAndEntityId(Collection<Long> groupIds, Long entityId);
+
+    /**
+     * Returns the merged permission types all given groups have on the given entity.
+     *
+     * @param groupIds The IDs of the groups.
+     * @param entityId The ID of the entity.
+     * @return The (distinct) permission types.
+     */
+    @Query("Select distinct p from groupinstancepermissions gip join gip.permission pc join pc.permissions p " +
+        "where gip.group.id in ?1 and gip.entityId = ?2")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<PermissionType> findPermissionTypesByGroupIdInAndEntityId(Collection<Long> groupIds, Long entityId);
+
+    /**
+     * Returns the (merged) permission types the given groups have on each of the given entities.
+     *
+     * @param groupIds  The IDs of the groups.
+     * @param entityIds The IDs of the entities.
+     * @return The permission types per entity ID.
+     */
+    @Query("Select distinct new de.terrestris.shogun.lib.dto.EntityPermissionTypeDto(gip.entityId, p) " +
+        "from groupinstancepermissions gip join gip.permission pc join pc.permissions p " +
+        "where gip.group.id in ?1 and gip.entityId in ?2")
+    List<EntityPermissionTypeDto> findPermissionTypesByGroupIdInAndEntityIdIn(Collection<Long> groupIds,
+        Collection<Long> entityIds);
+
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<GroupInstancePermission> findByEntityId(Long entityId);
 
+    List<GroupInstancePermission> findByEntityIdIn(Collection<Long> entityIds);
+
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<GroupInstancePermission> findAllByGroup(Group group);
 
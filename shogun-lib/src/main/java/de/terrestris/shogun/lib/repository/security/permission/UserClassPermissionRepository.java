@@ -16,6 +16,7 @@
  */
 package de.terrestris.shogun.lib.repository.security.permission;
 
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.model.security.permission.UserClassPermission;
 import jakarta.persistence.QueryHint;
@@ -38,6 +39,11 @@ public interface UserClassPermissionRepository extends BasePermissionRepository<
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<UserClassPermission> findByUserIdAndClassName(Long userId, String className);
 
+    @Query("Select p from userclasspermissions ucp join ucp.permission pc join pc.permissions p " +
+        "where ucp.user.id = ?1 and ucp.className = ?2")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<PermissionType> findPermissionTypesByUserIdAndClassName(Long userId, String className);
+
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<UserClassPermission> findAllByUser(User user);
 
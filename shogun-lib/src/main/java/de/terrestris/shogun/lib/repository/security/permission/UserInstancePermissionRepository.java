@@ -16,6 +16,7 @@
  */
 package de.terrestris.shogun.lib.repository.security.permission;
 
+import de.terrestris.shogun.lib.dto.EntityPermissionTypeDto;
 import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.model.security.permission.UserInstancePermission;
@@ -28,6 +29,7 @@ import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,9 +41,23 @@ public interface UserInstancePermissionRepository extends BasePermissionReposito
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<UserInstancePermission> findByUserIdAndEntityId(Long userId, Long entityId);
 
+    /**
+     * Returns the permission types the given user has on each of the given entities.
+     *
+     * @param userId    The ID of the user.
+     * @param entityIds The IDs of the entities.
+     * @return The permission types per entity ID.
+     */
+    @Query("Select new de.terrestris.shogun.lib.dto.EntityPermissionTypeDto(uip.entityId, p) " +
+        "from userinstancepermissions uip join uip.permission pc join pc.permissions p " +
+        "where uip.user.id = ?1 and uip.entityId in ?2")
+    List<EntityPermissionTypeDto> findPermissionTypesByUserIdAndEntityIdIn(Long userId, Collection<Long> entityIds);
+
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<UserInstancePermission> findByEntityId(Long entityId);
 
+    List<UserInstancePermission> findByEntityIdIn(Collection<Long> entityIds);
+
     @Query("SELECT u FROM userinstancepermissions u LEFT JOIN u.permission p WHERE u.entityId = :entityId AND p.name = :permissionCollectionType")
     @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<UserInstancePermission> findByEntityAndPermissionCollectionType(
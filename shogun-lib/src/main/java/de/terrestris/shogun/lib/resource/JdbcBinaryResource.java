@@ -0,0 +1,213 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.resource;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.core.io.AbstractResource;
+
+import javax.sql.DataSource;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A {@link org.springframework.core.io.Resource} for a binary column of a single row that is read via the JDBC
+ * stream API ({@link ResultSet#getBinaryStream(int)}) instead of being materialized as entity attribute.
+ *
+ * Every call of {@link #getInputStream()} borrows a connection from the given {@link DataSource} that is held until
+ * the returned stream is closed.
+ */
+@Log4j2
+public class JdbcBinaryResource extends AbstractResource {
+
+    private final DataSource dataSource;
+
+    private final String tableName;
+
+    private final String columnName;
+
+    private final String idColumnName;
+
+    private final Object id;
+
+    private final long lastModified;
+
+    private Long contentLength;
+
+    /**
+     * @param dataSource The data source to read from.
+     * @param tableName The (qualified) name of the table.
+     * @param columnName The name of the binary column.
+     * @param idColumnName The name of the primary key column.
+     * @param id The primary key of the row.
+     * @param lastModified The last modification timestamp (in milliseconds) of the row.
+     */
+    public JdbcBinaryResource(DataSource dataSource, String tableName, String columnName, String idColumnName,
+                              Object id, long lastModified) {
+        this.dataSource = dataSource;
+        this.tableName = tableName;
+        this.columnName = columnName;
+        this.idColumnName = idColumnName;
+        this.id = id;
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        String sql = String.format("SELECT %s FROM %s WHERE %s = ?", columnName, tableName, idColumnName);
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(sql);
+            statement.setObject(1, id);
+            resultSet = statement.executeQuery();
+
+            InputStream stream = resultSet.next() ? resultSet.getBinaryStream(1) : null;
+
+            if (stream == null) {
+                throw new FileNotFoundException(getDescription() + " does not exist or is empty");
+            }
+
+            return new JdbcInputStream(stream, connection, statement, resultSet);
+        } catch (SQLException | IOException e) {
+            close(resultSet, statement, connection);
+
+            if (e instanceof IOException ioe) {
+                throw ioe;
+            }
+
+            throw new IOException("Could not read " + getDescription() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the length of the binary content, determined by the database without reading the content.
+     */
+    @Override
+    public long contentLength() throws IOException {
+        if (contentLength != null) {
+            return contentLength;
+        }
+
+        String sql = String.format("SELECT octet_length(%s) FROM %s WHERE %s = ?", columnName, tableName,
+            idColumnName);
+
+        try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement(sql)
+        ) {
+            statement.setObject(1, id);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new FileNotFoundException(getDescription() + " does not exist");
+                }
+
+                contentLength = resultSet.getLong(1);
+
+                return contentLength;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not determine the length of " + getDescription() + ": " +
+                e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("column %s of %s with %s %s", columnName, tableName, idColumnName, id);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof JdbcBinaryResource that &&
+            tableName.equals(that.tableName) && columnName.equals(that.columnName) && id.equals(that.id));
+    }
+
+    @Override
+    public int hashCode() {
+        return getDescription().hashCode();
+    }
+
+    private static void close(AutoCloseable... closeables) {
+        for (AutoCloseable closeable : closeables) {
+            if (closeable == null) {
+                continue;
+            }
+
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Could not close JDBC resource: {}", e.getMessage());
+                log.trace("Full stack trace: ", e);
+            }
+        }
+    }
+
+    /**
+     * Releases the JDBC resources as soon as the binary stream is closed.
+     */
+    private static class JdbcInputStream extends FilterInputStream {
+
+        private final AutoCloseable[] jdbcResources;
+
+        private boolean closed = false;
+
+        JdbcInputStream(InputStream in, AutoCloseable... jdbcResources) {
+            super(in);
+            this.jdbcResources = jdbcResources;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+
+            try {
+                super.close();
+            } finally {
+                // close in reverse order: result set, statement, connection
+                for (int i = jdbcResources.length - 1; i >= 0; i--) {
+                    JdbcBinaryResource.close(jdbcResources[i]);
+                }
+            }
+        }
+    }
+
+}
@@ -22,6 +22,7 @@ import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.security.access.entity.BaseEntityPermissionEvaluator;
 import de.terrestris.shogun.lib.security.access.entity.DefaultPermissionEvaluator;
 import de.terrestris.shogun.lib.service.security.provider.UserProviderService;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.PermissionEvaluator;
@@ -30,7 +31,10 @@ import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @Log4j2
@@ -45,6 +49,22 @@ public class BasePermissionEvaluator implements PermissionEvaluator {
     @Autowired
     private UserProviderService userProviderService;
 
+    /**
+     * The permission evaluators mapped by the canonical name of the entity class they are responsible for.
+     */
+    private Map<String, BaseEntityPermissionEvaluator<?>> permissionEvaluatorsByClassName;
+
+    @PostConstruct
+    public void init() {
+        permissionEvaluatorsByClassName = permissionEvaluators.stream()
+            .filter(permissionEvaluator -> permissionEvaluator.getEntityClassName() != null)
+            .collect(Collectors.toUnmodifiableMap(
+                permissionEvaluator -> permissionEvaluator.getEntityClassName().getCanonicalName(),
+                Function.identity(),
+                (first, second) -> first
+            ));
+    }
+
     @Override
     public boolean hasPermission(Authentication authentication, Object targetDomainObject,
             Object permissionObject) {
@@ -156,13 +176,6 @@ public class BasePermissionEvaluator implements PermissionEvaluator {
      * @return
      */
     protected BaseEntityPermissionEvaluator getPermissionEvaluatorForClass(String persistentObjectClass) {
-
-        BaseEntityPermissionEvaluator entityPermissionEvaluator = permissionEvaluators.stream()
-                .filter(permissionEvaluator -> persistentObjectClass.equals(
-                        permissionEvaluator.getEntityClassName().getCanonicalName()))
-                .findAny()
-                .orElse(defaultPermissionEvaluator);
-
-        return entityPermissionEvaluator;
+        return permissionEvaluatorsByClassName.getOrDefault(persistentObjectClass, defaultPermissionEvaluator);
     }
 }
@@ -16,9 +16,9 @@
  */
 package de.terrestris.shogun.lib.security.access.entity;
 
+import de.terrestris.shogun.lib.cache.PermissionCache;
 import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.BaseEntity;
-import de.terrestris.shogun.lib.model.Group;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.model.security.permission.ClassPermission;
 import de.terrestris.shogun.lib.model.security.permission.GroupClassPermission;
@@ -30,6 +30,7 @@ import de.terrestris.shogun.lib.service.security.permission.GroupInstancePermiss
 import de.terrestris.shogun.lib.service.security.permission.UserClassPermissionService;
 import de.terrestris.shogun.lib.service.security.permission.UserInstancePermissionService;
 import de.terrestris.shogun.lib.service.security.provider.GroupProviderService;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.keycloak.representations.idm.GroupRepresentation;
@@ -38,12 +39,14 @@ import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 @Log4j2
 public abstract class BaseEntityPermissionEvaluator<E extends BaseEntity> implements EntityPermissionEvaluator<E> {
@@ -66,18 +69,74 @@ public abstract class BaseEntityPermissionEvaluator<E extends BaseEntity> implem
     @Autowired
     protected List<BaseCrudRepository> baseCrudRepositories;
 
+    @Autowired
+    protected PermissionCache permissionCache;
+
+    private final Class<E> entityClass = (Class<E>) GenericTypeResolver.resolveTypeArgument(getClass(),
+        BaseEntityPermissionEvaluator.class);
+
+    /**
+     * The repositories mapped by the (lower case) canonical name of the entity class they are managing.
+     */
+    private Map<String, BaseCrudRepository> repositoriesByClassName = Map.of();
+
+    /**
+     * The permissions prefetched for the entities currently filtered by
+     * {@link #filterPermitted(User, Collection, PermissionType)} on this thread (if any).
+     */
+    private final ThreadLocal<PermissionPrefetch> permissionPrefetch = new ThreadLocal<>();
+
+    @PostConstruct
+    public void initRepositories() {
+        if (baseCrudRepositories == null) {
+            return;
+        }
+
+        Map<String, BaseCrudRepository> repositories = new LinkedHashMap<>();
+
+        for (BaseCrudRepository repository : baseCrudRepositories) {
+            // currently we are always proxied due to the usage of the envers revision repository implementation
+            // Todo: check if repository is proxied or not
+            for (Class<?> clazz : AopProxyUtils.proxiedUserInterfaces(repository)) {
+                Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(clazz, BaseCrudRepository.class);
+
+                if (typeArguments != null) {
+                    repositories.putIfAbsent(typeArguments[0].getCanonicalName().toLowerCase(Locale.ROOT), repository);
+                }
+            }
+        }
+
+        repositoriesByClassName = Collections.unmodifiableMap(repositories);
+    }
+
     @Override
     public Class<E> getEntityClassName() {
-        return (Class<E>) GenericTypeResolver.resolveTypeArgument(getClass(), BaseEntityPermissionEvaluator.class);
+        return entityClass;
     }
 
     @Override
     public boolean hasPermission(User user, E entity, PermissionType permission) {
-        final String simpleClassName = entity.getClass().getSimpleName();
-
         log.trace("Evaluating whether user with ID '{}' has permission '{}' on entity '{}' with ID {}",
-            user.getId(), permission, simpleClassName, entity.getId());
+            user.getId(), permission, entity.getClass().getSimpleName(), entity.getId());
+
+        if (permissionCache.isEnabled() && user.getId() != null && entity.getId() != null) {
+            return permissionCache.hasInstancePermission(user.getId(), entity.getClass().getCanonicalName(),
+                entity.getId(), permission, () -> evaluatePermission(user, entity, permission));
+        }
 
+        return evaluatePermission(user, entity, permission);
+    }
+
+    /**
+     * Evaluates the permission by checking the user and group instance and class permissions (in this order). The
+     * result is cached by the {@link PermissionCache} if it's enabled.
+     *
+     * @param user The user to check.
+     * @param entity The entity to check.
+     * @param permission The permission to check.
+     * @return true if the user has the permission, false otherwise.
+     */
+    protected boolean evaluatePermission(User user, E entity, PermissionType permission) {
         // CHECK USER INSTANCE PERMISSIONS
         if (this.hasPermissionByUserInstancePermission(user, entity, permission)) {
             log.trace("Granting {} access by user instance permissions", permission);
@@ -107,7 +166,7 @@ public abstract class BaseEntityPermissionEvaluator<E extends BaseEntity> implem
         }
 
         log.trace("Restricting {} access on secured object '{}' with ID {}",
-            permission, simpleClassName, entity.getId());
+            permission, entity.getClass().getSimpleName(), entity.getId());
 
         return false;
     }
@@ -122,26 +181,7 @@ public abstract class BaseEntityPermissionEvaluator<E extends BaseEntity> implem
         }
 
         // Find the matching repository for entity with the provided target domain type
-        Optional<BaseCrudRepository> baseCrudRepository = baseCrudRepositories.stream()
-            .filter(repository -> {
-                // currently we are always proxied due to the usage of the envers revision repository implementation
-                // Todo: check if repository is proxied or not
-                Class<?>[] classes = AopProxyUtils.proxiedUserInterfaces(repository);
-                if (classes.length > 0) {
-                    return Arrays.stream(classes)
-                        .anyMatch(clazz -> {
-                            Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(
-                                clazz, BaseCrudRepository.class);
-                            if (typeArguments == null) {
-                                return false;
-                            } else {
-                                return typeArguments[0].getCanonicalName().equalsIgnoreCase(targetDomainType);
-                            }
-                        });
-                }
-                return false;
-            })
-            .findFirst();
+        Optional<BaseCrudRepository> baseCrudRepository = getRepositoryForClass(targetDomainType);
 
         if (baseCrudRepository.isEmpty()) {
             log.warn("No repository for class {} could be found. Permission will " +
@@ -162,6 +202,16 @@ public abstract class BaseEntityPermissionEvaluator<E extends BaseEntity> implem
         return hasPermission(user, entity.get(), permission);
     }
 
+    /**
+     * Returns the repository managing the entities of the given class.
+     *
+     * @param targetDomainType The canonical name of the entity class (case-insensitive).
+     * @return The (optional) repository.
+     */
+    protected Optional<BaseCrudRepository> getRepositoryForClass(String targetDomainType) {
+        return Optional.ofNullable(repositoriesByClassName.get(targetDomainType.toLowerCase(Locale.ROOT)));
+    }
+
     @Override
     public boolean hasPermission(User user, Class<?> clazz, PermissionType permission) {
         log.trace("Evaluating whether user with ID '{}' has permission '{}' on class '{}'",
@@ -172,74 +222,80 @@ public abstract class BaseEntityPermissionEvaluator<E extends BaseEntity> implem
         Optional<GroupClassPermission> groupClassPermission = groupClassPermissionService.findFor((Class<? extends BaseEntity>) clazz, user);
 
         if (userClassPermission.isPresent()) {
-            final Set<PermissionType> userClassPermissions = userClassPermission.get().getPermission().getPermissions();
-            // Grant access if group explicitly has the requested permission or
-            // if the group has the ADMIN permission
-            return userClassPermissions.contains(permission) ||
-                userClassPermissions.contains(PermissionType.ADMIN);
+            // Grant access if user explicitly has the requested permission or
+            // if the user has the ADMIN permission
+            return userClassPermission.get().getPermission().grants(permission);
         }
         if (groupClassPermission.isPresent()) {
-            final Set<PermissionType> groupClassPermissions = groupClassPermission.get().getPermission().getPermissions();
             // Grant access if group explicitly has the requested permission or
             // if the group has the ADMIN permission
-            return groupClassPermissions.contains(permission) ||
-                groupClassPermissions.contains(PermissionType.ADMIN);
+            return groupClassPermission.get().getPermission().grants(permission);
         }
         return false;
     }
 
     public boolean hasPermissionByUserInstancePermission(User user, BaseEntity entity, PermissionType permission) {
-        PermissionCollection userPermissionCol;
         if (permission.equals(PermissionType.CREATE) && entity.getId() == null) {
-            userPermissionCol = new PermissionCollection();
-        } else {
-            userPermissionCol = userInstancePermissionService
-                .findPermissionCollectionFor(entity, user);
+            return false;
         }
-        final Set<PermissionType> userInstancePermissions = userPermissionCol.getPermissions();
+
+        PermissionPrefetch prefetch = getPermissionPrefetch(user, entity);
+        if (prefetch != null) {
+            return containsPermission(prefetch.getUserInstancePermissions(entity.getId()), permission);
+        }
+
+        PermissionCollection userPermissionCol = userInstancePermissionService
+            .findPermissionCollectionFor(entity, user);
 
         // Grant access if user explicitly has the requested permission or
         // if the user has the ADMIN permission
-        return userInstancePermissions.contains(permission) ||
-            userInstancePermissions.contains(PermissionType.ADMIN);
+        return userPermissionCol.grants(permission);
     }
 
     public boolean hasPermissionByGroupInstancePermission(User user, BaseEntity entity, PermissionType permission) {
-        PermissionCollection groupPermissionsCol;
         if (permission.equals(PermissionType.CREATE) && entity.getId() == null) {
-            groupPermissionsCol = new PermissionCollection();
-        } else {
-            groupPermissionsCol = groupInstancePermissionService
-                .findPermissionCollectionFor(entity, user);
+            return false;
         }
-        final Set<PermissionType> groupInstancePermissions = groupPermissionsCol.getPermissions();
+
+        PermissionPrefetch prefetch = getPermissionPrefetch(user, entity);
+        if (prefetch != null) {
+            return containsPermission(prefetch.getGroupInstancePermissions(entity.getId()), permission);
+        }
+
+        PermissionCollection groupPermissionsCol = groupInstancePermissionService
+            .findPermissionCollectionFor(entity, user);
 
         // Grant access if group explicitly has the requested permission or
         // if the group has the ADMIN permission
-        return groupInstancePermissions.contains(permission) ||
-            groupInstancePermissions.contains(PermissionType.ADMIN);
+        return groupPermissionsCol.grants(permission);
     }
 
     public boolean hasPermissionByUserClassPermission(User user, BaseEntity entity, PermissionType permission) {
+        PermissionPrefetch prefetch = getClassPermissionPrefetch(user);
+        if (prefetch != null) {
+            return containsPermission(prefetch.getUserClassPermissions(entity.getClass()), permission);
+        }
+
         PermissionCollection userClassPermissionCol = userClassPermissionService
             .findPermissionCollectionFor(entity, user);
-        final Set<PermissionType> userClassPermissions = userClassPermissionCol.getPermissions();
 
         // Grant access if user explicitly has the requested permission or
         // if the group has the ADMIN permission
-        return userClassPermissions.contains(permission) ||
-            userClassPermissions.contains(PermissionType.ADMIN);
+        return userClassPermissionCol.grants(permission);
     }
 
     public boolean hasPermissionByGroupClassPermission(User user, BaseEntity entity, PermissionType permission) {
+        PermissionPrefetch prefetch = getClassPermissionPrefetch(user);
+        if (prefetch != null) {
+            return containsPermission(prefetch.getGroupClassPermissions(entity.getClass()), permission);
+        }
+
         PermissionCollection groupClassPermissionsCol = groupClassPermissionService
             .findPermissionCollectionFor(entity, user);
-        final Set<PermissionType> groupClassPermissions = groupClassPermissionsCol.getPermissions();
 
         // Grant access if group explicitly has the requested permission or
         // if the group has the ADMIN permission
-        return groupClassPermissions.contains(permission) ||
-            groupClassPermissions.contains(PermissionType.ADMIN);
+        return groupClassPermissionsCol.grants(permission);
     }
 
     /**
@@ -261,14 +317,7 @@ public abstract class BaseEntityPermissionEvaluator<E extends BaseEntity> implem
         }
 
         // option A: user has role `ADMIN`
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        List<GrantedAuthority> authorities = new ArrayList<>(authentication.getAuthorities());
-        var isAdmin = authorities.stream().anyMatch(
-            grantedAuthority -> StringUtils.equalsIgnoreCase(grantedAuthority.getAuthority(), "ROLE_ADMIN")
-        );
-
-        if (isAdmin) {
+        if (isAdmin()) {
             return repository.findAll(pageable);
         }
 
@@ -281,27 +330,251 @@ public abstract class BaseEntityPermissionEvaluator<E extends BaseEntity> implem
         }
 
         // option C: check instance permissions for each entity with a single query
-        List<Group<GroupRepresentation>> userGroups = groupProviderService.getGroupsForUser();
-        if (userGroups.isEmpty()) {
+        List<Long> groupIds = getGroupIds(user);
+        if (groupIds.isEmpty()) {
             // user has no groups so only user instance permissions have to be checked
             return repository.findAll(pageable, user.getId());
         } else {
             // check both user and group instance permissions
-            List<Long> groupIds = userGroups.stream()
-                .map(BaseEntity::getId)
-                .toList();
             return repository.findAll(pageable, user.getId(), groupIds);
         }
     }
 
+    /**
+     * Default <code>findAllAfter</code> implementation for keyset pagination. Applies the same simplifications as
+     * {@link #findAll(User, Pageable, BaseCrudRepository, Class)}, but returns the entities with an ID greater than
+     * the given one (ordered by ID) and doesn't count the total number of entities.
+     *
+     * @param user The authenticated user.
+     * @param after The ID to start after (exclusive).
+     * @param limit The maximum number of entities to return.
+     * @param repository The base entity repository used to fetch the entities.
+     * @return The entities.
+     */
+    @Override
+    public List<E> findAllAfter(User user, Long after, int limit, BaseCrudRepository<E, Long> repository,
+            Class<E> baseEntityClass) {
+        if (user == null) {
+            throw new RuntimeException("No user provided!");
+        }
+
+        Pageable pageable = PageRequest.of(0, limit);
+
+        // option A: user has role `ADMIN`
+        if (isAdmin()) {
+            return repository.findAllAfter(after, pageable);
+        }
+
+        // option B: user has permission through class permissions
+        List<Long> groupIds = getGroupIds(user);
+
+        if (containsPermission(getClassPermissions(user, baseEntityClass, groupIds), PermissionType.READ)) {
+            return repository.findAllAfter(after, pageable);
+        }
+
+        // option C: check instance permissions for each entity with a single query
+        if (groupIds.isEmpty()) {
+            return repository.findAllAfter(after, pageable, user.getId());
+        } else {
+            return repository.findAllAfter(after, pageable, user.getId(), groupIds);
+        }
+    }
+
+    /**
+     * Default <code>streamAll</code> implementation. Applies the same simplifications as
+     * {@link #findAll(User, Pageable, BaseCrudRepository, Class)}, but returns a forward-only stream of all readable
+     * entities (ordered by ID). The stream must be consumed within a transaction and closed afterwards.
+     *
+     * @param user The authenticated user.
+     * @param repository The base entity repository used to fetch the entities.
+     * @return The stream of entities.
+     */
+    @Override
+    public Stream<E> streamAll(User user, BaseCrudRepository<E, Long> repository, Class<E> baseEntityClass) {
+        if (user == null) {
+            throw new RuntimeException("No user provided!");
+        }
+
+        // option A: user has role `ADMIN`
+        if (isAdmin()) {
+            return repository.streamAll();
+        }
+
+        // option B: user has permission through class permissions
+        List<Long> groupIds = getGroupIds(user);
+
+        if (containsPermission(getClassPermissions(user, baseEntityClass, groupIds), PermissionType.READ)) {
+            return repository.streamAll();
+        }
+
+        // option C: check instance permissions for each entity with a single query
+        if (groupIds.isEmpty()) {
+            return repository.streamAll(user.getId());
+        } else {
+            return repository.streamAll(user.getId(), groupIds);
+        }
+    }
+
+    /**
+     * Default <code>filterPermitted</code> implementation which evaluates the (overridable)
+     * {@link #hasPermission(User, BaseEntity, PermissionType)} chain for each entity, but resolves the permissions
+     * needed by the default permission checks for all given entities at once:
+     * 1) If the authenticated user has role `ADMIN` all entities will be returned.
+     * 2) The user and group class permissions are resolved (only) once per entity class.
+     * 3) The user and group instance permissions of all entities are resolved with a single query each.
+     *
+     * @param user The authenticated user.
+     * @param entities The entities to filter.
+     * @param permission The permission to check.
+     * @return The permitted entities (in the order of the given entities).
+     */
+    @Override
+    public List<E> filterPermitted(User user, Collection<E> entities, PermissionType permission) {
+        if (entities == null || entities.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        if (isAdmin()) {
+            return new ArrayList<>(entities);
+        }
+
+        if (user == null) {
+            log.trace("Restricting {} access since no user is available.", permission);
+            return new ArrayList<>();
+        }
+
+        log.trace("Evaluating whether user with ID '{}' has permission '{}' on {} entities",
+            user.getId(), permission, entities.size());
+
+        PermissionPrefetch previousPrefetch = permissionPrefetch.get();
+        permissionPrefetch.set(new PermissionPrefetch(user, entities));
+
+        try {
+            List<E> permitted = new ArrayList<>();
+            for (E entity : entities) {
+                if (hasPermission(user, entity, permission)) {
+                    permitted.add(entity);
+                }
+            }
+
+            return permitted;
+        } finally {
+            if (previousPrefetch == null) {
+                permissionPrefetch.remove();
+            } else {
+                permissionPrefetch.set(previousPrefetch);
+            }
+        }
+    }
+
+    /**
+     * Returns the merged user and group class permissions of the given user on the given class. The permissions are
+     * taken from the {@link PermissionCache} if it's enabled.
+     *
+     * @param user The user to get the permissions for.
+     * @param entityClass The class to get the permissions for.
+     * @param groupIds The IDs of the groups of the user, null to resolve them (only) if needed.
+     * @return The permission types (may be empty).
+     */
+    protected Set<PermissionType> getClassPermissions(User user, Class<? extends BaseEntity> entityClass,
+            List<Long> groupIds) {
+        if (permissionCache.isEnabled() && user.getId() != null) {
+            return permissionCache.getClassPermissions(user.getId(), entityClass.getCanonicalName(),
+                () -> findClassPermissions(user, entityClass, groupIds));
+        }
+
+        return findClassPermissions(user, entityClass, groupIds);
+    }
+
+    private Set<PermissionType> findClassPermissions(User user, Class<? extends BaseEntity> entityClass,
+            List<Long> groupIds) {
+        Set<PermissionType> permissions = EnumSet.noneOf(PermissionType.class);
+
+        PermissionPrefetch prefetch = getClassPermissionPrefetch(user);
+        if (prefetch != null) {
+            permissions.addAll(prefetch.getUserClassPermissions(entityClass));
+            permissions.addAll(prefetch.getGroupClassPermissions(entityClass));
+
+            return permissions;
+        }
+
+        permissions.addAll(userClassPermissionService.findPermissionsFor(entityClass, user));
+        permissions.addAll(groupClassPermissionService.findPermissionsForGroups(entityClass,
+            groupIds != null ? groupIds : getGroupIds(user)));
+
+        return permissions;
+    }
+
+    /**
+     * Checks if the current authentication has the role `ADMIN`.
+     *
+     * @return true if so, false otherwise.
+     */
+    protected boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null) {
+            return false;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>(authentication.getAuthorities());
+        return authorities.stream().anyMatch(
+            grantedAuthority -> StringUtils.equalsIgnoreCase(grantedAuthority.getAuthority(), "ROLE_ADMIN")
+        );
+    }
+
+    /**
+     * Returns the IDs of all (persisted) groups the given user is a member of.
+     *
+     * @param user The user to get the group IDs for.
+     * @return The group IDs (may be empty).
+     */
+    private List<Long> getGroupIds(User user) {
+        List<Long> groupIds = groupProviderService.findGroupIdsByUser(user);
+
+        return groupIds == null ? List.of() : groupIds;
+    }
+
+    /**
+     * Returns the permissions prefetched for the given entity of the given user, if the entity is currently filtered
+     * by {@link #filterPermitted(User, Collection, PermissionType)} on this thread.
+     *
+     * @param user The user to check.
+     * @param entity The entity to check.
+     * @return The prefetched permissions or null if not available.
+     */
+    private PermissionPrefetch getPermissionPrefetch(User user, BaseEntity entity) {
+        PermissionPrefetch prefetch = permissionPrefetch.get();
+
+        return prefetch != null && prefetch.covers(user, entity.getId()) ? prefetch : null;
+    }
+
+    /**
+     * Returns the permissions prefetched for the given user, if entities are currently filtered by
+     * {@link #filterPermitted(User, Collection, PermissionType)} on this thread. Other than the instance permissions,
+     * the class permissions are independent of the ID and thus available for new (unsaved) entities, too.
+     *
+     * @param user The user to check.
+     * @return The prefetched permissions or null if not available.
+     */
+    private PermissionPrefetch getClassPermissionPrefetch(User user) {
+        PermissionPrefetch prefetch = permissionPrefetch.get();
+
+        return prefetch != null && prefetch.getUser() == user ? prefetch : null;
+    }
+
+    private boolean containsPermission(Set<PermissionType> permissions, PermissionType permission) {
+        // Grant access if the requested permission or the ADMIN permission is given
+        return permissions != null &&
+            (permissions.contains(permission) || permissions.contains(PermissionType.ADMIN));
+    }
+
     private boolean containsReadPermission(ClassPermission ...classPermissions) {
         return Arrays.stream(classPermissions).anyMatch(classPermission -> {
             if (classPermission == null) {
                 return false;
             }
-            Set<PermissionType> permissions = classPermission.getPermission().getPermissions();
-            return permissions.contains(PermissionType.READ) ||
-                permissions.contains(PermissionType.ADMIN);
+            return classPermission.getPermission().grants(PermissionType.READ);
         });
     }
 
@@ -312,13 +585,81 @@ public abstract class BaseEntityPermissionEvaluator<E extends BaseEntity> implem
      * @return The class.
      */
     public Class<? extends BaseEntity> getBaseEntityClass() {
-        Class<? extends BaseEntity>[] resolvedTypeArguments = (Class<? extends BaseEntity>[]) GenericTypeResolver.resolveTypeArguments(getClass(),
-            BaseEntityPermissionEvaluator.class);
+        return entityClass;
+    }
 
-        if (resolvedTypeArguments != null && resolvedTypeArguments.length == 1) {
-            return resolvedTypeArguments[0];
-        } else {
-            return null;
+    /**
+     * The permissions of a user on a set of entities. Each kind of permission is resolved lazily on first access, but
+     * then for all entities (or all entities of a class) at once.
+     */
+    private class PermissionPrefetch {
+
+        private final User user;
+
+        private final Set<Long> entityIds = new HashSet<>();
+
+        private List<Long> groupIds;
+
+        private Map<Long, Set<PermissionType>> userInstancePermissions;
+
+        private Map<Long, Set<PermissionType>> groupInstancePermissions;
+
+        private final Map<Class<?>, Set<PermissionType>> userClassPermissions = new HashMap<>();
+
+        private final Map<Class<?>, Set<PermissionType>> groupClassPermissions = new HashMap<>();
+
+        PermissionPrefetch(User user, Collection<? extends BaseEntity> entities) {
+            this.user = user;
+
+            for (BaseEntity entity : entities) {
+                if (entity.getId() != null) {
+                    entityIds.add(entity.getId());
+                }
+            }
+        }
+
+        User getUser() {
+            return user;
+        }
+
+        boolean covers(User user, Long entityId) {
+            return this.user == user && entityId != null && entityIds.contains(entityId);
+        }
+
+        Set<PermissionType> getUserInstancePermissions(Long entityId) {
+            if (userInstancePermissions == null) {
+                userInstancePermissions = userInstancePermissionService.findPermissionsFor(entityIds, user);
+            }
+
+            return userInstancePermissions.getOrDefault(entityId, Set.of());
+        }
+
+        Set<PermissionType> getGroupInstancePermissions(Long entityId) {
+            if (groupInstancePermissions == null) {
+                groupInstancePermissions = groupInstancePermissionService.findPermissionsForGroups(entityIds,
+                    getGroupIds());
+            }
+
+            return groupInstancePermissions.getOrDefault(entityId, Set.of());
+        }
+
+        Set<PermissionType> getUserClassPermissions(Class<?> entityClass) {
+            return userClassPermissions.computeIfAbsent(entityClass, clazz ->
+                userClassPermissionService.findPermissionsFor((Class<? extends BaseEntity>) clazz, user));
+        }
+
+        Set<PermissionType> getGroupClassPermissions(Class<?> entityClass) {
+            return groupClassPermissions.computeIfAbsent(entityClass, clazz ->
+                groupClassPermissionService.findPermissionsForGroups((Class<? extends BaseEntity>) clazz,
+                    getGroupIds()));
+        }
+
+        private List<Long> getGroupIds() {
+            if (groupIds == null) {
+                groupIds = BaseEntityPermissionEvaluator.this.getGroupIds(user);
+            }
+
+            return groupIds;
         }
     }
 }
@@ -22,6 +22,10 @@ import de.terrestris.shogun.lib.repository.BaseCrudRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 // https://insource.io/blog/articles/custom-authorization-with-spring-boot.html
 public interface EntityPermissionEvaluator<E> {
     Class<E> getEntityClassName();
@@ -32,10 +36,39 @@ public interface EntityPermissionEvaluator<E> {
 
     boolean hasPermission(User user, Class<?> clazz, PermissionType permission);
 
+    /**
+     * Returns the subset of the given entities the user has the given permission for (keeping the order of the
+     * entities). The default implementation checks each entity separately, implementations should resolve the
+     * permissions for all entities at once. See
+     * {@link BaseEntityPermissionEvaluator#filterPermitted(User, Collection, PermissionType)} for the default
+     * implementation for {@link de.terrestris.shogun.lib.model.BaseEntity}.
+     */
+    default List<E> filterPermitted(User user, Collection<E> entities, PermissionType permission) {
+        return entities.stream()
+            .filter(entity -> hasPermission(user, entity, permission))
+            .toList();
+    }
+
     /**
      * Custom permission evaluators have to implement this method to provide a way to check permissions for requests
      * with pagination. See {@link BaseEntityPermissionEvaluator#findAll(User, Pageable, BaseCrudRepository)} for the
      * default implementation for {@link de.terrestris.shogun.lib.model.BaseEntity}.
      */
     Page<E> findAll(User user, Pageable pageable, BaseCrudRepository<E, Long> repository, Class<E> baseEntityClass);
+
+    /**
+     * Custom permission evaluators have to implement this method to provide a way to check permissions for requests
+     * with keyset pagination. See
+     * {@link BaseEntityPermissionEvaluator#findAllAfter(User, Long, int, BaseCrudRepository, Class)} for the default
+     * implementation for {@link de.terrestris.shogun.lib.model.BaseEntity}.
+     */
+    List<E> findAllAfter(User user, Long after, int limit, BaseCrudRepository<E, Long> repository,
+                         Class<E> baseEntityClass);
+
+    /**
+     * Custom permission evaluators have to implement this method to provide a way to check permissions for streaming
+     * all readable entities. See {@link BaseEntityPermissionEvaluator#streamAll(User, BaseCrudRepository, Class)} for
+     * the default implementation for {@link de.terrestris.shogun.lib.model.BaseEntity}.
+     */
+    Stream<E> streamAll(User user, BaseCrudRepository<E, Long> repository, Class<E> baseEntityClass);
 }
@@ -25,6 +25,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class GroupPermissionEvaluator extends BaseEntityPermissionEvaluator<Group> {
 
@@ -36,7 +38,17 @@ public class GroupPermissionEvaluator extends BaseEntityPermissionEvaluator<Grou
         Class<Group> baseEntityClass) {
         Page<Group> groups = super.findAll(user, pageable, repository, baseEntityClass);
 
-        groups.forEach(u -> groupProviderService.setTransientRepresentations(u));
+        groupProviderService.setTransientRepresentations(groups.getContent());
+
+        return groups;
+    }
+
+    @Override
+    public List<Group> findAllAfter(User user, Long after, int limit, BaseCrudRepository<Group, Long> repository,
+        Class<Group> baseEntityClass) {
+        List<Group> groups = super.findAllAfter(user, after, limit, repository, baseEntityClass);
+
+        groupProviderService.setTransientRepresentations(groups);
 
         return groups;
     }
@@ -24,6 +24,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class UserPermissionEvaluator extends BaseEntityPermissionEvaluator<User> {
 
@@ -35,7 +37,17 @@ public class UserPermissionEvaluator extends BaseEntityPermissionEvaluator<User>
         Class<User> baseEntityClass) {
         Page<User> users = super.findAll(user, pageable, repository, baseEntityClass);
 
-        users.forEach(u -> userProviderService.setTransientRepresentations(u));
+        userProviderService.setTransientRepresentations(users.getContent());
+
+        return users;
+    }
+
+    @Override
+    public List<User> findAllAfter(User user, Long after, int limit, BaseCrudRepository<User, Long> repository,
+        Class<User> baseEntityClass) {
+        List<User> users = super.findAllAfter(user, after, limit, repository, baseEntityClass);
+
+        userProviderService.setTransientRepresentations(users);
 
         return users;
     }
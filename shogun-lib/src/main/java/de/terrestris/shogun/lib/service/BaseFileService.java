@@ -18,7 +18,9 @@ package de.terrestris.shogun.lib.service;
 
 import de.terrestris.shogun.lib.model.File;
 import de.terrestris.shogun.lib.repository.BaseFileRepository;
+import de.terrestris.shogun.lib.resource.JdbcBinaryResource;
 import de.terrestris.shogun.properties.UploadProperties;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -28,14 +30,24 @@ import org.apache.tika.metadata.Metadata;
 import org.apache.tika.metadata.TikaCoreProperties;
 import org.apache.tomcat.util.http.fileupload.InvalidFileNameException;
 import org.apache.tomcat.util.http.fileupload.impl.InvalidContentTypeException;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.util.PatternMatchUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.sql.DataSource;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -47,6 +59,12 @@ public abstract class BaseFileService<T extends BaseFileRepository<S, Long> & Jp
     @Autowired
     private UploadProperties uploadProperties;
 
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @PostAuthorize("hasRole('ROLE_ADMIN') or hasPermission(returnObject.orElse(null), 'READ')")
     public Optional<S> findOne(UUID fileUuid) {
         return repository.findByFileUuid(fileUuid);
@@ -96,7 +114,69 @@ public abstract class BaseFileService<T extends BaseFileRepository<S, Long> & Jp
     }
 
     /**
-     * Get the file data as bytearray. Depends on storage strategy (DB vs. disk);
+     * Get the file data as {@link Resource} without loading it into memory. Depends on storage strategy (DB vs. disk):
+     * Files stored on disk are returned as {@link FileSystemResource}, files stored in the database as
+     * {@link JdbcBinaryResource} that streams the content via JDBC.
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public Resource getFileResource(S file) throws IOException {
+        if (file.getPath() == null) {
+            log.trace("… stream file from database");
+            return getDatabaseResource(file, "file");
+        }
+
+        if (StringUtils.isEmpty(uploadProperties.getBasePath())) {
+            throw new FileNotFoundException("Could not load File " + file.getId() + " from disk. uploadBasePath is null.");
+        }
+
+        Path basePath = Paths.get(uploadProperties.getBasePath()).toAbsolutePath().normalize();
+        Path dataFile = basePath.resolve(file.getPath()).normalize();
+
+        if (!dataFile.startsWith(basePath)) {
+            log.error("The path of File {} points outside of the upload base path", file.getId());
+            throw new FileNotFoundException("Could not load File " + file.getId() + " from disk");
+        }
+
+        if (Files.isRegularFile(dataFile)) {
+            log.trace("… stream file from disk");
+            return new FileSystemResource(dataFile);
+        } else {
+            log.error("Could not load File {} from disk", file.getId());
+            throw new FileNotFoundException("Could not load File " + file.getId() + " from disk");
+        }
+    }
+
+    /**
+     * Returns a {@link JdbcBinaryResource} for the given binary attribute of the given file entity.
+     *
+     * @param file The file entity.
+     * @param attributeName The name of the binary attribute, e.g. `file`.
+     * @return The resource.
+     */
+    protected Resource getDatabaseResource(S file, String attributeName) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+            .getEntityDescriptor(Hibernate.getClass(file));
+
+        OffsetDateTime modified = file.getModified() != null ? file.getModified() : file.getCreated();
+        long lastModified = modified != null ? modified.toInstant().toEpochMilli() : -1;
+
+        return new JdbcBinaryResource(
+            dataSource,
+            persister.getTableName(),
+            persister.getPropertyColumnNames(attributeName)[0],
+            persister.getIdentifierColumnNames()[0],
+            file.getId(),
+            lastModified
+        );
+    }
+
+    /**
+     * Get the file data as bytearray. Depends on storage strategy (DB vs. disk). Prefer
+     * {@link #getFileResource(File)} for large files, as this loads the whole file into memory.
      *
      * @param file
      * @return
@@ -16,11 +16,18 @@
  */
 package de.terrestris.shogun.lib.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.github.fge.jsonpatch.JsonPatchException;
 import com.github.fge.jsonpatch.mergepatch.JsonMergePatch;
+import de.terrestris.shogun.lib.dto.BulkItemResult;
+import de.terrestris.shogun.lib.dto.KeysetPage;
 import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
+import de.terrestris.shogun.lib.exception.BulkSizeExceededException;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.BaseEntity;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.repository.BaseCrudRepository;
@@ -29,32 +36,62 @@ import de.terrestris.shogun.lib.security.access.entity.DefaultPermissionEvaluato
 import de.terrestris.shogun.lib.service.security.permission.GroupInstancePermissionService;
 import de.terrestris.shogun.lib.service.security.permission.UserInstancePermissionService;
 import de.terrestris.shogun.lib.service.security.provider.UserProviderService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.log4j.Log4j2;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.query.AuditEntity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.GenericTypeResolver;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.history.Revision;
 import org.springframework.data.history.Revisions;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PostAuthorize;
-import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Log4j2
 public abstract class BaseService<T extends BaseCrudRepository<S, Long> & JpaSpecificationExecutor<S>, S extends BaseEntity> {
 
+    /**
+     * The number of exported entities after which the persistence context will be cleared.
+     */
+    public static final int EXPORT_BATCH_SIZE = 500;
+
+    private static final char NDJSON_SEPARATOR = '\n';
+
     @Autowired
     protected T repository;
 
@@ -83,10 +120,43 @@ public abstract class BaseService<T extends BaseCrudRepository<S, Long> & JpaSpe
     @Autowired
     protected DefaultPermissionEvaluator defaultPermissionEvaluator;
 
-    @PostFilter("hasRole('ROLE_ADMIN') or hasPermission(filterObject, 'READ')")
+    @Value("${shogun.pagination.maxPageSize:1000}")
+    protected int maxPageSize;
+
+    @Value("${shogun.bulk.chunkSize:500}")
+    protected int bulkChunkSize;
+
+    @Value("${shogun.bulk.maxSize:10000}")
+    protected int bulkMaxSize;
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    @Autowired
+    protected PlatformTransactionManager transactionManager;
+
+    private final Class<? extends BaseEntity> baseEntityClass = resolveBaseEntityClass();
+
+    /**
+     * The permission evaluators mapped by the canonical name of the entity class they are responsible for.
+     */
+    private Map<String, BaseEntityPermissionEvaluator<?>> permissionEvaluatorsByClassName;
+
+    @PostConstruct
+    public void initPermissionEvaluators() {
+        permissionEvaluatorsByClassName = permissionEvaluators.stream()
+            .filter(permissionEvaluator -> permissionEvaluator.getEntityClassName() != null)
+            .collect(Collectors.toUnmodifiableMap(
+                permissionEvaluator -> permissionEvaluator.getEntityClassName().getCanonicalName(),
+                Function.identity(),
+                (first, second) -> first
+            ));
+    }
+
     @Transactional(readOnly = true)
     public List<S> findAll() {
-        return (List<S>) repository.findAll();
+        // note: security check is done in permission evaluator
+        return filterPermitted((List<S>) repository.findAll(), PermissionType.READ);
     }
 
     @Transactional(readOnly = true)
@@ -103,10 +173,96 @@ public abstract class BaseService<T extends BaseCrudRepository<S, Long> & JpaSpe
         return entityPermissionEvaluator.findAll(userOpt.orElse(null), pageable, repository, entityClass);
     }
 
-    @PostFilter("hasRole('ROLE_ADMIN') or hasPermission(filterObject, 'READ')")
+    /**
+     * Returns a page of entities requested via keyset pagination, i.e. the entities with an ID greater than the
+     * given cursor (ordered by ID) the user of the current session is allowed to read. Other than
+     * {@link #findAll(Pageable)} this doesn't use an offset and doesn't count the total number of entities, so
+     * it's suitable for iterating large tables.
+     *
+     * @param cursor The cursor returned with the previous page (empty for the first page).
+     * @param size The page size, will be limited to `shogun.pagination.maxPageSize`.
+     * @return The page.
+     * @throws IllegalArgumentException If the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<S> findAllAfter(String cursor, Integer size) {
+        // note: security check is done in permission evaluator
+        Long after = KeysetPage.decodeCursor(cursor);
+        int pageSize = size == null || size < 1 ? maxPageSize : Math.min(size, maxPageSize);
+
+        Optional<User> userOpt = userProviderService.getUserBySession();
+
+        Class<? extends BaseEntity> entityClass = this.getBaseEntityClass();
+
+        BaseEntityPermissionEvaluator entityPermissionEvaluator =
+            this.getPermissionEvaluatorForClass(entityClass.getCanonicalName());
+
+        // request one more entity to find out if there is a next page
+        List<S> entities = entityPermissionEvaluator.findAllAfter(userOpt.orElse(null), after, pageSize + 1,
+            repository, entityClass);
+
+        if (entities.size() <= pageSize) {
+            return new KeysetPage<>(entities, pageSize, null);
+        }
+
+        List<S> content = entities.subList(0, pageSize);
+
+        return new KeysetPage<>(content, pageSize, KeysetPage.encodeCursor(content.get(pageSize - 1).getId()));
+    }
+
+    /**
+     * Writes all entities the user of the current session is allowed to read as newline delimited JSON (one entity
+     * per line, ordered by ID) to the given output stream. The entities are streamed from the database via a
+     * forward-only cursor and the persistence context is cleared every {@link #EXPORT_BATCH_SIZE} entities, so the
+     * memory usage doesn't depend on the number of exported entities.
+     *
+     * @param outputStream The stream to write to (won't be closed).
+     * @return The number of exported entities.
+     * @throws IOException If writing to the output stream fails.
+     */
+    @Transactional(readOnly = true)
+    public long exportAll(OutputStream outputStream) throws IOException {
+        // note: security check is done in permission evaluator
+        Optional<User> userOpt = userProviderService.getUserBySession();
+
+        Class<? extends BaseEntity> entityClass = this.getBaseEntityClass();
+
+        BaseEntityPermissionEvaluator entityPermissionEvaluator =
+            this.getPermissionEvaluatorForClass(entityClass.getCanonicalName());
+
+        ObjectWriter writer = objectMapper.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        long count = 0;
+        try (
+            Stream<S> entities = entityPermissionEvaluator.streamAll(userOpt.orElse(null), repository, entityClass);
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+        ) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<S> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw(NDJSON_SEPARATOR);
+
+                if (++count % EXPORT_BATCH_SIZE == 0) {
+                    // detach the already written entities to keep the persistence context small
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+        }
+
+        outputStream.flush();
+
+        return count;
+    }
+
     @Transactional(readOnly = true)
     public List<S> findAllBy(Specification specification) {
-        return (List<S>) repository.findAll(specification);
+        // note: security check is done in permission evaluator
+        return filterPermitted((List<S>) repository.findAll(specification), PermissionType.READ);
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -121,10 +277,10 @@ public abstract class BaseService<T extends BaseCrudRepository<S, Long> & JpaSpe
         return repository.findById(id);
     }
 
-    @PostFilter("hasRole('ROLE_ADMIN') or hasPermission(filterObject, 'READ')")
     @Transactional(readOnly = true)
     public List<S> findAllById(List<Long> id) {
-        return (List<S>) repository.findAllById(id);
+        // note: security check is done in permission evaluator
+        return filterPermitted((List<S>) repository.findAllById(id), PermissionType.READ);
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#entity, 'READ')")
@@ -133,6 +289,12 @@ public abstract class BaseService<T extends BaseCrudRepository<S, Long> & JpaSpe
         return repository.findRevisions(entity.getId());
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#entity, 'READ')")
+    @Transactional(readOnly = true)
+    public Page<Revision<Integer, S>> findRevisions(S entity, Pageable pageable) {
+        return repository.findRevisions(entity.getId(), pageable);
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#entity, 'READ')")
     @Transactional(readOnly = true)
     public Optional<Revision<Integer, S>> findRevision(S entity, Integer rev) {
@@ -146,7 +308,7 @@ public abstract class BaseService<T extends BaseCrudRepository<S, Long> & JpaSpe
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#entity, 'CREATE')")
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public S create(S entity) {
         S persistedEntity = repository.save(entity);
 
@@ -160,7 +322,7 @@ public abstract class BaseService<T extends BaseCrudRepository<S, Long> & JpaSpe
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#entity, 'UPDATE')")
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public S update(Long id, S entity) throws IOException {
         Optional<S> persistedEntityOpt = repository.findById(id);
 
@@ -168,20 +330,27 @@ public abstract class BaseService<T extends BaseCrudRepository<S, Long> & JpaSpe
         S persistedEntity = persistedEntityOpt.orElseThrow();
         entity.setCreated(persistedEntity.getCreated());
 
+        // Updates without a version overwrite the current state, otherwise the version will be checked on merge.
+        if (entity.getVersion() == null) {
+            entity.setVersion(persistedEntity.getVersion());
+        }
+
         return repository.save(entity);
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#entity, 'UPDATE')")
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public S updatePartial(S entity, JsonMergePatch patch) throws IOException, JsonPatchException {
+        Long version = entity.getVersion();
         JsonNode entityNode = objectMapper.valueToTree(entity);
         JsonNode patchedEntityNode = patch.apply(entityNode);
         S updatedEntity = objectMapper.readerForUpdating(entity).readValue(patchedEntityNode);
+        checkPatchedVersion(updatedEntity, version);
         return repository.save(updatedEntity);
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#entity, 'DELETE')")
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void delete(S entity) {
         userInstancePermissionService.deleteAllFor(entity);
 
@@ -190,6 +359,166 @@ public abstract class BaseService<T extends BaseCrudRepository<S, Long> & JpaSpe
         repository.delete(entity);
     }
 
+    /**
+     * Creates the given entities in chunks of `shogun.bulk.chunkSize` entities. Each chunk is written within its own
+     * transaction (using batched inserts) and the owner permissions of the user of the current session are set for
+     * all entities of a chunk at once. If writing a chunk fails, all of its items will be reported as failed, the
+     * other chunks are not affected.
+     *
+     * @param entities The entities to create.
+     * @return The results per entity (in the order of the given entities).
+     * @throws BulkSizeExceededException If the number of entities exceeds `shogun.bulk.maxSize`.
+     */
+    public List<BulkItemResult> createAll(List<S> entities) {
+        checkBulkSize(entities);
+
+        Optional<User> userBySession = userProviderService.getUserBySession();
+        if (userBySession.isEmpty()) {
+            throw new RuntimeException("Could not detect the logged in user.");
+        }
+        User user = userBySession.get();
+
+        // note: security check is done in permission evaluator
+        Set<S> permitted = Collections.newSetFromMap(new IdentityHashMap<>());
+        permitted.addAll(filterPermitted(entities, PermissionType.CREATE));
+
+        return processInChunks(entities, entity -> null, (offset, chunk) -> {
+            List<S> permittedEntities = chunk.stream()
+                .filter(permitted::contains)
+                .toList();
+
+            repository.saveAll(permittedEntities);
+
+            userInstancePermissionService.setPermissionForCreated(permittedEntities, user,
+                PermissionCollectionType.ADMIN);
+
+            List<BulkItemResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                S entity = chunk.get(i);
+                results.add(permitted.contains(entity) ?
+                    BulkItemResult.success(offset + i, HttpStatus.CREATED, entity.getId()) :
+                    BulkItemResult.failure(offset + i, HttpStatus.FORBIDDEN, null));
+            }
+
+            return results;
+        });
+    }
+
+    /**
+     * Partially updates entities by applying the given JSON merge patches in chunks of `shogun.bulk.chunkSize`
+     * items. Each patch has to contain the `id` of the entity to update. The entities of a chunk are loaded
+     * with a single query and written within a single transaction (using batched updates).
+     *
+     * @param patches The patches to apply.
+     * @return The results per patch (in the order of the given patches).
+     * @throws BulkSizeExceededException If the number of patches exceeds `shogun.bulk.maxSize`.
+     */
+    public List<BulkItemResult> updatePartialAll(List<JsonNode> patches) {
+        checkBulkSize(patches);
+
+        return processInChunks(patches, BaseService::getBulkItemId, (offset, chunk) -> {
+            Map<Long, S> permitted = findAllPermitted(chunk.stream().map(BaseService::getBulkItemId).toList(),
+                PermissionType.UPDATE);
+
+            List<BulkItemResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                JsonNode patch = chunk.get(i);
+                Long id = getBulkItemId(patch);
+
+                if (id == null) {
+                    results.add(BulkItemResult.failure(offset + i, HttpStatus.BAD_REQUEST, null));
+                    continue;
+                }
+
+                S entity = permitted.get(id);
+                if (entity == null) {
+                    results.add(BulkItemResult.failure(offset + i, HttpStatus.NOT_FOUND, id));
+                    continue;
+                }
+
+                try {
+                    Long version = entity.getVersion();
+                    JsonNode patchedEntityNode = JsonMergePatch.fromJson(patch).apply(objectMapper.valueToTree(entity));
+                    objectMapper.readerForUpdating(entity).readValue(patchedEntityNode);
+                    checkPatchedVersion(entity, version);
+
+                    results.add(BulkItemResult.success(offset + i, HttpStatus.OK, id));
+                } catch (OptimisticLockingFailureException e) {
+                    log.warn("Could not apply the patch for entity with ID {}: {}", id, e.getMessage());
+
+                    entityManager.detach(entity);
+
+                    results.add(BulkItemResult.failure(offset + i, HttpStatus.PRECONDITION_FAILED, id));
+                } catch (IOException | JsonPatchException e) {
+                    log.warn("Could not apply the patch for entity with ID {}: {}", id, e.getMessage());
+                    log.trace("Full stack trace: ", e);
+
+                    // don't write any partially applied changes
+                    entityManager.detach(entity);
+
+                    results.add(BulkItemResult.failure(offset + i, HttpStatus.BAD_REQUEST, id));
+                }
+            }
+
+            return results;
+        });
+    }
+
+    /**
+     * Deletes the entities with the given IDs in chunks of `shogun.bulk.chunkSize` entities. The entities and their
+     * instance permissions are loaded with a single query per chunk and deleted within a single transaction (using
+     * batched deletes).
+     *
+     * @param ids The IDs of the entities to delete.
+     * @return The results per ID (in the order of the given IDs).
+     * @throws BulkSizeExceededException If the number of IDs exceeds `shogun.bulk.maxSize`.
+     */
+    public List<BulkItemResult> deleteAll(List<Long> ids) {
+        checkBulkSize(ids);
+
+        return processInChunks(ids, Function.identity(), (offset, chunk) -> {
+            Map<Long, S> permitted = findAllPermitted(chunk, PermissionType.DELETE);
+
+            deleteAllPermitted(new ArrayList<>(permitted.values()));
+
+            List<BulkItemResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i);
+                if (id == null) {
+                    results.add(BulkItemResult.failure(offset + i, HttpStatus.BAD_REQUEST, null));
+                } else if (permitted.containsKey(id)) {
+                    results.add(BulkItemResult.success(offset + i, HttpStatus.NO_CONTENT, id));
+                } else {
+                    results.add(BulkItemResult.failure(offset + i, HttpStatus.NOT_FOUND, id));
+                }
+            }
+
+            return results;
+        });
+    }
+
+    /**
+     * Deletes the given entities (the permissions have been checked already) within the transaction of a bulk
+     * delete chunk. Services that need to clean up further data when deleting an entity should override this.
+     *
+     * @param entities The entities to delete.
+     */
+    protected void deleteAllPermitted(List<S> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = entities.stream()
+            .map(BaseEntity::getId)
+            .toList();
+
+        userInstancePermissionService.deleteAllForEntities(ids);
+
+        groupInstancePermissionService.deleteAllForEntities(ids);
+
+        repository.deleteAll(entities);
+    }
+
     /**
      * Get a historic {@link BaseEntity} for a given time
      *
@@ -225,6 +554,10 @@ public abstract class BaseService<T extends BaseCrudRepository<S, Long> & JpaSpe
      * @return The class.
      */
     public Class<? extends BaseEntity> getBaseEntityClass() {
+        return baseEntityClass;
+    }
+
+    private Class<? extends BaseEntity> resolveBaseEntityClass() {
         Class<? extends BaseEntity>[] resolvedTypeArguments = (Class<? extends BaseEntity>[]) GenericTypeResolver.resolveTypeArguments(
             getClass(), BaseService.class
         );
@@ -236,13 +569,148 @@ public abstract class BaseService<T extends BaseCrudRepository<S, Long> & JpaSpe
         }
     }
 
-    protected BaseEntityPermissionEvaluator getPermissionEvaluatorForClass(String persistentObjectClass) {
-        BaseEntityPermissionEvaluator entityPermissionEvaluator = permissionEvaluators.stream()
-            .filter(permissionEvaluator -> persistentObjectClass.equals(
-                permissionEvaluator.getEntityClassName().getCanonicalName()))
-            .findAny()
-            .orElse(defaultPermissionEvaluator);
+    /**
+     * Returns the subset of the given entities the user of the current session has the
+     * given permission for. Just like for the <code>hasPermission</code> checks of the
+     * method security, the entities are passed to the permission evaluator of their
+     * (actual) class, which resolves the permissions of all of its entities at once.
+     *
+     * @param entities   The entities to filter.
+     * @param permission The permission to check.
+     * @return The permitted entities (in the order of the given entities).
+     */
+    protected List<S> filterPermitted(List<S> entities, PermissionType permission) {
+        if (entities.isEmpty()) {
+            return entities;
+        }
+
+        Optional<User> userOpt = userProviderService.getUserBySession();
+        User user = userOpt.orElse(null);
+
+        Map<BaseEntityPermissionEvaluator, List<S>> entitiesByEvaluator = new LinkedHashMap<>();
+        for (S entity : entities) {
+            entitiesByEvaluator.computeIfAbsent(
+                this.getPermissionEvaluatorForClass(entity.getClass().getCanonicalName()),
+                permissionEvaluator -> new ArrayList<>()
+            ).add(entity);
+        }
+
+        if (entitiesByEvaluator.size() == 1) {
+            BaseEntityPermissionEvaluator entityPermissionEvaluator = entitiesByEvaluator.keySet().iterator().next();
 
-        return entityPermissionEvaluator;
+            return entityPermissionEvaluator.filterPermitted(user, entities, permission);
+        }
+
+        Set<S> permitted = Collections.newSetFromMap(new IdentityHashMap<>());
+        entitiesByEvaluator.forEach((entityPermissionEvaluator, evaluatorEntities) ->
+            permitted.addAll(entityPermissionEvaluator.filterPermitted(user, evaluatorEntities, permission)));
+
+        return entities.stream()
+            .filter(permitted::contains)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Processes the given items of a bulk request in chunks of `shogun.bulk.chunkSize` items, each chunk within a new
+     * transaction. If a chunk fails (e.g. due to a constraint violation), all of its items are reported as failed.
+     *
+     * @param items The items to process.
+     * @param idResolver Resolves the entity ID of an item for the results of failed chunks.
+     * @param chunkProcessor Processes a chunk (given its offset) and returns the results of its items.
+     * @return The results of all items (in the order of the given items).
+     */
+    private <I> List<BulkItemResult> processInChunks(List<I> items, Function<I, Long> idResolver,
+            BiFunction<Integer, List<I>, List<BulkItemResult>> chunkProcessor) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        List<BulkItemResult> results = new ArrayList<>(items.size());
+
+        for (int offset = 0; offset < items.size(); offset += bulkChunkSize) {
+            List<I> chunk = items.subList(offset, Math.min(offset + bulkChunkSize, items.size()));
+            int chunkOffset = offset;
+
+            try {
+                results.addAll(transactionTemplate.execute(status -> chunkProcessor.apply(chunkOffset, chunk)));
+            } catch (Exception e) {
+                log.error("Error while processing the items {} to {} of the bulk request for entities of type {}: " +
+                    "\n {}", offset, offset + chunk.size() - 1, getBaseEntityClass().getSimpleName(), e.getMessage());
+                log.trace("Full stack trace: ", e);
+
+                HttpStatus status;
+                if (e instanceof OptimisticLockingFailureException) {
+                    status = HttpStatus.PRECONDITION_FAILED;
+                } else if (e instanceof DataIntegrityViolationException) {
+                    status = HttpStatus.CONFLICT;
+                } else {
+                    status = HttpStatus.INTERNAL_SERVER_ERROR;
+                }
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(BulkItemResult.failure(offset + i, status, idResolver.apply(chunk.get(i))));
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Loads the entities with the given IDs with a single query and returns the ones the user of the current
+     * session has the given permission for.
+     *
+     * @param ids The IDs of the entities (may contain null values).
+     * @param permission The permission to check.
+     * @return The permitted entities by their ID.
+     */
+    private Map<Long, S> findAllPermitted(List<Long> ids, PermissionType permission) {
+        List<Long> nonNullIds = ids.stream()
+            .filter(Objects::nonNull)
+            .toList();
+
+        if (nonNullIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<S> entities = new ArrayList<>();
+        repository.findAllById(nonNullIds).forEach(entities::add);
+
+        // note: security check is done in permission evaluator
+        return filterPermitted(entities, permission).stream()
+            .collect(Collectors.toMap(BaseEntity::getId, Function.identity()));
+    }
+
+    /**
+     * Checks if the version of the given (patched) entity still matches the version before the patch has been
+     * applied, i.e. if the patch has been created for the current state of the entity. A missing version in the
+     * patch is ignored.
+     *
+     * @param entity The patched entity.
+     * @param version The version of the entity before the patch has been applied.
+     * @throws ObjectOptimisticLockingFailureException If the versions don't match.
+     */
+    private void checkPatchedVersion(S entity, Long version) {
+        if (entity.getVersion() == null) {
+            entity.setVersion(version);
+        } else if (!entity.getVersion().equals(version)) {
+            throw new ObjectOptimisticLockingFailureException(entity.getClass(), entity.getId());
+        }
+    }
+
+    private void checkBulkSize(List<?> items) {
+        if (items.size() > bulkMaxSize) {
+            throw new BulkSizeExceededException(bulkMaxSize);
+        }
+    }
+
+    private static Long getBulkItemId(JsonNode item) {
+        JsonNode id = item == null ? null : item.get("id");
+
+        return id != null && id.canConvertToLong() ? id.asLong() : null;
+    }
+
+    protected BaseEntityPermissionEvaluator getPermissionEvaluatorForClass(String persistentObjectClass) {
+        return permissionEvaluatorsByClassName.getOrDefault(persistentObjectClass, defaultPermissionEvaluator);
     }
 }
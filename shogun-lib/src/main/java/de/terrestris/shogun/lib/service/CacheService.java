@@ -16,15 +16,42 @@
  */
 package de.terrestris.shogun.lib.service;
 
+import de.terrestris.shogun.lib.cache.invalidation.CacheInvalidation;
+import de.terrestris.shogun.lib.cache.invalidation.CacheInvalidationBus;
+import de.terrestris.shogun.lib.cache.invalidation.CacheInvalidationMessage;
+import de.terrestris.shogun.lib.event.CacheInvalidationEvent;
+import de.terrestris.shogun.properties.CacheProperties;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.PersistenceContext;
+import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
-import org.hibernate.Cache;
-import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Evicts the second-level cache on all nodes of the cluster.
+ *
+ * Invalidations requested on this node are applied locally and broadcast to the other nodes via the
+ * {@link CacheInvalidationBus}, invalidations received from other nodes are applied locally only.
+ */
 @Service
 @Log4j2
 public class CacheService {
@@ -32,6 +59,32 @@ public class CacheService {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The ID of this node, used to skip the own messages received via the bus.
+     */
+    @Getter
+    private String nodeId;
+
+    @PostConstruct
+    public void init() {
+        nodeId = cacheProperties.getInvalidation().getNodeId();
+
+        if (StringUtils.isEmpty(nodeId)) {
+            nodeId = UUID.randomUUID().toString();
+        }
+
+        cacheInvalidationBus.subscribe(this::onInvalidationMessage);
+    }
+
     public void evictCache() throws Exception {
 
         if (entityManager == null) {
@@ -40,11 +93,10 @@ public class CacheService {
 
         entityManager.clear();
 
-        EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
-        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
-        Cache cache = sessionFactory.getCache();
+        List<CacheInvalidation> invalidations = List.of(CacheInvalidation.all());
 
-        cache.evictAllRegions();
+        apply(invalidations);
+        publish(invalidations);
     }
 
     public void evictCacheRegions(String... region) throws Exception {
@@ -54,19 +106,120 @@ public class CacheService {
         if (entityManager == null) {
             throw new Exception("Could not get the entity manager.");
         }
-        EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
-        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
-        Cache cache = sessionFactory.getCache();
+        List<CacheInvalidation> invalidations = new ArrayList<>();
         for (String r : region) {
             if (StringUtils.isEmpty(r)) {
                 continue;
             }
-            try {
-                cache.evictRegion(r);
-            } catch (NullPointerException e) {
-                log.error("Could not find cache region {}. Region was not cleared.", r);
-                log.trace("Full stack trace", e);
+            invalidations.add(CacheInvalidation.region(r));
+        }
+
+        apply(invalidations);
+        publish(invalidations);
+    }
+
+    /**
+     * Broadcasts the given invalidations to the other nodes, without applying them locally.
+     *
+     * @param invalidations The invalidations.
+     */
+    public void publish(Collection<CacheInvalidation> invalidations) {
+        if (invalidations == null || invalidations.isEmpty()) {
+            return;
+        }
+
+        log.trace("Publishing {} cache invalidation(s)", invalidations.size());
+
+        cacheInvalidationBus.publish(new CacheInvalidationMessage(nodeId, new ArrayList<>(invalidations)));
+    }
+
+    void onInvalidationMessage(CacheInvalidationMessage message) {
+        if (nodeId.equals(message.getOrigin()) || message.getInvalidations() == null) {
+            return;
+        }
+
+        log.debug("Applying {} cache invalidation(s) of node {}", message.getInvalidations().size(),
+            message.getOrigin());
+
+        apply(message.getInvalidations());
+    }
+
+    private void apply(List<CacheInvalidation> invalidations) {
+        if (invalidations.isEmpty()) {
+            return;
+        }
+
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class);
+        CacheImplementor cache = sessionFactory.getCache();
+        Set<String> querySpaces = new LinkedHashSet<>();
+
+        for (CacheInvalidation invalidation : invalidations) {
+            switch (invalidation.getType()) {
+                case ALL -> cache.evictAllRegions();
+                case REGION -> {
+                    try {
+                        cache.evictRegion(invalidation.getName());
+                    } catch (NullPointerException e) {
+                        log.error("Could not find cache region {}. Region was not cleared.", invalidation.getName());
+                        log.trace("Full stack trace", e);
+                    }
+                }
+                case ENTITY -> {
+                    EntityPersister persister = sessionFactory.getMappingMetamodel()
+                        .findEntityDescriptor(invalidation.getName());
+
+                    if (persister == null) {
+                        log.warn("Could not find entity {}. Entity was not evicted.", invalidation.getName());
+                        continue;
+                    }
+
+                    if (invalidation.getId() != null) {
+                        cache.evictEntityData(invalidation.getName(), toIdentifier(sessionFactory,
+                            persister.getIdentifierType(), invalidation.getId()));
+                    }
+
+                    addQuerySpaces(querySpaces, persister.getPropertySpaces());
+                }
+                case COLLECTION -> {
+                    CollectionPersister persister = sessionFactory.getMappingMetamodel()
+                        .findCollectionDescriptor(invalidation.getName());
+
+                    if (persister == null) {
+                        log.warn("Could not find collection {}. Collection was not evicted.", invalidation.getName());
+                        continue;
+                    }
+
+                    if (invalidation.getId() != null) {
+                        cache.evictCollectionData(invalidation.getName(), toIdentifier(sessionFactory,
+                            persister.getKeyType(), invalidation.getId()));
+                    }
+
+                    addQuerySpaces(querySpaces, persister.getCollectionSpaces());
+                }
+            }
+        }
+
+        // the cached query results over the changed tables are stale as well
+        if (!querySpaces.isEmpty() && sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                cache.getTimestampsCache().invalidate(querySpaces.toArray(String[]::new),
+                    (SharedSessionContractImplementor) session);
             }
         }
+
+        eventPublisher.publishEvent(new CacheInvalidationEvent(this, invalidations));
+    }
+
+    private void addQuerySpaces(Set<String> querySpaces, Serializable[] spaces) {
+        for (Serializable space : spaces) {
+            querySpaces.add(space.toString());
+        }
+    }
+
+    private Object toIdentifier(SessionFactoryImplementor sessionFactory, Type type, String id) {
+        return sessionFactory.getTypeConfiguration().getJavaTypeRegistry()
+            .getDescriptor(type.getReturnedClass())
+            .fromString(id);
     }
 }
@@ -16,6 +16,7 @@
  */
 package de.terrestris.shogun.lib.service;
 
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.Group;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.repository.GroupRepository;
@@ -44,28 +45,22 @@ public class GroupService extends BaseService<GroupRepository, Group> {
     @Autowired
     GroupClassPermissionService groupClassPermissionService;
 
-    @PostFilter("hasRole('ROLE_ADMIN') or hasPermission(filterObject, 'READ')")
     @Transactional(readOnly = true)
     @Override
     public List<Group> findAll() {
-        List<Group> groups = repository.findAll();
+        List<Group> groups = filterPermitted(repository.findAll(), PermissionType.READ);
 
-        for (Group group : groups) {
-            groupProviderService.setTransientRepresentations(group);
-        }
+        groupProviderService.setTransientRepresentations(groups);
 
         return groups;
     }
 
-    @PostFilter("hasRole('ROLE_ADMIN') or hasPermission(filterObject, 'READ')")
     @Transactional(readOnly = true)
     @Override
     public List<Group> findAllBy(Specification specification) {
-        List<Group> groups = (List<Group>) repository.findAll(specification);
+        List<Group> groups = filterPermitted((List<Group>) repository.findAll(specification), PermissionType.READ);
 
-        for (Group group : groups) {
-            groupProviderService.setTransientRepresentations(group);
-        }
+        groupProviderService.setTransientRepresentations(groups);
 
         return groups;
     }
@@ -130,11 +125,21 @@ public class GroupService extends BaseService<GroupRepository, Group> {
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#group, 'DELETE')")
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void delete(Group group) {
         groupClassPermissionService.deleteAllFor(group);
         groupInstancePermissionService.deleteAllFor(group);
 
         repository.delete(group);
     }
+
+    /**
+     * Deletes the given groups one by one to clean up their class and instance permissions (and caches) as well.
+     *
+     * @param groups The groups to delete.
+     */
+    @Override
+    protected void deleteAllPermitted(List<Group> groups) {
+        groups.forEach(this::delete);
+    }
 }
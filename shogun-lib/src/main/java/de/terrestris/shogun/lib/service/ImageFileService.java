@@ -16,6 +16,7 @@
  */
 package de.terrestris.shogun.lib.service;
 
+import de.terrestris.shogun.lib.enumeration.ThumbnailStatus;
 import de.terrestris.shogun.lib.model.ImageFile;
 import de.terrestris.shogun.lib.repository.ImageFileRepository;
 import de.terrestris.shogun.lib.util.FileUtil;
@@ -32,6 +33,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.awt.*;
 import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.List;
@@ -44,6 +46,9 @@ public class ImageFileService extends BaseFileService<ImageFileRepository, Image
     @Autowired
     private UploadProperties uploadProperties;
 
+    @Autowired
+    private ImageFileThumbnailService thumbnailService;
+
     public ImageFile create(MultipartFile uploadFile) throws Exception {
 
         byte[] fileByteArray = FileUtil.fileToByteArray(uploadFile);
@@ -54,18 +59,13 @@ public class ImageFileService extends BaseFileService<ImageFileRepository, Image
         file.setFileName(uploadFile.getOriginalFilename());
         file.setActive(true);
 
-        Dimension imageDimensions = ImageFileUtil.getImageDimensions(uploadFile);
-        if (imageDimensions != null) {
-            int thumbnailSize = uploadProperties.getImage().getThumbnailSize();
-            file.setThumbnail(ImageFileUtil.getScaledImage(uploadFile, imageDimensions, thumbnailSize));
-            file.setWidth(imageDimensions.width);
-            file.setHeight(imageDimensions.height);
-        } else {
-            log.warn("Could not detect the dimensions of the image. Neither width, height " +
-                "nor the thumbnail can be set.");
-        }
+        setImageDimensions(file, fileByteArray);
 
-        return this.create(file);
+        ImageFile savedFile = this.create(file);
+
+        scheduleThumbnailGeneration(savedFile);
+
+        return savedFile;
     }
 
     @Override
@@ -89,16 +89,7 @@ public class ImageFileService extends BaseFileService<ImageFileRepository, Image
         file.setFileName(uploadFile.getOriginalFilename());
         file.setActive(true);
 
-        Dimension imageDimensions = ImageFileUtil.getImageDimensions(uploadFile);
-        if (imageDimensions != null) {
-            int thumbnailSize = uploadProperties.getImage().getThumbnailSize();
-            file.setThumbnail(ImageFileUtil.getScaledImage(uploadFile, imageDimensions, thumbnailSize));
-            file.setWidth(imageDimensions.width);
-            file.setHeight(imageDimensions.height);
-        } else {
-            log.warn("Could not detect the dimensions of the image. Neither width, height " +
-                "nor the thumbnail can be set.");
-        }
+        setImageDimensions(file, fileByteArray);
 
         ImageFile savedFile = this.create(file);
         UUID fileUuid = savedFile.getFileUuid();
@@ -127,7 +118,54 @@ public class ImageFileService extends BaseFileService<ImageFileRepository, Image
 
         // Update entity with saved File
         savedFile.setPath(path);
-        return this.repository.save(savedFile);
+        savedFile = this.repository.save(savedFile);
+
+        // Schedule after the last update to not overwrite the generated thumbnails
+        scheduleThumbnailGeneration(savedFile);
+
+        return savedFile;
+    }
+
+    /**
+     * Returns the thumbnail of the given image file in the given size.
+     *
+     * @param file The image file.
+     * @param size The size of the thumbnail, the default thumbnail will be returned if null.
+     * @return The thumbnail or null if there is no thumbnail (yet) for the given size.
+     */
+    public byte[] getThumbnail(ImageFile file, Integer size) {
+        if (size == null || size.equals(uploadProperties.getImage().getThumbnailSize())) {
+            return file.getThumbnail();
+        }
+
+        return file.getAdditionalThumbnails().get(size);
+    }
+
+    /**
+     * Sets the dimensions of the given image file, read from the header of the image only, and marks the thumbnail
+     * generation as pending. The thumbnails are generated asynchronously by the {@link ImageFileThumbnailService}.
+     *
+     * @param file The image file.
+     * @param fileByteArray The encoded image.
+     * @throws IOException If the image can't be read.
+     */
+    protected void setImageDimensions(ImageFile file, byte[] fileByteArray) throws IOException {
+        Dimension imageDimensions = ImageFileUtil.getImageDimensions(fileByteArray);
+        if (imageDimensions != null) {
+            file.setWidth(imageDimensions.width);
+            file.setHeight(imageDimensions.height);
+            file.setThumbnailStatus(ThumbnailStatus.PENDING);
+        } else {
+            log.warn("Could not detect the dimensions of the image. Neither width, height " +
+                "nor the thumbnail can be set.");
+            file.setThumbnailStatus(ThumbnailStatus.FAILED);
+        }
+    }
+
+    private void scheduleThumbnailGeneration(ImageFile file) {
+        if (file.getThumbnailStatus() == ThumbnailStatus.PENDING) {
+            thumbnailService.generateThumbnails(file);
+        }
     }
 
     public List<String> getSupportedContentTypes() {
@@ -0,0 +1,241 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.service;
+
+import de.terrestris.shogun.lib.dto.WebSocketMessage;
+import de.terrestris.shogun.lib.enumeration.ThumbnailStatus;
+import de.terrestris.shogun.lib.model.ImageFile;
+import de.terrestris.shogun.lib.repository.ImageFileRepository;
+import de.terrestris.shogun.lib.util.ImageFileUtil;
+import de.terrestris.shogun.properties.ImageFileUploadProperties;
+import de.terrestris.shogun.properties.UploadProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the thumbnails of uploaded {@link ImageFile}s in the background.
+ *
+ * The uploads are processed by a bounded pool of `upload.image.thumbnailThreads` threads with a queue of
+ * `upload.image.thumbnailQueueCapacity` uploads. If the queue is full, the thumbnails are generated on the uploading
+ * thread instead. The queue holds the IDs of the uploads only, their content is streamed from the database (or
+ * disk) when they are processed. Every image is decoded once and scaled progressively to the default and all additional thumbnail
+ * sizes. As soon as the thumbnails are stored, the {@link ImageFile#getThumbnailStatus()} is updated and a message
+ * is sent to the WebSocket topic `imagefiles/{fileUuid}`.
+ */
+@Service
+@Log4j2
+public class ImageFileThumbnailService {
+
+    public static final String WEBSOCKET_DESTINATION_PREFIX = "imagefiles/";
+
+    public static final String THUMBNAIL_READY_MESSAGE = "THUMBNAIL_READY";
+
+    public static final String THUMBNAIL_FAILED_MESSAGE = "THUMBNAIL_FAILED";
+
+    @Autowired
+    private UploadProperties uploadProperties;
+
+    @Autowired
+    private ImageFileRepository repository;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Lazy
+    private ImageFileService imageFileService;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        ImageFileUploadProperties imageProperties = getImageProperties();
+
+        int threads = Math.max(1, imageProperties.getThumbnailThreads());
+        int queueCapacity = Math.max(1, imageProperties.getThumbnailQueueCapacity());
+
+        executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("shogun-thumbnail-"),
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Schedules the thumbnail generation for the given image file. If called within a transaction, the generation
+     * starts after the transaction has been committed.
+     *
+     * @param imageFile The (persisted) image file.
+     */
+    public void generateThumbnails(ImageFile imageFile) {
+        Long id = imageFile.getId();
+        UUID fileUuid = imageFile.getFileUuid();
+
+        Runnable task = () -> processThumbnails(id, fileUuid);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(task);
+                }
+            });
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * Returns the number of uploads waiting for their thumbnails to be generated.
+     *
+     * @return The number of queued uploads.
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    protected void processThumbnails(Long id, UUID fileUuid) {
+        Optional<ImageFile> imageFile = repository.findById(id);
+
+        if (imageFile.isEmpty()) {
+            log.debug("Image file with UUID {} has been deleted before its thumbnails were generated", fileUuid);
+            return;
+        }
+
+        processThumbnails(id, fileUuid, () -> imageFileService.getFileResource(imageFile.get()).getInputStream());
+    }
+
+    protected void processThumbnails(Long id, UUID fileUuid, InputStreamSource image) {
+        log.debug("Generating the thumbnails for image file with UUID {}", fileUuid);
+
+        ImageFileUploadProperties imageProperties = getImageProperties();
+        Integer defaultSize = imageProperties.getThumbnailSize();
+
+        Map<Integer, byte[]> thumbnails = new HashMap<>();
+        ThumbnailStatus status;
+
+        try {
+            BufferedImage decodedImage;
+            try (InputStream imageStream = image.getInputStream()) {
+                decodedImage = ImageFileUtil.readImage(imageStream);
+            }
+
+            if (decodedImage == null) {
+                throw new IOException("Unsupported image format");
+            }
+
+            Set<Integer> sizes = new HashSet<>(imageProperties.getAdditionalThumbnailSizes());
+            sizes.add(defaultSize);
+
+            for (Map.Entry<Integer, BufferedImage> entry : ImageFileUtil.getScaledImages(decodedImage, sizes).entrySet()) {
+                thumbnails.put(entry.getKey(), ImageFileUtil.toPng(entry.getValue()));
+            }
+
+            status = ThumbnailStatus.READY;
+        } catch (Exception e) {
+            log.error("Could not generate the thumbnails for image file with UUID {}: {}", fileUuid, e.getMessage());
+            log.trace("Full stack trace: ", e);
+
+            thumbnails.clear();
+            status = ThumbnailStatus.FAILED;
+        }
+
+        try {
+            if (storeThumbnails(id, defaultSize, thumbnails, status)) {
+                notify(fileUuid, status);
+            } else {
+                log.debug("Image file with UUID {} has been deleted before its thumbnails were stored", fileUuid);
+            }
+        } catch (Exception e) {
+            log.error("Could not store the thumbnails for image file with UUID {}: {}", fileUuid, e.getMessage());
+            log.trace("Full stack trace: ", e);
+        }
+    }
+
+    private boolean storeThumbnails(Long id, Integer defaultSize, Map<Integer, byte[]> thumbnails,
+                                    ThumbnailStatus status) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // always use a new transaction as this may be called in the afterCommit phase of the uploading transaction
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        return Boolean.TRUE.equals(transactionTemplate.execute(transactionStatus -> {
+            Optional<ImageFile> imageFile = repository.findById(id);
+
+            if (imageFile.isEmpty()) {
+                return false;
+            }
+
+            ImageFile file = imageFile.get();
+            Map<Integer, byte[]> additionalThumbnails = new HashMap<>(thumbnails);
+
+            file.setThumbnail(additionalThumbnails.remove(defaultSize));
+            file.getAdditionalThumbnails().clear();
+            file.getAdditionalThumbnails().putAll(additionalThumbnails);
+            file.setThumbnailStatus(status);
+
+            return true;
+        }));
+    }
+
+    private void notify(UUID fileUuid, ThumbnailStatus status) {
+        String message = status == ThumbnailStatus.READY ? THUMBNAIL_READY_MESSAGE : THUMBNAIL_FAILED_MESSAGE;
+
+        webSocketService.sendMessage(
+            new WebSocketMessage(message, Map.of("fileUuid", fileUuid, "thumbnailStatus", status)),
+            WEBSOCKET_DESTINATION_PREFIX + fileUuid
+        );
+    }
+
+    private ImageFileUploadProperties getImageProperties() {
+        if (uploadProperties == null || uploadProperties.getImage() == null) {
+            return new ImageFileUploadProperties();
+        }
+        return uploadProperties.getImage();
+    }
+
+}
@@ -16,6 +16,8 @@
  */
 package de.terrestris.shogun.lib.service;
 
+import de.terrestris.shogun.lib.cache.SessionUserCache;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.repository.UserRepository;
 import de.terrestris.shogun.lib.service.security.permission.UserClassPermissionService;
@@ -24,7 +26,6 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PostAuthorize;
-import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -43,28 +44,25 @@ public class UserService extends BaseService<UserRepository, User> {
     @Autowired
     UserClassPermissionService userClassPermissionService;
 
-    @PostFilter("hasRole('ROLE_ADMIN') or hasPermission(filterObject, 'READ')")
+    @Autowired
+    SessionUserCache sessionUserCache;
+
     @Transactional(readOnly = true)
     @Override
     public List<User> findAll() {
-        List<User> users = repository.findAll();
+        List<User> users = filterPermitted(repository.findAll(), PermissionType.READ);
 
-        for (User user : users) {
-            userProviderService.setTransientRepresentations(user);
-        }
+        userProviderService.setTransientRepresentations(users);
 
         return users;
     }
 
-    @PostFilter("hasRole('ROLE_ADMIN') or hasPermission(filterObject, 'READ')")
     @Transactional(readOnly = true)
     @Override
     public List<User> findAllBy(Specification specification) {
-        List<User> users = (List<User>) repository.findAll(specification);
+        List<User> users = filterPermitted((List<User>) repository.findAll(specification), PermissionType.READ);
 
-        for (User user : users) {
-            userProviderService.setTransientRepresentations(user);
-        }
+        userProviderService.setTransientRepresentations(users);
 
         return users;
     }
@@ -115,16 +113,29 @@ public class UserService extends BaseService<UserRepository, User> {
 
         repository.delete(user);
 
+        sessionUserCache.invalidate(keycloakUserId);
+
         log.info("User with keycloak id {} was deleted in Keycloak and was therefore deleted in SHOGun DB, too.", keycloakUserId);
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#user, 'DELETE')")
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void delete(User user) {
         userClassPermissionService.deleteAllFor(user);
         userInstancePermissionService.deleteAllFor(user);
 
         repository.delete(user);
+
+        sessionUserCache.invalidate(user.getAuthProviderId());
     }
 
+    /**
+     * Deletes the given users one by one to clean up their class and instance permissions (and caches) as well.
+     *
+     * @param users The users to delete.
+     */
+    @Override
+    protected void deleteAllPermitted(List<User> users) {
+        users.forEach(this::delete);
+    }
 }
@@ -17,16 +17,72 @@
  */
 package de.terrestris.shogun.lib.service.security.permission;
 
+import de.terrestris.shogun.lib.dto.EntityPermissionTypeDto;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.security.permission.BasePermission;
 import de.terrestris.shogun.lib.repository.security.permission.BasePermissionRepository;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
 @Log4j2
 public abstract class BasePermissionService<T extends BasePermissionRepository<S, Long> & JpaSpecificationExecutor<S>, S extends BasePermission> {
 
+    /**
+     * The maximum number of entity IDs passed to a single permission query. Larger ID lists are split, as they
+     * would exceed the bind parameter limit of the database (and degrade the query plan long before).
+     */
+    static final int ENTITY_ID_CHUNK_SIZE = 1000;
+
     @Autowired
     protected T repository;
 
+    /**
+     * Queries the permission types of the given entities in chunks of {@link #ENTITY_ID_CHUNK_SIZE} IDs and groups
+     * them by the ID of the entity they are granted on.
+     *
+     * @param entityIds The IDs of the entities.
+     * @param query     The query returning the permission types of a chunk of entity IDs.
+     * @return The permission types per entity ID.
+     */
+    protected Map<Long, Set<PermissionType>> findPermissionTypesInChunks(Collection<Long> entityIds,
+            Function<List<Long>, List<EntityPermissionTypeDto>> query) {
+        List<Long> ids = new ArrayList<>(entityIds);
+        List<EntityPermissionTypeDto> permissionTypes = new ArrayList<>();
+
+        for (int offset = 0; offset < ids.size(); offset += ENTITY_ID_CHUNK_SIZE) {
+            permissionTypes.addAll(query.apply(ids.subList(offset, Math.min(offset + ENTITY_ID_CHUNK_SIZE,
+                ids.size()))));
+        }
+
+        return groupByEntityId(permissionTypes);
+    }
+
+    /**
+     * Groups the given permission types by the ID of the entity they are granted on.
+     *
+     * @param permissionTypes The permission types to group.
+     * @return The permission types per entity ID.
+     */
+    protected Map<Long, Set<PermissionType>> groupByEntityId(List<EntityPermissionTypeDto> permissionTypes) {
+        Map<Long, Set<PermissionType>> permissionsByEntityId = new HashMap<>();
+
+        for (EntityPermissionTypeDto permissionType : permissionTypes) {
+            permissionsByEntityId
+                .computeIfAbsent(permissionType.getEntityId(), entityId -> EnumSet.noneOf(PermissionType.class))
+                .add(permissionType.getPermission());
+        }
+
+        return permissionsByEntityId;
+    }
+
 }
@@ -18,7 +18,9 @@
 
 package de.terrestris.shogun.lib.service.security.permission;
 
+import de.terrestris.shogun.lib.cache.PermissionCache;
 import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.BaseEntity;
 import de.terrestris.shogun.lib.model.Group;
 import de.terrestris.shogun.lib.model.User;
@@ -31,8 +33,11 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Log4j2
 @Service
@@ -41,6 +46,9 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
     @Autowired
     protected PermissionCollectionRepository permissionCollectionRepository;
 
+    @Autowired
+    protected PermissionCache permissionCache;
+
     @Autowired
     private GroupProviderService groupProviderService;
 
@@ -55,8 +63,6 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
 
         List<GroupClassPermission> permissions = repository.findByClassName(entity.getClass().getCanonicalName());
 
-        setAuthProviderRepresentation(permissions);
-
         return permissions;
     }
 
@@ -72,8 +78,6 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
 
         List<GroupClassPermission> permissions = repository.findAllByGroup(group);
 
-        setAuthProviderRepresentation(permissions);
-
         return permissions;
     }
 
@@ -92,10 +96,6 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
 
         Optional<GroupClassPermission> permission = repository.findByGroupIdAndClassName(group.getId(), className);
 
-        if (permission.isPresent()) {
-            setAuthProviderRepresentation(permission.get());
-        }
-
         return permission;
     }
 
@@ -114,10 +114,6 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
 
         Optional<GroupClassPermission> permission = repository.findByGroupIdAndClassName(group.getId(), className);
 
-        if (permission.isPresent()) {
-            setAuthProviderRepresentation(permission.get());
-        }
-
         return permission;
     }
 
@@ -135,20 +131,19 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
         log.trace("Getting all group class permissions for user with Keycloak ID {} and " +
             "entity class {}", user.getAuthProviderId(), className);
 
-        // Get all groups of the user from Keycloak
-        List<Group> groups = groupProviderService.findByUser(user);
+        // Get the IDs of all groups of the user (as assigned in Keycloak)
+        List<Long> groupIds = groupProviderService.findGroupIdsByUser(user);
         Optional<GroupClassPermission> gcp = Optional.empty();
-        if (groups == null) {
+        if (groupIds == null) {
             return gcp;
         }
 
-        for (Group g : groups) {
+        for (Long groupId : groupIds) {
             Optional<GroupClassPermission> permissionsForGroup = repository
-                .findByGroupIdAndClassName(g.getId(), className);
+                .findByGroupIdAndClassName(groupId, className);
 
             if (permissionsForGroup.isPresent()) {
                 gcp = permissionsForGroup;
-                setAuthProviderRepresentation(gcp.get());
                 break;
             }
         }
@@ -156,6 +151,26 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
         return gcp;
     }
 
+    /**
+     * Returns the merged permission types the given groups have on the given class. The
+     * permissions are resolved with a single query, regardless of the number of groups.
+     *
+     * @param clazz    The class to find the permissions for.
+     * @param groupIds The IDs of the groups to find the permissions for.
+     * @return The permission types (may be empty).
+     */
+    public Set<PermissionType> findPermissionsForGroups(Class<? extends BaseEntity> clazz, Collection<Long> groupIds) {
+        Set<PermissionType> permissions = EnumSet.noneOf(PermissionType.class);
+
+        if (groupIds == null || groupIds.isEmpty()) {
+            return permissions;
+        }
+
+        permissions.addAll(repository.findPermissionTypesByGroupIdInAndClassName(groupIds, clazz.getCanonicalName()));
+
+        return permissions;
+    }
+
     /**
      * Returns the {@link GroupClassPermission} for the given query arguments. Hereby
      * it will be considered if the user is currently a member of the given group.
@@ -170,8 +185,8 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
                 "entity with ID {} in the context of group with Keycloak ID {}", user.getAuthProviderId(),
             entity.getId(), group.getAuthProviderId());
 
-        List<Group> userGroups = groupProviderService.findByUser(user);
-        boolean isUserMemberInGroup = userGroups.contains(group);
+        List<Long> userGroupIds = groupProviderService.findGroupIdsByUser(user);
+        boolean isUserMemberInGroup = userGroupIds.contains(group.getId());
 
         if (!isUserMemberInGroup) {
             log.trace("The user is not a member of the given group, no permissions available.");
@@ -181,10 +196,6 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
 
         Optional<GroupClassPermission> permission = repository.findByGroupIdAndClassName(group.getId(), entity.getClass().getCanonicalName());
 
-        if (permission.isPresent()) {
-            setAuthProviderRepresentation(permission.get());
-        }
-
         return permission;
     }
 
@@ -254,6 +265,9 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
         groupClassPermission.setPermission(permissionCollection.get());
 
         repository.save(groupClassPermission);
+
+        // The members of the group are not known here, so the permissions of all users are invalidated.
+        permissionCache.invalidateClass(null, clazz.getCanonicalName());
     }
 
     /**
@@ -304,6 +318,8 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
 
         repository.deleteAll(groupClassPermissions);
 
+        permissionCache.invalidateClass(null, persistedEntity.getClass().getCanonicalName());
+
         log.info("Successfully deleted all group class permissions for entity with ID {}",
             persistedEntity.getId());
     }
@@ -318,6 +334,11 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
 
         repository.deleteAll(groupClassPermissions);
 
+        groupClassPermissions.stream()
+            .map(GroupClassPermission::getClassName)
+            .distinct()
+            .forEach(className -> permissionCache.invalidateClass(null, className));
+
         log.info("Successfully deleted all group class permissions for group with ID {}",
             group.getId());
     }
@@ -328,18 +349,12 @@ public class GroupClassPermissionService extends BasePermissionService<GroupClas
         if (groupClassPermission.isPresent()) {
             repository.delete(groupClassPermission.get());
 
+            permissionCache.invalidateClass(null, persistedEntity.getClass().getCanonicalName());
+
             log.info("Successfully deleted the group class permission for entity with ID {} and group {}.",
                 persistedEntity.getId(), group.getId());
         } else {
             log.warn("Could not delete the group class permission. The requested permission does not exist.");
         }
     }
-
-    private void setAuthProviderRepresentation(GroupClassPermission permission) {
-        groupProviderService.setTransientRepresentations(permission.getGroup());
-    }
-
-    private void setAuthProviderRepresentation(List<GroupClassPermission> permissions) {
-        permissions.forEach((groupClassPermission -> setAuthProviderRepresentation(groupClassPermission)));
-    }
 }
@@ -18,7 +18,9 @@
 
 package de.terrestris.shogun.lib.service.security.permission;
 
+import de.terrestris.shogun.lib.cache.PermissionCache;
 import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.BaseEntity;
 import de.terrestris.shogun.lib.model.Group;
 import de.terrestris.shogun.lib.model.User;
@@ -32,16 +34,34 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Log4j2
 @Service
 public class GroupInstancePermissionService extends BasePermissionService<GroupInstancePermissionRepository, GroupInstancePermission> {
 
+    /**
+     * Orders the permissions by the number of granted permission types, the mask and (descending) by ID, i.e. the
+     * maximum is the most permissive one (or the oldest of equal ones).
+     */
+    private static final Comparator<GroupInstancePermission> BY_GRANTED_PERMISSIONS = Comparator
+        .comparingLong((GroupInstancePermission gip) -> countGrantedPermissions(gip.getPermission()))
+        .thenComparingInt(gip -> gip.getPermission().getPermissionMask())
+        .thenComparing(GroupInstancePermission::getId, Comparator.nullsFirst(Comparator.reverseOrder()));
+
     @Autowired
     protected PermissionCollectionRepository permissionCollectionRepository;
 
+    @Autowired
+    protected PermissionCache permissionCache;
+
     @Autowired
     private GroupProviderService groupProviderService;
 
@@ -57,8 +77,6 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
 
         List<GroupInstancePermission> permissions = repository.findAllByGroup(group);
 
-        setAuthProviderRepresentation(permissions);
-
         return permissions;
     }
 
@@ -85,10 +103,6 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
 
         Optional<GroupInstancePermission> permission = repository.findByGroupIdAndEntityId(group.getId(), entity.getId());
 
-        if (permission.isPresent()) {
-            setAuthProviderRepresentation(permission.get());
-        }
-
         return permission;
     }
 
@@ -103,14 +117,13 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
 
         List<GroupInstancePermission> permissions = repository.findByEntityId(entity.getId());
 
-        setAuthProviderRepresentation(permissions);
-
         return permissions;
     }
 
     /**
      * Returns the {@link GroupInstancePermission} for the given query arguments. Hereby
-     * all groups of the given user will be considered.
+     * all groups of the given user will be considered. If the groups of the user have
+     * different permissions on the entity, the most permissive one will be returned.
      *
      * @param entity The entity to find the permission for.
      * @param user   The user to find the permission for.
@@ -120,23 +133,16 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
         log.trace("Getting all group permissions for user with Keycloak ID {} and " +
             "entity with ID {}", user.getAuthProviderId(), entity.getId());
 
-        // Get all groups of the user from Keycloak
-        List<Group> groups = groupProviderService.findByUser(user);
-        Optional<GroupInstancePermission> gip = Optional.empty();
+        List<Long> groupIds = getGroupIds(user);
 
-        if (groups == null) {
-            return gip;
+        if (groupIds.isEmpty()) {
+            return Optional.empty();
         }
 
-        for (Group g : groups) {
-            Optional<GroupInstancePermission> permissionsForGroup = repository
-                .findByGroupIdAndEntityId(g.getId(), entity.getId());
-            if (permissionsForGroup.isPresent()) {
-                gip = permissionsForGroup;
-                setAuthProviderRepresentation(gip.get());
-                break;
-            }
-        }
+        Optional<GroupInstancePermission> gip = repository
+            .findAllByGroupIdInAndEntityId(groupIds, entity.getId())
+            .stream()
+            .max(BY_GRANTED_PERMISSIONS);
 
         return gip;
     }
@@ -155,8 +161,8 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
                 "and entity with ID {} in the context of group with Keycloak ID {}",
             user.getAuthProviderId(), entity.getId(), group.getAuthProviderId());
 
-        List<Group> userGroups = groupProviderService.findByUser(user);
-        boolean isUserMemberInGroup = userGroups.contains(group);
+        List<Long> userGroupIds = groupProviderService.findGroupIdsByUser(user);
+        boolean isUserMemberInGroup = userGroupIds.contains(group.getId());
 
         if (!isUserMemberInGroup) {
             log.trace("The user is not a member of the given group, no permissions available.");
@@ -166,10 +172,6 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
 
         Optional<GroupInstancePermission> permission = repository.findByGroupIdAndEntityId(group.getId(), entity.getId());
 
-        if (permission.isPresent()) {
-            setAuthProviderRepresentation(permission.get());
-        }
-
         return permission;
     }
 
@@ -188,16 +190,63 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
 
     /**
      * Returns the {@link PermissionCollection} for the given query arguments. Hereby
-     * all groups of the given user will be considered.
+     * all groups of the given user will be considered and the permissions of all
+     * matching groups will be merged.
      *
      * @param entity The entity to find the collection for.
      * @param user   The user to find the collection for.
      * @return The collection (may be empty).
      */
     public PermissionCollection findPermissionCollectionFor(BaseEntity entity, User user) {
-        Optional<GroupInstancePermission> groupInstancePermission = this.findFor(entity, user);
+        log.trace("Getting the merged group permissions for user with Keycloak ID {} and " +
+            "entity with ID {}", user.getAuthProviderId(), entity.getId());
 
-        return getPermissionCollection(groupInstancePermission);
+        return findPermissionCollectionForGroups(entity, getGroupIds(user));
+    }
+
+    /**
+     * Returns the merged {@link PermissionCollection} of all given groups for the given
+     * entity. The permissions are resolved with a single query, regardless of the number
+     * of groups.
+     *
+     * @param entity   The entity to find the collection for.
+     * @param groupIds The IDs of the groups to find the collection for.
+     * @return The collection (may be empty).
+     */
+    public PermissionCollection findPermissionCollectionForGroups(BaseEntity entity, Collection<Long> groupIds) {
+        PermissionCollection permissionCollection = new PermissionCollection();
+
+        if (entity == null || entity.getId() == null || groupIds == null || groupIds.isEmpty()) {
+            log.trace("Either entity is not persisted yet or no groups are given.");
+            return permissionCollection;
+        }
+
+        List<PermissionType> permissions = repository.findPermissionTypesByGroupIdInAndEntityId(groupIds, entity.getId());
+
+        permissionCollection.setPermissions(new HashSet<>(permissions));
+
+        return permissionCollection;
+    }
+
+    /**
+     * Returns the merged permission types the given groups have on each of the given
+     * entities. The permissions are resolved with a single query per chunk of
+     * {@link #ENTITY_ID_CHUNK_SIZE} entities, regardless of the number of groups.
+     *
+     * @param entityIds The IDs of the entities to find the permissions for.
+     * @param groupIds  The IDs of the groups to find the permissions for.
+     * @return The permission types per entity ID (entities without any permission are missing).
+     */
+    public Map<Long, Set<PermissionType>> findPermissionsForGroups(Collection<Long> entityIds, Collection<Long> groupIds) {
+        if (entityIds == null || entityIds.isEmpty() || groupIds == null || groupIds.isEmpty()) {
+            return Map.of();
+        }
+
+        log.trace("Getting the group instance permissions for {} groups and {} entities",
+            groupIds.size(), entityIds.size());
+
+        return findPermissionTypesInChunks(entityIds, chunk ->
+            repository.findPermissionTypesByGroupIdInAndEntityIdIn(groupIds, chunk));
     }
 
     /**
@@ -229,14 +278,13 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
             throw new RuntimeException("Could not find requested permission collection");
         }
 
-        clearExistingPermission(group, permissionCollection.get(), persistedEntity);
-
-        GroupInstancePermission groupInstancePermission = new GroupInstancePermission();
-        groupInstancePermission.setGroup(group);
-        groupInstancePermission.setEntityId(persistedEntity.getId());
+        GroupInstancePermission groupInstancePermission = getOrCreatePermission(group, persistedEntity);
         groupInstancePermission.setPermission(permissionCollection.get());
 
         repository.save(groupInstancePermission);
+
+        // The members of the group are not known here, so the permissions of all users are invalidated.
+        permissionCache.invalidateEntity(persistedEntity.getId());
     }
 
     /**
@@ -260,37 +308,63 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
         List<GroupInstancePermission> groupInstancePermissionsToSave = new ArrayList<>();
 
         persistedEntityList.forEach(e -> {
-            clearExistingPermission(group, permissionCollection.get(), e);
-            GroupInstancePermission groupInstancePermission = new GroupInstancePermission();
-            groupInstancePermission.setGroup(group);
-            groupInstancePermission.setEntityId(e.getId());
+            GroupInstancePermission groupInstancePermission = getOrCreatePermission(group, e);
             groupInstancePermission.setPermission(permissionCollection.get());
             groupInstancePermissionsToSave.add(groupInstancePermission);
         });
 
         repository.saveAll(groupInstancePermissionsToSave);
+
+        permissionCache.invalidateEntities(null, groupInstancePermissionsToSave.stream()
+            .map(GroupInstancePermission::getEntityId)
+            .toList());
     }
 
     /**
-     * Clears the given {@link PermissionCollection} for the given target combination.
+     * Returns the existing {@link GroupInstancePermission} for the given target combination or a new one if there
+     * is none yet. The existing permission is updated in place instead of being deleted, as Hibernate flushes
+     * inserts before deletes and a new permission would violate the unique key on group and entity.
      *
-     * @param group                The group to clear the permission for.
-     * @param permissionCollection The permission collection to clear.
-     * @param entity               The entity to clear the permission for.
+     * @param group  The group to get the permission for.
+     * @param entity The entity to get the permission for.
+     * @return The (possibly new) permission.
      */
-    private void clearExistingPermission(Group group, PermissionCollection permissionCollection, BaseEntity entity) {
+    private GroupInstancePermission getOrCreatePermission(Group group, BaseEntity entity) {
         Optional<GroupInstancePermission> existingPermission = findFor(entity, group);
 
         // Check if there is already an existing permission set on the entity
         if (existingPermission.isPresent()) {
             log.debug("Permission is already set for entity with ID {} and group with " +
-                "Keycloak ID {}: {}", entity.getId(), group.getAuthProviderId(), permissionCollection);
+                "Keycloak ID {}, replacing it", entity.getId(), group.getAuthProviderId());
 
-            // Remove the existing one
-            repository.delete(existingPermission.get());
+            return existingPermission.get();
+        }
+
+        GroupInstancePermission groupInstancePermission = new GroupInstancePermission();
+        groupInstancePermission.setGroup(group);
+        groupInstancePermission.setEntityId(entity.getId());
 
-            log.debug("Removed the permission");
+        return groupInstancePermission;
+    }
+
+    /**
+     * Deletes all {@link GroupInstancePermission} for the given entities. The permissions are fetched with a single
+     * query.
+     *
+     * @param entityIds The IDs of the entities to clear the permissions for.
+     */
+    public void deleteAllForEntities(Collection<Long> entityIds) {
+        if (entityIds == null || entityIds.isEmpty()) {
+            return;
         }
+
+        List<GroupInstancePermission> groupInstancePermissions = repository.findByEntityIdIn(entityIds);
+
+        repository.deleteAll(groupInstancePermissions);
+
+        permissionCache.invalidateEntities(null, entityIds);
+
+        log.info("Successfully deleted all group instance permissions for {} entities", entityIds.size());
     }
 
     /**
@@ -303,6 +377,8 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
 
         repository.deleteAll(groupInstancePermissions);
 
+        permissionCache.invalidateEntity(persistedEntity.getId());
+
         log.info("Successfully deleted all group instance permissions for entity with ID {}",
             persistedEntity.getId());
     }
@@ -317,6 +393,10 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
 
         repository.deleteAll(groupInstancePermissions);
 
+        permissionCache.invalidateEntities(null, groupInstancePermissions.stream()
+            .map(GroupInstancePermission::getEntityId)
+            .toList());
+
         log.info("Successfully deleted all group instance permissions for group with ID {}",
             group.getId());
     }
@@ -327,6 +407,8 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
         if (groupInstancePermission.isPresent()) {
             repository.delete(groupInstancePermission.get());
 
+            permissionCache.invalidateEntity(persistedEntity.getId());
+
             log.info("Successfully deleted the group instance permission for entity with ID {} and group {}.",
                 persistedEntity.getId(), group.getId());
         } else {
@@ -350,11 +432,22 @@ public class GroupInstancePermissionService extends BasePermissionService<GroupI
         return new PermissionCollection();
     }
 
-    private void setAuthProviderRepresentation(GroupInstancePermission permission) {
-        groupProviderService.setTransientRepresentations(permission.getGroup());
+    /**
+     * Returns the IDs of all (persisted) groups the given user is a member of.
+     *
+     * @param user The user to get the group IDs for.
+     * @return The group IDs (may be empty).
+     */
+    private List<Long> getGroupIds(User user) {
+        List<Long> groupIds = groupProviderService.findGroupIdsByUser(user);
+
+        return groupIds == null ? List.of() : groupIds;
     }
 
-    private void setAuthProviderRepresentation(List<GroupInstancePermission> permissions) {
-        permissions.forEach((groupInstancePermission -> setAuthProviderRepresentation(groupInstancePermission)));
+    private static long countGrantedPermissions(PermissionCollection permissionCollection) {
+        return Arrays.stream(PermissionType.values())
+            .filter(permissionCollection::grants)
+            .count();
     }
+
 }
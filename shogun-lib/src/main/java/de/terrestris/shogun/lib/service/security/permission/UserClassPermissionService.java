@@ -18,7 +18,9 @@
 
 package de.terrestris.shogun.lib.service.security.permission;
 
+import de.terrestris.shogun.lib.cache.PermissionCache;
 import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.BaseEntity;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.model.security.permission.PermissionCollection;
@@ -30,8 +32,10 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Log4j2
 @Service
@@ -40,6 +44,9 @@ public class UserClassPermissionService extends BasePermissionService<UserClassP
     @Autowired
     protected PermissionCollectionRepository permissionCollectionRepository;
 
+    @Autowired
+    protected PermissionCache permissionCache;
+
     @Autowired
     private UserProviderService userProviderService;
 
@@ -55,8 +62,6 @@ public class UserClassPermissionService extends BasePermissionService<UserClassP
 
         List<UserClassPermission> permissions = repository.findAllByUser(user);
 
-        setAuthProviderRepresentation(permissions);
-
         return permissions;
     }
 
@@ -73,8 +78,6 @@ public class UserClassPermissionService extends BasePermissionService<UserClassP
 
         List<UserClassPermission> permissions = repository.findByClassName(className);
 
-        setAuthProviderRepresentation(permissions);
-
         return permissions;
     }
 
@@ -93,10 +96,6 @@ public class UserClassPermissionService extends BasePermissionService<UserClassP
 
         Optional<UserClassPermission> permission = repository.findByUserIdAndClassName(user.getId(), className);
 
-        if (permission.isPresent()) {
-            setAuthProviderRepresentation(permission.get());
-        }
-
         return permission;
     }
 
@@ -114,10 +113,6 @@ public class UserClassPermissionService extends BasePermissionService<UserClassP
 
         Optional<UserClassPermission> permission = repository.findByUserIdAndClassName(user.getId(), entity.getClass().getCanonicalName());
 
-        if (permission.isPresent()) {
-            setAuthProviderRepresentation(permission.get());
-        }
-
         return permission;
     }
 
@@ -136,6 +131,26 @@ public class UserClassPermissionService extends BasePermissionService<UserClassP
         return getPermissionCollection(userClassPermission);
     }
 
+    /**
+     * Returns the permission types the given user has on the given class. In contrast to
+     * {@link #findFor(Class, User)} only the permission types will be loaded.
+     *
+     * @param clazz The class to find the permissions for.
+     * @param user  The user to find the permissions for.
+     * @return The permission types (may be empty).
+     */
+    public Set<PermissionType> findPermissionsFor(Class<? extends BaseEntity> clazz, User user) {
+        Set<PermissionType> permissions = EnumSet.noneOf(PermissionType.class);
+
+        if (user == null || user.getId() == null) {
+            return permissions;
+        }
+
+        permissions.addAll(repository.findPermissionTypesByUserIdAndClassName(user.getId(), clazz.getCanonicalName()));
+
+        return permissions;
+    }
+
     /**
      * Sets the given {@link PermissionCollectionType} for the given class and the currently
      * logged in user.
@@ -176,6 +191,8 @@ public class UserClassPermissionService extends BasePermissionService<UserClassP
         userClassPermission.setPermission(permissionCollection.get());
 
         repository.save(userClassPermission);
+
+        permissionCache.invalidateClass(user.getId(), clazz.getCanonicalName());
     }
 
     /**
@@ -226,6 +243,8 @@ public class UserClassPermissionService extends BasePermissionService<UserClassP
 
         repository.deleteAll(userClassPermissions);
 
+        permissionCache.invalidateClass(null, persistedEntity.getClass().getCanonicalName());
+
         log.info("Successfully deleted all user class permissions for entity with ID {}",
             persistedEntity.getId());
     }
@@ -240,6 +259,8 @@ public class UserClassPermissionService extends BasePermissionService<UserClassP
 
         repository.deleteAll(userClassPermissions);
 
+        permissionCache.invalidateUser(user.getId());
+
         log.info("Successfully deleted all user class permissions for user with ID {}",
             user.getId());
     }
@@ -250,18 +271,12 @@ public class UserClassPermissionService extends BasePermissionService<UserClassP
         if (userClassPermission.isPresent()) {
             repository.delete(userClassPermission.get());
 
+            permissionCache.invalidateClass(user.getId(), persistedEntity.getClass().getCanonicalName());
+
             log.info("Successfully deleted the user class permission for entity with ID {} and user {}.",
                 persistedEntity.getId(), user.getId());
         } else {
             log.warn("Could not delete the user class permission. The requested permission does not exist.");
         }
     }
-
-    private void setAuthProviderRepresentation(UserClassPermission permission) {
-        userProviderService.setTransientRepresentations(permission.getUser());
-    }
-
-    private void setAuthProviderRepresentation(List<UserClassPermission> permissions) {
-        permissions.forEach((userClassPermission -> setAuthProviderRepresentation(userClassPermission)));
-    }
 }
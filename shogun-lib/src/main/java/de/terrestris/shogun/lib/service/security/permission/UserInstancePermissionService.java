@@ -18,7 +18,9 @@
 
 package de.terrestris.shogun.lib.service.security.permission;
 
+import de.terrestris.shogun.lib.cache.PermissionCache;
 import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.BaseEntity;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.model.security.permission.PermissionCollection;
@@ -28,23 +30,43 @@ import de.terrestris.shogun.lib.repository.security.permission.UserInstancePermi
 import de.terrestris.shogun.lib.service.security.provider.UserProviderService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Log4j2
 @Service
 public class UserInstancePermissionService extends BasePermissionService<UserInstancePermissionRepository, UserInstancePermission> {
 
+    /**
+     * The maximum number of attempts to write a permission in case of concurrent modifications.
+     */
+    static final int MAX_WRITE_ATTEMPTS = 3;
+
     @Autowired
     protected PermissionCollectionRepository permissionCollectionRepository;
 
+    @Autowired
+    protected PermissionCache permissionCache;
+
     @Autowired
     private UserProviderService userProviderService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     /**
      * Returns all {@link UserInstancePermission} for the given query arguments.
      *
@@ -56,8 +78,6 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
 
         List<UserInstancePermission> permissions = repository.findAllByUser(user);
 
-        setAuthProviderRepresentation(permissions);
-
         return permissions;
     }
 
@@ -75,10 +95,6 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
         Optional<UserInstancePermission> permission = repository.findByUserIdAndEntityId(
             user.getId(), entity.getId());
 
-        if (permission.isPresent()) {
-            setAuthProviderRepresentation(permission.get());
-        }
-
         return permission;
     }
 
@@ -93,8 +109,6 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
 
         List<UserInstancePermission> permissions = repository.findByEntityId(entity.getId());
 
-        setAuthProviderRepresentation(permissions);
-
         return permissions;
     }
 
@@ -113,13 +127,12 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
         List<UserInstancePermission> permissions = repository
             .findByEntityAndPermissionCollectionType(entity.getId(), permissionCollectionType);
 
-        setAuthProviderRepresentation(permissions);
-
         return permissions;
     }
 
     /**
-     * Returns the {@link User} that has the ADMIN permission on the given entity.
+     * Returns the {@link User} that has the ADMIN permission on the given entity. The
+     * transient representations of the owners will be set (in bulk).
      *
      * @param entity The entity to find the owner for.
      * @return The (optional) user.
@@ -141,6 +154,8 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
             .map(UserInstancePermission::getUser)
             .collect(Collectors.toList());
 
+        userProviderService.setTransientRepresentations(owners);
+
         return owners;
     }
 
@@ -157,6 +172,27 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
         return getPermissionCollection(userInstancePermission);
     }
 
+    /**
+     * Returns the permission types the given user has on each of the given entities. The
+     * permissions are resolved with a single query per chunk of {@link #ENTITY_ID_CHUNK_SIZE}
+     * entities.
+     *
+     * @param entityIds The IDs of the entities to find the permissions for.
+     * @param user      The user to find the permissions for.
+     * @return The permission types per entity ID (entities without any permission are missing).
+     */
+    public Map<Long, Set<PermissionType>> findPermissionsFor(Collection<Long> entityIds, User user) {
+        if (entityIds == null || entityIds.isEmpty() || user == null || user.getId() == null) {
+            return Map.of();
+        }
+
+        log.trace("Getting the user instance permissions for user with Keycloak ID {} and " +
+            "{} entities", user.getAuthProviderId(), entityIds.size());
+
+        return findPermissionTypesInChunks(entityIds, chunk ->
+            repository.findPermissionTypesByUserIdAndEntityIdIn(user.getId(), chunk));
+    }
+
     /**
      * Sets the given {@link PermissionCollectionType} for the given entity and user.
      *
@@ -165,6 +201,10 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
      * @param permissionCollectionType The permission to set.
      */
     public void setPermission(BaseEntity persistedEntity, User user, PermissionCollectionType permissionCollectionType) {
+        retryOnConcurrencyFailure(() -> writePermission(persistedEntity, user, permissionCollectionType));
+    }
+
+    private void writePermission(BaseEntity persistedEntity, User user, PermissionCollectionType permissionCollectionType) {
         Optional<PermissionCollection> permissionCollection = permissionCollectionRepository
             .findByName(permissionCollectionType);
 
@@ -172,14 +212,12 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
             throw new RuntimeException("Could not find requested permission collection");
         }
 
-        clearExistingPermission(user, permissionCollection.get(), persistedEntity);
-
-        UserInstancePermission userInstancePermission = new UserInstancePermission();
-        userInstancePermission.setUser(user);
-        userInstancePermission.setEntityId(persistedEntity.getId());
+        UserInstancePermission userInstancePermission = getOrCreatePermission(user, persistedEntity);
         userInstancePermission.setPermission(permissionCollection.get());
 
         repository.save(userInstancePermission);
+
+        permissionCache.invalidateEntities(user.getId(), List.of(persistedEntity.getId()));
     }
 
     /**
@@ -193,6 +231,14 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
         List<? extends BaseEntity> persistedEntityList,
         User user,
         PermissionCollectionType permissionCollectionType
+    ) {
+        retryOnConcurrencyFailure(() -> writePermissions(persistedEntityList, user, permissionCollectionType));
+    }
+
+    private void writePermissions(
+        List<? extends BaseEntity> persistedEntityList,
+        User user,
+        PermissionCollectionType permissionCollectionType
     ) {
         Optional<PermissionCollection> permissionCollection = permissionCollectionRepository
             .findByName(permissionCollectionType);
@@ -204,37 +250,134 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
         List<UserInstancePermission> userInstancePermissionsToSave = new ArrayList<>();
 
         persistedEntityList.forEach(e -> {
-            clearExistingPermission(user, permissionCollection.get(), e);
-            UserInstancePermission userInstancePermission = new UserInstancePermission();
-            userInstancePermission.setUser(user);
-            userInstancePermission.setEntityId(e.getId());
+            UserInstancePermission userInstancePermission = getOrCreatePermission(user, e);
             userInstancePermission.setPermission(permissionCollection.get());
             userInstancePermissionsToSave.add(userInstancePermission);
         });
 
         repository.saveAll(userInstancePermissionsToSave);
+
+        permissionCache.invalidateEntities(user.getId(), userInstancePermissionsToSave.stream()
+            .map(UserInstancePermission::getEntityId)
+            .toList());
+    }
+
+    /**
+     * Runs the given (idempotent) permission write within a new transaction and retries it up to
+     * {@link #MAX_WRITE_ATTEMPTS} times if it fails due to a concurrent write of the same permission, e.g. a
+     * duplicate insert or an optimistic locking failure. If the caller already runs a transaction, the write joins
+     * it and isn't retried, as the failure marks the whole transaction as rollback-only.
+     *
+     * @param write The permission write.
+     */
+    private void retryOnConcurrencyFailure(Runnable write) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            write.run();
+            return;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write.run());
+                return;
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+
+                log.debug("Writing the user instance permission failed due to a concurrent modification " +
+                    "(attempt {} of {}), retrying: {}", attempt, MAX_WRITE_ATTEMPTS, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sets the given {@link PermissionCollectionType} for the given, newly created entities and user. Other than
+     * {@link #setPermission(List, User, PermissionCollectionType)} this doesn't look up existing permissions (as
+     * there can't be any), so all permissions are written with a single (batched) insert.
+     *
+     * @param createdEntityList        The newly created entities to set the permission for.
+     * @param user                     The user to set the permission for.
+     * @param permissionCollectionType The permission collection type (e.g. ADMIN) to set.
+     */
+    public void setPermissionForCreated(
+        List<? extends BaseEntity> createdEntityList,
+        User user,
+        PermissionCollectionType permissionCollectionType
+    ) {
+        if (createdEntityList.isEmpty()) {
+            return;
+        }
+
+        PermissionCollection permissionCollection = permissionCollectionRepository
+            .findByName(permissionCollectionType)
+            .orElseThrow(() -> new RuntimeException("Could not find requested permission collection"));
+
+        List<UserInstancePermission> userInstancePermissionsToSave = createdEntityList.stream()
+            .map(entity -> {
+                UserInstancePermission userInstancePermission = new UserInstancePermission();
+                userInstancePermission.setUser(user);
+                userInstancePermission.setEntityId(entity.getId());
+                userInstancePermission.setPermission(permissionCollection);
+                return userInstancePermission;
+            })
+            .toList();
+
+        repository.saveAll(userInstancePermissionsToSave);
+
+        permissionCache.invalidateEntities(user.getId(), userInstancePermissionsToSave.stream()
+            .map(UserInstancePermission::getEntityId)
+            .toList());
     }
 
     /**
-     * Clears the given {@link PermissionCollection} for the given target combination.
+     * Returns the existing {@link UserInstancePermission} for the given target combination or a new one if there
+     * is none yet. The existing permission is updated in place instead of being deleted, as Hibernate flushes
+     * inserts before deletes and a new permission would violate the unique key on user and entity.
      *
-     * @param user                 The user to clear the permission for.
-     * @param permissionCollection The permission collection to clear.
-     * @param entity               The entity to clear the permission for.
+     * @param user   The user to get the permission for.
+     * @param entity The entity to get the permission for.
+     * @return The (possibly new) permission.
      */
-    private void clearExistingPermission(User user, PermissionCollection permissionCollection, BaseEntity entity) {
+    private UserInstancePermission getOrCreatePermission(User user, BaseEntity entity) {
         Optional<UserInstancePermission> existingPermission = findFor(entity, user);
 
         // Check if there is already an existing permission set on the entity
         if (existingPermission.isPresent()) {
             log.debug("Permission is already set for entity with ID {} and user with " +
-                "Keycloak ID {}: {}", entity.getId(), user.getAuthProviderId(), permissionCollection);
+                "Keycloak ID {}, replacing it", entity.getId(), user.getAuthProviderId());
 
-            // Remove the existing one
-            repository.delete(existingPermission.get());
+            return existingPermission.get();
+        }
 
-            log.debug("Removed the permission");
+        UserInstancePermission userInstancePermission = new UserInstancePermission();
+        userInstancePermission.setUser(user);
+        userInstancePermission.setEntityId(entity.getId());
+
+        return userInstancePermission;
+    }
+
+    /**
+     * Deletes all {@link UserInstancePermission} for the given entities. The permissions are fetched with a single
+     * query.
+     *
+     * @param entityIds The IDs of the entities to clear the permissions for.
+     */
+    public void deleteAllForEntities(Collection<Long> entityIds) {
+        if (entityIds == null || entityIds.isEmpty()) {
+            return;
         }
+
+        List<UserInstancePermission> userInstancePermissions = repository.findByEntityIdIn(entityIds);
+
+        repository.deleteAll(userInstancePermissions);
+
+        permissionCache.invalidateEntities(null, entityIds);
+
+        log.info("Successfully deleted all user instance permissions for {} entities", entityIds.size());
     }
 
     /**
@@ -247,6 +390,8 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
 
         repository.deleteAll(userInstancePermissions);
 
+        permissionCache.invalidateEntity(persistedEntity.getId());
+
         log.info("Successfully deleted all user instance permissions for entity with ID {}",
             persistedEntity.getId());
     }
@@ -261,6 +406,8 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
 
         repository.deleteAll(userInstancePermissions);
 
+        permissionCache.invalidateUser(user.getId());
+
         log.info("Successfully deleted all user instance permissions for user with ID {}",
             user.getId());
     }
@@ -287,18 +434,12 @@ public class UserInstancePermissionService extends BasePermissionService<UserIns
         if (userInstancePermission.isPresent()) {
             repository.delete(userInstancePermission.get());
 
+            permissionCache.invalidateEntities(user.getId(), List.of(persistedEntity.getId()));
+
             log.info("Successfully deleted the user instance permission for entity with ID {} and user {}.",
                 persistedEntity.getId(), user.getId());
         } else {
             log.warn("Could not delete the user instance permission. The requested permission does not exist.");
         }
     }
-
-    private void setAuthProviderRepresentation(UserInstancePermission permission) {
-        userProviderService.setTransientRepresentations(permission.getUser());
-    }
-
-    private void setAuthProviderRepresentation(List<UserInstancePermission> permissions) {
-        permissions.forEach((userInstancePermission -> setAuthProviderRepresentation(userInstancePermission)));
-    }
 }
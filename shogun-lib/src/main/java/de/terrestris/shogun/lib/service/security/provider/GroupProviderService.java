@@ -19,16 +19,49 @@ package de.terrestris.shogun.lib.service.security.provider;
 import de.terrestris.shogun.lib.model.Group;
 import de.terrestris.shogun.lib.model.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 public interface GroupProviderService<UserType, GroupType> {
 
     List<Group<GroupType>> findByUser(User<UserType> user);
 
+    /**
+     * Returns the IDs of all (persisted) groups the given user is a member of. Other than
+     * {@link #findByUser(User)} this doesn't require the groups (and their representations) to
+     * be loaded, implementations should answer this from a cache if possible.
+     *
+     * @param user The user to get the group IDs for.
+     * @return The group IDs (may be empty).
+     */
+    default List<Long> findGroupIdsByUser(User<UserType> user) {
+        List<Group<GroupType>> groups = findByUser(user);
+
+        if (groups == null) {
+            return List.of();
+        }
+
+        return groups.stream()
+            .map(Group::getId)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
     List<User<UserType>> getGroupMembers(String providerId);
 
     void setTransientRepresentations(Group<GroupType> group);
 
+    /**
+     * Sets the transient representations of all given groups. Implementations should fetch the
+     * representations in bulk instead of requesting them one by one.
+     *
+     * @param groups The groups to set the representations for.
+     */
+    default void setTransientRepresentations(Collection<Group<GroupType>> groups) {
+        groups.forEach(this::setTransientRepresentations);
+    }
+
     List<Group<GroupType>> getGroupsForUser();
 
     Group<GroupType> findOrCreateByProviderId(String providerGroupId);
@@ -19,14 +19,42 @@ package de.terrestris.shogun.lib.service.security.provider;
 import de.terrestris.shogun.lib.model.User;
 import org.springframework.security.core.Authentication;
 
+import java.util.Collection;
 import java.util.Optional;
 
 public interface UserProviderService<T> {
 
     User<T> findOrCreateByProviderId(String providerUserId);
 
+    /**
+     * Finds the user with the given provider ID or creates it if it doesn't exist yet. In contrast to
+     * {@link #findOrCreateByProviderId(String)} neither the groups of the user are synchronized nor the transient
+     * representation is set. Concurrent calls for the same provider ID will create a single user only.
+     *
+     * @param providerUserId The ID of the user in the provider.
+     * @return The (possibly created) user.
+     */
+    User<T> findOrCreateUserByProviderId(String providerUserId);
+
+    /**
+     * Creates the groups of the given user that don't exist yet.
+     *
+     * @param user The user to synchronize the groups for.
+     */
+    void synchronizeGroups(User<T> user);
+
     User<T> setTransientRepresentations(User<T> user);
 
+    /**
+     * Sets the transient representations of all given users. Implementations should fetch the
+     * representations in bulk instead of requesting them one by one.
+     *
+     * @param users The users to set the representations for.
+     */
+    default void setTransientRepresentations(Collection<User<T>> users) {
+        users.forEach(this::setTransientRepresentations);
+    }
+
     Optional<User<T>> getUserBySession();
 
     Optional<User<T>> getUserFromAuthentication(Authentication authentication);
@@ -16,12 +16,16 @@
  */
 package de.terrestris.shogun.lib.service.security.provider.keycloak;
 
+import de.terrestris.shogun.converter.KeycloakJwtAuthenticationToken;
+import de.terrestris.shogun.lib.cache.GroupMembershipCache;
 import de.terrestris.shogun.lib.model.Group;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.repository.GroupRepository;
 import de.terrestris.shogun.lib.repository.UserRepository;
 import de.terrestris.shogun.lib.service.security.provider.GroupProviderService;
 import de.terrestris.shogun.lib.util.KeycloakUtil;
+import de.terrestris.shogun.lib.util.StripedLock;
+import de.terrestris.shogun.properties.KeycloakProperties;
 import lombok.extern.log4j.Log4j2;
 import org.keycloak.admin.client.resource.GroupResource;
 import org.keycloak.representations.idm.GroupRepresentation;
@@ -32,12 +36,19 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static de.terrestris.shogun.lib.util.KeycloakUtil.getKeycloakUserIdFromAuthentication;
@@ -51,6 +62,11 @@ import static de.terrestris.shogun.lib.util.KeycloakUtil.getKeycloakUserIdFromAu
 @Component
 public class KeycloakGroupProviderService implements GroupProviderService<UserRepresentation, GroupRepresentation> {
 
+    /**
+     * The number of locks guarding the creation of groups, see {@link #findOrCreateByProviderId(String)}.
+     */
+    static final int LOCK_STRIPES = 64;
+
     @Autowired
     KeycloakUtil keycloakUtil;
 
@@ -60,23 +76,54 @@ public class KeycloakGroupProviderService implements GroupProviderService<UserRe
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    GroupMembershipCache groupMembershipCache;
+
+    @Autowired
+    KeycloakProperties keycloakProperties;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final StripedLock groupLocks = new StripedLock(LOCK_STRIPES);
+
     @Transactional(readOnly = true)
     public List<Group<GroupRepresentation>> findByUser(User<UserRepresentation> user) {
         List<Group<GroupRepresentation>> groups = new ArrayList<>();
 
         List<GroupRepresentation> keycloakGroups = keycloakUtil.getKeycloakUserGroups(user);
 
-        for (GroupRepresentation keycloakGroup : keycloakGroups) {
-            Optional<Group<GroupRepresentation>> group = (Optional) repository.findByAuthProviderId(keycloakGroup.getId());
-            if (group.isPresent()) {
-                group.get().setProviderDetails(keycloakGroup);
-                groups.add(group.get());
-            }
+        if (keycloakGroups.isEmpty()) {
+            return groups;
+        }
+
+        Map<String, GroupRepresentation> keycloakGroupsById = keycloakGroups.stream()
+            .collect(Collectors.toMap(GroupRepresentation::getId, Function.identity(), (a, b) -> a));
+
+        List<Group<GroupRepresentation>> persistedGroups = (List) repository.findAllByAuthProviderIdIn(keycloakGroupsById.keySet());
+
+        for (Group<GroupRepresentation> group : persistedGroups) {
+            group.setProviderDetails(keycloakGroupsById.get(group.getAuthProviderId()));
+            groups.add(group);
         }
 
         return groups;
     }
 
+    /**
+     * Returns the IDs of all (persisted) groups the given user is a member of. If the user is the
+     * currently authenticated one and the access token contains the groups claim (see
+     * `keycloak.groupsClaim`), the IDs are taken from the token. Otherwise they are served from the
+     * {@link GroupMembershipCache}, so neither Keycloak nor the database will be queried for cached users.
+     *
+     * @param user The user to get the group IDs for.
+     * @return The group IDs (may be empty).
+     */
+    @Override
+    public List<Long> findGroupIdsByUser(User<UserRepresentation> user) {
+        return findGroupIdsByKeycloakUserId(user.getAuthProviderId());
+    }
+
     public List<User<UserRepresentation>> getGroupMembers(String id) {
         GroupResource groupResource = keycloakUtil.getGroupResource(id);
         List<UserRepresentation> groupMembers = groupResource.members();
@@ -105,17 +152,16 @@ public class KeycloakGroupProviderService implements GroupProviderService<UserRe
         }
 
         String keycloakUserId = getKeycloakUserIdFromAuthentication(authentication);
-        Optional<User> user = userRepository.findByAuthProviderId(keycloakUserId);
+        List<Long> groupIds = findGroupIdsByKeycloakUserId(keycloakUserId);
 
-        if (user.isEmpty()) {
+        if (groupIds.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<GroupRepresentation> groupRepresentations = keycloakUtil.getKeycloakUserGroups(user.get());
+        List<Group<GroupRepresentation>> groups = new ArrayList<>();
+        repository.findAllById(groupIds).forEach(groups::add);
 
-        return (List) groupRepresentations.stream().
-            map(groupRepresentation -> repository.findByAuthProviderId(groupRepresentation.getId()).orElseThrow()).
-            collect(Collectors.toList());
+        return groups;
     }
 
     public void setTransientRepresentations(Group<GroupRepresentation> group) {
@@ -132,22 +178,97 @@ public class KeycloakGroupProviderService implements GroupProviderService<UserRe
         }
     }
 
+    /**
+     * Sets the transient representations of all given groups. The representations are fetched in bulk, see
+     * {@link KeycloakUtil#getGroupRepresentations(Collection)}.
+     *
+     * @param groups The groups to set the representations for.
+     */
+    @Override
+    public void setTransientRepresentations(Collection<Group<GroupRepresentation>> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+
+        Map<String, GroupRepresentation> groupRepresentations = keycloakUtil.getGroupRepresentations(groups.stream()
+            .map(Group::getAuthProviderId)
+            .toList());
+
+        for (Group<GroupRepresentation> group : groups) {
+            GroupRepresentation groupRepresentation = groupRepresentations.get(group.getAuthProviderId());
+
+            if (groupRepresentation == null) {
+                log.warn("Could not get the GroupRepresentation for group with SHOGun ID {} and " +
+                        "Keycloak ID {}. This may happen if the group is not available in Keycloak.",
+                    group.getId(), group.getAuthProviderId());
+                continue;
+            }
+
+            group.setProviderDetails(groupRepresentation);
+        }
+    }
+
+    private List<Long> findGroupIdsByKeycloakUserId(String keycloakUserId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication instanceof KeycloakJwtAuthenticationToken token && token.getGroups() != null &&
+            keycloakUserId != null && keycloakUserId.equals(getKeycloakUserIdFromAuthentication(token))) {
+            // resolve the groups of the token only once per request
+            if (token.getGroupIds() == null) {
+                token.setGroupIds(groupMembershipCache.getGroupIdsForClaims(token.getGroups(),
+                    keycloakProperties.getGroupsClaimFormat()));
+            }
+
+            return token.getGroupIds();
+        }
+
+        return groupMembershipCache.getGroupIds(keycloakUserId);
+    }
+
+    /**
+     * Finds a Group by the passed keycloak ID. If it does not exist in the SHOGun DB it gets created (in a separate
+     * transaction). The creation is guarded by a lock per keycloak ID (see {@link StripedLock}), so concurrent
+     * synchronizations of the groups of different users create a single group only.
+     *
+     * @param keycloakGroupId UUID of keycloak group to find or create.
+     * @return The group.
+     */
     // disabled because there is no authentication for events invoked by keycloak via /webhooks
     // @PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#keycloakGroupId, 'CREATE')")
-    @Transactional
     public Group<GroupRepresentation> findOrCreateByProviderId(String keycloakGroupId) {
         Optional<Group<GroupRepresentation>> groupOptional = (Optional) repository.findByAuthProviderId(keycloakGroupId);
-        Group<GroupRepresentation> group = groupOptional.orElse(null);
 
-        if (group == null) {
-            group = new Group<>(keycloakGroupId, null);
-            repository.save(group);
-
-            log.info("Group with keycloak id {} did not yet exist in the SHOGun DB and was therefore created.", keycloakGroupId);
-            return group;
+        if (groupOptional.isPresent()) {
+            return groupOptional.get();
         }
 
-        return group;
+        Lock lock = groupLocks.get(keycloakGroupId);
+        lock.lock();
+
+        try {
+            // the lock is released after the commit, so a concurrent synchronization will find the created group
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+            return transactionTemplate.execute(status -> {
+                Optional<Group<GroupRepresentation>> existingGroup =
+                    (Optional) repository.findByAuthProviderId(keycloakGroupId);
+
+                // the group may have been created while waiting for the lock
+                if (existingGroup.isPresent()) {
+                    return existingGroup.get();
+                }
+
+                Group<GroupRepresentation> group = new Group<>(keycloakGroupId, null);
+                repository.save(group);
+
+                log.info("Group with keycloak id {} did not yet exist in the SHOGun DB and was therefore created.", keycloakGroupId);
+
+                return group;
+            });
+        } finally {
+            lock.unlock();
+        }
     }
 
 }
@@ -16,12 +16,15 @@
  */
 package de.terrestris.shogun.lib.service.security.provider.keycloak;
 
+import de.terrestris.shogun.lib.cache.GroupMembershipCache;
+import de.terrestris.shogun.lib.cache.SessionUserCache;
 import de.terrestris.shogun.lib.event.OnRegistrationConfirmedEvent;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.repository.UserRepository;
 import de.terrestris.shogun.lib.service.security.provider.GroupProviderService;
 import de.terrestris.shogun.lib.service.security.provider.UserProviderService;
 import de.terrestris.shogun.lib.util.KeycloakUtil;
+import de.terrestris.shogun.lib.util.StripedLock;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.keycloak.admin.client.resource.UserResource;
@@ -34,10 +37,16 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 import static de.terrestris.shogun.lib.util.KeycloakUtil.getKeycloakUserIdFromAuthentication;
 
@@ -50,6 +59,11 @@ import static de.terrestris.shogun.lib.util.KeycloakUtil.getKeycloakUserIdFromAu
 @Component
 public class KeycloakUserProviderService implements UserProviderService<UserRepresentation> {
 
+    /**
+     * The number of locks guarding the creation of users, see {@link #findOrCreateUserByProviderId(String)}.
+     */
+    static final int LOCK_STRIPES = 64;
+
     @Autowired
     KeycloakUtil keycloakUtil;
 
@@ -62,6 +76,17 @@ public class KeycloakUserProviderService implements UserProviderService<UserRepr
     @Autowired
     GroupProviderService groupProviderService;
 
+    @Autowired
+    SessionUserCache sessionUserCache;
+
+    @Autowired
+    GroupMembershipCache groupMembershipCache;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final StripedLock userLocks = new StripedLock(LOCK_STRIPES);
+
     /**
      * Finds a User by the passed keycloak ID. If it does not exist in the SHOGun DB it gets created.
      *
@@ -74,24 +99,71 @@ public class KeycloakUserProviderService implements UserProviderService<UserRepr
     // @PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#keycloakUserId, 'CREATE')")
     @Transactional
     public User<UserRepresentation> findOrCreateByProviderId(String keycloakUserId) {
+        User<UserRepresentation> user = findOrCreateUserByProviderId(keycloakUserId);
+
+        synchronizeGroups(user);
+
+        this.setTransientRepresentations(user);
+
+        return user;
+    }
+
+    /**
+     * Finds a User by the passed keycloak ID. If it does not exist in the SHOGun DB it gets created (in a separate
+     * transaction). The creation is guarded by a lock per keycloak ID (see {@link StripedLock}), so concurrent logins
+     * of the same user create a single user only, while logins of different users don't block each other.
+     *
+     * @param keycloakUserId UUID of keycloak user to find or create.
+     * @return The user.
+     */
+    @Override
+    public User<UserRepresentation> findOrCreateUserByProviderId(String keycloakUserId) {
         Optional<User<UserRepresentation>> userOptional = (Optional) userRepository.findByAuthProviderId(keycloakUserId);
-        User<UserRepresentation> user = userOptional.orElse(null);
 
-        // User is not yet it SHOGun DB
-        if (user == null) {
-            user = new User<>(keycloakUserId, null, null, null);
-            userRepository.save(user);
+        if (userOptional.isPresent()) {
+            return userOptional.get();
+        }
+
+        Lock lock = userLocks.get(keycloakUserId);
+        lock.lock();
 
-            // If the user doesn't exist, we assume it's the first login after registration.
-            eventPublisher.publishEvent(new OnRegistrationConfirmedEvent(user));
+        try {
+            // the lock is released after the commit, so a concurrent login will find the created user
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
 
-            log.info("User with keycloak id {} did not yet exist in the SHOGun DB and was therefore created.", keycloakUserId);
+            return transactionTemplate.execute(status -> {
+                Optional<User<UserRepresentation>> existingUser =
+                    (Optional) userRepository.findByAuthProviderId(keycloakUserId);
 
-            this.setTransientRepresentations(user);
+                // the user may have been created while waiting for the lock
+                if (existingUser.isPresent()) {
+                    return existingUser.get();
+                }
 
-            return user;
+                User<UserRepresentation> user = new User<>(keycloakUserId, null, null, null);
+                userRepository.save(user);
+
+                // If the user doesn't exist, we assume it's the first login after registration.
+                eventPublisher.publishEvent(new OnRegistrationConfirmedEvent(user));
+
+                log.info("User with keycloak id {} did not yet exist in the SHOGun DB and was therefore created.", keycloakUserId);
+
+                return user;
+            });
+        } finally {
+            lock.unlock();
         }
+    }
 
+    /**
+     * Creates the (keycloak) groups of the given user that don't exist in the SHOGun DB yet and invalidates the
+     * cached group memberships of the user.
+     *
+     * @param user The user to synchronize the groups for.
+     */
+    @Override
+    public void synchronizeGroups(User<UserRepresentation> user) {
         List<GroupRepresentation> keycloakUserGroups = keycloakUtil.getKeycloakUserGroups(user);
 
         // Add missing groups to shogun db
@@ -100,9 +172,8 @@ public class KeycloakUserProviderService implements UserProviderService<UserRepr
             .map(GroupRepresentation::getId)
             .forEach(groupProviderService::findOrCreateByProviderId);
 
-        this.setTransientRepresentations(user);
-
-        return user;
+        // The memberships may contain groups that have just been created
+        groupMembershipCache.invalidate(user.getAuthProviderId());
     }
 
     public User<UserRepresentation> setTransientRepresentations(User<UserRepresentation> user) {
@@ -121,6 +192,42 @@ public class KeycloakUserProviderService implements UserProviderService<UserRepr
         return user;
     }
 
+    /**
+     * Sets the transient representations of all given users. The representations are fetched in bulk, see
+     * {@link KeycloakUtil#getUserRepresentations(Collection)}.
+     *
+     * @param users The users to set the representations for.
+     */
+    @Override
+    public void setTransientRepresentations(Collection<User<UserRepresentation>> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+
+        Map<String, UserRepresentation> userRepresentations = keycloakUtil.getUserRepresentations(users.stream()
+            .map(User::getAuthProviderId)
+            .toList());
+
+        for (User<UserRepresentation> user : users) {
+            UserRepresentation userRepresentation = userRepresentations.get(user.getAuthProviderId());
+
+            if (userRepresentation == null) {
+                log.warn("Could not get the UserRepresentation for user with SHOGun ID {} and " +
+                        "Keycloak ID {}. This may happen if the user is not available in Keycloak.",
+                    user.getId(), user.getAuthProviderId());
+                continue;
+            }
+
+            user.setProviderDetails(userRepresentation);
+        }
+    }
+
+    /**
+     * Returns the user of the current session. The user (including its transient representation) is
+     * cached, see {@link SessionUserCache} for details.
+     *
+     * @return The (optional) user.
+     */
     @Override
     public Optional<User<UserRepresentation>> getUserBySession() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -130,6 +237,10 @@ public class KeycloakUserProviderService implements UserProviderService<UserRepr
             return Optional.empty();
         }
 
+        return sessionUserCache.get(keycloakUserId, this::resolveUser);
+    }
+
+    private Optional<User<UserRepresentation>> resolveUser(String keycloakUserId) {
         Optional<User<UserRepresentation>> user = (Optional) userRepository.findByAuthProviderId(keycloakUserId);
 
         if (user.isPresent()) {
@@ -155,6 +266,12 @@ public class KeycloakUserProviderService implements UserProviderService<UserRepr
         }
 
         String keycloakUserId = getKeycloakUserIdFromAuthentication(authentication);
+
+        Optional<User<UserRepresentation>> cachedUser = sessionUserCache.getIfPresent(keycloakUserId);
+        if (cachedUser.isPresent()) {
+            return cachedUser;
+        }
+
         return (Optional) userRepository.findByAuthProviderId(keycloakUserId);
     }
 
@@ -0,0 +1,66 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.util;
+
+import de.terrestris.shogun.lib.model.BaseEntity;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Helpers to map the version of a {@link BaseEntity} to a (strong) entity tag and back.
+ */
+public class ETagUtil {
+
+    private static final String ANY = "*";
+
+    /**
+     * Returns the entity tag for the given version.
+     *
+     * @param version The version of the entity.
+     * @return The entity tag, e.g. `"3"`.
+     */
+    public static String toETag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Checks if the given If-Match header value matches the version of the given entity. An empty header or the
+     * wildcard `*` matches any version, weak entity tags never match (If-Match requires a strong comparison).
+     *
+     * @param ifMatch The value of the If-Match header (may contain a comma separated list of entity tags).
+     * @param entity The entity.
+     * @return true if the header matches the version of the entity.
+     */
+    public static boolean matches(String ifMatch, BaseEntity entity) {
+        if (StringUtils.isBlank(ifMatch) || ANY.equals(ifMatch.trim())) {
+            return true;
+        }
+
+        if (entity.getVersion() == null) {
+            return false;
+        }
+
+        String eTag = toETag(entity.getVersion());
+
+        for (String candidate : ifMatch.split(",")) {
+            if (eTag.equals(candidate.trim())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -17,6 +17,8 @@
 package de.terrestris.shogun.lib.util;
 
 import de.terrestris.shogun.lib.dto.HttpResponse;
+import de.terrestris.shogun.lib.dto.StreamingHttpResponse;
+import de.terrestris.shogun.properties.HttpPoolProperties;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.Part;
@@ -27,7 +29,9 @@ import org.apache.hc.client5.http.auth.AuthCache;
 import org.apache.hc.client5.http.auth.AuthScope;
 import org.apache.hc.client5.http.auth.Credentials;
 import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
+import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.classic.methods.*;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.entity.UrlEncodedFormEntity;
 import org.apache.hc.client5.http.entity.mime.ByteArrayBody;
@@ -35,16 +39,24 @@ import org.apache.hc.client5.http.entity.mime.FileBody;
 import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
 import org.apache.hc.client5.http.impl.auth.BasicAuthCache;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
 import org.apache.hc.client5.http.impl.auth.BasicScheme;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.core5.http.*;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
@@ -74,6 +86,18 @@ public class HttpUtil {
      * The name of the 'authorization' header
      */
     private static String AUTHORIZATION_HEADER = "authorization";
+    /**
+     * The shared (pooled) client for all outgoing HTTP connections.
+     */
+    private static volatile CloseableHttpClient httpClient;
+    /**
+     * The connection manager (pool) of the shared client.
+     */
+    private static volatile PoolingHttpClientConnectionManager connectionManager;
+    /**
+     * The maximum number of connections for specific hosts, overriding the default per route limit.
+     */
+    private static final Map<HttpHost, Integer> maxConnectionsPerHost = new HashMap<>();
 
     /**
      * Returns the full webapplication URI from a given request.
@@ -220,6 +244,20 @@ public class HttpUtil {
         return send(new HttpGet(uri), null, requestHeaders);
     }
 
+    /**
+     * Performs an HTTP GET on the given URI without reading the response body into memory. The
+     * returned response must be closed.
+     *
+     * @param uri            The URI to connect to.
+     * @param requestHeaders Additional HTTP headers added to the request
+     * @return The (open) HTTP response.
+     * @throws URISyntaxException
+     * @throws HttpException
+     */
+    public static StreamingHttpResponse getStreaming(URI uri, Header[] requestHeaders) throws URISyntaxException, HttpException {
+        return stream(new HttpGet(uri), null, requestHeaders);
+    }
+
     /**
      * Performs an HTTP GET on the given URI.
      * Basic auth is used if both username and password are not null.
@@ -306,6 +344,29 @@ public class HttpUtil {
         return send(new HttpGet(uri), null, headersToForward);
     }
 
+    /**
+     * Forward GET request to uri based on given request without reading the response body into
+     * memory. The returned response must be closed.
+     *
+     * @param uri            uri The URI to forward to.
+     * @param request        The original {@link HttpServletRequest}
+     * @param forwardHeaders Should headers of request should be forwarded
+     * @return The (open) HTTP response.
+     * @throws URISyntaxException
+     * @throws HttpException
+     */
+    public static StreamingHttpResponse forwardGetStreaming(URI uri, HttpServletRequest request, boolean forwardHeaders)
+        throws URISyntaxException, HttpException {
+
+        Header[] headersToForward = null;
+
+        if (request != null && forwardHeaders) {
+            headersToForward = HttpUtil.getHeadersFromRequest(request);
+        }
+
+        return stream(new HttpGet(uri), null, headersToForward);
+    }
+
     /**
      * Performs an HTTP POST on the given URL.
      *
@@ -632,6 +693,22 @@ public class HttpUtil {
         return postParams(new HttpPost(uri), queryParams, null, requestHeaders);
     }
 
+    /**
+     * Performs an HTTP POST on the given URI without reading the response body into memory. The
+     * returned response must be closed.
+     *
+     * @param uri            The URI to connect to.
+     * @param queryParams    The list of NameValuePairs.
+     * @param requestHeaders Additional HTTP headers added to the request
+     * @return The (open) HTTP response.
+     * @throws URISyntaxException
+     * @throws HttpException
+     */
+    public static StreamingHttpResponse postStreaming(URI uri, List<NameValuePair> queryParams, Header[] requestHeaders)
+        throws URISyntaxException, HttpException {
+        return stream(createParamsPost(new HttpPost(uri), queryParams), null, requestHeaders);
+    }
+
     /**
      * Performs an HTTP POST on the given URI.
      * Basic auth is used if both and password are not null.
@@ -917,6 +994,28 @@ public class HttpUtil {
         return postBody(new HttpPost(uri), body, contentType, credentials, requestHeaders, chunked);
     }
 
+    /**
+     * Performs an HTTP POST on the given URL without reading the response body into memory. The
+     * returned response must be closed.
+     *
+     * @param uri            The URI to connect to.
+     * @param body           The POST body.
+     * @param contentType    The ContentType of the POST body.
+     * @param requestHeaders Additional HTTP headers added to the request
+     * @param chunked        Send request in chunks
+     * @return The (open) HTTP response.
+     * @throws URISyntaxException
+     * @throws HttpException
+     */
+    public static StreamingHttpResponse postStreaming(URI uri, String body,
+                                                      ContentType contentType, Header[] requestHeaders, boolean chunked)
+        throws URISyntaxException, HttpException {
+        HttpPost httpRequest = new HttpPost(uri);
+        httpRequest.setEntity(new StringEntity(body, contentType, chunked));
+
+        return stream(httpRequest, null, requestHeaders);
+    }
+
     /**
      * Performs an HTTP POST on the given URL.
      *
@@ -1114,6 +1213,44 @@ public class HttpUtil {
      */
     public static HttpResponse forwardFormMultipartPost(URI uri, HttpServletRequest request, boolean forwardHeaders)
         throws URISyntaxException, HttpException, IllegalStateException, IOException, ServletException {
+        Header[] headersToForward = getMultiPartHeadersToForward(request, forwardHeaders);
+
+        assert request != null;
+        Collection<Part> parts = request.getParts();
+
+        return send(createMultiPartPost(uri, parts), null, headersToForward);
+    }
+
+    /**
+     * Forward FormMultipartPost (HTTP POST) to uri based on given request without reading the
+     * response body into memory. The returned response must be closed.
+     *
+     * @param uri            uri The URI to forward to.
+     * @param request        The original {@link HttpServletRequest}
+     * @param forwardHeaders Should headers of request should be forwarded
+     * @return The (open) HTTP response.
+     * @throws URISyntaxException
+     * @throws HttpException
+     * @throws IllegalStateException
+     * @throws IOException
+     * @throws ServletException
+     */
+    public static StreamingHttpResponse forwardFormMultipartPostStreaming(URI uri, HttpServletRequest request, boolean forwardHeaders)
+        throws URISyntaxException, HttpException, IllegalStateException, IOException, ServletException {
+        Header[] headersToForward = getMultiPartHeadersToForward(request, forwardHeaders);
+
+        assert request != null;
+        Collection<Part> parts = request.getParts();
+
+        return stream(createMultiPartPost(uri, parts), null, headersToForward);
+    }
+
+    /**
+     * @param request        The original {@link HttpServletRequest}
+     * @param forwardHeaders Should headers of request should be forwarded
+     * @return The headers to forward.
+     */
+    private static Header[] getMultiPartHeadersToForward(HttpServletRequest request, boolean forwardHeaders) {
         Header[] headersToForward = null;
 
         if (request != null && forwardHeaders) {
@@ -1121,25 +1258,17 @@ public class HttpUtil {
         }
 
         // remove content headers as http client lib will care about this
-        // when entity is set on the httpPost instance in the postMultiPart method
-        headersToForward = removeHeaders(headersToForward, new String[]{"content-length", "content-type"});
-
-        assert request != null;
-        Collection<Part> parts = request.getParts();
-
-        return HttpUtil.postMultiPart(uri, parts, headersToForward);
+        // when entity is set on the httpPost instance in the createMultiPartPost method
+        return removeHeaders(headersToForward, new String[]{"content-length", "content-type"});
     }
 
     /**
-     * @param uri              The URI to POSt to
-     * @param parts            {@link Part}s of FormMultipartRequest
-     * @param headersToForward Should headers of request should be forwarded
-     * @return The HTTP response as Response object.
+     * @param uri   The URI to POSt to
+     * @param parts {@link Part}s of FormMultipartRequest
+     * @return The POST request.
      * @throws IOException
-     * @throws URISyntaxException
-     * @throws HttpException
      */
-    private static HttpResponse postMultiPart(URI uri, Collection<Part> parts, Header[] headersToForward) throws IOException, URISyntaxException, HttpException {
+    private static HttpPost createMultiPartPost(URI uri, Collection<Part> parts) throws IOException {
 
         HttpPost httpPost = new HttpPost(uri);
 
@@ -1170,7 +1299,7 @@ public class HttpUtil {
 
         httpPost.setEntity(multiPartEntity);
 
-        return send(httpPost, null, headersToForward);
+        return httpPost;
     }
 
     /**
@@ -1225,12 +1354,21 @@ public class HttpUtil {
     private static HttpResponse postParams(HttpPost httpRequest, List<NameValuePair> queryParams, Credentials credentials, Header[] requestHeaders)
         throws URISyntaxException, UnsupportedEncodingException, HttpException {
 
+        return send(createParamsPost(httpRequest, queryParams), credentials, requestHeaders);
+    }
+
+    /**
+     * @param httpRequest
+     * @param queryParams
+     * @return The given request with the params set as (form encoded) entity.
+     */
+    private static HttpPost createParamsPost(HttpPost httpRequest, List<NameValuePair> queryParams) {
         if (!queryParams.isEmpty()) {
             HttpEntity httpEntity = new UrlEncodedFormEntity(queryParams, StandardCharsets.UTF_8);
             httpRequest.setEntity(httpEntity);
         }
 
-        return send(httpRequest, credentials, requestHeaders);
+        return httpRequest;
     }
 
     /**
@@ -1273,6 +1411,31 @@ public class HttpUtil {
         return HttpUtil.postBody(new HttpPost(uri), body, ct, null, headersToForward, chunked);
     }
 
+    /**
+     * Forward POST to uri based on given request without reading the response body into memory.
+     * The returned response must be closed.
+     *
+     * @param uri            uri The URI to forward to.
+     * @param request        The original {@link HttpServletRequest}
+     * @param forwardHeaders Should headers of request should be forwarded
+     * @return The (open) HTTP response.
+     * @throws URISyntaxException
+     * @throws HttpException
+     */
+    public static StreamingHttpResponse forwardPostStreaming(URI uri, HttpServletRequest request, boolean forwardHeaders)
+        throws URISyntaxException, HttpException {
+        Header[] headersToForward = null;
+        if (request != null && forwardHeaders) {
+            headersToForward = HttpUtil.getHeadersFromRequest(request);
+        }
+
+        assert request != null;
+        ContentType ct = ContentType.parse(request.getContentType());
+        String body = getRequestBody(request);
+
+        return postStreaming(uri, body, ct, headersToForward, false);
+    }
+
 
     /**
      * Perform HTTP PUT with empty body
@@ -1838,9 +2001,99 @@ public class HttpUtil {
     private static HttpResponse send(HttpUriRequestBase httpRequest, Credentials credentials,
                                      Header[] requestHeaders) throws HttpException, URISyntaxException {
 
-        CloseableHttpClient httpClient = null;
         CloseableHttpResponse httpResponse = null;
         HttpResponse response = new HttpResponse();
+        URI uri = httpRequest.getUri();
+
+        try {
+            httpResponse = execute(httpRequest, credentials, requestHeaders);
+
+            HttpEntity httpResponseEntity = httpResponse.getEntity();
+
+            response.setStatusCode(HttpStatus.valueOf(httpResponse.getCode()));
+            response.setHeaders(getResponseHeaders(httpResponse));
+
+            if (httpResponseEntity != null) {
+                response.setBody(EntityUtils.toByteArray(httpResponseEntity));
+            }
+
+        } catch (IOException e) {
+            throw new HttpException("Error while getting a response from " + uri +
+                ": " + e.getMessage());
+        } finally {
+
+            // cleanup
+            httpRequest.reset();
+
+            try {
+                // closing the (fully consumed) response returns the connection to the pool
+                if (httpResponse != null) {
+                    httpResponse.close();
+                }
+            } catch (IOException e) {
+                log.error("Error while closing resources: {}", e.getMessage());
+                log.trace("Full stack trace:", e);
+            }
+        }
+
+        return response;
+    }
+
+    /**
+     * Performs an HTTP operation on the given URL without reading the response body into
+     * memory. The body has to be consumed via {@link StreamingHttpResponse#writeTo(java.io.OutputStream)},
+     * the returned response must be closed in any case to release the underlying connection.
+     * Basic auth is used if both username and pw are not null.
+     *
+     * @param httpRequest    The HttpRequest to connect to.
+     * @param credentials    Instance implementing {@link Credentials} interface holding a set of credentials
+     * @param requestHeaders Additional HTTP headers added to the request
+     * @return The (open) HTTP response.
+     * @throws HttpException
+     * @throws URISyntaxException
+     */
+    private static StreamingHttpResponse stream(HttpUriRequestBase httpRequest, Credentials credentials,
+                                                Header[] requestHeaders) throws HttpException, URISyntaxException {
+
+        CloseableHttpResponse httpResponse = null;
+        URI uri = httpRequest.getUri();
+
+        try {
+            httpResponse = execute(httpRequest, credentials, requestHeaders);
+
+            return new StreamingHttpResponse(HttpStatus.valueOf(httpResponse.getCode()),
+                getResponseHeaders(httpResponse), httpResponse);
+        } catch (IOException | IllegalArgumentException e) {
+            httpRequest.reset();
+
+            try {
+                if (httpResponse != null) {
+                    httpResponse.close();
+                }
+            } catch (IOException ioe) {
+                log.error("Error while closing resources: {}", ioe.getMessage());
+                log.trace("Full stack trace:", ioe);
+            }
+
+            throw new HttpException("Error while getting a response from " + uri +
+                ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Executes the given request with the shared client, including the (system) proxy settings and
+     * (preemptive) authentication.
+     *
+     * @param httpRequest    The HttpRequest to connect to.
+     * @param credentials    Instance implementing {@link Credentials} interface holding a set of credentials
+     * @param requestHeaders Additional HTTP headers added to the request
+     * @return The (open) response of the client.
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    private static CloseableHttpResponse execute(HttpUriRequestBase httpRequest, Credentials credentials,
+                                                 Header[] requestHeaders) throws IOException, URISyntaxException {
+
         HttpClientContext httpContext = HttpClientContext.create();
         URI uri = httpRequest.getUri();
 
@@ -1897,99 +2150,65 @@ public class HttpUtil {
             .setProxy(systemProxy)
             .build();
 
-        try {
-            // set (preemptive) authentication if credentials are given
-            if (credentials != null || (proxyAuthScope != null && proxyCredentials != null)) {
-
-                BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-
-                if (proxyAuthScope != null && proxyCredentials != null) {
-                    credentialsProvider.setCredentials(
-                        proxyAuthScope,
-                        proxyCredentials
-                    );
-                }
-
-                if (credentials != null) {
-                    credentialsProvider.setCredentials(
-                        new AuthScope(uri.getHost(), uri.getPort()),
-                        credentials
-                    );
-                }
-
-                HttpHost targetHost = new HttpHost(uri.getScheme(), uri.getHost(), uri.getPort());
-
-                AuthCache authCache = new BasicAuthCache();
-                authCache.put(targetHost, new BasicScheme());
+        // set (preemptive) authentication if credentials are given
+        if (credentials != null || (proxyAuthScope != null && proxyCredentials != null)) {
 
-                httpContext.setCredentialsProvider(credentialsProvider);
-                httpContext.setAuthCache(authCache);
+            BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
 
-                httpClient = HttpClients.custom()
-                    .setDefaultCredentialsProvider(credentialsProvider)
-                    .build();
-
-            } else {
-                httpClient = HttpClients.createDefault();
+            if (proxyAuthScope != null && proxyCredentials != null) {
+                credentialsProvider.setCredentials(
+                    proxyAuthScope,
+                    proxyCredentials
+                );
             }
 
-            HttpHeaders headersMap = new HttpHeaders();
-
-            httpRequest.setConfig(requestConfig);
-
-            // apply HTTP header
-            if (requestHeaders != null) {
-                httpRequest.setHeaders(requestHeaders);
+            if (credentials != null) {
+                credentialsProvider.setCredentials(
+                    new AuthScope(uri.getHost(), uri.getPort()),
+                    credentials
+                );
             }
 
-            // todo: pass additional argument HttpClientResponseHandler
-            httpResponse = httpClient.execute(httpRequest, httpContext);
+            HttpHost targetHost = new HttpHost(uri.getScheme(), uri.getHost(), uri.getPort());
 
-            HttpStatus httpStatus = HttpStatus.valueOf(
-                httpResponse.getCode()
-            );
-            Header[] headers = httpResponse.getHeaders();
-            HttpEntity httpResponseEntity = httpResponse.getEntity();
+            AuthCache authCache = new BasicAuthCache();
+            authCache.put(targetHost, new BasicScheme());
 
-            response.setStatusCode(httpStatus);
+            httpContext.setCredentialsProvider(credentialsProvider);
+            httpContext.setAuthCache(authCache);
+        }
 
-            for (Header header : headers) {
-                if (header.getName().equalsIgnoreCase("Transfer-Encoding") &&
-                    header.getValue().equalsIgnoreCase("chunked")) {
-                    log.trace("Removed the header 'Transfer-Encoding:chunked'" +
-                        " from a response, as its handled by the http-client");
-                } else {
-                    headersMap.set(header.getName(), header.getValue());
-                }
-            }
-            response.setHeaders(headersMap);
+        httpRequest.setConfig(requestConfig);
 
-            if (httpResponseEntity != null) {
-                response.setBody(EntityUtils.toByteArray(httpResponseEntity));
-            }
+        // apply HTTP header
+        if (requestHeaders != null) {
+            httpRequest.setHeaders(requestHeaders);
+        }
 
-        } catch (IOException e) {
-            throw new HttpException("Error while getting a response from " + uri +
-                ": " + e.getMessage());
-        } finally {
+        return getHttpClient().execute(httpRequest, httpContext);
+    }
 
-            // cleanup
-            httpRequest.reset();
+    /**
+     * Returns the headers of the given response, except the 'Transfer-Encoding:chunked'
+     * header as this is handled by the http-client.
+     *
+     * @param httpResponse The response.
+     * @return The headers.
+     */
+    private static HttpHeaders getResponseHeaders(CloseableHttpResponse httpResponse) {
+        HttpHeaders headersMap = new HttpHeaders();
 
-            try {
-                if (httpResponse != null) {
-                    httpResponse.close();
-                }
-                if (httpClient != null) {
-                    httpClient.close();
-                }
-            } catch (IOException e) {
-                log.error("Error while closing resources: {}", e.getMessage());
-                log.trace("Full stack trace:", e);
+        for (Header header : httpResponse.getHeaders()) {
+            if (header.getName().equalsIgnoreCase("Transfer-Encoding") &&
+                header.getValue().equalsIgnoreCase("chunked")) {
+                log.trace("Removed the header 'Transfer-Encoding:chunked'" +
+                    " from a response, as its handled by the http-client");
+            } else {
+                headersMap.set(header.getName(), header.getValue());
             }
         }
 
-        return response;
+        return headersMap;
     }
 
     /**
@@ -2185,6 +2404,174 @@ public class HttpUtil {
         return systemProxy;
     }
 
+    /**
+     * Returns the shared (pooled) client for all outgoing HTTP connections. If the connection
+     * pool hasn't been configured yet, it will be created with the default settings.
+     *
+     * @return The client.
+     */
+    public static CloseableHttpClient getHttpClient() {
+        CloseableHttpClient client = httpClient;
+
+        if (client == null) {
+            synchronized (HttpUtil.class) {
+                if (httpClient == null) {
+                    configureConnectionPool(new HttpPoolProperties());
+                }
+                client = httpClient;
+            }
+        }
+
+        return client;
+    }
+
+    /**
+     * (Re-)Creates the shared client and its connection pool with the given settings. A
+     * previously created client will be closed gracefully.
+     *
+     * Note: The client neither manages cookies nor uses connection state, as it's shared
+     * between the requests of all users.
+     *
+     * @param poolProperties The connection pool settings.
+     */
+    public static synchronized void configureConnectionPool(HttpPoolProperties poolProperties) {
+        CloseableHttpClient previousHttpClient = httpClient;
+
+        connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(poolProperties.getMaxTotal())
+            .setMaxConnPerRoute(poolProperties.getMaxPerRoute())
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setValidateAfterInactivity(TimeValue.of(poolProperties.getValidateAfterInactivity()))
+                .build())
+            .build();
+
+        poolProperties.getMaxPerHost().forEach((host, max) -> {
+            try {
+                maxConnectionsPerHost.put(HttpHost.create(host), max);
+            } catch (URISyntaxException e) {
+                log.error("Invalid host {} in the connection pool settings: {}", host, e.getMessage());
+                log.trace("Full stack trace: ", e);
+            }
+        });
+        maxConnectionsPerHost.forEach(HttpUtil::applyMaxConnectionsPerHost);
+
+        TimeValue defaultKeepAlive = TimeValue.of(poolProperties.getKeepAlive());
+
+        httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy() {
+                @Override
+                public TimeValue getKeepAliveDuration(org.apache.hc.core5.http.HttpResponse response, HttpContext context) {
+                    TimeValue keepAlive = super.getKeepAliveDuration(response, context);
+                    return TimeValue.isPositive(keepAlive) && keepAlive.compareTo(defaultKeepAlive) < 0 ?
+                        keepAlive : defaultKeepAlive;
+                }
+            })
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.of(poolProperties.getIdleTimeout()))
+            .disableCookieManagement()
+            .disableConnectionState()
+            .build();
+
+        log.info("Configured the HTTP connection pool with max. {} connections in total and {} per route",
+            poolProperties.getMaxTotal(), poolProperties.getMaxPerRoute());
+
+        if (previousHttpClient != null) {
+            previousHttpClient.close(CloseMode.GRACEFUL);
+        }
+    }
+
+    /**
+     * Sets the maximum number of pooled connections for the host of the given URI, e.g.
+     * for a GeoServer instance receiving most of the outgoing requests.
+     *
+     * @param uri            The URI to set the limit for its host.
+     * @param maxConnections The maximum number of connections.
+     */
+    public static synchronized void setMaxConnectionsPerHost(URI uri, int maxConnections) {
+        HttpHost host = HttpHost.create(uri);
+
+        maxConnectionsPerHost.put(host, maxConnections);
+
+        if (connectionManager != null) {
+            applyMaxConnectionsPerHost(host, maxConnections);
+        }
+    }
+
+    /**
+     * Returns the total statistics of the connection pool (leased, pending and available
+     * connections).
+     *
+     * @return The statistics.
+     */
+    public static synchronized PoolStats getConnectionPoolStats() {
+        return getConnectionManager().getTotalStats();
+    }
+
+    /**
+     * Returns the statistics of the connection pool per route (i.e. per target host).
+     *
+     * @return The statistics per route.
+     */
+    public static synchronized Map<HttpRoute, PoolStats> getConnectionPoolRouteStats() {
+        PoolingHttpClientConnectionManager manager = getConnectionManager();
+        Map<HttpRoute, PoolStats> routeStats = new LinkedHashMap<>();
+
+        for (HttpRoute route : manager.getRoutes()) {
+            routeStats.put(route, manager.getStats(route));
+        }
+
+        return routeStats;
+    }
+
+    /**
+     * Closes the shared client and its connection pool gracefully and drops the limits per host.
+     * It will be re-created on the next request.
+     */
+    public static synchronized void closeConnectionPool() {
+        if (httpClient != null) {
+            httpClient.close(CloseMode.GRACEFUL);
+        }
+
+        httpClient = null;
+        connectionManager = null;
+        maxConnectionsPerHost.clear();
+    }
+
+    static synchronized PoolingHttpClientConnectionManager getConnectionManager() {
+        getHttpClient();
+
+        return connectionManager;
+    }
+
+    private static void applyMaxConnectionsPerHost(HttpHost host, Integer maxConnections) {
+        // the port has to be resolved as the route planner does it
+        int port = DefaultSchemePortResolver.INSTANCE.resolve(host);
+        if (port < 0) {
+            log.error("Could not set the maximum number of pooled connections for host {}: Unknown scheme", host);
+            return;
+        }
+
+        HttpHost target = new HttpHost(host.getSchemeName(), host.getAddress(), host.getHostName(), port);
+        boolean secure = StringUtils.equalsIgnoreCase(target.getSchemeName(), "https");
+
+        // requests to the host will be routed via the system proxy (if any), see execute()
+        HttpHost proxy = null;
+        try {
+            proxy = getSystemProxy(new URI(target.toURI()));
+        } catch (UnknownHostException | URISyntaxException e) {
+            log.error("Error while detecting system wide proxy for host {}: {}", target, e.getMessage());
+            log.trace("Full stack trace: ", e);
+        }
+
+        HttpRoute route = proxy == null ? new HttpRoute(target, null, secure) :
+            new HttpRoute(target, null, proxy, secure);
+
+        connectionManager.setMaxPerRoute(route, maxConnections);
+
+        log.debug("Set the maximum number of pooled connections for host {} to {}", target, maxConnections);
+    }
+
     /**
      * @return the httpTimeout
      */
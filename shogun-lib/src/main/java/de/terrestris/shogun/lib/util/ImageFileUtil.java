@@ -24,10 +24,16 @@ import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Log4j2
 public class ImageFileUtil {
@@ -62,20 +68,148 @@ public class ImageFileUtil {
     }
 
     public static byte[] getScaledImage(MultipartFile uploadFile, Dimension imageDimensions, int thumbnailSize) throws IOException {
-        File imgFile = FileUtil.convertToFile(uploadFile);
+        BufferedImage image = readImage(uploadFile.getBytes());
 
-        Image scaledImgFile;
-        if (imageDimensions.height > imageDimensions.width) {
-            scaledImgFile = ImageIO.read(imgFile).getScaledInstance(-1, thumbnailSize, BufferedImage.SCALE_SMOOTH);
-        } else {
-            scaledImgFile = ImageIO.read(imgFile).getScaledInstance(thumbnailSize, -1, BufferedImage.SCALE_SMOOTH);
+        if (image == null) {
+            throw new IOException("Could not read the image " + uploadFile.getOriginalFilename());
         }
 
-        BufferedImage img = ImageFileUtil.toBufferedImage(scaledImgFile);
+        return toPng(getScaledImage(image, thumbnailSize));
+    }
+
+    /**
+     * Reads the dimensions of the given image from its header without decoding the image data.
+     *
+     * @param image The encoded image.
+     * @return The dimensions or null if the format isn't supported.
+     * @throws IOException If the image can't be read.
+     */
+    public static Dimension getImageDimensions(byte[] image) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            final Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(in);
+                    return new Dimension(reader.getWidth(0), reader.getHeight(0));
+                } finally {
+                    reader.dispose();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Decodes the given image.
+     *
+     * @param image The encoded image.
+     * @return The decoded image or null if the format isn't supported.
+     * @throws IOException If the image can't be read.
+     */
+    public static BufferedImage readImage(byte[] image) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(image));
+    }
+
+    /**
+     * Decodes the image read from the given stream. The stream isn't closed.
+     *
+     * @param image The stream of the encoded image.
+     * @return The decoded image or null if the format isn't supported.
+     * @throws IOException If the image can't be read.
+     */
+    public static BufferedImage readImage(InputStream image) throws IOException {
+        return ImageIO.read(image);
+    }
+
+    /**
+     * Encodes the given image as PNG.
+     *
+     * @param image The image.
+     * @return The PNG.
+     * @throws IOException If the image can't be encoded.
+     */
+    public static byte[] toPng(BufferedImage image) throws IOException {
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        ImageIO.write(img, "png", bos);
+        ImageIO.write(image, "png", bos);
 
         return bos.toByteArray();
     }
 
+    /**
+     * Scales the given image to fit into a square of the given size (keeping the aspect ratio). The image is
+     * downscaled progressively, i.e. halved with bilinear interpolation until it's less than twice the target size,
+     * which is considerably faster than {@link Image#SCALE_SMOOTH} at comparable quality.
+     *
+     * @param image The image to scale.
+     * @param size The maximum width and height of the scaled image.
+     * @return The scaled image.
+     */
+    public static BufferedImage getScaledImage(BufferedImage image, int size) {
+        Dimension target = getScaledDimension(image.getWidth(), image.getHeight(), size);
+
+        BufferedImage scaled = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+
+        while (width / 2 >= target.width && height / 2 >= target.height) {
+            width = width / 2;
+            height = height / 2;
+            scaled = resize(scaled, width, height);
+        }
+
+        if (width != target.width || height != target.height || scaled == image) {
+            scaled = resize(scaled, target.width, target.height);
+        }
+
+        return scaled;
+    }
+
+    /**
+     * Scales the given image to all given sizes. The image is decoded only once and every size is derived from the
+     * previous (larger) one.
+     *
+     * @param image The image to scale.
+     * @param sizes The maximum width and height of the scaled images.
+     * @return The scaled images by size.
+     */
+    public static Map<Integer, BufferedImage> getScaledImages(BufferedImage image, Collection<Integer> sizes) {
+        Map<Integer, BufferedImage> scaledImages = new TreeMap<>(Comparator.reverseOrder());
+        sizes.forEach(size -> scaledImages.put(size, null));
+
+        BufferedImage source = image;
+        for (Map.Entry<Integer, BufferedImage> entry : scaledImages.entrySet()) {
+            BufferedImage scaled = getScaledImage(source, entry.getKey());
+            entry.setValue(scaled);
+
+            // derive smaller sizes from this one unless it has been upscaled
+            if (scaled.getWidth() <= source.getWidth() && scaled.getHeight() <= source.getHeight()) {
+                source = scaled;
+            }
+        }
+
+        return scaledImages;
+    }
+
+    private static Dimension getScaledDimension(int width, int height, int size) {
+        if (height > width) {
+            return new Dimension(Math.max(1, Math.round((float) width * size / height)), size);
+        } else {
+            return new Dimension(size, Math.max(1, Math.round((float) height * size / width)));
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D graphics = resized.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+
+        return resized;
+    }
+
 }
@@ -18,6 +18,9 @@ package de.terrestris.shogun.lib.util;
 
 import de.terrestris.shogun.lib.model.Group;
 import de.terrestris.shogun.lib.model.User;
+import de.terrestris.shogun.properties.KeycloakProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import lombok.extern.log4j.Log4j2;
@@ -30,12 +33,21 @@ import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 // TODO Check for keycloak object key length instead?
@@ -47,6 +59,25 @@ public class KeycloakUtil {
     @Autowired
     protected RealmResource keycloakRealm;
 
+    @Autowired
+    protected KeycloakProperties keycloakProperties;
+
+    private ThreadPoolExecutor representationExecutor;
+
+    @PostConstruct
+    public void init() {
+        int parallelism = Math.max(1, keycloakProperties.getRepresentationParallelism());
+
+        representationExecutor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new CustomizableThreadFactory("shogun-keycloak-"));
+        representationExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        representationExecutor.shutdownNow();
+    }
+
     public UserResource getUserResource(User<UserRepresentation> user) {
         UsersResource kcUsers = this.keycloakRealm.users();
         return kcUsers.get(user.getAuthProviderId());
@@ -67,6 +98,16 @@ public class KeycloakUtil {
         return kcGroups.group(id);
     }
 
+    /**
+     * Returns the GroupRepresentation of the group with the given (full) path, e.g. `/parent/child`.
+     *
+     * @param path The path of the group.
+     * @return The representation of the group.
+     */
+    public GroupRepresentation getGroupByPath(String path) {
+        return this.keycloakRealm.getGroupByPath(path);
+    }
+
     public void addUserToGroup(User<UserRepresentation> user, Group<GroupRepresentation> group) {
         UserResource kcUser = this.getUserResource(user);
         GroupResource kcGroup = this.getGroupResource(group);
@@ -238,4 +279,174 @@ public class KeycloakUtil {
         return (String) ((JwtAuthenticationToken) authentication).getTokenAttributes().get("sub");
     }
 
+    /**
+     * Fetches the UserRepresentations of the given Keycloak user IDs in bulk.
+     *
+     * If paging through all users of the realm (see `keycloak.representationPageSize`) needs fewer requests than
+     * fetching every user on its own, the users are listed page by page until all requested IDs are found. Otherwise
+     * the single representations are requested concurrently (see `keycloak.representationParallelism`).
+     *
+     * @param keycloakUserIds The Keycloak IDs of the users.
+     * @return The representations mapped by their Keycloak ID. Users not available in Keycloak are not contained.
+     */
+    public Map<String, UserRepresentation> getUserRepresentations(Collection<String> keycloakUserIds) {
+        Set<String> pendingIds = getPendingIds(keycloakUserIds);
+        Map<String, UserRepresentation> representations = new HashMap<>();
+        UsersResource usersResource = this.keycloakRealm.users();
+
+        if (shouldListRepresentations(pendingIds, usersResource::count)) {
+            int pageSize = keycloakProperties.getRepresentationPageSize();
+
+            for (int first = 0; !pendingIds.isEmpty(); first += pageSize) {
+                List<UserRepresentation> page = usersResource.list(first, pageSize);
+
+                for (UserRepresentation representation : page) {
+                    if (pendingIds.remove(representation.getId())) {
+                        representations.put(representation.getId(), representation);
+                    }
+                }
+
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+
+            // All users of the realm have been listed, the remaining ones don't exist (anymore).
+            return representations;
+        }
+
+        representations.putAll(fetchRepresentations(pendingIds, id -> usersResource.get(id).toRepresentation()));
+
+        return representations;
+    }
+
+    /**
+     * Fetches the GroupRepresentations of the given Keycloak group IDs in bulk.
+     *
+     * If paging through the top level groups of the realm (see `keycloak.representationPageSize`) needs fewer
+     * requests than fetching every group on its own, the (sub)groups are listed page by page until all requested
+     * IDs are found. The remaining groups (e.g. subgroups not contained in the listing) are requested concurrently
+     * (see `keycloak.representationParallelism`).
+     *
+     * @param keycloakGroupIds The Keycloak IDs of the groups.
+     * @return The representations mapped by their Keycloak ID. Groups not available in Keycloak are not contained.
+     */
+    public Map<String, GroupRepresentation> getGroupRepresentations(Collection<String> keycloakGroupIds) {
+        Set<String> pendingIds = getPendingIds(keycloakGroupIds);
+        Map<String, GroupRepresentation> representations = new HashMap<>();
+        GroupsResource groupsResource = this.keycloakRealm.groups();
+
+        if (shouldListRepresentations(pendingIds, () -> groupsResource.count(true).get("count"))) {
+            int pageSize = keycloakProperties.getRepresentationPageSize();
+
+            for (int first = 0; !pendingIds.isEmpty(); first += pageSize) {
+                List<GroupRepresentation> page = groupsResource.groups(null, first, pageSize, false);
+
+                collectGroupRepresentations(page, pendingIds, representations);
+
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+        }
+
+        representations.putAll(fetchRepresentations(pendingIds, id -> groupsResource.group(id).toRepresentation()));
+
+        return representations;
+    }
+
+    private void collectGroupRepresentations(List<GroupRepresentation> groups, Set<String> pendingIds,
+            Map<String, GroupRepresentation> representations) {
+        if (groups == null) {
+            return;
+        }
+
+        for (GroupRepresentation representation : groups) {
+            if (pendingIds.remove(representation.getId())) {
+                representations.put(representation.getId(), representation);
+            }
+
+            collectGroupRepresentations(representation.getSubGroups(), pendingIds, representations);
+        }
+    }
+
+    private Set<String> getPendingIds(Collection<String> ids) {
+        return ids.stream()
+            .filter(StringUtils::isNotEmpty)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Checks if listing all representations page by page needs fewer requests than fetching the given IDs one by one.
+     */
+    private boolean shouldListRepresentations(Set<String> ids, Supplier<? extends Number> count) {
+        if (ids.size() < 2) {
+            return false;
+        }
+
+        try {
+            long total = count.get().longValue();
+            long pages = (total + keycloakProperties.getRepresentationPageSize() - 1) /
+                keycloakProperties.getRepresentationPageSize();
+
+            // The count request itself is part of the listing costs.
+            return pages + 1 < ids.size();
+        } catch (Exception e) {
+            log.warn("Could not count the representations in Keycloak, fetching them one by one");
+            log.trace("Full stack trace: ", e);
+            return false;
+        }
+    }
+
+    private <R> Map<String, R> fetchRepresentations(Set<String> ids, Function<String, R> loader) {
+        Map<String, R> representations = new ConcurrentHashMap<>();
+
+        if (ids.isEmpty()) {
+            return representations;
+        }
+
+        if (ids.size() == 1) {
+            String id = ids.iterator().next();
+            fetchRepresentation(id, loader, representations);
+            return representations;
+        }
+
+        CompletableFuture<?>[] futures = ids.stream()
+            .map(id -> CompletableFuture.runAsync(() -> fetchRepresentation(id, loader, representations),
+                representationExecutor))
+            .toArray(CompletableFuture[]::new);
+
+        try {
+            CompletableFuture.allOf(futures).get(keycloakProperties.getRepresentationTimeout(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Could not get all representations from Keycloak within {} seconds, skipping the " +
+                "remaining ones", keycloakProperties.getRepresentationTimeout());
+            log.trace("Full stack trace: ", e);
+        } catch (ExecutionException e) {
+            log.warn("Could not get all representations from Keycloak: {}", e.getMessage());
+            log.trace("Full stack trace: ", e);
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while getting the representations from Keycloak");
+            log.trace("Full stack trace: ", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            // Queued requests are skipped, late results of running requests are not part of the copy below.
+            Arrays.stream(futures).forEach(future -> future.cancel(false));
+        }
+
+        return new HashMap<>(representations);
+    }
+
+    private <R> void fetchRepresentation(String id, Function<String, R> loader, Map<String, R> representations) {
+        try {
+            R representation = loader.apply(id);
+            if (representation != null) {
+                representations.put(id, representation);
+            }
+        } catch (Exception e) {
+            log.debug("Could not get the representation with Keycloak ID {}: {}", id, e.getMessage());
+            log.trace("Full stack trace: ", e);
+        }
+    }
+
 }
@@ -0,0 +1,66 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.util;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed number of locks, assigned to keys by their hash code. Operations on the same key are serialized, while
+ * operations on different keys only block each other if their keys share a stripe. In contrast to a lock per key
+ * the memory usage is constant.
+ */
+public class StripedLock {
+
+    private final Lock[] stripes;
+
+    /**
+     * @param stripes The number of locks, will be rounded up to the next power of two.
+     */
+    public StripedLock(int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the lock for the given key.
+     *
+     * @param key The key (may be null).
+     * @return The lock.
+     */
+    public Lock get(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+
+        // spread the higher bits, as only the lower ones are used for the index
+        hash ^= (hash >>> 16);
+
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    /**
+     * Returns the number of locks.
+     *
+     * @return The number of locks.
+     */
+    public int size() {
+        return stripes.length;
+    }
+}
@@ -0,0 +1,87 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.converter;
+
+import org.junit.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KeycloakJwtAuthenticationConverterTest {
+
+    private final KeycloakJwtAuthenticationConverter converter =
+        new KeycloakJwtAuthenticationConverter("shogun-boot", "preferred_username", "groups");
+
+    @Test
+    public void convert_mapsTheClientRolesAndGroups() {
+        KeycloakJwtAuthenticationToken token = convert(Map.of(
+            "resource_access", Map.of("shogun-boot", Map.of("roles", List.of("admin", "user"))),
+            "groups", List.of("/Group A", "/Group B")
+        ));
+
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER"), getAuthorities(token));
+        assertEquals(List.of("/Group A", "/Group B"), token.getGroups());
+        assertEquals("shogun", token.getName());
+    }
+
+    @Test
+    public void convert_ignoresMalformedRoleClaims() {
+        assertTrue(getAuthorities(convert(Map.of("resource_access", "admin"))).isEmpty());
+        assertTrue(getAuthorities(convert(Map.of("resource_access", Map.of("shogun-boot", List.of("admin")))))
+            .isEmpty());
+        assertTrue(getAuthorities(convert(Map.of("resource_access", Map.of("shogun-boot", Map.of("roles", "admin")))))
+            .isEmpty());
+        assertEquals(Set.of("ROLE_USER"), getAuthorities(convert(Map.of(
+            "resource_access", Map.of("shogun-boot", Map.of("roles", List.of("user", 42, Map.of("role", "admin"))))
+        ))));
+    }
+
+    @Test
+    public void convert_handlesMissingAndMalformedGroupClaims() {
+        assertNull(convert(Map.of()).getGroups());
+        assertNull(convert(Map.of("groups", Map.of("name", "/Group A"))).getGroups());
+        assertEquals(List.of("/Group A"), convert(Map.of("groups", "/Group A")).getGroups());
+        assertEquals(List.of("/Group A"), convert(Map.of("groups", List.of("/Group A", 42))).getGroups());
+    }
+
+    private KeycloakJwtAuthenticationToken convert(Map<String, Object> claims) {
+        Map<String, Object> allClaims = new HashMap<>(claims);
+        allClaims.put("preferred_username", "shogun");
+
+        Jwt jwt = new Jwt("token", Instant.now(), Instant.now().plusSeconds(30), Map.of("alg", "none"), allClaims);
+
+        return (KeycloakJwtAuthenticationToken) converter.convert(jwt);
+    }
+
+    private static Set<String> getAuthorities(AbstractAuthenticationToken token) {
+        return token.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .collect(Collectors.toSet());
+    }
+
+}
@@ -0,0 +1,195 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.cache;
+
+import de.terrestris.shogun.lib.event.KeycloakEvent;
+import de.terrestris.shogun.lib.event.KeycloakEventType;
+import de.terrestris.shogun.lib.model.Group;
+import de.terrestris.shogun.lib.repository.GroupRepository;
+import de.terrestris.shogun.lib.util.IdHelper;
+import de.terrestris.shogun.lib.util.KeycloakUtil;
+import de.terrestris.shogun.properties.CacheProperties;
+import de.terrestris.shogun.properties.KeycloakProperties.GroupsClaimFormat;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.keycloak.admin.client.resource.UserResource;
+import org.keycloak.representations.idm.GroupRepresentation;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link GroupMembershipCache}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class GroupMembershipCacheTest {
+
+    private static final String KEYCLOAK_USER_ID = "d5c2f5a1-8c4b-4b4c-9f5e-4f2f5b0a1c2d";
+
+    @Spy
+    private CacheProperties cacheProperties = new CacheProperties();
+
+    @Mock
+    private KeycloakUtil keycloakUtil;
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private UserResource userResource;
+
+    @InjectMocks
+    private GroupMembershipCache groupMembershipCache;
+
+    private Group group1;
+
+    @Before
+    public void setUp() throws NoSuchFieldException {
+        groupMembershipCache.init();
+
+        GroupRepresentation groupRepresentation1 = new GroupRepresentation();
+        groupRepresentation1.setId("group-1");
+        GroupRepresentation groupRepresentation2 = new GroupRepresentation();
+        groupRepresentation2.setId("group-2");
+
+        group1 = new Group();
+        IdHelper.setIdForEntity(group1, 10L);
+        Group group2 = new Group();
+        IdHelper.setIdForEntity(group2, 20L);
+
+        group1.setAuthProviderId("group-1");
+        group2.setAuthProviderId("group-2");
+
+        lenient().when(keycloakUtil.getUserResource(KEYCLOAK_USER_ID)).thenReturn(userResource);
+        lenient().when(userResource.groups()).thenReturn(List.of(groupRepresentation1, groupRepresentation2));
+        lenient().when(groupRepository.findAllByAuthProviderIdIn(List.of("group-1", "group-2")))
+            .thenReturn(List.of(group1, group2));
+        lenient().when(groupRepository.findAllByAuthProviderIdIn(Set.of("group-1", "group-2")))
+            .thenReturn(List.of(group1, group2));
+    }
+
+    @Test
+    public void getGroupIds_resolvesAllGroupsWithSingleQueryOnlyOnce() {
+        assertEquals(List.of(10L, 20L), groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID));
+        assertEquals(List.of(10L, 20L), groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID));
+
+        verify(userResource, times(1)).groups();
+        verify(groupRepository, times(1)).findAllByAuthProviderIdIn(any());
+        verify(groupRepository, never()).findByAuthProviderId(any());
+        assertEquals(1, groupMembershipCache.getStats().hitCount());
+    }
+
+    @Test
+    public void getGroupIds_loadsOnEachCallIfCacheIsDisabled() {
+        cacheProperties.getGroupMembership().setEnabled(false);
+
+        groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID);
+        groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID);
+
+        verify(userResource, times(2)).groups();
+    }
+
+    @Test
+    public void getGroupIds_doesNotCacheFailures() {
+        when(userResource.groups()).thenThrow(new RuntimeException("Keycloak is not available"));
+
+        assertTrue(groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID).isEmpty());
+        assertTrue(groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID).isEmpty());
+
+        verify(userResource, times(2)).groups();
+        verify(groupRepository, never()).findAllByAuthProviderIdIn(any());
+    }
+
+    @Test
+    public void getGroupIds_returnsEmptyForMissingKeycloakId() {
+        assertTrue(groupMembershipCache.getGroupIds(null).isEmpty());
+
+        verifyNoInteractions(keycloakUtil);
+    }
+
+    @Test
+    public void getGroupIdsForClaims_resolvesGroupIdsOnlyOnce() {
+        List<String> claims = List.of("group-1", "group-2");
+
+        assertEquals(List.of(10L, 20L), groupMembershipCache.getGroupIdsForClaims(claims, GroupsClaimFormat.ID));
+        assertEquals(List.of(10L, 20L), groupMembershipCache.getGroupIdsForClaims(claims, GroupsClaimFormat.ID));
+
+        verify(groupRepository, times(1)).findAllByAuthProviderIdIn(any());
+        verifyNoInteractions(keycloakUtil);
+    }
+
+    @Test
+    public void getGroupIdsForClaims_resolvesGroupPaths() {
+        GroupRepresentation groupRepresentation = new GroupRepresentation();
+        groupRepresentation.setId("group-1");
+
+        when(keycloakUtil.getGroupByPath("/parent/child")).thenReturn(groupRepresentation);
+        when(keycloakUtil.getGroupByPath("/unknown")).thenThrow(new RuntimeException("Group not found"));
+        when(groupRepository.findAllByAuthProviderIdIn(Set.of("group-1"))).thenReturn(List.of(group1));
+
+        List<String> claims = List.of("/parent/child", "/unknown");
+
+        assertEquals(List.of(10L), groupMembershipCache.getGroupIdsForClaims(claims, GroupsClaimFormat.PATH));
+        assertEquals(List.of(10L), groupMembershipCache.getGroupIdsForClaims(claims, GroupsClaimFormat.PATH));
+
+        verify(keycloakUtil, times(1)).getGroupByPath("/parent/child");
+        verify(groupRepository, times(1)).findAllByAuthProviderIdIn(any());
+    }
+
+    @Test
+    public void onKeycloakEvent_invalidatesMembershipsOfUser() {
+        groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID);
+
+        groupMembershipCache.onKeycloakEvent(new KeycloakEvent(this, KeycloakEventType.USER_GROUP_MEMBERSHIP_CHANGED,
+            KEYCLOAK_USER_ID, "group-1"));
+        groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID);
+
+        verify(userResource, times(2)).groups();
+    }
+
+    @Test
+    public void onKeycloakEvent_invalidatesAllMembershipsIfGroupIsDeleted() {
+        groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID);
+
+        groupMembershipCache.onKeycloakEvent(new KeycloakEvent(this, KeycloakEventType.GROUP_DELETED, "group-1"));
+        groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID);
+
+        verify(userResource, times(2)).groups();
+    }
+
+    @Test
+    public void onKeycloakEvent_ignoresOtherEvents() {
+        groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID);
+
+        groupMembershipCache.onKeycloakEvent(new KeycloakEvent(this, KeycloakEventType.USER_ROLES_CHANGED,
+            KEYCLOAK_USER_ID));
+        groupMembershipCache.getGroupIds(KEYCLOAK_USER_ID);
+
+        verify(userResource, times(1)).groups();
+    }
+
+}
@@ -0,0 +1,235 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.cache;
+
+import de.terrestris.shogun.lib.cache.invalidation.CacheInvalidation;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
+import de.terrestris.shogun.lib.event.CacheInvalidationEvent;
+import de.terrestris.shogun.lib.event.KeycloakEvent;
+import de.terrestris.shogun.lib.event.KeycloakEventType;
+import de.terrestris.shogun.lib.model.User;
+import de.terrestris.shogun.lib.model.security.permission.UserInstancePermission;
+import de.terrestris.shogun.lib.repository.UserRepository;
+import de.terrestris.shogun.lib.util.IdHelper;
+import de.terrestris.shogun.properties.CacheProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link PermissionCache}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PermissionCacheTest {
+
+    private static final String CLASS_NAME = "de.terrestris.shogun.lib.model.Application";
+
+    private static final String LAYER_CLASS_NAME = "de.terrestris.shogun.lib.model.Layer";
+
+    @Spy
+    private CacheProperties cacheProperties = new CacheProperties();
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private PermissionCache permissionCache;
+
+    private final AtomicInteger loaderCalls = new AtomicInteger();
+
+    private final Supplier<Set<PermissionType>> loader = () -> {
+        loaderCalls.incrementAndGet();
+        return EnumSet.of(PermissionType.READ);
+    };
+
+    private final BooleanSupplier evaluation = () -> {
+        loaderCalls.incrementAndGet();
+        return true;
+    };
+
+    @Before
+    public void setUp() {
+        permissionCache.init();
+    }
+
+    @Test
+    public void hasInstancePermission_callsEvaluationOnlyOncePerPermission() {
+        assertTrue(permissionCache.hasInstancePermission(1L, CLASS_NAME, 10L, PermissionType.READ, evaluation));
+        assertTrue(permissionCache.hasInstancePermission(1L, CLASS_NAME, 10L, PermissionType.READ, evaluation));
+        assertFalse(permissionCache.hasInstancePermission(1L, CLASS_NAME, 10L, PermissionType.UPDATE, () -> false));
+        assertFalse(permissionCache.hasInstancePermission(1L, CLASS_NAME, 10L, PermissionType.UPDATE, evaluation));
+
+        assertEquals(1, loaderCalls.get());
+        assertEquals(3, permissionCache.getInstanceStats().hitCount());
+        assertEquals(1, permissionCache.getInstanceStats().missCount());
+    }
+
+    @Test
+    public void getClassPermissions_callsLoaderOnlyOnce() {
+        Set<PermissionType> first = permissionCache.getClassPermissions(1L, CLASS_NAME, loader);
+        Set<PermissionType> second = permissionCache.getClassPermissions(1L, CLASS_NAME, loader);
+
+        assertEquals(Set.of(PermissionType.READ), first);
+        assertSame(first, second);
+        assertEquals(1, loaderCalls.get());
+    }
+
+    @Test
+    public void invalidateEntities_removesTheEntriesOfTheGivenUserOnly() {
+        checkInstancePermission(1L, 10L);
+        checkInstancePermission(2L, 10L);
+        checkInstancePermission(1L, 11L);
+
+        permissionCache.invalidateEntities(1L, List.of(10L));
+
+        checkInstancePermission(1L, 10L);
+        checkInstancePermission(2L, 10L);
+        checkInstancePermission(1L, 11L);
+
+        assertEquals(4, loaderCalls.get());
+    }
+
+    @Test
+    public void invalidateEntity_removesTheEntriesOfAllUsers() {
+        checkInstancePermission(1L, 10L);
+        checkInstancePermission(2L, 10L);
+        checkInstancePermission(1L, 11L);
+
+        permissionCache.invalidateEntity(10L);
+
+        checkInstancePermission(1L, 10L);
+        checkInstancePermission(2L, 10L);
+        checkInstancePermission(1L, 11L);
+
+        assertEquals(5, loaderCalls.get());
+    }
+
+    @Test
+    public void invalidateClass_removesTheEntriesOfTheClassAndItsEntities() {
+        permissionCache.getClassPermissions(1L, CLASS_NAME, loader);
+        permissionCache.getClassPermissions(1L, LAYER_CLASS_NAME, loader);
+        checkInstancePermission(1L, 10L);
+        permissionCache.hasInstancePermission(1L, LAYER_CLASS_NAME, 20L, PermissionType.READ, evaluation);
+
+        permissionCache.invalidateClass(null, CLASS_NAME);
+
+        permissionCache.getClassPermissions(1L, CLASS_NAME, loader);
+        permissionCache.getClassPermissions(1L, LAYER_CLASS_NAME, loader);
+        checkInstancePermission(1L, 10L);
+        permissionCache.hasInstancePermission(1L, LAYER_CLASS_NAME, 20L, PermissionType.READ, evaluation);
+
+        assertEquals(6, loaderCalls.get());
+    }
+
+    @Test
+    public void invalidateClass_removesTheEntriesOfTheGivenUserOnly() {
+        permissionCache.getClassPermissions(1L, CLASS_NAME, loader);
+        permissionCache.getClassPermissions(2L, CLASS_NAME, loader);
+        checkInstancePermission(1L, 10L);
+        checkInstancePermission(2L, 10L);
+
+        permissionCache.invalidateClass(1L, CLASS_NAME);
+
+        permissionCache.getClassPermissions(1L, CLASS_NAME, loader);
+        permissionCache.getClassPermissions(2L, CLASS_NAME, loader);
+        checkInstancePermission(1L, 10L);
+        checkInstancePermission(2L, 10L);
+
+        assertEquals(6, loaderCalls.get());
+    }
+
+    @Test
+    public void invalidateEntity_ignoresEntriesLoadedAfterTheInvalidation() {
+        checkInstancePermission(1L, 10L);
+
+        permissionCache.invalidateEntity(10L);
+
+        checkInstancePermission(1L, 10L);
+        checkInstancePermission(1L, 10L);
+
+        assertEquals(2, loaderCalls.get());
+    }
+
+    @Test
+    public void invalidateEntity_discardsTheResultsOfConcurrentEvaluations() {
+        // the permissions are invalidated while being evaluated (e.g. by a concurrent request)
+        assertTrue(permissionCache.hasInstancePermission(1L, CLASS_NAME, 10L, PermissionType.READ, () -> {
+            permissionCache.invalidateEntity(10L);
+            return true;
+        }));
+
+        checkInstancePermission(1L, 10L);
+
+        assertEquals(1, loaderCalls.get());
+    }
+
+    @Test
+    public void onKeycloakEvent_invalidatesThePermissionsOfTheUserIfItsGroupsChanged() throws NoSuchFieldException {
+        User user = new User();
+        IdHelper.setIdForEntity(user, 1L);
+        when(userRepository.findByAuthProviderId("keycloak-id")).thenReturn(Optional.of(user));
+
+        checkInstancePermission(1L, 10L);
+        permissionCache.getClassPermissions(1L, CLASS_NAME, loader);
+        checkInstancePermission(2L, 10L);
+
+        permissionCache.onKeycloakEvent(new KeycloakEvent(this, KeycloakEventType.USER_GROUP_MEMBERSHIP_CHANGED,
+            "keycloak-id", "group-id"));
+        permissionCache.onKeycloakEvent(new KeycloakEvent(this, KeycloakEventType.USER_CREATED, "other-id"));
+
+        checkInstancePermission(1L, 10L);
+        permissionCache.getClassPermissions(1L, CLASS_NAME, loader);
+        checkInstancePermission(2L, 10L);
+
+        assertEquals(5, loaderCalls.get());
+    }
+
+    @Test
+    public void onCacheInvalidation_invalidatesAllPermissionsIfPermissionsChanged() {
+        checkInstancePermission(1L, 10L);
+
+        permissionCache.onCacheInvalidation(new CacheInvalidationEvent(this,
+            List.of(CacheInvalidation.entity(CLASS_NAME, 10L))));
+        checkInstancePermission(1L, 10L);
+
+        permissionCache.onCacheInvalidation(new CacheInvalidationEvent(this,
+            List.of(CacheInvalidation.entity(UserInstancePermission.class.getName(), 1L))));
+        checkInstancePermission(1L, 10L);
+
+        assertEquals(2, loaderCalls.get());
+    }
+
+    private void checkInstancePermission(Long userId, Long entityId) {
+        permissionCache.hasInstancePermission(userId, CLASS_NAME, entityId, PermissionType.READ, evaluation);
+    }
+
+}
@@ -0,0 +1,144 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.cache;
+
+import de.terrestris.shogun.lib.event.KeycloakEvent;
+import de.terrestris.shogun.lib.event.KeycloakEventType;
+import de.terrestris.shogun.lib.model.User;
+import de.terrestris.shogun.properties.CacheProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link SessionUserCache}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SessionUserCacheTest {
+
+    private static final String SUBJECT = "d5c2f5a1-8c4b-4b4c-9f5e-4f2f5b0a1c2d";
+
+    @Spy
+    private CacheProperties cacheProperties = new CacheProperties();
+
+    @InjectMocks
+    private SessionUserCache sessionUserCache;
+
+    private final AtomicInteger loaderCalls = new AtomicInteger();
+
+    private final Function<String, Optional<User<Object>>> loader = subject -> {
+        loaderCalls.incrementAndGet();
+        User<Object> user = new User<>();
+        user.setAuthProviderId(subject);
+        return Optional.of(user);
+    };
+
+    @Before
+    public void setUp() {
+        sessionUserCache.init();
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void get_callsLoaderOnlyOnce() {
+        Optional<User<Object>> first = sessionUserCache.get(SUBJECT, loader);
+        Optional<User<Object>> second = sessionUserCache.get(SUBJECT, loader);
+
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertEquals(1, loaderCalls.get());
+        assertEquals(1, sessionUserCache.getStats().hitCount());
+        assertEquals(1, sessionUserCache.getStats().missCount());
+    }
+
+    @Test
+    public void get_deduplicatesWithinRequestIfCacheIsDisabled() {
+        cacheProperties.getUser().setEnabled(false);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        sessionUserCache.get(SUBJECT, loader);
+        sessionUserCache.get(SUBJECT, loader);
+
+        assertEquals(1, loaderCalls.get());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        sessionUserCache.get(SUBJECT, loader);
+
+        assertEquals(2, loaderCalls.get());
+    }
+
+    @Test
+    public void get_doesNotCacheEmptyResults() {
+        Function<String, Optional<User<Object>>> emptyLoader = subject -> {
+            loaderCalls.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertTrue(sessionUserCache.get(SUBJECT, emptyLoader).isEmpty());
+        assertTrue(sessionUserCache.get(SUBJECT, emptyLoader).isEmpty());
+        assertEquals(2, loaderCalls.get());
+    }
+
+    @Test
+    public void get_returnsEmptyForMissingSubject() {
+        assertTrue(sessionUserCache.get(null, loader).isEmpty());
+        assertEquals(0, loaderCalls.get());
+    }
+
+    @Test
+    public void onKeycloakEvent_invalidatesUser() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        sessionUserCache.get(SUBJECT, loader);
+        assertTrue(sessionUserCache.getIfPresent(SUBJECT).isPresent());
+
+        sessionUserCache.onKeycloakEvent(new KeycloakEvent(this, KeycloakEventType.USER_ROLES_CHANGED, SUBJECT));
+
+        assertTrue(sessionUserCache.getIfPresent(SUBJECT).isEmpty());
+
+        sessionUserCache.get(SUBJECT, loader);
+        assertEquals(2, loaderCalls.get());
+    }
+
+    @Test
+    public void onKeycloakEvent_ignoresGroupEvents() {
+        sessionUserCache.get(SUBJECT, loader);
+
+        sessionUserCache.onKeycloakEvent(new KeycloakEvent(this, KeycloakEventType.GROUP_CREATED, SUBJECT));
+
+        assertTrue(sessionUserCache.getIfPresent(SUBJECT).isPresent());
+    }
+
+}
@@ -0,0 +1,128 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.cache.invalidation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.terrestris.shogun.properties.CacheInvalidationProperties;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.postgresql.PGConnection;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link PostgresCacheInvalidationBus}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PostgresCacheInvalidationBusTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private DataSource listenerDataSource;
+
+    @Test
+    public void toPayloads_splitsLargeMessages() throws Exception {
+        PostgresCacheInvalidationBus bus = new PostgresCacheInvalidationBus(dataSource, listenerDataSource, objectMapper,
+            new CacheInvalidationProperties());
+
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        for (long id = 0; id < 1000; id++) {
+            invalidations.add(CacheInvalidation.entity("de.terrestris.shogun.lib.model.Layer", id));
+        }
+
+        List<String> payloads = bus.toPayloads(new CacheInvalidationMessage("node-a", invalidations));
+
+        assertTrue(payloads.size() > 1);
+
+        List<CacheInvalidation> received = new ArrayList<>();
+        for (String payload : payloads) {
+            assertTrue(payload.getBytes(StandardCharsets.UTF_8).length < PostgresCacheInvalidationBus.MAX_PAYLOAD_SIZE);
+
+            CacheInvalidationMessage message = objectMapper.readValue(payload, CacheInvalidationMessage.class);
+
+            assertEquals("node-a", message.getOrigin());
+            received.addAll(message.getInvalidations());
+        }
+
+        assertEquals(invalidations, received);
+    }
+
+    @Test
+    public void toPayloads_keepsSmallMessages() throws Exception {
+        PostgresCacheInvalidationBus bus = new PostgresCacheInvalidationBus(dataSource, listenerDataSource, objectMapper,
+            new CacheInvalidationProperties());
+
+        List<String> payloads = bus.toPayloads(new CacheInvalidationMessage("node-a",
+            List.of(CacheInvalidation.region("layers"))));
+
+        assertEquals(1, payloads.size());
+    }
+
+    @Test
+    public void constructor_rejectsInvalidChannels() {
+        CacheInvalidationProperties properties = new CacheInvalidationProperties();
+        properties.setChannel("shogun; DROP TABLE layers");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new PostgresCacheInvalidationBus(dataSource, listenerDataSource, objectMapper, properties));
+    }
+
+    @Test
+    public void listen_holdsAConnectionOfTheListenerDataSourceUntilStopped() throws Exception {
+        Connection connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(listenerDataSource.getConnection()).thenReturn(connection);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(pgConnection.getNotifications(anyInt())).thenReturn(null);
+
+        PostgresCacheInvalidationBus bus = new PostgresCacheInvalidationBus(dataSource, listenerDataSource,
+            objectMapper, new CacheInvalidationProperties());
+
+        bus.start();
+        verify(pgConnection, timeout(5000).atLeastOnce()).getNotifications(anyInt());
+        verify(connection, never()).close();
+
+        bus.stop();
+
+        verify(connection, timeout(5000).atLeastOnce()).close();
+        verify(dataSource, never()).getConnection();
+    }
+
+}
@@ -0,0 +1,144 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.envers.AuditReader;
+import org.hibernate.envers.boot.internal.EnversService;
+import org.hibernate.envers.internal.reader.AuditReaderImplementor;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.aop.framework.Advised;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AuditConfigTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EnversService enversService;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setUp() {
+        // JpaTransactionManager binds a new EntityManager of the factory to every (new) transaction
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+    }
+
+    @Test
+    public void auditReader_UsesTheEntityManagerOfEachTransaction() {
+        EntityManager firstEntityManager = mockEntityManager();
+        EntityManager secondEntityManager = mockEntityManager();
+        when(entityManagerFactory.createEntityManager()).thenReturn(firstEntityManager, secondEntityManager);
+
+        AuditReader auditReader = new AuditConfig(entityManagerFactory).auditReader();
+
+        Session firstSession = transactionTemplate.execute(status -> getSession(auditReader));
+        Session secondSession = transactionTemplate.execute(status -> getSession(auditReader));
+
+        assertSame(firstEntityManager.getDelegate(), firstSession);
+        assertSame(secondEntityManager.getDelegate(), secondSession);
+        assertNotSame(firstSession, secondSession);
+    }
+
+    @Test
+    public void auditReader_UsesTheEntityManagerOfTheCurrentTransaction() {
+        EntityManager outerEntityManager = mockEntityManager();
+        EntityManager innerEntityManager = mockEntityManager();
+        when(entityManagerFactory.createEntityManager()).thenReturn(outerEntityManager, innerEntityManager);
+
+        AuditReader auditReader = new AuditConfig(entityManagerFactory).auditReader();
+        TransactionTemplate requiresNewTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transactionTemplate.executeWithoutResult(outerStatus -> {
+            // the EntityManager the repositories write to within the (not yet committed) transaction
+            EntityManager transactionalEntityManager =
+                EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+
+            assertSame(outerEntityManager, transactionalEntityManager);
+            assertSame(transactionalEntityManager.getDelegate(), getSession(auditReader));
+
+            requiresNewTemplate.executeWithoutResult(innerStatus ->
+                assertSame(innerEntityManager.getDelegate(), getSession(auditReader)));
+
+            assertSame(transactionalEntityManager.getDelegate(), getSession(auditReader));
+            verify(outerEntityManager.getTransaction(), never()).commit();
+        });
+
+        verify(outerEntityManager.getTransaction()).commit();
+    }
+
+    @Test
+    public void auditReader_FailsOutsideOfATransaction() {
+        AuditReader auditReader = new AuditConfig(entityManagerFactory).auditReader();
+
+        assertNotSame(AuditReader.class, auditReader.getClass());
+        assertThrows(IllegalStateException.class, () -> auditReader.isEntityClassAudited(Object.class));
+    }
+
+    private EntityManager mockEntityManager() {
+        SessionImplementor session = mock(SessionImplementor.class);
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        ServiceRegistryImplementor serviceRegistry = mock(ServiceRegistryImplementor.class);
+        when(session.getFactory()).thenReturn(sessionFactory);
+        when(sessionFactory.getServiceRegistry()).thenReturn(serviceRegistry);
+        when(serviceRegistry.getService(EnversService.class)).thenReturn(enversService);
+
+        EntityManager entityManager = mock(EntityManager.class);
+        EntityTransaction transaction = mock(EntityTransaction.class);
+        when(entityManager.getDelegate()).thenReturn(session);
+        when(entityManager.getTransaction()).thenReturn(transaction);
+
+        return entityManager;
+    }
+
+    /**
+     * Returns the session of the audit reader the given proxy delegates to in the current transaction.
+     */
+    private static Session getSession(AuditReader auditReader) {
+        try {
+            return ((AuditReaderImplementor) ((Advised) auditReader).getTargetSource().getTarget()).getSession();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.controller;
+
+import de.terrestris.shogun.lib.model.Application;
+import de.terrestris.shogun.lib.service.ApplicationService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BaseControllerRevisionsTest {
+
+    @Mock
+    private ApplicationService service;
+
+    @Mock
+    private MessageSource messageSource;
+
+    private final Application application = new Application();
+
+    private ApplicationController controller;
+
+    @Before
+    public void setUp() {
+        controller = new ApplicationController();
+        controller.service = service;
+        controller.messageSource = messageSource;
+    }
+
+    @Test
+    public void findRevisions_capsThePageSize() {
+        when(service.findOne(1L)).thenReturn(Optional.of(application));
+        when(service.findRevisions(application, PageRequest.of(0, BaseController.MAX_REVISION_PAGE_SIZE)))
+            .thenReturn(Page.empty());
+
+        controller.findRevisions(1L, 0, BaseController.MAX_REVISION_PAGE_SIZE + 1);
+
+        verify(service).findRevisions(application, PageRequest.of(0, 1000));
+    }
+
+    @Test
+    public void findRevisions_usesTheDefaultPageSize() {
+        when(service.findOne(1L)).thenReturn(Optional.of(application));
+        when(service.findRevisions(application, PageRequest.of(2, BaseController.DEFAULT_REVISION_PAGE_SIZE)))
+            .thenReturn(Page.empty());
+
+        controller.findRevisions(1L, 2, null);
+
+        verify(service).findRevisions(application, PageRequest.of(2, 20));
+    }
+
+    @Test
+    public void findRevisions_rejectsInvalidPages() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> controller.findRevisions(1L, -1, 10));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(service, never()).findRevisions(any(), any());
+    }
+
+}
@@ -0,0 +1,47 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.dto;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * Test for {@link KeysetPage}
+ */
+public class KeysetPageTest {
+
+    @Test
+    public void decodeCursor_returnsTheEncodedId() {
+        assertEquals(Long.valueOf(4711L), KeysetPage.decodeCursor(KeysetPage.encodeCursor(4711L)));
+    }
+
+    @Test
+    public void decodeCursor_startsAtTheFirstPageForEmptyCursors() {
+        assertEquals(Long.valueOf(0L), KeysetPage.decodeCursor(""));
+        assertEquals(Long.valueOf(0L), KeysetPage.decodeCursor(null));
+    }
+
+    @Test
+    public void decodeCursor_rejectsInvalidCursors() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.decodeCursor("4711"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.decodeCursor("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.decodeCursor(KeysetPage.encodeCursor(null)));
+    }
+
+}
@@ -0,0 +1,106 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.enumeration;
+
+import de.terrestris.shogun.lib.repository.BaseCrudRepository;
+import org.junit.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link PermissionCollectionType} and {@link PermissionType}
+ */
+public class PermissionCollectionTypeTest {
+
+    @Test
+    public void getPermissions_resolvesThePermissionTypesByName() {
+        assertEquals(EnumSet.of(PermissionType.ADMIN), PermissionCollectionType.ADMIN.getPermissions());
+        assertEquals(EnumSet.of(PermissionType.READ, PermissionType.UPDATE, PermissionType.DELETE),
+            PermissionCollectionType.READ_UPDATE_DELETE.getPermissions());
+        assertEquals(EnumSet.of(PermissionType.CREATE, PermissionType.READ),
+            PermissionCollectionType.CREATE_READ.getPermissions());
+    }
+
+    @Test
+    public void grants_checksThePermissionOrAdmin() {
+        assertTrue(PermissionCollectionType.READ_UPDATE.grants(PermissionType.READ));
+        assertFalse(PermissionCollectionType.READ_UPDATE.grants(PermissionType.DELETE));
+
+        for (PermissionType permission : PermissionType.values()) {
+            assertTrue(PermissionCollectionType.ADMIN.grants(permission));
+        }
+    }
+
+    @Test
+    public void grantingMask_grantsThePermissionOrAdmin() {
+        assertEquals(PermissionType.READ.getMask() | PermissionType.ADMIN.getMask(),
+            PermissionType.READ.getGrantingMask());
+
+        for (PermissionCollectionType type : PermissionCollectionType.values()) {
+            assertEquals(type.grants(PermissionType.READ), (type.getMask() & PermissionType.READ.getGrantingMask()) != 0);
+        }
+    }
+
+    @Test
+    public void grantingMask_isUsedByTheRepositoryQueries() {
+        Pattern maskPattern = Pattern.compile("bitand\\(\\w+\\.permission\\.permissionMask, :#\\{([^}]+)}\\)");
+        SpelExpressionParser parser = new SpelExpressionParser();
+        int checkedQueries = 0;
+
+        for (Method method : BaseCrudRepository.class.getMethods()) {
+            Query query = method.getAnnotation(Query.class);
+
+            if (query == null || !query.value().contains("permissionMask")) {
+                continue;
+            }
+
+            Matcher matcher = maskPattern.matcher(query.value());
+            int masks = 0;
+            while (matcher.find()) {
+                assertEquals(PermissionType.READ.getGrantingMask(),
+                    parser.parseExpression(matcher.group(1)).getValue());
+                masks++;
+            }
+
+            assertEquals(query.value().split("permissionMask").length - 1, masks);
+            checkedQueries++;
+        }
+
+        assertEquals(6, checkedQueries);
+    }
+
+    @Test
+    public void fromMask_returnsSharedSets() {
+        Set<PermissionType> permissions = EnumSet.of(PermissionType.CREATE, PermissionType.DELETE);
+        int mask = PermissionType.toMask(permissions);
+
+        assertEquals(permissions, PermissionType.fromMask(mask));
+        assertSame(PermissionType.fromMask(mask), PermissionType.fromMask(mask));
+        assertTrue(PermissionType.fromMask(0).isEmpty());
+    }
+}
@@ -0,0 +1,133 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.listener;
+
+import de.terrestris.shogun.lib.cache.invalidation.CacheInvalidation;
+import de.terrestris.shogun.lib.service.CacheService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CacheInvalidationListenerTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private CacheService cacheService;
+
+    @InjectMocks
+    private CacheInvalidationListener listener;
+
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionTemplate requiresNewTemplate;
+
+    @Before
+    public void setUp() {
+        when(entityManagerFactory.createEntityManager())
+            .thenAnswer(invocation -> mock(EntityManager.class, RETURNS_DEEP_STUBS));
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Test
+    public void onPostInsert_publishesTheInvalidationsOfATransactionOnceAfterTheCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            listener.onPostInsert(mockInsertEvent(1L));
+            listener.onPostInsert(mockInsertEvent(2L));
+
+            verify(cacheService, never()).publish(any());
+        });
+
+        verify(cacheService, times(1)).publish(Set.of(invalidation(1L), invalidation(2L)));
+    }
+
+    @Test
+    public void onPostInsert_publishesTheInvalidationsOfANestedTransactionSeparately() {
+        transactionTemplate.executeWithoutResult(outerStatus -> {
+            listener.onPostInsert(mockInsertEvent(1L));
+
+            requiresNewTemplate.executeWithoutResult(innerStatus -> listener.onPostInsert(mockInsertEvent(2L)));
+
+            verify(cacheService, times(1)).publish(Set.of(invalidation(2L)));
+
+            listener.onPostInsert(mockInsertEvent(3L));
+        });
+
+        verify(cacheService, times(1)).publish(Set.of(invalidation(1L), invalidation(3L)));
+    }
+
+    @Test
+    public void onPostInsert_keepsTheInvalidationsOfANestedTransactionIfTheOuterOneIsRolledBack() {
+        transactionTemplate.executeWithoutResult(outerStatus -> {
+            listener.onPostInsert(mockInsertEvent(1L));
+
+            requiresNewTemplate.executeWithoutResult(innerStatus -> listener.onPostInsert(mockInsertEvent(2L)));
+
+            outerStatus.setRollbackOnly();
+        });
+
+        verify(cacheService, times(1)).publish(any());
+        verify(cacheService, times(1)).publish(Set.of(invalidation(2L)));
+    }
+
+    @Test
+    public void onPostInsert_publishesImmediatelyWithoutTransaction() {
+        listener.onPostInsert(mockInsertEvent(1L));
+
+        verify(cacheService, times(1)).publish(List.of(invalidation(1L)));
+    }
+
+    private PostInsertEvent mockInsertEvent(Long id) {
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.canWriteToCache()).thenReturn(true);
+        when(persister.getEntityName()).thenReturn("de.terrestris.shogun.lib.model.Application");
+
+        PostInsertEvent event = mock(PostInsertEvent.class);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getId()).thenReturn(id);
+
+        return event;
+    }
+
+    private CacheInvalidation invalidation(Long id) {
+        return CacheInvalidation.entity("de.terrestris.shogun.lib.model.Application", id);
+    }
+
+}
@@ -0,0 +1,142 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.listener;
+
+import de.terrestris.shogun.lib.model.User;
+import de.terrestris.shogun.lib.service.security.provider.UserProviderService;
+import de.terrestris.shogun.properties.KeycloakProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.security.authentication.event.InteractiveAuthenticationSuccessEvent;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link LoginListener}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LoginListenerTest {
+
+    private static final int LOGINS = 500;
+
+    private static final int USERS = 50;
+
+    @Mock
+    private UserProviderService userProviderService;
+
+    @Spy
+    private KeycloakProperties keycloakProperties = new KeycloakProperties();
+
+    @InjectMocks
+    private LoginListener loginListener;
+
+    @Before
+    public void init() {
+        loginListener.init();
+    }
+
+    @After
+    public void destroy() {
+        loginListener.destroy();
+    }
+
+    @Test
+    public void onApplicationEvent_doesNotSerializeParallelLogins() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        when(userProviderService.findOrCreateUserByProviderId(anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+
+            return new User<>(invocation.getArgument(0), null, null, null);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(USERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> logins = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < LOGINS; i++) {
+                InteractiveAuthenticationSuccessEvent event = buildLoginEvent("user-" + (i % USERS));
+
+                logins.add(executor.submit(() -> {
+                    start.await();
+                    loginListener.onApplicationEvent(event);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> login : logins) {
+                login.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue("Logins have been serialized", maxInFlight.get() > 1);
+        verify(userProviderService, times(LOGINS)).findOrCreateUserByProviderId(anyString());
+
+        // the groups of every user are synchronized (asynchronously), pending synchronizations are deduplicated
+        for (int i = 0; i < USERS; i++) {
+            String keycloakUserId = "user-" + i;
+            verify(userProviderService, timeout(10000).atLeastOnce())
+                .synchronizeGroups(argThat(user -> keycloakUserId.equals(user.getAuthProviderId())));
+        }
+        verify(userProviderService, atMost(LOGINS)).synchronizeGroups(any());
+    }
+
+    @Test
+    public void onApplicationEvent_ignoresOtherAuthentications() {
+        loginListener.onApplicationEvent(new InteractiveAuthenticationSuccessEvent(
+            new org.springframework.security.authentication.TestingAuthenticationToken("user", null), getClass()));
+
+        verifyNoInteractions(userProviderService);
+    }
+
+    private InteractiveAuthenticationSuccessEvent buildLoginEvent(String keycloakUserId) {
+        Jwt jwt = Jwt.withTokenValue("token")
+            .header("alg", "none")
+            .subject(keycloakUserId)
+            .build();
+
+        return new InteractiveAuthenticationSuccessEvent(new JwtAuthenticationToken(jwt), getClass());
+    }
+}
@@ -0,0 +1,219 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.repository.impl;
+
+import de.terrestris.shogun.lib.model.Application;
+import jakarta.persistence.EntityManager;
+import org.hibernate.envers.AuditReader;
+import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.DefaultRevisionEntity;
+import org.hibernate.envers.RevisionType;
+import org.hibernate.envers.query.AuditQuery;
+import org.hibernate.envers.query.AuditQueryCreator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.history.Revision;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.repository.history.support.RevisionEntityInformation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ShogunRevisionRepositoryImplTest {
+
+    private static final Long ENTITY_ID = 42L;
+
+    private static final long TOTAL = 5L;
+
+    @Mock
+    private JpaEntityInformation<Application, Long> entityInformation;
+
+    @Mock
+    private RevisionEntityInformation revisionEntityInformation;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private AuditReader auditReader;
+
+    @Mock
+    private AuditQueryCreator auditQueryCreator;
+
+    private MockedStatic<AuditReaderFactory> auditReaderFactory;
+
+    private AuditQuery countQuery;
+
+    private AuditQuery revisionNumberQuery;
+
+    private AuditQuery revisionQuery;
+
+    private ShogunRevisionRepositoryImpl<Application, Long, Integer> revisionRepository;
+
+    @Before
+    public void setUp() {
+        doReturn(Application.class).when(entityInformation).getJavaType();
+
+        auditReaderFactory = mockStatic(AuditReaderFactory.class);
+        auditReaderFactory.when(() -> AuditReaderFactory.get(entityManager)).thenReturn(auditReader);
+        when(auditReader.createQuery()).thenReturn(auditQueryCreator);
+
+        countQuery = mock(AuditQuery.class, RETURNS_SELF);
+        revisionNumberQuery = mock(AuditQuery.class, RETURNS_SELF);
+        revisionQuery = mock(AuditQuery.class, RETURNS_SELF);
+
+        revisionRepository = new ShogunRevisionRepositoryImpl<>(entityInformation, revisionEntityInformation,
+            entityManager);
+    }
+
+    @After
+    public void tearDown() {
+        auditReaderFactory.close();
+    }
+
+    @Test
+    public void findRevisions_returnsTheRequestedPage() {
+        mockRevisions(3, 4);
+
+        Page<Revision<Integer, Application>> page = revisionRepository.findRevisions(ENTITY_ID, PageRequest.of(1, 2));
+
+        verify(revisionNumberQuery).setFirstResult(2);
+        verify(revisionNumberQuery).setMaxResults(2);
+        assertEquals(List.of(3, 4), getRevisionNumbers(page));
+        assertEquals(TOTAL, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertTrue(page.hasPrevious());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    public void findRevisions_returnsTheFirstPage() {
+        mockRevisions(1, 2);
+
+        Page<Revision<Integer, Application>> page = revisionRepository.findRevisions(ENTITY_ID, PageRequest.of(0, 2));
+
+        verify(revisionNumberQuery).setFirstResult(0);
+        verify(revisionNumberQuery).setMaxResults(2);
+        assertEquals(List.of(1, 2), getRevisionNumbers(page));
+        assertTrue(page.isFirst());
+        assertFalse(page.isLast());
+    }
+
+    @Test
+    public void findRevisions_returnsTheLastPartialPage() {
+        mockRevisions(5);
+
+        Page<Revision<Integer, Application>> page = revisionRepository.findRevisions(ENTITY_ID, PageRequest.of(2, 2));
+
+        verify(revisionNumberQuery).setFirstResult(4);
+        assertEquals(List.of(5), getRevisionNumbers(page));
+        assertEquals(TOTAL, page.getTotalElements());
+        assertTrue(page.isLast());
+    }
+
+    @Test
+    public void findRevisions_returnsAllRevisionsOnASinglePage() {
+        mockRevisions(1, 2, 3, 4, 5);
+
+        Page<Revision<Integer, Application>> page = revisionRepository.findRevisions(ENTITY_ID,
+            PageRequest.of(0, 1000));
+
+        verify(revisionNumberQuery).setMaxResults(1000);
+        assertEquals(List.of(1, 2, 3, 4, 5), getRevisionNumbers(page));
+        assertEquals(1, page.getTotalPages());
+    }
+
+    @Test
+    public void findRevisions_returnsAnEmptyPageBeyondTheLastPage() {
+        when(auditQueryCreator.forRevisionsOfEntity(Application.class, false, true)).thenReturn(countQuery);
+        when(countQuery.getSingleResult()).thenReturn(TOTAL);
+
+        Page<Revision<Integer, Application>> page = revisionRepository.findRevisions(ENTITY_ID, PageRequest.of(3, 2));
+
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(TOTAL, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        verify(auditQueryCreator, times(1)).forRevisionsOfEntity(Application.class, false, true);
+        verify(auditQueryCreator, never()).forRevisionsOfEntityWithChanges(any(), anyBoolean());
+    }
+
+    @Test
+    public void findRevisions_returnsAnEmptyPageWithoutRevisions() {
+        when(auditQueryCreator.forRevisionsOfEntity(Application.class, false, true)).thenReturn(countQuery);
+        when(countQuery.getSingleResult()).thenReturn(0L);
+
+        Page<Revision<Integer, Application>> page = revisionRepository.findRevisions(ENTITY_ID, PageRequest.of(0, 20));
+
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(0, page.getTotalElements());
+        verify(auditQueryCreator, never()).forRevisionsOfEntityWithChanges(any(), anyBoolean());
+    }
+
+    /**
+     * Mocks the queries of {@link ShogunRevisionRepositoryImpl#findRevisions(Object, org.springframework.data.domain.Pageable)}
+     * for {@link #TOTAL} revisions, the given revisions are the ones of the requested page.
+     */
+    private void mockRevisions(Integer... revisionNumbers) {
+        when(auditQueryCreator.forRevisionsOfEntity(Application.class, false, true))
+            .thenReturn(countQuery, revisionNumberQuery);
+        when(auditQueryCreator.forRevisionsOfEntityWithChanges(Application.class, true)).thenReturn(revisionQuery);
+        when(countQuery.getSingleResult()).thenReturn(TOTAL);
+        when(revisionNumberQuery.getResultList()).thenReturn(Arrays.asList(revisionNumbers));
+        when(revisionQuery.getResultList()).thenReturn(Arrays.stream(revisionNumbers)
+            .map(ShogunRevisionRepositoryImplTest::createRevisionRow)
+            .toList());
+    }
+
+    private static Object[] createRevisionRow(int revisionNumber) {
+        DefaultRevisionEntity revisionEntity = new DefaultRevisionEntity();
+        revisionEntity.setId(revisionNumber);
+        revisionEntity.setTimestamp(revisionNumber * 1000L);
+
+        return new Object[] {new Application(), revisionEntity, revisionNumber == 1 ? RevisionType.ADD :
+            RevisionType.MOD, Set.of()};
+    }
+
+    private static List<Integer> getRevisionNumbers(Page<Revision<Integer, Application>> page) {
+        return page.getContent().stream()
+            .map(Revision::getRequiredRevisionNumber)
+            .toList();
+    }
+
+}
@@ -0,0 +1,106 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.resource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JdbcBinaryResourceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private JdbcBinaryResource resource;
+
+    @Before
+    public void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+
+        resource = new JdbcBinaryResource(dataSource, "shogun.files", "file", "id", 1L, 1000L);
+    }
+
+    @Test
+    public void getInputStream_streamsColumnAndReleasesConnectionOnClose() throws SQLException, IOException {
+        byte[] content = "SHOGun".getBytes(StandardCharsets.UTF_8);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBinaryStream(1)).thenReturn(new ByteArrayInputStream(content));
+
+        try (InputStream stream = resource.getInputStream()) {
+            assertArrayEquals(content, stream.readAllBytes());
+            verify(connection, never()).close();
+        }
+
+        verify(connection).prepareStatement("SELECT file FROM shogun.files WHERE id = ?");
+        verify(statement).setObject(1, 1L);
+        verify(resultSet).close();
+        verify(statement).close();
+        verify(connection).close();
+    }
+
+    @Test
+    public void getInputStream_throwsAndReleasesConnectionIfRowIsMissing() throws SQLException {
+        when(resultSet.next()).thenReturn(false);
+
+        assertThrows(FileNotFoundException.class, () -> resource.getInputStream());
+
+        verify(connection).close();
+    }
+
+    @Test
+    public void contentLength_isQueriedOnce() throws SQLException, IOException {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(6L);
+
+        assertEquals(6L, resource.contentLength());
+        assertEquals(6L, resource.contentLength());
+        assertEquals(1000L, resource.lastModified());
+
+        verify(connection, times(1)).prepareStatement("SELECT octet_length(file) FROM shogun.files WHERE id = ?");
+    }
+
+}
@@ -35,6 +35,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.security.core.Authentication;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.assertFalse;
@@ -64,6 +65,8 @@ public class BasePermissionEvaluatorTest {
         mockUser.setAuthProviderId(mockUserKeycloakId);
 
         when(defaultPermissionEvaluatorMock.getEntityClassName()).thenReturn(BaseEntity.class);
+
+        permissionEvaluator.permissionEvaluators = (List) baseEntityPermissionEvaluatorMock;
     }
 
     @Test
@@ -121,6 +124,7 @@ public class BasePermissionEvaluatorTest {
         when(userProviderService.getUserFromAuthentication(authentication)).thenReturn(Optional.of(mockUser));
 
         baseEntityPermissionEvaluatorMock.add(defaultPermissionEvaluatorMock);
+        permissionEvaluator.init();
 
         permissionEvaluator.hasPermission(authentication, Optional.of(targetDomainObject), permissionObject);
 
@@ -141,6 +145,7 @@ public class BasePermissionEvaluatorTest {
         when(userProviderService.getUserFromAuthentication(authentication)).thenReturn(Optional.of(mockUser));
 
         baseEntityPermissionEvaluatorMock.add(defaultPermissionEvaluatorMock);
+        permissionEvaluator.init();
 
         permissionEvaluator.hasPermission(authentication, targetDomainObject, permissionObject);
 
@@ -150,4 +155,32 @@ public class BasePermissionEvaluatorTest {
         baseEntityPermissionEvaluatorMock.clear();
     }
 
+    @Test
+    public void hasPermission_ShouldCallThePermissionEvaluatorOfTheEntityClass() throws NoSuchFieldException {
+        Authentication authentication = mock(Authentication.class);
+
+        Application targetDomainObject = new Application();
+        IdHelper.setIdForEntity(targetDomainObject, 1L);
+        String permissionObject = "READ";
+
+        BaseEntityPermissionEvaluator applicationPermissionEvaluatorMock = mock(BaseEntityPermissionEvaluator.class);
+        when(applicationPermissionEvaluatorMock.getEntityClassName()).thenReturn(Application.class);
+        when(userProviderService.getUserFromAuthentication(authentication)).thenReturn(Optional.of(mockUser));
+
+        baseEntityPermissionEvaluatorMock.add(defaultPermissionEvaluatorMock);
+        baseEntityPermissionEvaluatorMock.add(applicationPermissionEvaluatorMock);
+        permissionEvaluator.init();
+        clearInvocations(applicationPermissionEvaluatorMock);
+
+        permissionEvaluator.hasPermission(authentication, targetDomainObject, permissionObject);
+        permissionEvaluator.hasPermission(authentication, targetDomainObject, permissionObject);
+
+        verify(applicationPermissionEvaluatorMock, times(2)).hasPermission(mockUser, targetDomainObject, PermissionType.READ);
+        verify(applicationPermissionEvaluatorMock, never()).getEntityClassName();
+        verify(defaultPermissionEvaluatorMock, never()).hasPermission(any(User.class), any(BaseEntity.class), any());
+
+        reset(userProviderService);
+        baseEntityPermissionEvaluatorMock.clear();
+    }
+
 }
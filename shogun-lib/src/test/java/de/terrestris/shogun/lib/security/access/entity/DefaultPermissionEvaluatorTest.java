@@ -16,29 +16,45 @@
  */
 package de.terrestris.shogun.lib.security.access.entity;
 
+import de.terrestris.shogun.lib.cache.PermissionCache;
 import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
 import de.terrestris.shogun.lib.enumeration.PermissionType;
+import de.terrestris.shogun.lib.model.Application;
 import de.terrestris.shogun.lib.model.BaseEntity;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.model.security.permission.PermissionCollection;
+import de.terrestris.shogun.lib.repository.BaseCrudRepository;
 import de.terrestris.shogun.lib.service.security.permission.GroupClassPermissionService;
 import de.terrestris.shogun.lib.service.security.permission.GroupInstancePermissionService;
 import de.terrestris.shogun.lib.service.security.permission.UserClassPermissionService;
 import de.terrestris.shogun.lib.service.security.permission.UserInstancePermissionService;
+import de.terrestris.shogun.lib.service.security.provider.GroupProviderService;
+import de.terrestris.shogun.lib.util.IdHelper;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.keycloak.representations.idm.GroupRepresentation;
+import org.keycloak.representations.idm.UserRepresentation;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -56,6 +72,12 @@ public class DefaultPermissionEvaluatorTest {
     @Mock
     private GroupClassPermissionService groupClassPermissionService;
 
+    @Mock
+    private GroupProviderService<UserRepresentation, GroupRepresentation> groupProviderService;
+
+    @Mock
+    private PermissionCache permissionCache;
+
     @InjectMocks
     private DefaultPermissionEvaluator defaultPermissionEvaluator;
 
@@ -171,6 +193,275 @@ public class DefaultPermissionEvaluatorTest {
         resetMocks();
     }
 
+    @Test
+    public void filterPermitted_shouldResolveInstancePermissionsForAllEntitiesAtOnce() throws NoSuchFieldException {
+        Application entity1 = buildApplication(1L);
+        Application entity2 = buildApplication(2L);
+        Application entity3 = buildApplication(3L);
+
+        when(groupProviderService.findGroupIdsByUser(mockUser)).thenReturn(List.of(10L));
+        when(userClassPermissionService.findPermissionsFor(Application.class, mockUser))
+            .thenReturn(EnumSet.noneOf(PermissionType.class));
+        when(groupClassPermissionService.findPermissionsForGroups(Application.class, List.of(10L)))
+            .thenReturn(EnumSet.noneOf(PermissionType.class));
+        when(userInstancePermissionService.findPermissionsFor(Set.of(1L, 2L, 3L), mockUser))
+            .thenReturn(Map.of(1L, EnumSet.of(PermissionType.READ), 2L, EnumSet.of(PermissionType.DELETE)));
+        when(groupInstancePermissionService.findPermissionsForGroups(Set.of(1L, 2L, 3L), List.of(10L)))
+            .thenReturn(Map.of(3L, EnumSet.of(PermissionType.ADMIN)));
+
+        List<Application> permitted = defaultPermissionEvaluator.filterPermitted(mockUser,
+            (List) List.of(entity1, entity2, entity3), PermissionType.READ);
+
+        assertEquals(List.of(entity1, entity3), permitted);
+
+        verify(userInstancePermissionService, times(1)).findPermissionsFor(any(), any());
+        verify(groupInstancePermissionService, times(1)).findPermissionsForGroups(any(), any());
+        verify(userClassPermissionService, times(1)).findPermissionsFor(any(), any());
+        verify(groupClassPermissionService, times(1)).findPermissionsForGroups(any(), any());
+        verify(userInstancePermissionService, never()).findPermissionCollectionFor(any(), any());
+        verify(groupInstancePermissionService, never()).findPermissionCollectionFor(any(BaseEntity.class), any(User.class));
+
+        resetMocks();
+    }
+
+    @Test
+    public void filterPermitted_shouldResolveClassPermissionsOncePerClass() throws NoSuchFieldException {
+        Application entity1 = buildApplication(1L);
+        Application entity2 = buildApplication(2L);
+
+        when(groupProviderService.findGroupIdsByUser(mockUser)).thenReturn(List.of());
+        when(userClassPermissionService.findPermissionsFor(Application.class, mockUser))
+            .thenReturn(EnumSet.of(PermissionType.READ));
+
+        List<Application> permitted = defaultPermissionEvaluator.filterPermitted(mockUser,
+            (List) List.of(entity1, entity2), PermissionType.READ);
+
+        assertEquals(List.of(entity1, entity2), permitted);
+
+        verify(userInstancePermissionService, times(1)).findPermissionsFor(Set.of(1L, 2L), mockUser);
+        verify(userClassPermissionService, times(1)).findPermissionsFor(Application.class, mockUser);
+        verify(userClassPermissionService, never()).findPermissionCollectionFor(any(), any());
+
+        resetMocks();
+    }
+
+    @Test
+    public void filterPermitted_shouldResolveCreatePermissionOncePerClassForNewEntities() {
+        Application entity1 = new Application();
+        Application entity2 = new Application();
+        Application entity3 = new Application();
+
+        when(groupProviderService.findGroupIdsByUser(mockUser)).thenReturn(List.of());
+        when(userClassPermissionService.findPermissionsFor(Application.class, mockUser))
+            .thenReturn(EnumSet.noneOf(PermissionType.class));
+        when(groupClassPermissionService.findPermissionsForGroups(Application.class, List.of()))
+            .thenReturn(EnumSet.of(PermissionType.CREATE));
+
+        List<Application> permitted = defaultPermissionEvaluator.filterPermitted(mockUser,
+            (List) List.of(entity1, entity2, entity3), PermissionType.CREATE);
+
+        assertEquals(List.of(entity1, entity2, entity3), permitted);
+
+        verify(userClassPermissionService, times(1)).findPermissionsFor(Application.class, mockUser);
+        verify(groupClassPermissionService, times(1)).findPermissionsForGroups(Application.class, List.of());
+        verify(userClassPermissionService, never()).findPermissionCollectionFor(any(), any());
+        verify(groupClassPermissionService, never()).findPermissionCollectionFor(any(), any(User.class));
+        verifyNoInteractions(userInstancePermissionService, groupInstancePermissionService);
+
+        resetMocks();
+    }
+
+    @Test
+    public void filterPermitted_shouldHonorOverriddenPermissionChecks() throws NoSuchFieldException {
+        Application entity1 = buildApplication(1L);
+        Application entity2 = buildApplication(2L);
+        Application entity3 = buildApplication(3L);
+
+        BaseEntityPermissionEvaluator<Application> evaluator = new BaseEntityPermissionEvaluator<>() {
+            @Override
+            public boolean hasPermission(User user, Application entity, PermissionType permission) {
+                // e.g. an application that has been locked for everyone
+                return entity.getId() != 2L && super.hasPermission(user, entity, permission);
+            }
+
+            @Override
+            public boolean hasPermissionByGroupInstancePermission(User user, BaseEntity entity,
+                    PermissionType permission) {
+                // e.g. an application that is public
+                return entity.getId() == 3L || super.hasPermissionByGroupInstancePermission(user, entity, permission);
+            }
+        };
+        injectMocks(evaluator);
+
+        when(userInstancePermissionService.findPermissionsFor(Set.of(1L, 2L, 3L), mockUser))
+            .thenReturn(Map.of(1L, EnumSet.of(PermissionType.READ), 2L, EnumSet.of(PermissionType.READ)));
+
+        List<Application> permitted = evaluator.filterPermitted(mockUser, List.of(entity1, entity2, entity3),
+            PermissionType.READ);
+
+        assertEquals(List.of(entity1, entity3), permitted);
+
+        verify(userInstancePermissionService, times(1)).findPermissionsFor(any(), any());
+        verify(userInstancePermissionService, never()).findPermissionCollectionFor(any(), any());
+
+        resetMocks();
+    }
+
+    @Test
+    public void hasPermission_shouldCacheTheOutcomeOfThePermissionChecks() throws NoSuchFieldException {
+        IdHelper.setIdForEntity(mockUser, 5L);
+        Application entity = buildApplication(1L);
+
+        BaseEntityPermissionEvaluator<Application> evaluator = new BaseEntityPermissionEvaluator<>() {
+            @Override
+            public boolean hasPermissionByUserClassPermission(User user, BaseEntity entity,
+                    PermissionType permission) {
+                // e.g. an application that is public
+                return permission == PermissionType.READ;
+            }
+        };
+        injectMocks(evaluator);
+
+        when(permissionCache.isEnabled()).thenReturn(true);
+        when(permissionCache.hasInstancePermission(eq(5L), eq(Application.class.getCanonicalName()), eq(1L),
+            any(), any())).thenAnswer(invocation -> ((BooleanSupplier) invocation.getArgument(4)).getAsBoolean());
+        when(userInstancePermissionService.findPermissionCollectionFor(entity, mockUser))
+            .thenReturn(new PermissionCollection());
+        when(groupInstancePermissionService.findPermissionCollectionFor(entity, mockUser))
+            .thenReturn(new PermissionCollection());
+        when(groupClassPermissionService.findPermissionCollectionFor(entity, mockUser))
+            .thenReturn(new PermissionCollection());
+
+        assertTrue(evaluator.hasPermission(mockUser, entity, PermissionType.READ));
+        assertFalse(evaluator.hasPermission(mockUser, entity, PermissionType.UPDATE));
+
+        verify(permissionCache, times(1)).hasInstancePermission(eq(5L), any(), eq(1L), eq(PermissionType.READ), any());
+        verify(permissionCache, times(1)).hasInstancePermission(eq(5L), any(), eq(1L), eq(PermissionType.UPDATE),
+            any());
+        verify(userClassPermissionService, never()).findPermissionCollectionFor(any(), any());
+        verify(groupClassPermissionService, times(1)).findPermissionCollectionFor(entity, mockUser);
+
+        resetMocks();
+    }
+
+    @Test
+    public void hasPermission_shouldReturnTheCachedOutcome() throws NoSuchFieldException {
+        IdHelper.setIdForEntity(mockUser, 5L);
+        Application entity = buildApplication(1L);
+
+        when(permissionCache.isEnabled()).thenReturn(true);
+        when(permissionCache.hasInstancePermission(eq(5L), eq(Application.class.getCanonicalName()), eq(1L),
+            eq(PermissionType.DELETE), any())).thenReturn(true);
+
+        assertTrue(defaultPermissionEvaluator.hasPermission(mockUser, entity, PermissionType.DELETE));
+
+        verifyNoInteractions(userInstancePermissionService, groupInstancePermissionService,
+            userClassPermissionService, groupClassPermissionService);
+
+        resetMocks();
+    }
+
+    @Test
+    public void filterPermitted_shouldNeverGrantAnythingWithoutUser() throws NoSuchFieldException {
+        List<BaseEntity> permitted = defaultPermissionEvaluator.filterPermitted(null,
+            List.of(buildApplication(1L)), PermissionType.READ);
+
+        assertTrue(permitted.isEmpty());
+    }
+
+    @Test
+    public void findAllAfter_shouldCheckInstancePermissionsWithinTheQuery() throws NoSuchFieldException {
+        IdHelper.setIdForEntity(mockUser, 5L);
+        BaseCrudRepository<BaseEntity, Long> repository = mock(BaseCrudRepository.class);
+        List<BaseEntity> entities = List.of(buildApplication(11L), buildApplication(12L));
+
+        when(groupProviderService.findGroupIdsByUser(mockUser)).thenReturn(List.of(10L));
+        when(userClassPermissionService.findPermissionsFor(BaseEntity.class, mockUser))
+            .thenReturn(EnumSet.noneOf(PermissionType.class));
+        when(groupClassPermissionService.findPermissionsForGroups(BaseEntity.class, List.of(10L)))
+            .thenReturn(EnumSet.noneOf(PermissionType.class));
+        when(repository.findAllAfter(10L, PageRequest.of(0, 3), 5L, List.of(10L))).thenReturn(entities);
+
+        assertEquals(entities, defaultPermissionEvaluator.findAllAfter(mockUser, 10L, 3, repository, BaseEntity.class));
+
+        verify(repository, never()).findAll(any(Pageable.class));
+        verify(repository, never()).findAllAfter(any(), any());
+
+        resetMocks();
+    }
+
+    @Test
+    public void findAllAfter_shouldSkipInstancePermissionsIfGrantedByClassPermission() throws NoSuchFieldException {
+        IdHelper.setIdForEntity(mockUser, 5L);
+        BaseCrudRepository<BaseEntity, Long> repository = mock(BaseCrudRepository.class);
+
+        when(groupProviderService.findGroupIdsByUser(mockUser)).thenReturn(List.of());
+        when(userClassPermissionService.findPermissionsFor(BaseEntity.class, mockUser))
+            .thenReturn(EnumSet.of(PermissionType.READ));
+
+        defaultPermissionEvaluator.findAllAfter(mockUser, 0L, 3, repository, BaseEntity.class);
+
+        verify(repository, times(1)).findAllAfter(0L, PageRequest.of(0, 3));
+        verify(repository, never()).findAllAfter(any(), any(), any());
+
+        resetMocks();
+    }
+
+    @Test
+    public void streamAll_shouldCheckInstancePermissionsWithinTheQuery() throws NoSuchFieldException {
+        IdHelper.setIdForEntity(mockUser, 5L);
+        BaseCrudRepository<BaseEntity, Long> repository = mock(BaseCrudRepository.class);
+        List<BaseEntity> entities = List.of(buildApplication(11L), buildApplication(12L));
+
+        when(groupProviderService.findGroupIdsByUser(mockUser)).thenReturn(List.of());
+        when(userClassPermissionService.findPermissionsFor(BaseEntity.class, mockUser))
+            .thenReturn(EnumSet.noneOf(PermissionType.class));
+        when(repository.streamAll(5L)).thenReturn(entities.stream());
+
+        assertEquals(entities, defaultPermissionEvaluator.streamAll(mockUser, repository, BaseEntity.class).toList());
+
+        verify(repository, never()).streamAll();
+        verify(repository, never()).streamAll(any(), any());
+
+        resetMocks();
+    }
+
+    @Test
+    public void streamAll_shouldSkipInstancePermissionsIfGrantedByClassPermission() throws NoSuchFieldException {
+        IdHelper.setIdForEntity(mockUser, 5L);
+        BaseCrudRepository<BaseEntity, Long> repository = mock(BaseCrudRepository.class);
+
+        when(groupProviderService.findGroupIdsByUser(mockUser)).thenReturn(List.of(10L));
+        when(userClassPermissionService.findPermissionsFor(BaseEntity.class, mockUser))
+            .thenReturn(EnumSet.noneOf(PermissionType.class));
+        when(groupClassPermissionService.findPermissionsForGroups(BaseEntity.class, List.of(10L)))
+            .thenReturn(EnumSet.of(PermissionType.READ));
+
+        defaultPermissionEvaluator.streamAll(mockUser, repository, BaseEntity.class);
+
+        verify(repository, times(1)).streamAll();
+        verify(repository, never()).streamAll(any());
+        verify(repository, never()).streamAll(any(), any());
+
+        resetMocks();
+    }
+
+    private Application buildApplication(Long id) throws NoSuchFieldException {
+        Application application = new Application();
+        IdHelper.setIdForEntity(application, id);
+
+        return application;
+    }
+
+    private void injectMocks(BaseEntityPermissionEvaluator<?> evaluator) {
+        evaluator.userInstancePermissionService = userInstancePermissionService;
+        evaluator.groupInstancePermissionService = groupInstancePermissionService;
+        evaluator.userClassPermissionService = userClassPermissionService;
+        evaluator.groupClassPermissionService = groupClassPermissionService;
+        evaluator.groupProviderService = groupProviderService;
+        evaluator.permissionCache = permissionCache;
+    }
+
     private void resetMocks() {
         reset(userInstancePermissionService);
         reset(groupInstancePermissionService);
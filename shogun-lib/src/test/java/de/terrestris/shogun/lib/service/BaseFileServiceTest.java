@@ -16,18 +16,37 @@
  */
 package de.terrestris.shogun.lib.service;
 
+import de.terrestris.shogun.lib.model.File;
+import de.terrestris.shogun.properties.UploadProperties;
 import org.apache.tomcat.util.http.fileupload.InvalidFileNameException;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 
-import static org.junit.Assert.assertThrows;
-import static org.junit.Assert.fail;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class BaseFileServiceTest {
 
+    @Rule
+    public TemporaryFolder uploadFolder = new TemporaryFolder();
+
+    @Mock
+    private UploadProperties uploadProperties;
+
     @InjectMocks
     private FileService fileService;
 
@@ -63,4 +82,44 @@ public class BaseFileServiceTest {
         assertThrows(InvalidFileNameException.class, () -> fileService.isValidFileName("Peter\\n.pdf"));
     }
 
+    @Test
+    public void getFileResource_streamsFilesFromDisk() throws IOException {
+        when(uploadProperties.getBasePath()).thenReturn(uploadFolder.getRoot().getAbsolutePath());
+
+        Path directory = Files.createDirectory(uploadFolder.getRoot().toPath().resolve("a-uuid"));
+        Files.writeString(directory.resolve("shogun.txt"), "SHOGun", StandardCharsets.UTF_8);
+
+        File file = new File();
+        file.setPath("a-uuid/shogun.txt");
+
+        Resource resource = fileService.getFileResource(file);
+
+        assertTrue(resource instanceof FileSystemResource);
+        assertEquals(6, resource.contentLength());
+        assertEquals("SHOGun", resource.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void getFileResource_throwsIfFileIsMissing() {
+        when(uploadProperties.getBasePath()).thenReturn(uploadFolder.getRoot().getAbsolutePath());
+
+        File file = new File();
+        file.setPath("a-uuid/missing.txt");
+
+        assertThrows(FileNotFoundException.class, () -> fileService.getFileResource(file));
+    }
+
+    @Test
+    public void getFileResource_throwsIfPathLeavesBasePath() throws IOException {
+        Path basePath = uploadFolder.newFolder("upload").toPath();
+        Files.writeString(uploadFolder.getRoot().toPath().resolve("secret.txt"), "secret", StandardCharsets.UTF_8);
+
+        when(uploadProperties.getBasePath()).thenReturn(basePath.toString());
+
+        File file = new File();
+        file.setPath("../secret.txt");
+
+        assertThrows(FileNotFoundException.class, () -> fileService.getFileResource(file));
+    }
+
 }
@@ -0,0 +1,247 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.terrestris.shogun.lib.dto.BulkItemResult;
+import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
+import de.terrestris.shogun.lib.exception.BulkSizeExceededException;
+import de.terrestris.shogun.lib.model.Application;
+import de.terrestris.shogun.lib.model.User;
+import de.terrestris.shogun.lib.repository.ApplicationRepository;
+import de.terrestris.shogun.lib.security.access.entity.DefaultPermissionEvaluator;
+import de.terrestris.shogun.lib.service.security.permission.GroupInstancePermissionService;
+import de.terrestris.shogun.lib.service.security.permission.UserInstancePermissionService;
+import de.terrestris.shogun.lib.service.security.provider.UserProviderService;
+import de.terrestris.shogun.lib.util.IdHelper;
+import jakarta.persistence.EntityManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for the bulk operations of the {@link BaseService}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BaseServiceBulkTest {
+
+    @Mock
+    private ApplicationRepository repository;
+
+    @Mock
+    private UserProviderService userProviderService;
+
+    @Mock
+    private UserInstancePermissionService userInstancePermissionService;
+
+    @Mock
+    private GroupInstancePermissionService groupInstancePermissionService;
+
+    @Mock
+    private DefaultPermissionEvaluator permissionEvaluator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final TransactionStatus transactionStatus = new SimpleTransactionStatus();
+
+    private final User user = new User();
+
+    private ApplicationService service;
+
+    @Before
+    public void setUp() {
+        service = new ApplicationService();
+        service.repository = repository;
+        service.userProviderService = userProviderService;
+        service.userInstancePermissionService = userInstancePermissionService;
+        service.groupInstancePermissionService = groupInstancePermissionService;
+        service.permissionEvaluators = List.of();
+        service.defaultPermissionEvaluator = permissionEvaluator;
+        service.transactionManager = transactionManager;
+        service.entityManager = entityManager;
+        service.objectMapper = new ObjectMapper().findAndRegisterModules();
+        service.bulkChunkSize = 2;
+        service.bulkMaxSize = 5;
+        service.initPermissionEvaluators();
+
+        lenient().when(userProviderService.getUserBySession()).thenReturn(Optional.of(user));
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+    }
+
+    @Test
+    public void createAll_shouldReportTheResultOfEachEntity() throws NoSuchFieldException {
+        Application application1 = buildApplication(null, "Application 1");
+        Application application2 = buildApplication(null, "Application 2");
+        Application application3 = buildApplication(null, "Application 3");
+        List<Application> applications = List.of(application1, application2, application3);
+
+        mockFilterPermitted(applications, PermissionType.CREATE, List.of(application1, application3));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Application> entities = invocation.getArgument(0);
+            for (Application entity : entities) {
+                IdHelper.setIdForEntity(entity, entity == application1 ? 1L : 3L);
+            }
+            return entities;
+        });
+
+        List<BulkItemResult> results = service.createAll(applications);
+
+        assertEquals(List.of(
+            BulkItemResult.success(0, HttpStatus.CREATED, 1L),
+            BulkItemResult.failure(1, HttpStatus.FORBIDDEN, null),
+            BulkItemResult.success(2, HttpStatus.CREATED, 3L)
+        ), results);
+
+        verify(repository, times(1)).saveAll(List.of(application1));
+        verify(repository, times(1)).saveAll(List.of(application3));
+        verify(userInstancePermissionService, times(1)).setPermissionForCreated(List.of(application1), user,
+            PermissionCollectionType.ADMIN);
+        verify(userInstancePermissionService, times(1)).setPermissionForCreated(List.of(application3), user,
+            PermissionCollectionType.ADMIN);
+        verify(transactionManager, times(2)).commit(transactionStatus);
+    }
+
+    @Test
+    public void createAll_shouldRejectTooManyEntities() {
+        List<Application> applications = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            applications.add(new Application());
+        }
+
+        BulkSizeExceededException exception = assertThrows(BulkSizeExceededException.class,
+            () -> service.createAll(applications));
+
+        assertEquals(5, exception.getMaxSize());
+        verifyNoInteractions(repository, transactionManager);
+    }
+
+    @Test
+    public void updatePartialAll_shouldReportTheResultOfEachPatch() throws Exception {
+        Application application1 = buildApplication(1L, "Application 1");
+        Application application2 = buildApplication(2L, "Application 2");
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<JsonNode> patches = List.of(
+            objectMapper.readTree("{\"id\": 1, \"name\": \"Patched\"}"),
+            objectMapper.readTree("{\"name\": \"Without ID\"}"),
+            objectMapper.readTree("{\"id\": 2, \"name\": \"Not permitted\"}"),
+            objectMapper.readTree("{\"id\": 3, \"name\": \"Not found\"}")
+        );
+
+        when(repository.findAllById(List.of(1L))).thenReturn(List.of(application1));
+        when(repository.findAllById(List.of(2L, 3L))).thenReturn(List.of(application2));
+        mockFilterPermitted(List.of(application1), PermissionType.UPDATE, List.of(application1));
+        mockFilterPermitted(List.of(application2), PermissionType.UPDATE, List.of());
+
+        List<BulkItemResult> results = service.updatePartialAll(patches);
+
+        assertEquals(List.of(
+            BulkItemResult.success(0, HttpStatus.OK, 1L),
+            BulkItemResult.failure(1, HttpStatus.BAD_REQUEST, null),
+            BulkItemResult.failure(2, HttpStatus.NOT_FOUND, 2L),
+            BulkItemResult.failure(3, HttpStatus.NOT_FOUND, 3L)
+        ), results);
+        assertEquals("Patched", application1.getName());
+        assertEquals("Application 2", application2.getName());
+    }
+
+    @Test
+    public void deleteAll_shouldReportTheResultOfEachId() throws NoSuchFieldException {
+        Application application1 = buildApplication(1L, "Application 1");
+        Application application2 = buildApplication(2L, "Application 2");
+
+        when(repository.findAllById(List.of(1L, 2L))).thenReturn(List.of(application1, application2));
+        mockFilterPermitted(List.of(application1, application2), PermissionType.DELETE, List.of(application2));
+
+        List<BulkItemResult> results = service.deleteAll(Arrays.asList(1L, 2L, null));
+
+        assertEquals(List.of(
+            BulkItemResult.failure(0, HttpStatus.NOT_FOUND, 1L),
+            BulkItemResult.success(1, HttpStatus.NO_CONTENT, 2L),
+            BulkItemResult.failure(2, HttpStatus.BAD_REQUEST, null)
+        ), results);
+
+        verify(userInstancePermissionService, times(1)).deleteAllForEntities(List.of(2L));
+        verify(groupInstancePermissionService, times(1)).deleteAllForEntities(List.of(2L));
+        verify(repository, times(1)).deleteAll(List.of(application2));
+    }
+
+    @Test
+    public void deleteAll_shouldRollbackFailedChunksOnly() throws NoSuchFieldException {
+        Application application1 = buildApplication(1L, "Application 1");
+        Application application2 = buildApplication(2L, "Application 2");
+        Application application3 = buildApplication(3L, "Application 3");
+
+        when(repository.findAllById(List.of(1L, 2L))).thenReturn(List.of(application1, application2));
+        when(repository.findAllById(List.of(3L))).thenReturn(List.of(application3));
+        when(permissionEvaluator.filterPermitted(eq(user), anyList(), eq(PermissionType.DELETE)))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+        doThrow(new DataIntegrityViolationException("Referenced by another entity"))
+            .when(repository).deleteAll(List.of(application3));
+
+        List<BulkItemResult> results = service.deleteAll(List.of(1L, 2L, 3L));
+
+        assertEquals(List.of(
+            BulkItemResult.success(0, HttpStatus.NO_CONTENT, 1L),
+            BulkItemResult.success(1, HttpStatus.NO_CONTENT, 2L),
+            BulkItemResult.failure(2, HttpStatus.CONFLICT, 3L)
+        ), results);
+
+        verify(transactionManager, times(1)).commit(transactionStatus);
+        verify(transactionManager, times(1)).rollback(transactionStatus);
+    }
+
+    private void mockFilterPermitted(List<Application> entities, PermissionType permission,
+            List<Application> permitted) {
+        when(permissionEvaluator.filterPermitted(user, (List) entities, permission)).thenReturn((List) permitted);
+    }
+
+    private Application buildApplication(Long id, String name) throws NoSuchFieldException {
+        Application application = new Application();
+        application.setName(name);
+
+        if (id != null) {
+            IdHelper.setIdForEntity(application, id);
+        }
+
+        return application;
+    }
+}
@@ -21,8 +21,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
 import de.terrestris.shogun.lib.model.BaseEntity;
+import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.repository.BaseCrudRepository;
+import de.terrestris.shogun.lib.security.access.entity.DefaultPermissionEvaluator;
 import de.terrestris.shogun.lib.service.security.permission.GroupInstancePermissionService;
 import de.terrestris.shogun.lib.service.security.permission.UserInstancePermissionService;
 import de.terrestris.shogun.lib.util.IdHelper;
@@ -31,7 +34,6 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.security.access.prepost.PostAuthorize;
-import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
@@ -71,13 +73,27 @@ public abstract class BaseServiceTest<U extends BaseService, S extends BaseEntit
     }
 
     @Test
-    public void findAll_IsAnnotatedAsExpected() throws NoSuchMethodException {
-        PostFilter findAllPostFilter =
-            service.getClass().getMethod("findAll").getAnnotation(PostFilter.class);
+    public void findAll_ShouldOnlyReturnEntitiesPermittedByThePermissionEvaluator() {
+        S mockEntity1 = mock(entityClass);
+        S mockEntity2 = mock(entityClass);
+        S mockEntity3 = mock(entityClass);
+
+        BaseService baseService = service;
+        baseService.repository = baseCrudRepositoryMock;
+        baseService.permissionEvaluators = List.of();
+        baseService.defaultPermissionEvaluator = new DefaultPermissionEvaluator() {
+            @Override
+            public boolean hasPermission(User user, BaseEntity entity, PermissionType permission) {
+                return permission == PermissionType.READ && entity != mockEntity2;
+            }
+        };
+        baseService.initPermissionEvaluators();
+
+        when(baseCrudRepositoryMock.findAll()).thenReturn(List.of(mockEntity1, mockEntity2, mockEntity3));
+
+        List returnValue = service.findAll();
 
-        assertNotNull(findAllPostFilter);
-        assertTrue(findAllPostFilter.value().contains("hasRole"));
-        assertTrue(findAllPostFilter.value().contains("hasPermission"));
+        assertEquals(List.of(mockEntity1, mockEntity3), returnValue);
     }
 
     @Test
@@ -0,0 +1,170 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.service;
+
+import de.terrestris.shogun.lib.cache.invalidation.CacheInvalidation;
+import de.terrestris.shogun.lib.cache.invalidation.CacheInvalidationMessage;
+import de.terrestris.shogun.lib.cache.invalidation.InMemoryCacheInvalidationBus;
+import de.terrestris.shogun.lib.enumeration.CacheInvalidationType;
+import de.terrestris.shogun.lib.event.CacheInvalidationEvent;
+import de.terrestris.shogun.properties.CacheProperties;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.hibernate.type.spi.TypeConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Test for {@link CacheService}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CacheServiceTest {
+
+    private static final String ENTITY_NAME = "de.terrestris.shogun.lib.model.Layer";
+
+    @Spy
+    private CacheProperties cacheProperties = new CacheProperties();
+
+    @Spy
+    private InMemoryCacheInvalidationBus cacheInvalidationBus = new InMemoryCacheInvalidationBus();
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactoryImplementor sessionFactory;
+
+    @Mock
+    private CacheImplementor cache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CacheService cacheService;
+
+    private final List<CacheInvalidationMessage> publishedMessages = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        cacheProperties.getInvalidation().setNodeId("node-a");
+
+        lenient().when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        lenient().when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        lenient().when(sessionFactory.getCache()).thenReturn(cache);
+
+        cacheService.init();
+        cacheInvalidationBus.subscribe(publishedMessages::add);
+    }
+
+    @Test
+    public void evictCache_evictsLocallyAndBroadcasts() throws Exception {
+        cacheService.evictCache();
+
+        verify(cache).evictAllRegions();
+        assertEquals(1, publishedMessages.size());
+        assertEquals("node-a", publishedMessages.get(0).getOrigin());
+        assertEquals(List.of(CacheInvalidation.all()), publishedMessages.get(0).getInvalidations());
+    }
+
+    @Test
+    public void evictCacheRegions_broadcastsTheRegions() throws Exception {
+        cacheService.evictCacheRegions("layers", "", "applications");
+
+        verify(cache).evictRegion("layers");
+        verify(cache).evictRegion("applications");
+        assertEquals(List.of(CacheInvalidation.region("layers"), CacheInvalidation.region("applications")),
+            publishedMessages.get(0).getInvalidations());
+    }
+
+    @Test
+    public void onInvalidationMessage_skipsOwnMessages() {
+        cacheService.publish(List.of(CacheInvalidation.all()));
+
+        verify(cache, never()).evictAllRegions();
+        verify(eventPublisher, never()).publishEvent(any(CacheInvalidationEvent.class));
+    }
+
+    @Test
+    public void onInvalidationMessage_appliesMessagesOfOtherNodes() {
+        cacheInvalidationBus.publish(new CacheInvalidationMessage("node-b", List.of(CacheInvalidation.region("layers"))));
+
+        verify(cache).evictRegion("layers");
+        verify(eventPublisher).publishEvent(any(CacheInvalidationEvent.class));
+    }
+
+    @Test
+    public void onInvalidationMessage_evictsEntitiesAndTheirQueries() {
+        MappingMetamodelImplementor mappingMetamodel = mock(MappingMetamodelImplementor.class);
+        EntityPersister persister = mock(EntityPersister.class);
+        Type identifierType = mock(Type.class);
+        SessionFactoryOptions sessionFactoryOptions = mock(SessionFactoryOptions.class);
+        TimestampsCache timestampsCache = mock(TimestampsCache.class);
+        StatelessSession session = mock(StatelessSession.class,
+            withSettings().extraInterfaces(SharedSessionContractImplementor.class));
+
+        when(sessionFactory.getMappingMetamodel()).thenReturn(mappingMetamodel);
+        when(sessionFactory.getTypeConfiguration()).thenReturn(new TypeConfiguration());
+        when(sessionFactory.getSessionFactoryOptions()).thenReturn(sessionFactoryOptions);
+        when(sessionFactory.openStatelessSession()).thenReturn(session);
+        when(sessionFactoryOptions.isQueryCacheEnabled()).thenReturn(true);
+        when(mappingMetamodel.findEntityDescriptor(ENTITY_NAME)).thenReturn(persister);
+        when(persister.getIdentifierType()).thenReturn(identifierType);
+        doReturn(Long.class).when(identifierType).getReturnedClass();
+        when(persister.getPropertySpaces()).thenReturn(new Serializable[]{ "shogun.layers" });
+        when(cache.getTimestampsCache()).thenReturn(timestampsCache);
+
+        cacheInvalidationBus.publish(new CacheInvalidationMessage("node-b",
+            List.of(new CacheInvalidation(CacheInvalidationType.ENTITY, ENTITY_NAME, "42"))));
+
+        verify(cache).evictEntityData(ENTITY_NAME, 42L);
+        verify(timestampsCache).invalidate(new String[]{ "shogun.layers" }, (SharedSessionContractImplementor) session);
+    }
+
+}
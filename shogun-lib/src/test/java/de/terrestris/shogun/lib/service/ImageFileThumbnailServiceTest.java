@@ -0,0 +1,147 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.service;
+
+import de.terrestris.shogun.lib.dto.WebSocketMessage;
+import de.terrestris.shogun.lib.enumeration.ThumbnailStatus;
+import de.terrestris.shogun.lib.model.ImageFile;
+import de.terrestris.shogun.lib.repository.ImageFileRepository;
+import de.terrestris.shogun.lib.util.ImageFileUtil;
+import de.terrestris.shogun.properties.ImageFileUploadProperties;
+import de.terrestris.shogun.properties.UploadProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ImageFileThumbnailServiceTest {
+
+    @Mock
+    private UploadProperties uploadProperties;
+
+    @Mock
+    private ImageFileRepository repository;
+
+    @Mock
+    private WebSocketService webSocketService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ImageFileService imageFileService;
+
+    @InjectMocks
+    private ImageFileThumbnailService thumbnailService;
+
+    private final UUID fileUuid = UUID.randomUUID();
+
+    private ImageFile imageFile;
+
+    @Before
+    public void setUp() {
+        ImageFileUploadProperties imageProperties = new ImageFileUploadProperties();
+        imageProperties.setThumbnailSize(100);
+        imageProperties.setAdditionalThumbnailSizes(List.of(400));
+        when(uploadProperties.getImage()).thenReturn(imageProperties);
+
+        imageFile = new ImageFile();
+        imageFile.setThumbnailStatus(ThumbnailStatus.PENDING);
+        when(repository.findById(1L)).thenReturn(Optional.of(imageFile));
+    }
+
+    @Test
+    public void processThumbnails_storesAllSizesAndNotifies() throws IOException {
+        byte[] image = ImageFileUtil.toPng(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB));
+        when(imageFileService.getFileResource(imageFile)).thenReturn(new ByteArrayResource(image));
+
+        thumbnailService.processThumbnails(1L, fileUuid);
+
+        assertEquals(ThumbnailStatus.READY, imageFile.getThumbnailStatus());
+        assertEquals(100, ImageFileUtil.readImage(imageFile.getThumbnail()).getWidth());
+        assertEquals(400, ImageFileUtil.readImage(imageFile.getAdditionalThumbnails().get(400)).getWidth());
+        assertEquals(1, imageFile.getAdditionalThumbnails().size());
+
+        ArgumentCaptor<WebSocketMessage> message = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(webSocketService).sendMessage(message.capture(), eq("imagefiles/" + fileUuid));
+        assertEquals(ImageFileThumbnailService.THUMBNAIL_READY_MESSAGE, message.getValue().getMessage());
+        assertEquals(fileUuid, message.getValue().getData().get("fileUuid"));
+    }
+
+    @Test
+    public void processThumbnails_marksUnreadableImagesAsFailed() throws IOException {
+        when(imageFileService.getFileResource(imageFile)).thenReturn(new ByteArrayResource("no image".getBytes()));
+
+        thumbnailService.processThumbnails(1L, fileUuid);
+
+        assertEquals(ThumbnailStatus.FAILED, imageFile.getThumbnailStatus());
+        assertNull(imageFile.getThumbnail());
+
+        ArgumentCaptor<WebSocketMessage> message = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(webSocketService).sendMessage(message.capture(), any(String.class));
+        assertEquals(ImageFileThumbnailService.THUMBNAIL_FAILED_MESSAGE, message.getValue().getMessage());
+    }
+
+    @Test
+    public void processThumbnails_marksMissingContentAsFailed() throws IOException {
+        when(imageFileService.getFileResource(imageFile)).thenThrow(new FileNotFoundException("missing"));
+
+        thumbnailService.processThumbnails(1L, fileUuid);
+
+        assertEquals(ThumbnailStatus.FAILED, imageFile.getThumbnailStatus());
+        verify(webSocketService).sendMessage(any(WebSocketMessage.class), eq("imagefiles/" + fileUuid));
+    }
+
+    @Test
+    public void processThumbnails_skipsDeletedImageFiles() {
+        when(repository.findById(1L)).thenReturn(Optional.empty());
+
+        thumbnailService.processThumbnails(1L, fileUuid);
+
+        verifyNoInteractions(imageFileService, webSocketService);
+    }
+
+    @Test
+    public void processThumbnails_skipsImageFilesDeletedWhileGenerating() throws IOException {
+        byte[] image = ImageFileUtil.toPng(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB));
+        when(repository.findById(1L)).thenReturn(Optional.of(imageFile), Optional.empty());
+        when(imageFileService.getFileResource(imageFile)).thenReturn(new ByteArrayResource(image));
+
+        thumbnailService.processThumbnails(1L, fileUuid);
+
+        verifyNoInteractions(webSocketService);
+    }
+
+}
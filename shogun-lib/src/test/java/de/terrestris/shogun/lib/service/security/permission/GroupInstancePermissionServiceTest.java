@@ -16,17 +16,31 @@
  */
 package de.terrestris.shogun.lib.service.security.permission;
 
+import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
+import de.terrestris.shogun.lib.model.Application;
+import de.terrestris.shogun.lib.model.Group;
 import de.terrestris.shogun.lib.model.User;
 import de.terrestris.shogun.lib.model.security.permission.GroupInstancePermission;
+import de.terrestris.shogun.lib.model.security.permission.PermissionCollection;
 import de.terrestris.shogun.lib.repository.security.permission.GroupInstancePermissionRepository;
+import de.terrestris.shogun.lib.service.security.provider.keycloak.KeycloakGroupProviderService;
 import de.terrestris.shogun.lib.service.security.provider.keycloak.KeycloakUserProviderService;
+import de.terrestris.shogun.lib.util.IdHelper;
 import org.junit.Before;
+import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-import static org.mockito.Mockito.when;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
 
 public class GroupInstancePermissionServiceTest extends BasePermissionServiceTest<GroupInstancePermissionService, GroupInstancePermission> {
 
@@ -36,6 +50,9 @@ public class GroupInstancePermissionServiceTest extends BasePermissionServiceTes
     @Mock
     KeycloakUserProviderService userProviderService = new KeycloakUserProviderService();
 
+    @Mock
+    KeycloakGroupProviderService groupProviderService = new KeycloakGroupProviderService();
+
     @InjectMocks
     GroupInstancePermissionService service;
 
@@ -47,4 +64,97 @@ public class GroupInstancePermissionServiceTest extends BasePermissionServiceTes
         super.setEntityClass(GroupInstancePermission.class);
     }
 
+    @Test
+    public void findPermissionCollectionFor_mergesPermissionsOfAllGroupsWithSingleQuery() throws NoSuchFieldException {
+        service.repository = repositoryMock;
+
+        Application entity = new Application();
+        IdHelper.setIdForEntity(entity, 1L);
+
+        when(groupProviderService.findGroupIdsByUser(any())).thenReturn(List.of(10L, 20L));
+        when(repositoryMock.findPermissionTypesByGroupIdInAndEntityId(List.of(10L, 20L), 1L))
+            .thenReturn(List.of(PermissionType.READ, PermissionType.UPDATE));
+
+        PermissionCollection permissionCollection = service.findPermissionCollectionFor(entity, new User());
+
+        assertEquals(Set.of(PermissionType.READ, PermissionType.UPDATE), permissionCollection.getPermissions());
+        verify(repositoryMock, times(1)).findPermissionTypesByGroupIdInAndEntityId(any(), any());
+        verify(repositoryMock, never()).findByGroupIdAndEntityId(anyLong(), anyLong());
+    }
+
+    @Test
+    public void findPermissionCollectionFor_skipsQueryForUserWithoutGroups() throws NoSuchFieldException {
+        Application entity = new Application();
+        IdHelper.setIdForEntity(entity, 1L);
+
+        when(groupProviderService.findGroupIdsByUser(any())).thenReturn(List.of());
+
+        PermissionCollection permissionCollection = service.findPermissionCollectionFor(entity, new User());
+
+        assertTrue(permissionCollection.getPermissions().isEmpty());
+        verify(repositoryMock, never()).findPermissionTypesByGroupIdInAndEntityId(any(), any());
+    }
+
+    @Test
+    public void findFor_doesNotRequestTheGroupRepresentations() throws NoSuchFieldException {
+        service.repository = repositoryMock;
+
+        Application entity = new Application();
+        IdHelper.setIdForEntity(entity, 1L);
+
+        GroupInstancePermission permission = new GroupInstancePermission();
+        permission.setGroup(new Group());
+        when(repositoryMock.findByEntityId(1L)).thenReturn(List.of(permission));
+
+        assertEquals(List.of(permission), service.findFor(entity));
+        verifyNoInteractions(groupProviderService);
+    }
+
+    @Test
+    public void findFor_returnsTheMostPermissivePermissionOfAllGroups() throws NoSuchFieldException {
+        service.repository = repositoryMock;
+
+        Application entity = new Application();
+        IdHelper.setIdForEntity(entity, 1L);
+
+        GroupInstancePermission read = new GroupInstancePermission();
+        IdHelper.setIdForEntity(read, 100L);
+        read.setPermission(new PermissionCollection(Set.of(PermissionType.READ), PermissionCollectionType.READ));
+
+        GroupInstancePermission readUpdate = new GroupInstancePermission();
+        IdHelper.setIdForEntity(readUpdate, 200L);
+        readUpdate.setPermission(new PermissionCollection(Set.of(PermissionType.READ, PermissionType.UPDATE),
+            PermissionCollectionType.READ_UPDATE));
+
+        when(groupProviderService.findGroupIdsByUser(any())).thenReturn(List.of(10L, 20L));
+        when(repositoryMock.findAllByGroupIdInAndEntityId(List.of(10L, 20L), 1L))
+            .thenReturn(List.of(read, readUpdate), List.of(readUpdate, read));
+
+        assertEquals(Optional.of(readUpdate), service.findFor(entity, new User()));
+        assertEquals(Optional.of(readUpdate), service.findFor(entity, new User()));
+    }
+
+    @Test
+    public void findFor_returnsTheOldestOfEqualPermissions() throws NoSuchFieldException {
+        service.repository = repositoryMock;
+
+        Application entity = new Application();
+        IdHelper.setIdForEntity(entity, 1L);
+
+        GroupInstancePermission older = new GroupInstancePermission();
+        IdHelper.setIdForEntity(older, 100L);
+        older.setPermission(new PermissionCollection(Set.of(PermissionType.READ), PermissionCollectionType.READ));
+
+        GroupInstancePermission newer = new GroupInstancePermission();
+        IdHelper.setIdForEntity(newer, 200L);
+        newer.setPermission(older.getPermission());
+
+        when(groupProviderService.findGroupIdsByUser(any())).thenReturn(List.of(10L, 20L));
+        when(repositoryMock.findAllByGroupIdInAndEntityId(List.of(10L, 20L), 1L))
+            .thenReturn(List.of(newer, older), List.of(older, newer));
+
+        assertEquals(Optional.of(older), service.findFor(entity, new User()));
+        assertEquals(Optional.of(older), service.findFor(entity, new User()));
+    }
+
 }
@@ -16,17 +16,41 @@
  */
 package de.terrestris.shogun.lib.service.security.permission;
 
+import de.terrestris.shogun.lib.cache.PermissionCache;
+import de.terrestris.shogun.lib.dto.EntityPermissionTypeDto;
+import de.terrestris.shogun.lib.enumeration.PermissionCollectionType;
+import de.terrestris.shogun.lib.enumeration.PermissionType;
+import de.terrestris.shogun.lib.model.Application;
 import de.terrestris.shogun.lib.model.User;
+import de.terrestris.shogun.lib.model.security.permission.PermissionCollection;
 import de.terrestris.shogun.lib.model.security.permission.UserInstancePermission;
+import de.terrestris.shogun.lib.repository.security.permission.PermissionCollectionRepository;
 import de.terrestris.shogun.lib.repository.security.permission.UserInstancePermissionRepository;
 import de.terrestris.shogun.lib.service.security.provider.keycloak.KeycloakUserProviderService;
+import de.terrestris.shogun.lib.util.IdHelper;
 import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
-import static org.mockito.Mockito.when;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 public class UserInstancePermissionServiceTest extends BasePermissionServiceTest<UserInstancePermissionService, UserInstancePermission> {
 
@@ -36,6 +60,15 @@ public class UserInstancePermissionServiceTest extends BasePermissionServiceTest
     @Mock
     KeycloakUserProviderService userProviderService = new KeycloakUserProviderService();
 
+    @Mock
+    PermissionCollectionRepository permissionCollectionRepositoryMock;
+
+    @Mock
+    PermissionCache permissionCacheMock;
+
+    @Mock
+    PlatformTransactionManager transactionManagerMock;
+
     @InjectMocks
     UserInstancePermissionService service;
 
@@ -47,4 +80,149 @@ public class UserInstancePermissionServiceTest extends BasePermissionServiceTest
         super.setEntityClass(UserInstancePermission.class);
     }
 
+    @Test
+    public void findFor_doesNotRequestTheUserRepresentations() throws NoSuchFieldException {
+        service.repository = repositoryMock;
+
+        Application entity = new Application();
+        IdHelper.setIdForEntity(entity, 1L);
+
+        UserInstancePermission permission = new UserInstancePermission();
+        permission.setUser(new User());
+        when(repositoryMock.findByEntityId(1L)).thenReturn(List.of(permission));
+
+        assertEquals(List.of(permission), service.findFor(entity));
+        verify(userProviderService, never()).setTransientRepresentations(any(User.class));
+    }
+
+    @Test
+    public void setPermissionForCreated_savesAllPermissionsAtOnceWithoutClearingExistingOnes() throws NoSuchFieldException {
+        service.repository = repositoryMock;
+
+        User user = new User();
+        IdHelper.setIdForEntity(user, 5L);
+
+        Application first = new Application();
+        IdHelper.setIdForEntity(first, 1L);
+        Application second = new Application();
+        IdHelper.setIdForEntity(second, 2L);
+
+        PermissionCollection permissionCollection = new PermissionCollection();
+        when(permissionCollectionRepositoryMock.findByName(PermissionCollectionType.ADMIN))
+            .thenReturn(Optional.of(permissionCollection));
+
+        service.setPermissionForCreated(List.of(first, second), user, PermissionCollectionType.ADMIN);
+
+        ArgumentCaptor<List<UserInstancePermission>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repositoryMock, times(1)).saveAll(captor.capture());
+        verify(repositoryMock, never()).findByUserIdAndEntityId(any(), any());
+        verify(repositoryMock, never()).delete(any(UserInstancePermission.class));
+        verify(permissionCollectionRepositoryMock, times(1)).findByName(PermissionCollectionType.ADMIN);
+        verify(permissionCacheMock, times(1)).invalidateEntities(5L, List.of(1L, 2L));
+
+        List<UserInstancePermission> saved = captor.getValue();
+        assertEquals(List.of(1L, 2L), saved.stream().map(UserInstancePermission::getEntityId).toList());
+        saved.forEach(permission -> {
+            assertSame(user, permission.getUser());
+            assertSame(permissionCollection, permission.getPermission());
+        });
+    }
+
+    @Test
+    public void findPermissionsFor_queriesTheEntityIdsInChunks() throws NoSuchFieldException {
+        service.repository = repositoryMock;
+
+        User user = new User();
+        IdHelper.setIdForEntity(user, 5L);
+        List<Long> entityIds = LongStream.rangeClosed(1, 2500).boxed().toList();
+
+        when(repositoryMock.findPermissionTypesByUserIdAndEntityIdIn(eq(5L), anyCollection()))
+            .thenAnswer(invocation -> {
+                Collection<Long> chunk = invocation.getArgument(1);
+                return chunk.stream()
+                    .map(entityId -> new EntityPermissionTypeDto(entityId, PermissionType.READ))
+                    .toList();
+            });
+
+        Map<Long, Set<PermissionType>> permissions = service.findPermissionsFor(entityIds, user);
+
+        assertEquals(2500, permissions.size());
+        assertEquals(Set.of(PermissionType.READ), permissions.get(2500L));
+
+        ArgumentCaptor<Collection<Long>> chunkCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(repositoryMock, times(3)).findPermissionTypesByUserIdAndEntityIdIn(eq(5L), chunkCaptor.capture());
+        assertEquals(List.of(BasePermissionService.ENTITY_ID_CHUNK_SIZE, BasePermissionService.ENTITY_ID_CHUNK_SIZE,
+            500), chunkCaptor.getAllValues().stream().map(Collection::size).toList());
+    }
+
+    @Test
+    public void setPermission_updatesAnExistingPermissionInPlace() throws NoSuchFieldException {
+        service.repository = repositoryMock;
+
+        User user = new User();
+        IdHelper.setIdForEntity(user, 5L);
+        Application entity = new Application();
+        IdHelper.setIdForEntity(entity, 1L);
+
+        PermissionCollection permissionCollection = new PermissionCollection();
+        UserInstancePermission existingPermission = new UserInstancePermission();
+        existingPermission.setUser(user);
+        existingPermission.setEntityId(1L);
+
+        when(permissionCollectionRepositoryMock.findByName(PermissionCollectionType.READ))
+            .thenReturn(Optional.of(permissionCollection));
+        when(repositoryMock.findByUserIdAndEntityId(5L, 1L)).thenReturn(Optional.of(existingPermission));
+
+        service.setPermission(entity, user, PermissionCollectionType.READ);
+
+        verify(repositoryMock, times(1)).save(existingPermission);
+        verify(repositoryMock, never()).delete(any(UserInstancePermission.class));
+        assertSame(permissionCollection, existingPermission.getPermission());
+    }
+
+    @Test
+    public void setPermission_retriesConcurrentWritesWithinNewTransactions() throws NoSuchFieldException {
+        service.repository = repositoryMock;
+
+        User user = new User();
+        IdHelper.setIdForEntity(user, 5L);
+        Application entity = new Application();
+        IdHelper.setIdForEntity(entity, 1L);
+
+        when(permissionCollectionRepositoryMock.findByName(PermissionCollectionType.ADMIN))
+            .thenReturn(Optional.of(new PermissionCollection()));
+        when(repositoryMock.save(any(UserInstancePermission.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate"))
+            .thenReturn(new UserInstancePermission());
+
+        service.setPermission(entity, user, PermissionCollectionType.ADMIN);
+
+        verify(repositoryMock, times(2)).save(any(UserInstancePermission.class));
+        verify(transactionManagerMock, times(2)).getTransaction(any());
+        verify(transactionManagerMock, times(1)).rollback(any());
+        verify(transactionManagerMock, times(1)).commit(any());
+    }
+
+    @Test
+    public void setPermission_givesUpAfterTheMaximumNumberOfAttempts() throws NoSuchFieldException {
+        service.repository = repositoryMock;
+
+        User user = new User();
+        IdHelper.setIdForEntity(user, 5L);
+        Application entity = new Application();
+        IdHelper.setIdForEntity(entity, 1L);
+
+        when(permissionCollectionRepositoryMock.findByName(PermissionCollectionType.ADMIN))
+            .thenReturn(Optional.of(new PermissionCollection()));
+        when(repositoryMock.save(any(UserInstancePermission.class)))
+            .thenThrow(new CannotAcquireLockException("locked"));
+
+        assertThrows(CannotAcquireLockException.class, () ->
+            service.setPermission(entity, user, PermissionCollectionType.ADMIN));
+
+        verify(repositoryMock, times(UserInstancePermissionService.MAX_WRITE_ATTEMPTS))
+            .save(any(UserInstancePermission.class));
+        verify(permissionCacheMock, never()).invalidateEntities(any(), any());
+    }
+
 }
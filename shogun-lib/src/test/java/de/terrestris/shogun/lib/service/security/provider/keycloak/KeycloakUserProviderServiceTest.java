@@ -0,0 +1,110 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.service.security.provider.keycloak;
+
+import de.terrestris.shogun.lib.event.OnRegistrationConfirmedEvent;
+import de.terrestris.shogun.lib.model.User;
+import de.terrestris.shogun.lib.repository.UserRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link KeycloakUserProviderService}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class KeycloakUserProviderServiceTest {
+
+    private static final int LOGINS = 500;
+
+    private static final int USERS = 50;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private KeycloakUserProviderService service;
+
+    @Test
+    public void findOrCreateUserByProviderId_createsEachUserOnceForParallelLogins() throws Exception {
+        Map<String, User> persistedUsers = new ConcurrentHashMap<>();
+
+        when(userRepository.findByAuthProviderId(anyString())).thenAnswer(invocation ->
+            Optional.ofNullable(persistedUsers.get(invocation.<String>getArgument(0))));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            // widen the gap between the lookup and the insert
+            Thread.sleep(2);
+            persistedUsers.put(user.getAuthProviderId(), user);
+            return user;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(USERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<User<UserRepresentation>>> logins = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < LOGINS; i++) {
+                String keycloakUserId = "user-" + (i % USERS);
+
+                logins.add(executor.submit(() -> {
+                    start.await();
+                    return service.findOrCreateUserByProviderId(keycloakUserId);
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<User<UserRepresentation>> login : logins) {
+                User<UserRepresentation> user = login.get(30, TimeUnit.SECONDS);
+                assertSame(persistedUsers.get(user.getAuthProviderId()), user);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(userRepository, times(USERS)).save(any(User.class));
+        verify(eventPublisher, times(USERS)).publishEvent(any(OnRegistrationConfirmedEvent.class));
+    }
+}
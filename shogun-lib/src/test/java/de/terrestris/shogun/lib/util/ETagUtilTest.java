@@ -0,0 +1,56 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.util;
+
+import de.terrestris.shogun.lib.model.Application;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link ETagUtil}
+ */
+public class ETagUtilTest {
+
+    @Test
+    public void toETag_returnsAStrongEntityTag() {
+        assertEquals("\"3\"", ETagUtil.toETag(3L));
+    }
+
+    @Test
+    public void matches_acceptsMissingHeadersAndWildcards() {
+        Application application = new Application();
+        application.setVersion(3L);
+
+        assertTrue(ETagUtil.matches(null, application));
+        assertTrue(ETagUtil.matches("", application));
+        assertTrue(ETagUtil.matches("*", application));
+    }
+
+    @Test
+    public void matches_comparesTheVersion() {
+        Application application = new Application();
+        application.setVersion(3L);
+
+        assertTrue(ETagUtil.matches("\"3\"", application));
+        assertTrue(ETagUtil.matches("\"1\", \"3\"", application));
+        assertFalse(ETagUtil.matches("\"2\"", application));
+        assertFalse(ETagUtil.matches("W/\"3\"", application));
+    }
+}
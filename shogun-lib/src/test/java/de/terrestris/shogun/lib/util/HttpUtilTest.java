@@ -0,0 +1,134 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.util;
+
+import de.terrestris.shogun.lib.dto.StreamingHttpResponse;
+import de.terrestris.shogun.properties.HttpPoolProperties;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.pool.PoolStats;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HttpUtilTest {
+
+    @After
+    public void cleanUp() {
+        HttpUtil.closeConnectionPool();
+    }
+
+    @Test
+    public void getHttpClient_returnsSharedClient() {
+        CloseableHttpClient httpClient = HttpUtil.getHttpClient();
+
+        assertNotNull(httpClient);
+        assertSame(httpClient, HttpUtil.getHttpClient());
+    }
+
+    @Test
+    public void configureConnectionPool_appliesLimits() {
+        HttpPoolProperties poolProperties = new HttpPoolProperties();
+        poolProperties.setMaxTotal(42);
+
+        HttpUtil.configureConnectionPool(poolProperties);
+
+        PoolStats poolStats = HttpUtil.getConnectionPoolStats();
+        assertEquals(42, poolStats.getMax());
+        assertEquals(0, poolStats.getLeased());
+        assertEquals(0, poolStats.getPending());
+    }
+
+    @Test
+    public void streamingHttpResponse_writesBodyAndClosesResponse() throws IOException {
+        CloseableHttpResponse httpResponse = mock(CloseableHttpResponse.class);
+        when(httpResponse.getEntity()).thenReturn(new StringEntity("THE INTERNET!"));
+
+        StreamingHttpResponse response = new StreamingHttpResponse(HttpStatus.OK, new HttpHeaders(), httpResponse);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.writeTo(outputStream);
+
+        assertEquals("THE INTERNET!", outputStream.toString(StandardCharsets.UTF_8));
+        assertNull(response.getBody());
+        verify(httpResponse).close();
+    }
+
+    @Test
+    public void configureConnectionPool_replacesPreviousClient() {
+        CloseableHttpClient httpClient = HttpUtil.getHttpClient();
+
+        HttpUtil.configureConnectionPool(new HttpPoolProperties());
+
+        assertNotSame(httpClient, HttpUtil.getHttpClient());
+    }
+
+    @Test
+    public void setMaxConnectionsPerHost_appliesLimitToTheRouteOfTheHost() {
+        HttpUtil.setMaxConnectionsPerHost(URI.create("http://geoserver:8080/geoserver/ows"), 7);
+
+        HttpRoute route = new HttpRoute(new HttpHost("http", "geoserver", 8080));
+        assertEquals(7, HttpUtil.getConnectionManager().getMaxPerRoute(route));
+    }
+
+    @Test
+    public void setMaxConnectionsPerHost_appliesLimitToTheProxiedRouteOfTheHost() throws IOException {
+        System.setProperty("http.proxyHost", "localhost");
+        System.setProperty("http.proxyPort", "3128");
+
+        try {
+            HttpUtil.setMaxConnectionsPerHost(URI.create("http://geoserver:8080/geoserver/ows"), 7);
+
+            HttpHost proxy = new HttpHost("http", InetAddress.getByName("localhost"), 3128);
+            HttpRoute route = new HttpRoute(new HttpHost("http", "geoserver", 8080), null, proxy, false);
+            assertEquals(7, HttpUtil.getConnectionManager().getMaxPerRoute(route));
+        } finally {
+            System.clearProperty("http.proxyHost");
+            System.clearProperty("http.proxyPort");
+        }
+    }
+
+    @Test
+    public void closeConnectionPool_dropsTheLimitsPerHost() {
+        HttpUtil.setMaxConnectionsPerHost(URI.create("http://geoserver:8080/geoserver/ows"), 7);
+
+        HttpUtil.closeConnectionPool();
+
+        int defaultMaxPerRoute = new HttpPoolProperties().getMaxPerRoute();
+        HttpRoute route = new HttpRoute(new HttpHost("http", "geoserver", 8080));
+        assertEquals(defaultMaxPerRoute, HttpUtil.getConnectionManager().getMaxPerRoute(route));
+    }
+
+}
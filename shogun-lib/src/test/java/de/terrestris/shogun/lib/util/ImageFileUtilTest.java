@@ -0,0 +1,69 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.util;
+
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ImageFileUtilTest {
+
+    @Test
+    public void getImageDimensions_readsHeader() throws IOException {
+        byte[] png = ImageFileUtil.toPng(new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB));
+
+        assertEquals(new Dimension(640, 480), ImageFileUtil.getImageDimensions(png));
+    }
+
+    @Test
+    public void getImageDimensions_returnsNullForUnsupportedFormats() throws IOException {
+        assertNull(ImageFileUtil.getImageDimensions("no image".getBytes()));
+    }
+
+    @Test
+    public void getScaledImage_keepsAspectRatio() {
+        BufferedImage landscape = ImageFileUtil.getScaledImage(new BufferedImage(1000, 500, BufferedImage.TYPE_INT_RGB), 100);
+        assertEquals(100, landscape.getWidth());
+        assertEquals(50, landscape.getHeight());
+
+        BufferedImage portrait = ImageFileUtil.getScaledImage(new BufferedImage(300, 1200, BufferedImage.TYPE_INT_RGB), 100);
+        assertEquals(25, portrait.getWidth());
+        assertEquals(100, portrait.getHeight());
+    }
+
+    @Test
+    public void getScaledImages_scalesToAllSizes() {
+        BufferedImage image = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB);
+
+        Map<Integer, BufferedImage> scaledImages = ImageFileUtil.getScaledImages(image, List.of(100, 400, 50));
+
+        assertEquals(3, scaledImages.size());
+        assertEquals(400, scaledImages.get(400).getWidth());
+        assertEquals(200, scaledImages.get(400).getHeight());
+        assertEquals(100, scaledImages.get(100).getWidth());
+        assertEquals(50, scaledImages.get(100).getHeight());
+        assertEquals(50, scaledImages.get(50).getWidth());
+        assertEquals(25, scaledImages.get(50).getHeight());
+    }
+
+}
@@ -0,0 +1,206 @@
+/* SHOGun, https://terrestris.github.io/shogun/
+ *
+ * Copyright © 2024-present terrestris GmbH & Co. KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.terrestris.shogun.lib.util;
+
+import de.terrestris.shogun.properties.KeycloakProperties;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.keycloak.admin.client.resource.GroupResource;
+import org.keycloak.admin.client.resource.GroupsResource;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.admin.client.resource.UserResource;
+import org.keycloak.admin.client.resource.UsersResource;
+import org.keycloak.representations.idm.GroupRepresentation;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KeycloakUtilTest {
+
+    @Mock
+    private RealmResource keycloakRealm;
+
+    @Mock
+    private UsersResource usersResource;
+
+    @Mock
+    private GroupsResource groupsResource;
+
+    @Spy
+    private KeycloakProperties keycloakProperties = new KeycloakProperties();
+
+    @InjectMocks
+    private KeycloakUtil keycloakUtil;
+
+    @Before
+    public void setUp() {
+        keycloakProperties.setRepresentationPageSize(100);
+        keycloakProperties.setRepresentationParallelism(2);
+
+        keycloakUtil.init();
+    }
+
+    @After
+    public void tearDown() {
+        keycloakUtil.destroy();
+    }
+
+    @Test
+    public void getUserRepresentations_listsUsersPageByPage() {
+        when(keycloakRealm.users()).thenReturn(usersResource);
+        when(usersResource.count()).thenReturn(150);
+        when(usersResource.list(0, 100)).thenReturn(getUserRepresentations(0, 100));
+        when(usersResource.list(100, 100)).thenReturn(getUserRepresentations(100, 50));
+
+        Map<String, UserRepresentation> representations = keycloakUtil.getUserRepresentations(
+            List.of("user-1", "user-42", "user-99", "user-120", "user-unknown"));
+
+        assertEquals(4, representations.size());
+        assertEquals("user-120", representations.get("user-120").getId());
+        assertFalse(representations.containsKey("user-unknown"));
+        verify(usersResource, never()).get(anyString());
+    }
+
+    @Test
+    public void getUserRepresentations_stopsListingIfAllUsersAreFound() {
+        when(keycloakRealm.users()).thenReturn(usersResource);
+        when(usersResource.count()).thenReturn(1000);
+        when(usersResource.list(0, 100)).thenReturn(getUserRepresentations(0, 100));
+
+        List<String> ids = IntStream.range(0, 20).mapToObj(i -> "user-" + i).toList();
+        Map<String, UserRepresentation> representations = keycloakUtil.getUserRepresentations(ids);
+
+        assertEquals(20, representations.size());
+        verify(usersResource, times(1)).list(anyInt(), anyInt());
+    }
+
+    @Test
+    public void getUserRepresentations_fetchesFewUsersConcurrently() {
+        when(keycloakRealm.users()).thenReturn(usersResource);
+        when(usersResource.count()).thenReturn(100000);
+
+        UserResource userResource1 = mock(UserResource.class);
+        UserResource userResource2 = mock(UserResource.class);
+        UserResource userResource3 = mock(UserResource.class);
+        when(usersResource.get("user-1")).thenReturn(userResource1);
+        when(usersResource.get("user-2")).thenReturn(userResource2);
+        when(usersResource.get("user-3")).thenReturn(userResource3);
+        when(userResource1.toRepresentation()).thenReturn(getUserRepresentation(1));
+        when(userResource2.toRepresentation()).thenReturn(getUserRepresentation(2));
+        when(userResource3.toRepresentation()).thenThrow(new NotFoundException());
+
+        Map<String, UserRepresentation> representations = keycloakUtil.getUserRepresentations(
+            List.of("user-1", "user-2", "user-3"));
+
+        assertEquals(2, representations.size());
+        assertTrue(representations.containsKey("user-1"));
+        assertTrue(representations.containsKey("user-2"));
+        verify(usersResource, never()).list(anyInt(), anyInt());
+    }
+
+    @Test
+    public void getGroupRepresentations_listsGroupsAndFetchesMissingSubGroups() {
+        when(keycloakRealm.groups()).thenReturn(groupsResource);
+        when(groupsResource.count(true)).thenReturn(Map.of("count", 3L));
+
+        GroupRepresentation subGroup = getGroupRepresentation("group-1-1");
+        GroupRepresentation group1 = getGroupRepresentation("group-1");
+        group1.setSubGroups(List.of(subGroup));
+        when(groupsResource.groups(null, 0, 100, false)).thenReturn(List.of(group1,
+            getGroupRepresentation("group-2"), getGroupRepresentation("group-3")));
+
+        GroupResource groupResource = mock(GroupResource.class);
+        when(groupsResource.group("group-3-1")).thenReturn(groupResource);
+        when(groupResource.toRepresentation()).thenReturn(getGroupRepresentation("group-3-1"));
+
+        Map<String, GroupRepresentation> representations = keycloakUtil.getGroupRepresentations(
+            List.of("group-1", "group-1-1", "group-2", "group-3-1"));
+
+        assertEquals(4, representations.size());
+        assertSame(subGroup, representations.get("group-1-1"));
+        verify(groupsResource, times(1)).group(anyString());
+    }
+
+    @Test
+    public void getUserRepresentations_skipsUsersNotFetchedInTime() throws InterruptedException {
+        keycloakProperties.setRepresentationTimeout(1);
+
+        when(keycloakRealm.users()).thenReturn(usersResource);
+        when(usersResource.count()).thenReturn(100000);
+
+        CountDownLatch release = new CountDownLatch(1);
+        UserResource userResource1 = mock(UserResource.class);
+        UserResource userResource2 = mock(UserResource.class);
+        when(usersResource.get("user-1")).thenReturn(userResource1);
+        when(usersResource.get("user-2")).thenReturn(userResource2);
+        when(userResource1.toRepresentation()).thenReturn(getUserRepresentation(1));
+        when(userResource2.toRepresentation()).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return getUserRepresentation(2);
+        });
+
+        try {
+            Map<String, UserRepresentation> representations = keycloakUtil.getUserRepresentations(
+                List.of("user-1", "user-2"));
+
+            assertEquals(1, representations.size());
+            assertTrue(representations.containsKey("user-1"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private List<UserRepresentation> getUserRepresentations(int first, int count) {
+        List<UserRepresentation> representations = new ArrayList<>();
+        for (int i = first; i < first + count; i++) {
+            representations.add(getUserRepresentation(i));
+        }
+        return representations;
+    }
+
+    private UserRepresentation getUserRepresentation(int index) {
+        UserRepresentation representation = new UserRepresentation();
+        representation.setId("user-" + index);
+        representation.setUsername("user" + index);
+        return representation;
+    }
+
+    private GroupRepresentation getGroupRepresentation(String id) {
+        GroupRepresentation representation = new GroupRepresentation();
+        representation.setId(id);
+        representation.setName(id);
+        return representation;
+    }
+
+}
@@ -17,7 +17,7 @@
 package de.terrestris.shogun.service;
 
 import de.terrestris.shogun.config.properties.HttpProxyProperties;
-import de.terrestris.shogun.lib.dto.HttpResponse;
+import de.terrestris.shogun.lib.dto.StreamingHttpResponse;
 import de.terrestris.shogun.lib.util.HttpUtil;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,6 +31,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
@@ -172,11 +173,11 @@ public class HttpProxyService {
         }
 
         // Proxy the request
-        HttpResponse response;
+        StreamingHttpResponse response;
         if (HttpUtil.isHttpGetRequest(request)) {
             try {
                 log.debug("Forwarding as GET to: " + url);
-                response = HttpUtil.forwardGet(url.toURI(), request, false);
+                response = HttpUtil.forwardGetStreaming(url.toURI(), request, false);
             } catch (URISyntaxException | HttpException e) {
                 String errorMessage = String.format("Error forwarding GET request: %s", e.getMessage());
                 log.error(errorMessage);
@@ -187,7 +188,7 @@ public class HttpProxyService {
             if (HttpUtil.isFormMultipartPost(request)) {
                 try {
                     log.debug("Forwarding as form/multipart POST");
-                    response = HttpUtil.forwardFormMultipartPost(url.toURI(), request, false);
+                    response = HttpUtil.forwardFormMultipartPostStreaming(url.toURI(), request, false);
                 } catch (URISyntaxException | HttpException | IllegalStateException | IOException | ServletException e) {
                     String errorMessage = String.format("Error forwarding form/multipart POST request: %s", e.getMessage());
                     log.error(errorMessage);
@@ -197,7 +198,7 @@ public class HttpProxyService {
             } else {
                 try {
                     log.debug("Forwarding as POST");
-                    response = HttpUtil.forwardPost(url.toURI(), request, false);
+                    response = HttpUtil.forwardPostStreaming(url.toURI(), request, false);
                 } catch (URISyntaxException | HttpException e) {
                     String errorMessage = "Error forwarding POST request: " + e.getMessage();
                     log.error(errorMessage);
@@ -210,7 +211,6 @@ public class HttpProxyService {
             return RESPONSE_405_METHOD_NOT_ALLOWED;
         }
 
-        byte[] bytes = response.getBody();
         final HttpHeaders responseHeadersToForward = response.getHeaders();
 
         // LOG response headers
@@ -224,7 +224,10 @@ public class HttpProxyService {
         }
 
         final HttpStatus responseHttpStatus = response.getStatusCode();
-        return new ResponseEntity<>(bytes, responseHeadersToForward, responseHttpStatus);
+
+        // pipe the body to the client without buffering it in memory
+        final StreamingResponseBody body = response.toResponseBody(request);
+        return new ResponseEntity<>(body, responseHeadersToForward, responseHttpStatus);
     }
 
     /**
@@ -17,7 +17,7 @@
 package de.terrestris.shogun.service;
 
 import de.terrestris.shogun.config.HttpProxyConfig;
-import de.terrestris.shogun.lib.dto.HttpResponse;
+import de.terrestris.shogun.lib.dto.StreamingHttpResponse;
 import de.terrestris.shogun.lib.util.HttpUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
@@ -34,7 +34,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 
@@ -103,33 +107,41 @@ public class HttpProxyServiceTest {
 
     @Test
     @DisplayName("Return status code 200 for allowed HTTP GET request")
-    public void proxy_returns_200_for_allowed_GET_request() throws URISyntaxException {
+    public void proxy_returns_200_for_allowed_GET_request() throws URISyntaxException, IOException {
         HttpServletRequest mockedRequest = mock(HttpServletRequest.class);
         final String internetContent = "THE INTERNET!";
         final String baseUrl = "https://www.terrestris.de/internet.txt";
         final URI baseUri = new URI(baseUrl);
-        HttpResponse mockedResponse = mock(HttpResponse.class);
+        StreamingHttpResponse mockedResponse = mock(StreamingHttpResponse.class);
 
         final HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.CONTENT_TYPE, "text/plain");
         HttpStatus status = HttpStatus.OK;
 
         when(mockedResponse.getHeaders()).thenReturn(headers);
-        when(mockedResponse.getBody()).thenReturn(internetContent.getBytes());
         when(mockedResponse.getStatusCode()).thenReturn(status);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(internetContent.getBytes());
+            return null;
+        }).when(mockedResponse).writeTo(any(OutputStream.class));
+        when(mockedResponse.toResponseBody(mockedRequest)).thenCallRealMethod();
 
         try (
             MockedStatic<HttpUtil> httpUtilMock = mockStatic(HttpUtil.class)
         ) {
             httpUtilMock.when(() -> HttpUtil.isHttpGetRequest(mockedRequest)).thenReturn(true);
-            httpUtilMock.when(() -> HttpUtil.forwardGet(baseUri, mockedRequest, false)).thenReturn(mockedResponse);
+            httpUtilMock.when(() -> HttpUtil.forwardGetStreaming(baseUri, mockedRequest, false)).thenReturn(mockedResponse);
 
             final ResponseEntity<?> responseEntity = httpProxyService.doProxy(mockedRequest, baseUrl, null);
             assertEquals("Returned Status code matched mocked one.", HttpStatus.OK, responseEntity.getStatusCode());
 
-            final byte[] responseBodyAsByteArray = (byte[]) responseEntity.getBody();
-            assertNotNull("Response body is null.", responseBodyAsByteArray);
-            assert responseBodyAsByteArray != null;
+            final StreamingResponseBody responseBody = (StreamingResponseBody) responseEntity.getBody();
+            assertNotNull("Response body is null.", responseBody);
+            assert responseBody != null;
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            responseBody.writeTo(outputStream);
+            final byte[] responseBodyAsByteArray = outputStream.toByteArray();
             assertEquals("Returned content matched mocked one.", new String(responseBodyAsByteArray), internetContent);
         }
     }
@@ -141,7 +153,7 @@ public class HttpProxyServiceTest {
         final String internetContent = "THE INTERNET!";
         final String baseUrl = "https://www.terrestris.de/internet.txt";
         final URI baseUri = new URI(baseUrl);
-        HttpResponse mockedResponse = mock(HttpResponse.class);
+        StreamingHttpResponse mockedResponse = mock(StreamingHttpResponse.class);
         final String msg = "ERROR";
 
         final HttpHeaders headers = new HttpHeaders();
@@ -149,14 +161,13 @@ public class HttpProxyServiceTest {
         HttpStatus status = HttpStatus.OK;
 
         when(mockedResponse.getHeaders()).thenReturn(headers);
-        when(mockedResponse.getBody()).thenReturn(internetContent.getBytes());
         when(mockedResponse.getStatusCode()).thenReturn(status);
 
         try (
             MockedStatic<HttpUtil> httpUtilMock = mockStatic(HttpUtil.class)
         ) {
             httpUtilMock.when(() -> HttpUtil.isHttpGetRequest(mockedRequest)).thenReturn(true);
-            httpUtilMock.when(() -> HttpUtil.forwardGet(baseUri, mockedRequest, false)).thenThrow(new HttpException(msg));
+            httpUtilMock.when(() -> HttpUtil.forwardGetStreaming(baseUri, mockedRequest, false)).thenThrow(new HttpException(msg));
             final ResponseEntity<?> responseEntity = httpProxyService.doProxy(mockedRequest, baseUrl, null);
             assertEquals("Returned Status code matched mocked one.", HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
             assertEquals("Returned Status matched", HttpProxyService.ERR_MSG_400_COMMON, responseEntity.getBody());
@@ -165,33 +176,41 @@ public class HttpProxyServiceTest {
 
     @Test
     @DisplayName("Return status code 200 for allowed HTTP POST request")
-    public void proxy_returns_200_for_allowed_POST_request() throws URISyntaxException {
+    public void proxy_returns_200_for_allowed_POST_request() throws URISyntaxException, IOException {
         HttpServletRequest mockedRequest = mock(HttpServletRequest.class);
         final String internetContent = "THE INTERNET!";
         final String baseUrl = "https://www.terrestris.de/endpointToPostAt";
         final URI baseUri = new URI(baseUrl);
-        HttpResponse mockedResponse = mock(HttpResponse.class);
+        StreamingHttpResponse mockedResponse = mock(StreamingHttpResponse.class);
 
         final HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.CONTENT_TYPE, "text/plain");
         HttpStatus status = HttpStatus.OK;
 
         when(mockedResponse.getHeaders()).thenReturn(headers);
-        when(mockedResponse.getBody()).thenReturn(internetContent.getBytes());
         when(mockedResponse.getStatusCode()).thenReturn(status);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(internetContent.getBytes());
+            return null;
+        }).when(mockedResponse).writeTo(any(OutputStream.class));
+        when(mockedResponse.toResponseBody(mockedRequest)).thenCallRealMethod();
 
         try (
             MockedStatic<HttpUtil> httpUtilMock = mockStatic(HttpUtil.class)
         ) {
             httpUtilMock.when(() -> HttpUtil.isHttpGetRequest(mockedRequest)).thenReturn(false);
             httpUtilMock.when(() -> HttpUtil.isHttpPostRequest(mockedRequest)).thenReturn(true);
-            httpUtilMock.when(() -> HttpUtil.forwardPost(baseUri, mockedRequest, false)).thenReturn(mockedResponse);
+            httpUtilMock.when(() -> HttpUtil.forwardPostStreaming(baseUri, mockedRequest, false)).thenReturn(mockedResponse);
             final ResponseEntity<?> responseEntity = httpProxyService.doProxy(mockedRequest, baseUrl, null);
             assertEquals("Returned Status code matched mocked one.", HttpStatus.OK, responseEntity.getStatusCode());
 
-            final byte[] responseBodyAsByteArray = (byte[]) responseEntity.getBody();
-            assertNotNull("Response body is null.", responseBodyAsByteArray);
-            assert responseBodyAsByteArray != null;
+            final StreamingResponseBody responseBody = (StreamingResponseBody) responseEntity.getBody();
+            assertNotNull("Response body is null.", responseBody);
+            assert responseBody != null;
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            responseBody.writeTo(outputStream);
+            final byte[] responseBodyAsByteArray = outputStream.toByteArray();
 
             assertEquals("Returned content matched mocked one.", new String(responseBodyAsByteArray), internetContent);
         }
@@ -204,7 +223,7 @@ public class HttpProxyServiceTest {
         final String internetContent = "THE INTERNET!";
         final String baseUrl = "https://www.terrestris.de/internet.txt";
         final URI baseUri = new URI(baseUrl);
-        HttpResponse mockedResponse = mock(HttpResponse.class);
+        StreamingHttpResponse mockedResponse = mock(StreamingHttpResponse.class);
         final String msg = "ERROR";
 
         final HttpHeaders headers = new HttpHeaders();
@@ -212,7 +231,6 @@ public class HttpProxyServiceTest {
         HttpStatus status = HttpStatus.OK;
 
         when(mockedResponse.getHeaders()).thenReturn(headers);
-        when(mockedResponse.getBody()).thenReturn(internetContent.getBytes());
         when(mockedResponse.getStatusCode()).thenReturn(status);
 
         try (
@@ -220,7 +238,7 @@ public class HttpProxyServiceTest {
         ) {
             httpUtilMock.when(() -> HttpUtil.isHttpGetRequest(mockedRequest)).thenReturn(false);
             httpUtilMock.when(() -> HttpUtil.isHttpPostRequest(mockedRequest)).thenReturn(true);
-            httpUtilMock.when(() -> HttpUtil.forwardPost(baseUri, mockedRequest, false)).thenThrow(new HttpException(msg));
+            httpUtilMock.when(() -> HttpUtil.forwardPostStreaming(baseUri, mockedRequest, false)).thenThrow(new HttpException(msg));
             final ResponseEntity<?> responseEntity = httpProxyService.doProxy(mockedRequest, baseUrl, null);
             assertEquals("Returned Status code matched mocked one.", HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
             assertEquals("Returned Status matched", HttpProxyService.ERR_MSG_400_COMMON, responseEntity.getBody());
@@ -229,20 +247,24 @@ public class HttpProxyServiceTest {
 
     @Test
     @DisplayName("Return status code 200 for allowed HTTP multipart POST request")
-    public void proxy_returns_200_for_allowed_FormMultipartPost_request() throws URISyntaxException {
+    public void proxy_returns_200_for_allowed_FormMultipartPost_request() throws URISyntaxException, IOException {
         HttpServletRequest mockedRequest = mock(HttpServletRequest.class);
         final String internetContent = "THE INTERNET!";
         final String baseUrl = "https://www.terrestris.de/endpointToPostAt";
         final URI baseUri = new URI(baseUrl);
-        HttpResponse mockedResponse = mock(HttpResponse.class);
+        StreamingHttpResponse mockedResponse = mock(StreamingHttpResponse.class);
 
         final HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.CONTENT_TYPE, "text/plain");
         HttpStatus status = HttpStatus.OK;
 
         when(mockedResponse.getHeaders()).thenReturn(headers);
-        when(mockedResponse.getBody()).thenReturn(internetContent.getBytes());
         when(mockedResponse.getStatusCode()).thenReturn(status);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(internetContent.getBytes());
+            return null;
+        }).when(mockedResponse).writeTo(any(OutputStream.class));
+        when(mockedResponse.toResponseBody(mockedRequest)).thenCallRealMethod();
 
         try (
             MockedStatic<HttpUtil> httpUtilMock = mockStatic(HttpUtil.class)
@@ -250,13 +272,17 @@ public class HttpProxyServiceTest {
             httpUtilMock.when(() -> HttpUtil.isHttpGetRequest(mockedRequest)).thenReturn(false);
             httpUtilMock.when(() -> HttpUtil.isHttpPostRequest(mockedRequest)).thenReturn(true);
             httpUtilMock.when(() -> HttpUtil.isFormMultipartPost(mockedRequest)).thenReturn(true);
-            httpUtilMock.when(() -> HttpUtil.forwardFormMultipartPost(baseUri, mockedRequest, false)).thenReturn(mockedResponse);
+            httpUtilMock.when(() -> HttpUtil.forwardFormMultipartPostStreaming(baseUri, mockedRequest, false)).thenReturn(mockedResponse);
             final ResponseEntity<?> responseEntity = httpProxyService.doProxy(mockedRequest, baseUrl, null);
             assertEquals("Returned Status code matched mocked one.", HttpStatus.OK, responseEntity.getStatusCode());
 
-            final byte[] responseBodyAsByteArray = (byte[]) responseEntity.getBody();
-            assertNotNull("Response body is null.", responseBodyAsByteArray);
-            assert responseBodyAsByteArray != null;
+            final StreamingResponseBody responseBody = (StreamingResponseBody) responseEntity.getBody();
+            assertNotNull("Response body is null.", responseBody);
+            assert responseBody != null;
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            responseBody.writeTo(outputStream);
+            final byte[] responseBodyAsByteArray = outputStream.toByteArray();
             assertEquals("Returned content matched mocked one.", new String(responseBodyAsByteArray), internetContent);
         }
     }
@@ -268,7 +294,7 @@ public class HttpProxyServiceTest {
         final String internetContent = "THE INTERNET!";
         final String baseUrl = "https://www.terrestris.de/internet.txt";
         final URI baseUri = new URI(baseUrl);
-        HttpResponse mockedResponse = mock(HttpResponse.class);
+        StreamingHttpResponse mockedResponse = mock(StreamingHttpResponse.class);
         final String msg = "ERROR";
 
         final HttpHeaders headers = new HttpHeaders();
@@ -276,7 +302,6 @@ public class HttpProxyServiceTest {
         HttpStatus status = HttpStatus.OK;
 
         when(mockedResponse.getHeaders()).thenReturn(headers);
-        when(mockedResponse.getBody()).thenReturn(internetContent.getBytes());
         when(mockedResponse.getStatusCode()).thenReturn(status);
         try (
             MockedStatic<HttpUtil> httpUtilMock = mockStatic(HttpUtil.class)
@@ -284,7 +309,7 @@ public class HttpProxyServiceTest {
             httpUtilMock.when(() -> HttpUtil.isHttpGetRequest(mockedRequest)).thenReturn(false);
             httpUtilMock.when(() -> HttpUtil.isHttpPostRequest(mockedRequest)).thenReturn(true);
             httpUtilMock.when(() -> HttpUtil.isFormMultipartPost(mockedRequest)).thenReturn(true);
-            httpUtilMock.when(() -> HttpUtil.forwardFormMultipartPost(baseUri, mockedRequest, false)).thenThrow(new HttpException(msg));
+            httpUtilMock.when(() -> HttpUtil.forwardFormMultipartPostStreaming(baseUri, mockedRequest, false)).thenThrow(new HttpException(msg));
 
             final ResponseEntity<?> responseEntity = httpProxyService.doProxy(mockedRequest, baseUrl, null);
             assertEquals("Returned Status code matched mocked one.", HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());